@@ -0,0 +1,76 @@
+package ucv.app_inventory.order_service.application;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ucv.app_inventory.order_service.config.OrderConcurrencyProperties;
+import ucv.app_inventory.order_service.exception.VersionConflictException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a read-modify-write of a versioned order or line in its own transaction, and runs it
+ * again from a fresh read when another write to the same row commits first. Writes to
+ * different orders never wait on each other; conflicting ones are retried a bounded number
+ * of times and then reported with the version the row has now.
+ */
+@Component
+public class OptimisticRetry {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticRetry.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final OrderConcurrencyProperties properties;
+
+    public OptimisticRetry(PlatformTransactionManager transactionManager, OrderConcurrencyProperties properties) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    /**
+     * Runs the update, retrying it while it loses to a concurrent write.
+     *
+     * @param what           what is updated, for the logs and the conflict message.
+     * @param update         the update; reads, changes and saves the row.
+     * @param currentVersion reads the version the row has now, once retries are exhausted.
+     * @return the result of the update.
+     * @throws VersionConflictException if every attempt conflicted.
+     */
+    public <T> T execute(String what, Supplier<T> update, Supplier<Long> currentVersion) {
+        // Inside a caller's transaction the failed write has already doomed it, so it is not retried here
+        int maxAttempts = TransactionSynchronizationManager.isActualTransactionActive()
+                ? 1 : Math.max(1, properties.getMaxAttempts());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> update.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    logger.warn("Update of {} still conflicted after {} attempts", what, attempt);
+                    Long version = currentVersion.get();
+                    throw new VersionConflictException(what + " was changed by another request; its current version is "
+                            + version + ".", version);
+                }
+                logger.info("Update of {} conflicted with another write, retrying ({}/{})", what, attempt, maxAttempts);
+                pause(attempt);
+            }
+        }
+    }
+
+    private void pause(int attempt) {
+        long base = properties.getBackoff().toMillis() << (attempt - 1);
+        if (base <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(base / 2 + ThreadLocalRandom.current().nextLong(base / 2 + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying an update", e);
+        }
+    }
+}
@@ -3,7 +3,6 @@ package ucv.app_inventory.order_service.application;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -12,10 +11,12 @@ import ucv.app_inventory.order_service.application.dto.*;
 import ucv.app_inventory.order_service.domain.model.Order;
 import ucv.app_inventory.order_service.domain.model.OrderDetail;
 import ucv.app_inventory.order_service.domain.model.OrderState;
+import ucv.app_inventory.order_service.exception.InsufficientStockException;
 import ucv.app_inventory.order_service.exception.InvalidArgumentException;
 import ucv.app_inventory.order_service.exception.SupplierNotFoundException;
 import ucv.app_inventory.order_service.exception.TotalCannotBeNullException;
-import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderDetailMySqlRepository;
+import ucv.app_inventory.order_service.infrastructure.cache.OrderCacheTags;
+import ucv.app_inventory.order_service.infrastructure.cache.OrderQueryCache;
 import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderMySqlRepository;
 import ucv.app_inventory.order_service.infrastructure.outbound.external.ProductAPIClient;
 import ucv.app_inventory.order_service.infrastructure.outbound.external.SupplierAPIClient;
@@ -24,39 +25,69 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class OrderCreateUseCase {
 
     private final OrderMySqlRepository orderMySqlRepository;
-    private final OrderDetailMySqlRepository orderDetailMySqlRepository;
     private final SupplierAPIClient supplierAPIClient;
     private final ProductAPIClient productAPIClient;
+    private final OrderQueryCache orderQueryCache;
+    private final OrderOutbox orderOutbox;
+    private final OrderStock orderStock;
 
     private final static Logger logger = LoggerFactory.getLogger(OrderCreateUseCase.class);
 
     /**
      * Creates a new order based on the details provided in the OrderCreateDTO.
-     * The order is first saved with a total of 0.0. Then the details are processed,
-     * and the total is recalculated and updated.
+     * The order and its details are validated and priced in memory first, and the whole
+     * aggregate is then persisted at once: the details cascade from the order and are
+     * inserted in the same flush, together with its OrderCreated event. The products of all its
+     * lines are reserved with one call, and cached order queries the new order belongs to are evicted.
      *
      * @param newOrderDTO the order containing order data.
      * @param orderDetails the order details
      * @return the created order.
-     * @throws TotalCannotBeNullException if the total is calculated as zero.
+     * @throws InvalidArgumentException if the order or one of its details is invalid.
+     * @throws InsufficientStockException if its products do not have enough stock available.
      */
     @Transactional
-    @CacheEvict(value = "orders") // Evicts the cache for the specific order to ensure the latest version is fetched.
     public Order createOrder(OrderDTO newOrderDTO, List<OrderDetailDTO> orderDetails) {
         Order order = initilizeOrder(newOrderDTO);
-        BigDecimal total = processOrderDetails(orderDetails, newOrderDTO.getSupplierName(), order);
+        Map<String, ProductLineDTO> resolvedLines = resolveLines(orderDetails, order.getSupplierId());
+        attachDetails(order, priceOrderDetails(orderDetails, newOrderDTO.getSupplierName(), order, resolvedLines));
+        Order saved = orderMySqlRepository.save(order);
+        logger.info("Order saved with {} details", saved.getOrderDetails().size());
+        orderStock.reserve(saved.getId(), quantitiesByProduct(orderDetails, resolvedLines));
+        orderOutbox.orderCreated(saved);
+        orderQueryCache.evictTagged(OrderCacheTags.of(saved));
+        return saved;
+    }
 
-        order.setTotal(total);
-        return orderMySqlRepository.save(order);
+    private static Map<Long, Long> quantitiesByProduct(List<OrderDetailDTO> orderDetails,
+                                                       Map<String, ProductLineDTO> resolvedLines) {
+        Map<Long, Long> quantities = new HashMap<>();
+        if (orderDetails != null) {
+            // The details were validated when they were priced, so every line is resolved
+            for (OrderDetailDTO detail : orderDetails) {
+                quantities.merge(resolvedLines.get(detail.getProductName()).getProductId(), detail.getQuantity(), Long::sum);
+            }
+        }
+        return quantities;
     }
 
+    /**
+     * Validates the order data and builds the order, without saving it.
+     *
+     * @param newOrderDTO the order containing order data.
+     * @return the new, unsaved order.
+     */
     public Order initilizeOrder(OrderDTO newOrderDTO) {
         newOrderDTO.setStatus("PENDING");
         validateParameters(newOrderDTO);
@@ -64,48 +95,164 @@ public class OrderCreateUseCase {
         // Validate and fetch the supplier details
         SupplierDTO supplierDTO = validateSupplier(newOrderDTO);
 
+        return newOrder(newOrderDTO, supplierDTO.getId(), orderDate);
+    }
+
+    /**
+     * Validates and prices an order in memory, with its supplier and product lines already
+     * resolved, and attaches its details. Nothing is saved and no remote call is made, so
+     * callers that resolve the lookups of many orders at once can build them on any thread.
+     *
+     * @param newOrderDTO   the order containing order data.
+     * @param supplierId    the ID of the supplier named by the order.
+     * @param orderDetails  the order details.
+     * @param resolvedLines the product lines of the supplier, by product name.
+     * @return the new, unsaved order with its details and total.
+     * @throws InvalidArgumentException if the order or one of its details is invalid.
+     */
+    public Order buildOrder(OrderDTO newOrderDTO, Long supplierId, List<OrderDetailDTO> orderDetails,
+                            Map<String, ProductLineDTO> resolvedLines) {
+        newOrderDTO.setStatus("PENDING");
+        validateParameters(newOrderDTO);
+        LocalDate orderDate = validateOrderDate(newOrderDTO.getOrderDate());
+
+        Order order = newOrder(newOrderDTO, supplierId, orderDate);
+        attachDetails(order, priceOrderDetails(orderDetails, newOrderDTO.getSupplierName(), order, resolvedLines));
+        return order;
+    }
+
+    private Order newOrder(OrderDTO newOrderDTO, Long supplierId, LocalDate orderDate) {
         // Create the Order entity
         Order order = new Order();
-        order.setSupplierId(supplierDTO.getId());
+        order.setSupplierId(supplierId);
         order.setStatus(OrderState.valueOf(newOrderDTO.getStatus()));
         order.setObservations(newOrderDTO.getObservations());
         order.setOrderDate(orderDate);
-
-        // Save the order with a total of 0.0 to generate the order ID
         order.setTotal(BigDecimal.ZERO);
-        order = orderMySqlRepository.save(order);
         return order;
     }
 
-    public BigDecimal processOrderDetails(List<OrderDetailDTO> orderDetailDTOS, String supplierName, Order order) {
+    private void attachDetails(Order order, PricedOrderDetails pricedDetails) {
+        order.getOrderDetails().addAll(pricedDetails.details());
+        order.setTotal(pricedDetails.total());
+    }
+
+    /**
+     * Resolves the products of the given details with one call to the product service and builds
+     * them for the order, without saving them; they are persisted with the order.
+     *
+     * @param orderDetailDTOS the details to add to the order.
+     * @param supplierName    the name of the supplier of the order.
+     * @param order           the order the details belong to.
+     * @return the new details and their total.
+     * @throws InvalidArgumentException if a product does not exist or is not associated with the supplier.
+     */
+    public PricedOrderDetails priceDetails(List<OrderDetailDTO> orderDetailDTOS, String supplierName, Order order) {
+        if (orderDetailDTOS == null || orderDetailDTOS.isEmpty()) {
+            return new PricedOrderDetails(List.of(), BigDecimal.ZERO);
+        }
+        return priceOrderDetails(orderDetailDTOS, supplierName, order, resolveLines(orderDetailDTOS, order.getSupplierId()));
+    }
+
+    /**
+     * Order details built in memory, with the sum of their line totals.
+     */
+    public record PricedOrderDetails(List<OrderDetail> details, BigDecimal total) {
+    }
+
+    /**
+     * Total of one line, rounded to cents like the order total.
+     */
+    public static BigDecimal lineTotal(BigDecimal unitPrice, long quantity) {
+        return unitPrice.multiply(BigDecimal.valueOf(quantity)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Builds the order details from their resolved product lines, without saving them.
+     */
+    private PricedOrderDetails priceOrderDetails(List<OrderDetailDTO> orderDetailDTOS, String supplierName, Order order,
+                                                 Map<String, ProductLineDTO> resolvedLines) {
+        if (orderDetailDTOS == null) {
+            return new PricedOrderDetails(List.of(), BigDecimal.ZERO);
+        }
         BigDecimal total = BigDecimal.ZERO;
+        List<OrderDetail> orderDetails = new ArrayList<>();
 
         // Loop through the order details and process each one
         for (OrderDetailDTO detailDTO : orderDetailDTOS) {
-            // Validate if the product exists
-            ProductDTO productDTO = validateProductExistence(detailDTO.getProductName());
+            if (detailDTO.getProductName() == null || detailDTO.getProductName().trim().isEmpty()) {
+                throw new InvalidArgumentException("Product name cannot be null or empty.");
+            }
+            ProductLineDTO line = resolvedLines.get(detailDTO.getProductName());
+            if (line == null || line.getProductId() == null) {
+                throw new InvalidArgumentException("No product found with name " + detailDTO.getProductName());
+            }
+            if (line.getProductSupplierId() == null || line.getPrice() == null) {
+                throw new InvalidArgumentException("Product " + detailDTO.getProductName()
+                        + " does not associated with the supplier " + supplierName + ".");
+            }
+            if (detailDTO.getQuantity() == null || detailDTO.getQuantity() <= 0) {
+                throw new InvalidArgumentException("Quantity of product " + detailDTO.getProductName()
+                        + " must be greater than zero.");
+            }
 
-            ProductSupplierDTO productSupplierDTO = getRelation(productDTO, order.getSupplierId(), supplierName);
             // Create a new order detail and associate it with the order
             OrderDetail orderDetail = new OrderDetail();
             orderDetail.setOrder(order); // Associate the detail with the order
-            orderDetail.setProductSupplierId(productSupplierDTO.getId());
+            orderDetail.setProductSupplierId(line.getProductSupplierId());
             orderDetail.setQuantity(detailDTO.getQuantity());
+            orderDetail.setProductName(line.getCatalogName() != null ? line.getCatalogName() : detailDTO.getProductName());
+            orderDetail.setUnitPrice(line.getPrice());
 
-            BigDecimal lineTotal = productSupplierDTO.getPrice()
-                    .multiply(BigDecimal.valueOf(detailDTO.getQuantity()))
-                    .setScale(2, RoundingMode.HALF_UP);
-
+            BigDecimal lineTotal = lineTotal(line.getPrice(), detailDTO.getQuantity());
 
             // Calculate the total
             total = total.add(lineTotal);
+            orderDetails.add(orderDetail);
+        }
+
+        return new PricedOrderDetails(orderDetails, total);
+    }
 
-            // Save the order detail
-            orderDetailMySqlRepository.save(orderDetail);
-            logger.info("Order detail saved: {}", orderDetail);
+    /**
+     * Resolves the distinct products of the details, for the supplier of the order, in one call.
+     *
+     * @param orderDetailDTOS the details of the order.
+     * @param supplierId      the ID of the supplier of the order.
+     * @return the resolved lines by product name.
+     * @throws InvalidArgumentException if a product name is empty.
+     */
+    private Map<String, ProductLineDTO> resolveLines(List<OrderDetailDTO> orderDetailDTOS, Long supplierId) {
+        if (orderDetailDTOS == null) {
+            return Map.of();
         }
+        Map<String, ProductLineDTO> requestedLines = new LinkedHashMap<>();
+        for (OrderDetailDTO detailDTO : orderDetailDTOS) {
+            String productName = detailDTO.getProductName();
+            if (productName == null || productName.trim().isEmpty()) {
+                throw new InvalidArgumentException("Product name cannot be null or empty.");
+            }
+            requestedLines.computeIfAbsent(productName, name -> {
+                ProductLineDTO line = new ProductLineDTO();
+                line.setProductName(name);
+                line.setSupplierId(supplierId);
+                return line;
+            });
+        }
+        if (requestedLines.isEmpty()) {
+            return Map.of();
+        }
+
+        List<ProductLineDTO> resolvedLines = productAPIClient.resolveLines(new ArrayList<>(requestedLines.values()));
+        logger.info("Response from product API: {} lines resolved", resolvedLines == null ? 0 : resolvedLines.size());
 
-        return total;
+        Map<String, ProductLineDTO> linesByName = new HashMap<>();
+        if (resolvedLines != null) {
+            for (ProductLineDTO line : resolvedLines) {
+                linesByName.putIfAbsent(line.getProductName(), line);
+            }
+        }
+        return linesByName;
     }
 
     /**
@@ -134,43 +281,6 @@ public class OrderCreateUseCase {
         return supplier;
     }
 
-    /**
-     * Validates the existence of a product based on its name.
-     *
-     * @param productName the name of the product.
-     * @return the product details if found.
-     * @throws InvalidArgumentException if the product is not found.
-     */
-    public ProductDTO validateProductExistence(String productName) {
-        // Check if the product name is provided
-        if (productName == null || productName.trim().isEmpty()) {
-            throw new InvalidArgumentException("Product name cannot be null or empty.");
-        }
-
-        // Call the product API client to fetch products by name
-        List<ProductDTO> products = productAPIClient.getProductsByName(productName, 0, 1)
-                .orElseThrow(() -> new InvalidArgumentException("No product found with name " + productName));
-        logger.info("Response from product API: {}", products);
-
-        if (products == null){
-            throw new InvalidArgumentException("Product with name " + productName + " does not exist.");
-        }
-
-        // Check if the list is empty or contains invalid products
-        if (products.isEmpty() || products.getFirst() == null ||
-                products.getFirst().getId() == null || products.getFirst().getName() == null) {
-            throw new InvalidArgumentException("Product with name " + productName + " does not exist or is invalid.");
-        }
-
-        // Get the first valid product
-        ProductDTO productDTO = products.getFirst();
-        logger.info("Product found: {}", productDTO);
-
-        // Return the first product found
-        return productDTO;
-    }
-
-
     /**
      * Validates the order date to ensure it is not in the past.
      *
@@ -198,10 +308,4 @@ public class OrderCreateUseCase {
             throw new InvalidArgumentException("Order date cannot be null.");
         }
     }
-
-    public ProductSupplierDTO getRelation(ProductDTO productDTO, Long supplierId, String supplierName) {
-        return productAPIClient.getRelationByProductIdAndSupplierId(productDTO.getId(),
-                supplierId).orElseThrow(() ->
-                new InvalidArgumentException("Product " + productDTO.getName() + " does not associated with the supplier " + supplierName +"."));
-    }
 }
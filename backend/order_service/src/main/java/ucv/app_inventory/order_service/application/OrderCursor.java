@@ -0,0 +1,99 @@
+package ucv.app_inventory.order_service.application;
+
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import ucv.app_inventory.order_service.domain.model.Order;
+import ucv.app_inventory.order_service.exception.InvalidArgumentException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque continuation token of a keyset scroll over orders. It carries the sort key,
+ * the direction and the (sort value, id) of the last order returned, so the next slice
+ * starts right after it with an index seek instead of skipping an offset.
+ */
+public final class OrderCursor {
+
+    /**
+     * Columns an order scroll can be ordered by; the order ID always breaks ties.
+     */
+    public enum SortKey {
+        ORDER_DATE("orderDate"),
+        CREATION_DATE("creationDate");
+
+        private final String property;
+
+        SortKey(String property) {
+            this.property = property;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        public static SortKey fromProperty(String property) {
+            for (SortKey key : values()) {
+                if (key.property.equalsIgnoreCase(property)) {
+                    return key;
+                }
+            }
+            throw new InvalidArgumentException("Orders can only be scrolled by orderDate or creationDate.");
+        }
+
+        Object valueOf(Order order) {
+            return this == ORDER_DATE ? order.getOrderDate() : order.getCreationDate();
+        }
+
+        Object parse(String value) {
+            return this == ORDER_DATE ? LocalDate.parse(value) : LocalDateTime.parse(value);
+        }
+    }
+
+    private static final String SEPARATOR = "|";
+
+    private OrderCursor() {
+    }
+
+    public static Sort sort(SortKey key, Sort.Direction direction) {
+        return Sort.by(direction, key.getProperty(), "id");
+    }
+
+    /**
+     * Builds the token that continues a scroll after the given order.
+     */
+    public static String encode(SortKey key, Sort.Direction direction, Order last) {
+        String raw = key.getProperty() + SEPARATOR + direction + SEPARATOR + key.valueOf(last) + SEPARATOR + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Turns a token back into a scroll position, checking it belongs to a scroll with the same
+     * sort key and direction. A null or blank token is the start of the scroll.
+     *
+     * @throws InvalidArgumentException if the token is malformed or was issued for another ordering.
+     */
+    public static ScrollPosition decode(String cursor, SortKey key, Sort.Direction direction) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR);
+            if (parts.length != 4 || !parts[0].equals(key.getProperty()) || !parts[1].equals(direction.name())) {
+                throw new InvalidArgumentException("The cursor does not belong to this ordering.");
+            }
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(key.getProperty(), key.parse(parts[2]));
+            keys.put("id", Long.valueOf(parts[3]));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidArgumentException("The cursor is not valid.");
+        }
+    }
+}
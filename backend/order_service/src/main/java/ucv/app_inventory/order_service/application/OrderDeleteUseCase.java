@@ -9,6 +9,8 @@ import ucv.app_inventory.order_service.domain.model.Order;
 import ucv.app_inventory.order_service.domain.model.OrderState;
 import ucv.app_inventory.order_service.exception.InvalidStateException;
 import ucv.app_inventory.order_service.exception.OrderNotFoundException;
+import ucv.app_inventory.order_service.infrastructure.cache.OrderCacheTags;
+import ucv.app_inventory.order_service.infrastructure.cache.OrderQueryCache;
 import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderMySqlRepository;
 
 @Service
@@ -18,9 +20,11 @@ public class OrderDeleteUseCase {
     private static final Logger logger = LoggerFactory.getLogger(OrderDeleteUseCase.class);
 
     private final OrderMySqlRepository orderMySqlRepository;
+    private final OrderQueryCache orderQueryCache;
+    private final OrderOutbox orderOutbox;
 
     /**
-     * Deletes an order by its ID if it exists.
+     * Deletes an order by its ID if it exists, and records its OrderDeleted event in the same transaction.
      * Throws an exception if the order is not found.
      *
      * @param order the order to be deleted.
@@ -38,6 +42,8 @@ public class OrderDeleteUseCase {
         try {
             // Delete the order from the repository
             orderMySqlRepository.deleteById(id);
+            orderOutbox.orderDeleted(order);
+            orderQueryCache.evictTagged(OrderCacheTags.of(order));
 
             // Log the deletion for auditing purposes
             logger.info("Order with ID {} has been deleted.", id);
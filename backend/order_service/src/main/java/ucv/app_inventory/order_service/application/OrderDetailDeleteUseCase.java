@@ -2,19 +2,48 @@ package ucv.app_inventory.order_service.application;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ucv.app_inventory.order_service.domain.model.Order;
+import ucv.app_inventory.order_service.domain.model.OrderDetail;
+import ucv.app_inventory.order_service.domain.model.OrderState;
 import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderDetailMySqlRepository;
 import ucv.app_inventory.order_service.exception.OrderNotFoundException;
 
+import java.util.List;
+import java.util.Map;
+
 @Service
 @RequiredArgsConstructor
 public class OrderDetailDeleteUseCase {
 
     private final OrderDetailMySqlRepository orderDetailRepository;
+    private final OrderTotals orderTotals;
+    private final OrderStock orderStock;
 
+    /**
+     * Deletes one order line and subtracts its total from the order total. A pending order keeps
+     * reserved only the products of its remaining lines.
+     *
+     * @param id the ID of the line.
+     */
+    @Transactional
     public void deleteOrderDetail(Long id) {
-        if (!orderDetailRepository.existsById(id)) {
-            throw new OrderNotFoundException("OrderDetail with ID " + id + " not found");
+        OrderDetail orderDetail = orderDetailRepository.findById(id)
+                .orElseThrow(() -> new OrderNotFoundException("OrderDetail with ID " + id + " not found"));
+        Order order = orderDetail.getOrder();
+        orderTotals.applyDelta(order, orderTotals.lineTotalOf(orderDetail).negate());
+        Map<Long, Long> reservedLines = OrderStock.linesOf(order.getOrderDetails());
+        // Also removed from the order: the lines it has loaded cascade to the database on flush
+        // and would otherwise store the deleted line again.
+        order.getOrderDetails().removeIf(detail -> id.equals(detail.getId()));
+        orderDetailRepository.delete(orderDetail);
+        if (order.getStatus() == OrderState.PENDING) {
+            List<OrderDetail> remaining = List.copyOf(order.getOrderDetails());
+            if (remaining.isEmpty()) {
+                orderStock.release(List.of(order.getId()));
+            } else {
+                orderStock.reserve(order.getId(), remaining, reservedLines);
+            }
         }
-        orderDetailRepository.deleteById(id);
     }
-}
\ No newline at end of file
+}
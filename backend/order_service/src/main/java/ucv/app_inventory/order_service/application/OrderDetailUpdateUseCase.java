@@ -4,14 +4,22 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import ucv.app_inventory.order_service.application.dto.*;
 import ucv.app_inventory.order_service.application.dto.mappers.OrderDetailMapper;
+import ucv.app_inventory.order_service.domain.model.Order;
 import ucv.app_inventory.order_service.domain.model.OrderDetail;
+import ucv.app_inventory.order_service.domain.model.OrderState;
+import ucv.app_inventory.order_service.exception.InsufficientStockException;
 import ucv.app_inventory.order_service.exception.InvalidArgumentException;
 import ucv.app_inventory.order_service.exception.OrderDetailNotFoundException;
 import ucv.app_inventory.order_service.exception.ProductSupplierNotFound;
+import ucv.app_inventory.order_service.exception.VersionConflictException;
 import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderDetailMySqlRepository;
 import ucv.app_inventory.order_service.infrastructure.outbound.external.ProductAPIClient;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -20,39 +28,106 @@ public class OrderDetailUpdateUseCase {
     private final OrderDetailMySqlRepository orderDetailRepository;
     private final ProductAPIClient productAPIClient;
     private final OrderDetailMapper orderDetailMapper;
+    private final OrderTotals orderTotals;
+    private final OptimisticRetry optimisticRetry;
+    private final OrderStock orderStock;
 
+    /**
+     * Updates the product and quantity of one order line and adjusts the order total by the
+     * difference of that line. The line keeps its unit price unless its product changes, and
+     * the product service is only asked when it does. If the line carries the version the client
+     * read, the line must still have it; otherwise the update is run again from a fresh read when
+     * a concurrent write to the line or its order commits first.
+     *
+     * @param orderDetailDTO the line, with its ID, product name and quantity.
+     * @return the updated line.
+     * @throws VersionConflictException if the line no longer has the version of the request,
+     *                                  or kept changing until the retries ran out.
+     * @throws InsufficientStockException if the order is pending and its lines can no longer be
+     *                                    reserved.
+     */
     public OrderDetailDTO updateOrderDetail(OrderDetailDTO orderDetailDTO) {
 
         if(orderDetailDTO.getId() != null) {
-            OrderDetail oldOrderDetail = orderDetailRepository.findById(orderDetailDTO.getId())
-                    .orElseThrow(() -> new OrderDetailNotFoundException("OrderDetail not found"));
-
-            OrderDetail newOrderDetail = new OrderDetail();
-            newOrderDetail.setId(orderDetailDTO.getId());
-            newOrderDetail.setOrder(oldOrderDetail.getOrder());
-            if(orderDetailDTO.getQuantity() != null) {
-                if (orderDetailDTO.getQuantity() <= 0){
-                    throw new InvalidArgumentException("Quantity must be greater than zero");
-                }
-
-                newOrderDetail.setQuantity(orderDetailDTO.getQuantity());
-            }else {
-                throw new InvalidArgumentException("Quantity is required");
+            return optimisticRetry.execute("Order detail " + orderDetailDTO.getId(), () -> applyUpdate(orderDetailDTO),
+                    () -> orderDetailRepository.findById(orderDetailDTO.getId()).map(OrderDetail::getVersion).orElse(null));
+        } else {
+            throw new InvalidArgumentException("Order detail id is mandatory");
+        }
+    }
+
+    private OrderDetailDTO applyUpdate(OrderDetailDTO orderDetailDTO) {
+        OrderDetail oldOrderDetail = orderDetailRepository.findById(orderDetailDTO.getId())
+                .orElseThrow(() -> new OrderDetailNotFoundException("OrderDetail not found"));
+        if (orderDetailDTO.getVersion() != null && !orderDetailDTO.getVersion().equals(oldOrderDetail.getVersion())) {
+            throw new VersionConflictException("Order detail " + orderDetailDTO.getId() + " was changed by another request; "
+                    + "its current version is " + oldOrderDetail.getVersion() + ".", oldOrderDetail.getVersion());
+        }
+
+        OrderDetail newOrderDetail = new OrderDetail();
+        newOrderDetail.setId(orderDetailDTO.getId());
+        newOrderDetail.setOrder(oldOrderDetail.getOrder());
+        newOrderDetail.setVersion(oldOrderDetail.getVersion());
+        if(orderDetailDTO.getQuantity() != null) {
+            if (orderDetailDTO.getQuantity() <= 0){
+                throw new InvalidArgumentException("Quantity must be greater than zero");
             }
 
+            newOrderDetail.setQuantity(orderDetailDTO.getQuantity());
+        }else {
+            throw new InvalidArgumentException("Quantity is required");
+        }
 
+
+        BigDecimal oldLineTotal = orderTotals.lineTotalOf(oldOrderDetail);
+        if (isSameProduct(oldOrderDetail, orderDetailDTO.getProductName())) {
+            // Same product: the line keeps its relation and the price it was ordered at
+            newOrderDetail.setProductSupplierId(oldOrderDetail.getProductSupplierId());
+            newOrderDetail.setProductName(oldOrderDetail.getProductName());
+            newOrderDetail.setUnitPrice(oldOrderDetail.getUnitPrice());
+        } else {
             List<ProductDTO> productDTOList = productAPIClient.getProductsByName(orderDetailDTO.getProductName(), 0, 1)
                     .orElseThrow(() -> new InvalidArgumentException("Product not found."));
-            Long productId = productDTOList.getFirst().getId();
+            ProductDTO productDTO = productDTOList.getFirst();
             Long supplierId = oldOrderDetail.getOrder().getSupplierId();
 
-            ProductSupplierDTO productSupplierDTO = productAPIClient.getRelationByProductIdAndSupplierId(productId, supplierId)
+            ProductSupplierDTO productSupplierDTO = productAPIClient.getRelationByProductIdAndSupplierId(productDTO.getId(), supplierId)
                     .orElseThrow(() -> new ProductSupplierNotFound("Product-Supplier relation not found"));
             newOrderDetail.setProductSupplierId(productSupplierDTO.getId());
-            return orderDetailMapper.mapToOrderDetailDTO(orderDetailRepository.save(newOrderDetail));
-        } else {
-            throw new InvalidArgumentException("Order detail id is mandatory");
+            newOrderDetail.setProductName(productDTO.getName() != null ? productDTO.getName() : orderDetailDTO.getProductName());
+            newOrderDetail.setUnitPrice(productSupplierDTO.getId().equals(oldOrderDetail.getProductSupplierId())
+                    ? oldOrderDetail.getUnitPrice() : productSupplierDTO.getPrice());
+        }
+        if (newOrderDetail.getUnitPrice() == null) {
+            throw new ProductSupplierNotFound("The product has no price for the supplier of the order");
+        }
+
+        // Taken before the save, which merges the change onto the loaded line
+        Map<Long, Long> reservedLines = OrderStock.linesOf(oldOrderDetail.getOrder().getOrderDetails());
+        OrderDetail savedOrderDetail = orderDetailRepository.save(newOrderDetail);
+        BigDecimal newLineTotal = OrderCreateUseCase.lineTotal(newOrderDetail.getUnitPrice(), newOrderDetail.getQuantity());
+        orderTotals.applyDelta(oldOrderDetail.getOrder(), newLineTotal.subtract(oldLineTotal));
+        renewReservation(oldOrderDetail.getOrder(), savedOrderDetail, reservedLines);
+        return orderDetailMapper.mapToOrderDetailDTO(savedOrderDetail);
+    }
+
+    // The reservation of a pending order covers its lines, so it follows the changed line
+    private void renewReservation(Order order, OrderDetail savedOrderDetail, Map<Long, Long> reservedLines) {
+        if (order.getStatus() != OrderState.PENDING) {
+            return;
+        }
+        List<OrderDetail> details = order.getOrderDetails().stream()
+                .filter(detail -> !savedOrderDetail.getId().equals(detail.getId()))
+                .collect(Collectors.toCollection(ArrayList::new));
+        details.add(savedOrderDetail);
+        orderStock.reserve(order.getId(), details, reservedLines);
+    }
+
+    private boolean isSameProduct(OrderDetail orderDetail, String productName) {
+        if (orderDetail.getProductName() == null || orderDetail.getUnitPrice() == null) {
+            return false;
         }
+        return productName == null || orderDetail.getProductName().trim().equalsIgnoreCase(productName.trim());
     }
 
 }
\ No newline at end of file
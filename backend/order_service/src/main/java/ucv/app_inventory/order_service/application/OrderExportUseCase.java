@@ -0,0 +1,373 @@
+package ucv.app_inventory.order_service.application;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import ucv.app_inventory.order_service.application.dto.ProductDTO;
+import ucv.app_inventory.order_service.application.dto.ProductSupplierDTO;
+import ucv.app_inventory.order_service.config.OrderExportProperties;
+import ucv.app_inventory.order_service.domain.model.OrderState;
+import ucv.app_inventory.order_service.exception.InvalidArgumentException;
+import ucv.app_inventory.order_service.infrastructure.outbound.external.ProductAPIClient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams orders with their details straight from a JDBC cursor, as NDJSON (one order per line)
+ * or CSV (one detail line per row). Rows are read with a bounded fetch size and written out in
+ * batches of orders; the supplier names of each batch, and the product names and prices of
+ * lines that do not store them, are resolved with one lookup per dependency, so memory use
+ * does not depend on the number of orders exported.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderExportUseCase {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderExportUseCase.class);
+
+    private static final String CSV_HEADER = "order_id,supplier_name,status,order_date,total,observations,created_at,"
+            + "detail_id,product_name,quantity,unit_price";
+
+    public enum Format {
+        NDJSON, CSV;
+
+        public static Format from(String format) {
+            for (Format value : values()) {
+                if (value.name().equalsIgnoreCase(format)) {
+                    return value;
+                }
+            }
+            throw new InvalidArgumentException("The export format must be ndjson or csv.");
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SupplierDirectory supplierDirectory;
+    private final ProductAPIClient productAPIClient;
+    private final OrderExportProperties exportProperties;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Validates the export filters before anything is written to the response.
+     *
+     * @throws InvalidArgumentException if the date range or the status is invalid.
+     */
+    public OrderState validateFilters(LocalDate startDate, LocalDate endDate, String status) {
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            throw new InvalidArgumentException("The start date cannot be after the end date.");
+        }
+        if (status == null) {
+            return null;
+        }
+        try {
+            return OrderState.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidArgumentException("The status is not valid.");
+        }
+    }
+
+    /**
+     * Writes every order matching the filters, with its details, to the writer.
+     *
+     * @param startDate optional first order date.
+     * @param endDate   optional last order date.
+     * @param status    optional status.
+     * @param format    NDJSON or CSV.
+     * @param writer    the destination; it is flushed after every batch.
+     * @return the number of orders written.
+     */
+    public long exportOrders(LocalDate startDate, LocalDate endDate, OrderState status, Format format, Writer writer) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT o.id, o.supplier_id, o.date, o.status, o.total, o.observations, o.creation_date, "
+                        + "d.id AS detail_id, d.product_supplier_id, d.quantity, d.product_name, d.unit_price "
+                        + "FROM orders o LEFT JOIN order_details d ON d.order_id = o.id WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        if (startDate != null) {
+            sql.append(" AND o.date >= ?");
+            params.add(Date.valueOf(startDate));
+        }
+        if (endDate != null) {
+            sql.append(" AND o.date <= ?");
+            params.add(Date.valueOf(endDate));
+        }
+        if (status != null) {
+            sql.append(" AND o.status = ?");
+            params.add(status.name());
+        }
+        sql.append(" ORDER BY o.id, d.id");
+
+        ExportStream stream = new ExportStream(format, writer);
+        if (format == Format.CSV) {
+            stream.write(CSV_HEADER);
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(exportProperties.getFetchSize());
+            for (int i = 0; i < params.size(); i++) {
+                statement.setObject(i + 1, params.get(i));
+            }
+            return statement;
+        }, stream::accept);
+        stream.finish();
+
+        logger.info("Exported {} orders as {}", stream.exported, format);
+        return stream.exported;
+    }
+
+    private record ExportLine(Long detailId, Long productSupplierId, Long quantity, String productName,
+                              BigDecimal unitPrice) {
+        private boolean isSnapshot() {
+            return productName != null && unitPrice != null;
+        }
+    }
+
+    private record ExportOrder(Long id, Long supplierId, LocalDate orderDate, String status, BigDecimal total,
+                               String observations, Timestamp creationDate, List<ExportLine> lines) {
+    }
+
+    private record Relation(Long productId, BigDecimal price) {
+    }
+
+    /**
+     * State of one export: the batch being filled, the names it needs and the names already
+     * resolved. The bounded caches only spare lookups across batches and may drop names the
+     * current batch still needs, so each batch is written from names copied out for it.
+     * Not shared between exports or threads.
+     */
+    private final class ExportStream {
+
+        private final Format format;
+        private final Writer writer;
+        private final List<ExportOrder> batch = new ArrayList<>();
+        private final Map<Long, String> supplierNames = boundedMap();
+        private final Map<Long, Relation> relations = boundedMap();
+        private final Map<Long, String> productNames = boundedMap();
+        private final Map<Long, String> batchSupplierNames = new HashMap<>();
+        private final Map<Long, Relation> batchRelations = new HashMap<>();
+        private final Map<Long, String> batchProductNames = new HashMap<>();
+        private ExportOrder current;
+        private long exported;
+
+        private ExportStream(Format format, Writer writer) {
+            this.format = format;
+            this.writer = writer;
+        }
+
+        private void accept(ResultSet rs) throws SQLException {
+            long orderId = rs.getLong("id");
+            if (current == null || current.id() != orderId) {
+                if (current != null && batch.size() >= exportProperties.getBatchSize()) {
+                    flushBatch();
+                }
+                current = new ExportOrder(orderId, rs.getLong("supplier_id"), rs.getObject("date", LocalDate.class),
+                        rs.getString("status"), rs.getBigDecimal("total"), rs.getString("observations"),
+                        rs.getTimestamp("creation_date"), new ArrayList<>());
+                batch.add(current);
+            }
+            long detailId = rs.getLong("detail_id");
+            if (!rs.wasNull()) {
+                current.lines().add(new ExportLine(detailId, rs.getLong("product_supplier_id"), rs.getLong("quantity"),
+                        rs.getString("product_name"), rs.getBigDecimal("unit_price")));
+            }
+        }
+
+        private void finish() {
+            flushBatch();
+        }
+
+        private void flushBatch() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            resolveNames();
+            for (ExportOrder order : batch) {
+                if (format == Format.NDJSON) {
+                    write(toJson(order));
+                } else {
+                    writeCsv(order);
+                }
+            }
+            exported += batch.size();
+            batch.clear();
+            batchSupplierNames.clear();
+            batchRelations.clear();
+            batchProductNames.clear();
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void resolveNames() {
+            Set<Long> missingSuppliers = new HashSet<>();
+            Set<Long> missingRelations = new HashSet<>();
+            for (ExportOrder order : batch) {
+                if (!fromCache(order.supplierId(), supplierNames, batchSupplierNames)) {
+                    missingSuppliers.add(order.supplierId());
+                }
+                for (ExportLine line : order.lines()) {
+                    if (!line.isSnapshot() && !fromCache(line.productSupplierId(), relations, batchRelations)) {
+                        missingRelations.add(line.productSupplierId());
+                    }
+                }
+            }
+            if (!missingSuppliers.isEmpty()) {
+                Map<Long, String> found = supplierDirectory.findNamesByIds(missingSuppliers);
+                batchSupplierNames.putAll(found);
+                supplierNames.putAll(found);
+            }
+            if (!missingRelations.isEmpty()) {
+                for (ProductSupplierDTO relation : productAPIClient.getRelationsByIds(missingRelations)) {
+                    Relation resolved = new Relation(relation.getProductId(), relation.getPrice());
+                    batchRelations.put(relation.getId(), resolved);
+                    relations.put(relation.getId(), resolved);
+                }
+            }
+
+            Set<Long> missingProducts = new HashSet<>();
+            for (ExportOrder order : batch) {
+                for (ExportLine line : order.lines()) {
+                    Relation relation = line.isSnapshot() ? null : batchRelations.get(line.productSupplierId());
+                    if (relation != null && !fromCache(relation.productId(), productNames, batchProductNames)) {
+                        missingProducts.add(relation.productId());
+                    }
+                }
+            }
+            if (!missingProducts.isEmpty()) {
+                for (ProductDTO product : productAPIClient.getProductsByIds(missingProducts)) {
+                    batchProductNames.put(product.getId(), product.getName());
+                    productNames.put(product.getId(), product.getName());
+                }
+            }
+        }
+
+        // Copies a cached entry into the batch so later lookups for the batch cannot evict it
+        private <V> boolean fromCache(Long id, Map<Long, V> cache, Map<Long, V> batchValues) {
+            if (batchValues.containsKey(id)) {
+                return true;
+            }
+            if (!cache.containsKey(id)) {
+                return false;
+            }
+            batchValues.put(id, cache.get(id));
+            return true;
+        }
+
+        // Named after the columns of the CSV header
+        private String toJson(ExportOrder order) {
+            ObjectNode node = objectMapper.createObjectNode();
+            node.put("order_id", order.id());
+            node.put("supplier_name", batchSupplierNames.get(order.supplierId()));
+            node.put("status", order.status());
+            node.put("order_date", order.orderDate() == null ? null : order.orderDate().toString());
+            node.put("total", order.total());
+            node.put("observations", order.observations());
+            node.put("created_at", order.creationDate() == null ? null : order.creationDate().toLocalDateTime().toString());
+            ArrayNode details = node.putArray("details");
+            for (ExportLine line : order.lines()) {
+                ObjectNode detail = details.addObject();
+                detail.put("detail_id", line.detailId());
+                detail.put("product_name", productNameOf(line));
+                detail.put("quantity", line.quantity());
+                detail.put("unit_price", unitPriceOf(line));
+            }
+            try {
+                return objectMapper.writeValueAsString(node);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeCsv(ExportOrder order) {
+            String orderColumns = String.join(",",
+                    String.valueOf(order.id()),
+                    csv(batchSupplierNames.get(order.supplierId())),
+                    csv(order.status()),
+                    csv(order.orderDate()),
+                    csv(order.total()),
+                    csv(order.observations()),
+                    csv(order.creationDate() == null ? null : order.creationDate().toLocalDateTime()));
+            if (order.lines().isEmpty()) {
+                write(orderColumns + ",,,,");
+                return;
+            }
+            for (ExportLine line : order.lines()) {
+                write(String.join(",", orderColumns,
+                        String.valueOf(line.detailId()),
+                        csv(productNameOf(line)),
+                        String.valueOf(line.quantity()),
+                        csv(unitPriceOf(line))));
+            }
+        }
+
+        // Lines store the product name and price they were ordered at; older lines use the resolved ones.
+        private String productNameOf(ExportLine line) {
+            if (line.productName() != null) {
+                return line.productName();
+            }
+            Relation relation = batchRelations.get(line.productSupplierId());
+            return relation == null ? null : batchProductNames.get(relation.productId());
+        }
+
+        private BigDecimal unitPriceOf(ExportLine line) {
+            if (line.unitPrice() != null) {
+                return line.unitPrice();
+            }
+            Relation relation = batchRelations.get(line.productSupplierId());
+            return relation == null ? null : relation.price();
+        }
+
+        private void write(String line) {
+            try {
+                writer.write(line);
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    private <K, V> Map<K, V> boundedMap() {
+        int maxSize = exportProperties.getNameCacheSize();
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+}
@@ -3,20 +3,30 @@ package ucv.app_inventory.order_service.application;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import ucv.app_inventory.order_service.application.dto.*;
+import ucv.app_inventory.order_service.application.dto.mappers.OrderDetailMapper;
 import ucv.app_inventory.order_service.application.dto.mappers.OrderMapper;
 import ucv.app_inventory.order_service.domain.model.OrderState;
 import ucv.app_inventory.order_service.domain.model.Order;
 import ucv.app_inventory.order_service.exception.InvalidArgumentException;
 import ucv.app_inventory.order_service.exception.OrderNotFoundException;
+import ucv.app_inventory.order_service.infrastructure.cache.OrderCacheTags;
+import ucv.app_inventory.order_service.infrastructure.cache.OrderQueryCache;
 import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderMySqlRepository;
-import ucv.app_inventory.order_service.infrastructure.outbound.external.SupplierAPIClient;
+import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderSpecifications;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -24,10 +34,13 @@ public class OrderFindUseCase {
 
     private final OrderMySqlRepository orderMySqlRepository;
     //private final OrderDetailMySqlRepository orderDetailMySqlRepository;
-    private final SupplierAPIClient supplierAPIClient;
+    private final SupplierDirectory supplierDirectory;
     private final OrderMapper orderMapper;
+    private final OrderDetailMapper orderDetailMapper;
+    private final OrderQueryCache orderQueryCache;
 
     private static final Logger logger = LoggerFactory.getLogger(OrderFindUseCase.class);
+    private static final int MAX_SCROLL_SIZE = 100;
 
     /**
      * Finds an order by its ID.
@@ -39,6 +52,33 @@ public class OrderFindUseCase {
      */
     public OrderDTO findById(Object id) {
         if(id == null) return null;
+        long id_ = parseId(id);
+
+        return orderMapper.mapToOrderDTO(orderMySqlRepository.findById(id_)
+                .orElseThrow(() -> new OrderNotFoundException("Order not found with ID: " + id)));
+    }
+
+    /**
+     * Finds an order by its ID together with its details. The order and its details are loaded
+     * in one query, and the product-supplier relations and product names of all the details are
+     * resolved with one call each.
+     *
+     * @param id the ID of the order to find.
+     * @return the order with its details.
+     * @throws OrderNotFoundException if the order with the specified ID is not found.
+     */
+    public OrderFullDTO findFullById(Object id) {
+        if (id == null) {
+            throw new InvalidArgumentException("Invalid ID");
+        }
+        long id_ = parseId(id);
+
+        Order order = orderMySqlRepository.findWithDetailsById(id_)
+                .orElseThrow(() -> new OrderNotFoundException("Order not found with ID: " + id));
+        return orderMapper.mapToOrderFullDTO(order, orderDetailMapper.mapToOrderDetailDTOList(order.getOrderDetails()));
+    }
+
+    private long parseId(Object id) {
         long id_;
         try {
             id_ = Long.parseLong(id.toString());
@@ -49,9 +89,7 @@ public class OrderFindUseCase {
         if(id_ <= 0){
             throw new InvalidArgumentException("Invalid ID");
         }
-
-        return orderMapper.mapToOrderDTO(orderMySqlRepository.findById(id_)
-                .orElseThrow(() -> new OrderNotFoundException("Order not found with ID: " + id)));
+        return id_;
     }
 
     /**
@@ -60,15 +98,15 @@ public class OrderFindUseCase {
      * @param pageable the pagination information.
      * @return a Page of orders.
      */
-    @Cacheable(value = "orders")
     public Page<OrderDTO> listOrdersPaginated(Pageable pageable) {
-        Page<Order> orders = orderMySqlRepository.findAll(pageable);
-        return orders.map(orderMapper::mapToOrderDTO);
+        return orderQueryCache.get("orders", cacheKey(pageable), Set.of(OrderCacheTags.ALL),
+                () -> orderMapper.mapToOrderDTOPage(orderMySqlRepository.findAll(pageable)));
     }
 
     /**
      * Finds orders within a specified date range and paginates the result.
-     * Caches the result based on the start date, end date, and page number to optimize repeated queries.
+     * Caches the result tagged with the months of the range, so only writes to orders dated
+     * within those months evict it.
      *
      * @param startDate the start date for the range.
      * @param endDate   the end date for the range.
@@ -76,81 +114,136 @@ public class OrderFindUseCase {
      * @return a Page of orders within the date range.
      * @throws InvalidArgumentException if the start date is after the end date.
      */
-    @Cacheable(value = "ordersByDate", key = "#startDate + '-' + #endDate + '-' + #pageable.pageNumber")
     public Page<OrderDTO> findOrdersByDate(LocalDate startDate, LocalDate endDate, Pageable pageable) throws InvalidArgumentException {
         validateDateRange(startDate, endDate);  // Validar el rango de fechas antes de consultar la base de datos.
 
-        Page<Order> orders = orderMySqlRepository.findByOrderDateBetween(startDate, endDate, pageable);
-        return orders.map(orderMapper::mapToOrderDTO);
+        return orderQueryCache.get("ordersByDate", cacheKey(startDate, endDate, pageable),
+                OrderCacheTags.orderDateRange(startDate, endDate),
+                () -> orderMapper.mapToOrderDTOPage(orderMySqlRepository.findByOrderDateBetween(startDate, endDate, pageable)));
     }
 
     /**
      * Finds orders by supplier name and applies pagination.
-     * Caches the result based on the supplier name and page number.
+     * Caches the result tagged with the resolved supplier.
      *
      * @param supplier_name the supplier to search for.
      * @param pageable      the pagination information.
      * @return a Page of orders associated with the supplier.
      * @throws InvalidArgumentException if the supplier name is invalid.
      */
-    @Cacheable(value = "ordersBySupplier", key = "#supplier_name + '-' + #pageable.pageNumber")
     public Page<OrderDTO> findOrdersBySupplier(String supplier_name, Pageable pageable) throws InvalidArgumentException {
         Long supplierId = validateSupplierName(supplier_name);// Validate the supplier name before querying.
-        Page<Order> orders = orderMySqlRepository.findBySupplierId(supplierId, pageable);
-        try {
-            return orders.map(orderMapper::mapToOrderDTO);
-        } catch (InvalidArgumentException e) {
-            throw new InvalidArgumentException(e.getMessage());
-        }
+        return orderQueryCache.get("ordersBySupplier", cacheKey(supplierId, pageable), Set.of(OrderCacheTags.supplier(supplierId)), () -> {
+            Page<Order> orders = orderMySqlRepository.findBySupplierId(supplierId, pageable);
+            try {
+                return orderMapper.mapToOrderDTOPage(orders);
+            } catch (InvalidArgumentException e) {
+                throw new InvalidArgumentException(e.getMessage());
+            }
+        });
     }
 
     /**
      * Finds orders by their status and applies pagination.
-     * Caches the result based on the status and page number.
+     * Caches the result tagged with the status.
      *
      * @param status   the order status to filter by.
      * @param pageable the pagination information.
      * @return a Page of orders with the specified status.
      */
-    @Cacheable(value = "ordersByStatus", key = "#status + '-' + #pageable.pageNumber")
     public Page<OrderDTO> findOrdersByStatus(String status, Pageable pageable) {
         OrderState orderState = validateStatus(status);
-        Page<Order> orders = orderMySqlRepository.findByStatus(orderState, pageable);
-        return orders.map(orderMapper::mapToOrderDTO);
+        return orderQueryCache.get("ordersByStatus", cacheKey(orderState, pageable), Set.of(OrderCacheTags.status(orderState)),
+                () -> orderMapper.mapToOrderDTOPage(orderMySqlRepository.findByStatus(orderState, pageable)));
     }
 
     /**
      * Finds orders by supplier name and order status, with pagination.
-     * Caches the result based on the supplier name, status, and page number.
+     * Caches the result tagged with the resolved supplier and status pair.
      *
      * @param supplierName the supplier name to filter by.
      * @param status       the order status to filter by.
      * @param pageable     the pagination information.
      * @return a Page of orders associated with the supplier and status.
      */
-    @Cacheable(value = "ordersBySupplierAndStatus", key = "#supplierName + '-' + #status + '-' + #pageable.pageNumber")
     public Page<OrderDTO> findOrdersBySupplierAndStatus(String supplierName, String status, Pageable pageable) {
         Long supplierId = validateSupplierName(supplierName);// Validate the supplier name before querying.
         OrderState orderState = validateStatus(status);
-        Page<Order> orders = orderMySqlRepository.findBySupplierIdAndStatus(supplierId, orderState, pageable);
-        try {
-            return orders.map(orderMapper::mapToOrderDTO);
-        } catch (InvalidArgumentException e) {
-            throw new InvalidArgumentException(e.getMessage());
-        }
+        return orderQueryCache.get("ordersBySupplierAndStatus", cacheKey(supplierId, orderState, pageable),
+                Set.of(OrderCacheTags.supplierAndStatus(supplierId, orderState)), () -> {
+            Page<Order> orders = orderMySqlRepository.findBySupplierIdAndStatus(supplierId, orderState, pageable);
+            try {
+                return orderMapper.mapToOrderDTOPage(orders);
+            } catch (InvalidArgumentException e) {
+                throw new InvalidArgumentException(e.getMessage());
+            }
+        });
     }
 
     /**
      * Finds orders by their creation date with pagination.
-     * Caches the result based on the creation date and page number.
+     * Caches the result tagged with the creation day.
      *
      * @param creationDate the creation date to search for.
      * @param pageable     the pagination information.
      * @return a Page of orders created on the specified date.
      */
-    @Cacheable(value = "ordersByCreationDate", key = "#creationDate + '-' + #pageable.pageNumber")
     public Page<Order> findOrdersByCreationDate(LocalDate creationDate, Pageable pageable) {
-        return orderMySqlRepository.findByCreationDate(creationDate, pageable);
+        return orderQueryCache.get("ordersByCreationDate", cacheKey(creationDate, pageable),
+                Set.of(OrderCacheTags.creationDay(creationDate)),
+                () -> orderMySqlRepository.findByCreationDate(creationDate, pageable));
+    }
+
+    /**
+     * Scrolls through orders with keyset pagination, ordered by (date, id) or (creation date, id).
+     * Each slice continues right after the last order of the previous one, so a deep slice costs
+     * the same as the first. The total is only counted when requested.
+     *
+     * @param request the filters, sort key, slice size and continuation cursor.
+     * @return the slice of orders and the cursor of the next slice.
+     * @throws InvalidArgumentException if a filter, the size or the cursor is invalid.
+     */
+    public OrderSliceDTO scrollOrders(OrderScrollRequestDTO request) {
+        if (request.getSize() < 1 || request.getSize() > MAX_SCROLL_SIZE) {
+            throw new InvalidArgumentException("The size must be between 1 and " + MAX_SCROLL_SIZE + ".");
+        }
+        validateDateRange(request.getStartDate(), request.getEndDate());
+        OrderCursor.SortKey sortKey = OrderCursor.SortKey.fromProperty(request.getSortBy());
+        Sort.Direction direction = Sort.Direction.fromOptionalString(request.getDirection())
+                .orElseThrow(() -> new InvalidArgumentException("The direction must be ASC or DESC."));
+        ScrollPosition position = OrderCursor.decode(request.getCursor(), sortKey, direction);
+
+        List<Specification<Order>> filters = new ArrayList<>();
+        if (request.getStatus() != null) {
+            filters.add(OrderSpecifications.hasStatus(validateStatus(request.getStatus())));
+        }
+        if (request.getSupplierName() != null) {
+            filters.add(OrderSpecifications.hasSupplier(validateSupplierName(request.getSupplierName())));
+        }
+        if (request.getStartDate() != null) {
+            filters.add(OrderSpecifications.orderDateFrom(request.getStartDate()));
+        }
+        if (request.getEndDate() != null) {
+            filters.add(OrderSpecifications.orderDateTo(request.getEndDate()));
+        }
+        Specification<Order> spec = Specification.allOf(filters);
+
+        Window<Order> window = orderMySqlRepository.findBy(spec, query -> query
+                .sortBy(OrderCursor.sort(sortKey, direction))
+                .limit(request.getSize())
+                .scroll(position));
+
+        OrderSliceDTO slice = new OrderSliceDTO();
+        slice.setContent(orderMapper.mapToOrderDTOList(window.getContent()));
+        slice.setSize(window.size());
+        slice.setHasNext(window.hasNext());
+        if (window.hasNext() && !window.isEmpty()) {
+            slice.setNextCursor(OrderCursor.encode(sortKey, direction, window.getContent().getLast()));
+        }
+        if (request.isIncludeCount()) {
+            slice.setTotalElements(orderMySqlRepository.count(spec));
+        }
+        return slice;
     }
 
     /**
@@ -176,14 +269,8 @@ public class OrderFindUseCase {
         if (supplierName == null || supplierName.isEmpty()) {
             throw new InvalidArgumentException("The supplier name cannot be null or empty.");
         }
-        Page<SupplierDTO> supplierByName = supplierAPIClient.getSupplierByName(supplierName, Pageable.unpaged());
-        logger.info("Supplier response page number: {}", supplierByName.getNumber());
-        logger.info("Total elements: {}", supplierByName.getTotalElements());
-        if (supplierByName.getContent().isEmpty()) {
-            throw new InvalidArgumentException("No supplier found for name: " + supplierName);
-        }
-        SupplierDTO supplierDTO = supplierByName.getContent().getFirst();
-        return supplierDTO.getId();
+        return supplierDirectory.findIdByName(supplierName)
+                .orElseThrow(() -> new InvalidArgumentException("No supplier found for name: " + supplierName));
     }
 
     /**
@@ -221,4 +308,11 @@ public class OrderFindUseCase {
         return OrderState.valueOf(status);
     }
 
+    /**
+     * Builds a cache key from the query parameters. The whole {@link Pageable} is part of it,
+     * so pages of different sizes or sort orders never share an entry.
+     */
+    private static List<Object> cacheKey(Object... parts) {
+        return Arrays.asList(parts);
+    }
 }
@@ -0,0 +1,377 @@
+package ucv.app_inventory.order_service.application;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ucv.app_inventory.order_service.application.dto.*;
+import ucv.app_inventory.order_service.config.OrderImportProperties;
+import ucv.app_inventory.order_service.domain.model.Order;
+import ucv.app_inventory.order_service.exception.InvalidArgumentException;
+import ucv.app_inventory.order_service.infrastructure.cache.OrderCacheTags;
+import ucv.app_inventory.order_service.infrastructure.cache.OrderQueryCache;
+import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderMySqlRepository;
+import ucv.app_inventory.order_service.infrastructure.outbound.external.ProductAPIClient;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Imports many orders in one request. Every supplier and product line named by the import is
+ * looked up once, whatever the number of orders using it. The orders are then validated, priced
+ * and saved in chunks, several chunks at a time, each chunk in its own transaction, which also
+ * reserves the products of its orders, as they are created pending. An invalid order, or one whose
+ * products cannot be reserved, only fails itself: the result of every order is reported back.
+ */
+@Service
+public class OrderImportUseCase {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderImportUseCase.class);
+
+    private static final List<String> CSV_HEADER =
+            List.of("reference", "supplier_name", "order_date", "observations", "product_name", "quantity");
+
+    private final OrderCreateUseCase orderCreateUseCase;
+    private final OrderMySqlRepository orderMySqlRepository;
+    private final SupplierDirectory supplierDirectory;
+    private final ProductAPIClient productAPIClient;
+    private final OrderQueryCache orderQueryCache;
+    private final OrderOutbox orderOutbox;
+    private final OrderStock orderStock;
+    private final OrderImportProperties importProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor orderImportExecutor;
+
+    public OrderImportUseCase(OrderCreateUseCase orderCreateUseCase, OrderMySqlRepository orderMySqlRepository,
+                              SupplierDirectory supplierDirectory, ProductAPIClient productAPIClient,
+                              OrderQueryCache orderQueryCache, OrderOutbox orderOutbox, OrderStock orderStock,
+                              OrderImportProperties importProperties,
+                              PlatformTransactionManager transactionManager,
+                              @Qualifier("orderImportExecutor") Executor orderImportExecutor) {
+        this.orderCreateUseCase = orderCreateUseCase;
+        this.orderMySqlRepository = orderMySqlRepository;
+        this.supplierDirectory = supplierDirectory;
+        this.productAPIClient = productAPIClient;
+        this.orderQueryCache = orderQueryCache;
+        this.orderOutbox = orderOutbox;
+        this.orderStock = orderStock;
+        this.importProperties = importProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.orderImportExecutor = orderImportExecutor;
+    }
+
+    /**
+     * Imports the given orders.
+     *
+     * @param orders the orders to import, each with its details.
+     * @return the result of every order, in the order of the request.
+     * @throws InvalidArgumentException if there are no orders or more than the configured maximum.
+     */
+    public OrderImportReportDTO importOrders(List<OrderRequestDTO> orders) {
+        return importOrders(orders, null);
+    }
+
+    /**
+     * Imports orders written as CSV, one detail per row. Rows sharing a reference belong to the
+     * same order; the supplier, date and observations are taken from its first row.
+     *
+     * @param csv the CSV content, starting with the header
+     *            {@code reference,supplier_name,order_date,observations,product_name,quantity}.
+     * @return the result of every order, in the order their reference first appears.
+     * @throws InvalidArgumentException if the CSV cannot be read.
+     */
+    public OrderImportReportDTO importOrdersCsv(String csv) {
+        Map<String, OrderRequestDTO> orders = parseCsv(csv);
+        return importOrders(new ArrayList<>(orders.values()), new ArrayList<>(orders.keySet()));
+    }
+
+    private OrderImportReportDTO importOrders(List<OrderRequestDTO> orders, List<String> references) {
+        if (orders == null || orders.isEmpty()) {
+            throw new InvalidArgumentException("At least one order is required.");
+        }
+        if (orders.size() > importProperties.getMaxOrders()) {
+            throw new InvalidArgumentException("At most " + importProperties.getMaxOrders() + " orders can be imported at once.");
+        }
+
+        OrderImportResultDTO[] results = new OrderImportResultDTO[orders.size()];
+        for (int i = 0; i < orders.size(); i++) {
+            results[i] = new OrderImportResultDTO();
+            results[i].setIndex(i);
+            results[i].setReference(references == null ? null : references.get(i));
+        }
+
+        // Remote lookups stay on the calling thread and are shared by every order of the import
+        Map<String, Optional<Long>> supplierIds = resolveSuppliers(orders);
+        Map<Long, Map<String, ProductLineDTO>> productLines = resolveProductLines(orders, supplierIds);
+        Map<Long, Long> productIds = productIdsByRelation(productLines);
+
+        List<CompletableFuture<List<Order>>> chunks = new ArrayList<>();
+        int chunkSize = Math.max(1, importProperties.getChunkSize());
+        for (int start = 0; start < orders.size(); start += chunkSize) {
+            int from = start;
+            int to = Math.min(start + chunkSize, orders.size());
+            chunks.add(CompletableFuture.supplyAsync(
+                    () -> importChunk(orders, from, to, supplierIds, productLines, productIds, results), orderImportExecutor));
+        }
+
+        Set<String> affected = new HashSet<>();
+        for (CompletableFuture<List<Order>> chunk : chunks) {
+            chunk.join().forEach(order -> affected.addAll(OrderCacheTags.of(order)));
+        }
+        if (!affected.isEmpty()) {
+            orderQueryCache.evictTagged(affected);
+        }
+
+        OrderImportReportDTO report = new OrderImportReportDTO();
+        report.setResults(Arrays.asList(results));
+        report.setTotal(results.length);
+        report.setSucceeded((int) Arrays.stream(results).filter(OrderImportResultDTO::isSuccess).count());
+        report.setFailed(report.getTotal() - report.getSucceeded());
+        logger.info("Imported {} of {} orders", report.getSucceeded(), report.getTotal());
+        return report;
+    }
+
+    /**
+     * Builds the orders of one chunk in memory, then saves the valid ones and reserves their
+     * products in one transaction. If that transaction fails, the reservations it made are released
+     * and the orders are saved one by one so only the failing ones are lost.
+     */
+    private List<Order> importChunk(List<OrderRequestDTO> orders, int from, int to, Map<String, Optional<Long>> supplierIds,
+                                    Map<Long, Map<String, ProductLineDTO>> productLines, Map<Long, Long> productIds,
+                                    OrderImportResultDTO[] results) {
+        Map<Integer, Order> built = new LinkedHashMap<>();
+        for (int i = from; i < to; i++) {
+            try {
+                built.put(i, buildOrder(orders.get(i), supplierIds, productLines));
+            } catch (RuntimeException e) {
+                fail(results[i], e);
+            }
+        }
+        if (built.isEmpty()) {
+            return List.of();
+        }
+
+        try {
+            List<Order> saved = transactionTemplate.execute(status -> {
+                List<Order> savedOrders = orderMySqlRepository.saveAll(built.values());
+                savedOrders.forEach(order -> orderStock.reserve(order.getId(), quantitiesByProduct(order, productIds)));
+                orderOutbox.ordersCreated(savedOrders);
+                return savedOrders;
+            });
+            built.keySet().forEach(i -> succeed(results[i], built.get(i)));
+            return saved;
+        } catch (RuntimeException e) {
+            logger.warn("Chunk of orders {} to {} failed, saving them one by one: {}", from, to - 1, e.getMessage());
+        }
+
+        List<Order> saved = new ArrayList<>();
+        for (Map.Entry<Integer, Order> entry : built.entrySet()) {
+            try {
+                Order order = entry.getValue();
+                order.setId(null);
+                order.setVersion(null);
+                order.getOrderDetails().forEach(detail -> {
+                    detail.setId(null);
+                    detail.setVersion(null);
+                });
+                saved.add(transactionTemplate.execute(status -> {
+                    Order savedOrder = orderMySqlRepository.save(order);
+                    orderStock.reserve(savedOrder.getId(), quantitiesByProduct(savedOrder, productIds));
+                    orderOutbox.orderCreated(savedOrder);
+                    return savedOrder;
+                }));
+                succeed(results[entry.getKey()], order);
+            } catch (RuntimeException e) {
+                fail(results[entry.getKey()], e);
+            }
+        }
+        return saved;
+    }
+
+    private Order buildOrder(OrderRequestDTO request, Map<String, Optional<Long>> supplierIds,
+                             Map<Long, Map<String, ProductLineDTO>> productLines) {
+        if (request == null || request.getOrder() == null) {
+            throw new InvalidArgumentException("Order is required");
+        }
+        String supplierName = request.getOrder().getSupplierName();
+        if (supplierName == null || supplierName.isEmpty()) {
+            throw new InvalidArgumentException("Supplier name cannot be empty.");
+        }
+        Long supplierId = supplierIds.getOrDefault(supplierName, Optional.empty())
+                .orElseThrow(() -> new InvalidArgumentException("Supplier with name " + supplierName + " does not exist."));
+
+        return orderCreateUseCase.buildOrder(request.getOrder(), supplierId, request.getOrderDetails(),
+                productLines.getOrDefault(supplierId, Map.of()));
+    }
+
+    private Map<String, Optional<Long>> resolveSuppliers(List<OrderRequestDTO> orders) {
+        Map<String, Optional<Long>> supplierIds = new HashMap<>();
+        for (OrderRequestDTO request : orders) {
+            if (request == null || request.getOrder() == null) {
+                continue;
+            }
+            String supplierName = request.getOrder().getSupplierName();
+            if (supplierName != null && !supplierName.isEmpty() && !supplierIds.containsKey(supplierName)) {
+                supplierIds.put(supplierName, supplierDirectory.findIdByName(supplierName));
+            }
+        }
+        return supplierIds;
+    }
+
+    private Map<Long, Map<String, ProductLineDTO>> resolveProductLines(List<OrderRequestDTO> orders,
+                                                                       Map<String, Optional<Long>> supplierIds) {
+        // Distinct (supplier, product name) pairs of the whole import
+        Map<List<Object>, ProductLineDTO> requested = new LinkedHashMap<>();
+        for (OrderRequestDTO request : orders) {
+            if (request == null || request.getOrder() == null || request.getOrderDetails() == null) {
+                continue;
+            }
+            Optional<Long> supplierId = supplierIds.getOrDefault(request.getOrder().getSupplierName(), Optional.empty());
+            if (supplierId.isEmpty()) {
+                continue;
+            }
+            for (OrderDetailDTO detail : request.getOrderDetails()) {
+                if (detail == null || detail.getProductName() == null || detail.getProductName().trim().isEmpty()) {
+                    continue;
+                }
+                requested.computeIfAbsent(List.of(supplierId.get(), detail.getProductName()), key -> {
+                    ProductLineDTO line = new ProductLineDTO();
+                    line.setSupplierId(supplierId.get());
+                    line.setProductName(detail.getProductName());
+                    return line;
+                });
+            }
+        }
+
+        Map<Long, Map<String, ProductLineDTO>> productLines = new HashMap<>();
+        List<ProductLineDTO> lines = new ArrayList<>(requested.values());
+        int batchSize = Math.max(1, importProperties.getLookupBatchSize());
+        for (int start = 0; start < lines.size(); start += batchSize) {
+            List<ProductLineDTO> resolved = productAPIClient.resolveLines(lines.subList(start, Math.min(start + batchSize, lines.size())));
+            if (resolved == null) {
+                continue;
+            }
+            for (ProductLineDTO line : resolved) {
+                productLines.computeIfAbsent(line.getSupplierId(), id -> new HashMap<>())
+                        .putIfAbsent(line.getProductName(), line);
+            }
+        }
+        logger.info("Resolved {} distinct product lines of {} orders", lines.size(), orders.size());
+        return productLines;
+    }
+
+    private static Map<Long, Long> productIdsByRelation(Map<Long, Map<String, ProductLineDTO>> productLines) {
+        Map<Long, Long> productIds = new HashMap<>();
+        productLines.values().forEach(lines -> lines.values().forEach(line -> {
+            if (line.getProductSupplierId() != null && line.getProductId() != null) {
+                productIds.put(line.getProductSupplierId(), line.getProductId());
+            }
+        }));
+        return productIds;
+    }
+
+    // The details of a built order were priced from the resolved lines, so each relation has its product
+    private static Map<Long, Long> quantitiesByProduct(Order order, Map<Long, Long> productIds) {
+        Map<Long, Long> quantities = new HashMap<>();
+        order.getOrderDetails().forEach(detail ->
+                quantities.merge(productIds.get(detail.getProductSupplierId()), detail.getQuantity(), Long::sum));
+        return quantities;
+    }
+
+    private static void succeed(OrderImportResultDTO result, Order order) {
+        result.setSuccess(true);
+        result.setOrderId(order.getId());
+        result.setTotal(order.getTotal());
+        result.setError(null);
+    }
+
+    private static void fail(OrderImportResultDTO result, RuntimeException e) {
+        result.setSuccess(false);
+        result.setOrderId(null);
+        result.setTotal(null);
+        result.setError(e.getMessage());
+    }
+
+    private static Map<String, OrderRequestDTO> parseCsv(String csv) {
+        if (csv == null || csv.isBlank()) {
+            throw new InvalidArgumentException("The CSV is empty.");
+        }
+        String[] rows = csv.split("\r?\n");
+        if (!CSV_HEADER.equals(parseCsvRow(rows[0].trim(), 1))) {
+            throw new InvalidArgumentException("The CSV header must be " + String.join(",", CSV_HEADER) + ".");
+        }
+
+        Map<String, OrderRequestDTO> orders = new LinkedHashMap<>();
+        for (int row = 1; row < rows.length; row++) {
+            if (rows[row].isBlank()) {
+                continue;
+            }
+            List<String> columns = parseCsvRow(rows[row], row + 1);
+            if (columns.size() != CSV_HEADER.size()) {
+                throw new InvalidArgumentException("Row " + (row + 1) + " must have " + CSV_HEADER.size() + " columns.");
+            }
+            String reference = columns.get(0);
+            if (reference.isEmpty()) {
+                throw new InvalidArgumentException("Row " + (row + 1) + " has no reference.");
+            }
+
+            OrderRequestDTO request = orders.computeIfAbsent(reference, ref -> {
+                OrderDTO order = new OrderDTO();
+                order.setSupplierName(columns.get(1));
+                order.setOrderDate(columns.get(2));
+                order.setObservations(columns.get(3).isEmpty() ? null : columns.get(3));
+                OrderRequestDTO orderRequest = new OrderRequestDTO();
+                orderRequest.setOrder(order);
+                orderRequest.setOrderDetails(new ArrayList<>());
+                return orderRequest;
+            });
+
+            OrderDetailDTO detail = new OrderDetailDTO();
+            detail.setProductName(columns.get(4));
+            try {
+                detail.setQuantity(Long.parseLong(columns.get(5).trim()));
+            } catch (NumberFormatException e) {
+                throw new InvalidArgumentException("Row " + (row + 1) + " has an invalid quantity.");
+            }
+            request.getOrderDetails().add(detail);
+        }
+        if (orders.isEmpty()) {
+            throw new InvalidArgumentException("The CSV has no orders.");
+        }
+        return orders;
+    }
+
+    private static List<String> parseCsvRow(String row, int rowNumber) {
+        List<String> columns = new ArrayList<>();
+        StringBuilder column = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < row.length(); i++) {
+            char c = row.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < row.length() && row.charAt(i + 1) == '"') {
+                    column.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    column.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                columns.add(column.toString());
+                column.setLength(0);
+            } else {
+                column.append(c);
+            }
+        }
+        if (quoted) {
+            throw new InvalidArgumentException("Row " + rowNumber + " has an unclosed quote.");
+        }
+        columns.add(column.toString());
+        return columns;
+    }
+}
@@ -0,0 +1,77 @@
+package ucv.app_inventory.order_service.application;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ucv.app_inventory.order_service.application.dto.OrderEventDTO;
+import ucv.app_inventory.order_service.domain.model.Order;
+import ucv.app_inventory.order_service.domain.model.OrderEventType;
+import ucv.app_inventory.order_service.domain.model.OrderOutboxEvent;
+import ucv.app_inventory.order_service.domain.model.OrderState;
+import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderOutboxMySqlRepository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Records the lifecycle events of orders in the outbox table. Every method joins the
+ * transaction that changes the order, and refuses to run without one, so an event is stored
+ * exactly when the change is committed; the relay publishes it afterwards.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderOutbox {
+
+    private final OrderOutboxMySqlRepository orderOutboxMySqlRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderCreated(Order order) {
+        orderOutboxMySqlRepository.save(event(OrderEventType.ORDER_CREATED, order, null, order.getStatus()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ordersCreated(Collection<Order> orders) {
+        orderOutboxMySqlRepository.saveAll(orders.stream()
+                .map(order -> event(OrderEventType.ORDER_CREATED, order, null, order.getStatus()))
+                .toList());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderStatusChanged(Order order, OrderState previousStatus, OrderState status) {
+        orderOutboxMySqlRepository.save(event(OrderEventType.ORDER_STATUS_CHANGED, order, previousStatus, status));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderDeleted(Order order) {
+        orderOutboxMySqlRepository.save(event(OrderEventType.ORDER_DELETED, order, null, order.getStatus()));
+    }
+
+    private OrderOutboxEvent event(OrderEventType type, Order order, OrderState previousStatus, OrderState status) {
+        OrderEventDTO payload = new OrderEventDTO();
+        payload.setEventId(UUID.randomUUID().toString());
+        payload.setType(type.getEventName());
+        payload.setOrderId(order.getId());
+        payload.setSupplierId(order.getSupplierId());
+        payload.setStatus(status == null ? null : status.name());
+        payload.setPreviousStatus(previousStatus == null ? null : previousStatus.name());
+        payload.setTotal(order.getTotal());
+        payload.setOrderDate(order.getOrderDate() == null ? null : order.getOrderDate().toString());
+        payload.setOccurredAt(Instant.now().toString());
+
+        OrderOutboxEvent event = new OrderOutboxEvent();
+        event.setOrderId(order.getId());
+        event.setEventType(type);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not write the " + type.getEventName() + " event of order "
+                    + order.getId(), e);
+        }
+        return event;
+    }
+}
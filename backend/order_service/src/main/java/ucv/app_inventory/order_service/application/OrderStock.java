@@ -0,0 +1,362 @@
+package ucv.app_inventory.order_service.application;
+
+import feign.FeignException;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ucv.app_inventory.order_service.application.dto.ProductSupplierDTO;
+import ucv.app_inventory.order_service.application.dto.StockAdjustmentDTO;
+import ucv.app_inventory.order_service.application.dto.StockAdjustmentRequestDTO;
+import ucv.app_inventory.order_service.application.dto.StockAdjustmentResultDTO;
+import ucv.app_inventory.order_service.application.dto.StockReservationItemDTO;
+import ucv.app_inventory.order_service.application.dto.StockReservationRequestDTO;
+import ucv.app_inventory.order_service.domain.model.OrderDetail;
+import ucv.app_inventory.order_service.exception.InsufficientStockException;
+import ucv.app_inventory.order_service.infrastructure.outbound.external.ProductAPIClient;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the stock of the product service in step with the orders:
+ * <ul>
+ *     <li>a pending order reserves its products for a while, so two pending orders do not count
+ *     on the same units;</li>
+ *     <li>a processed order takes its products out of stock, as one batch applied there all or
+ *     nothing, and releases its reservation in the same batch;</li>
+ *     <li>a canceled order releases its reservation.</li>
+ * </ul>
+ * Batches are sent under references derived from the order ID, so sending one again, e.g. when
+ * the update of the order is retried, does not apply it twice. A batch sent within a transaction
+ * that rolls back is undone, so the stock of an order that was not saved is given back, and an
+ * order whose change was not saved keeps the reservation it had.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderStock {
+
+    // The most batches the product service accepts in one call
+    static final int BATCHES_PER_CALL = 500;
+
+    private final ProductAPIClient productAPIClient;
+    private final Logger logger = LoggerFactory.getLogger(OrderStock.class);
+
+    /**
+     * Reserves the products of a new order. If called within a transaction that later rolls back,
+     * the reservation is released again.
+     *
+     * @param orderId    the ID of the order.
+     * @param quantities the quantity of each product.
+     * @throws InsufficientStockException if a product no longer exists or has not enough stock
+     *                                    available.
+     */
+    public void reserve(Long orderId, Map<Long, Long> quantities) {
+        reserve(orderId, quantities, Map.of());
+    }
+
+    /**
+     * Reserves the products of a new order from its details, looking up their products with one call.
+     *
+     * @see #reserve(Long, Map)
+     */
+    public void reserve(Long orderId, Collection<OrderDetail> details) {
+        reserve(orderId, quantities(orderId, details, findRelations(details)));
+    }
+
+    /**
+     * Reserves the products of a changed pending order, replacing its previous reservation, and
+     * looks up the products of both with one call. If called within a transaction that later rolls
+     * back, the previous reservation is put back, or released if the order had none.
+     *
+     * @param orderId       the ID of the order.
+     * @param details       the details of the order after the change.
+     * @param reservedLines the lines the previous reservation was made for, from {@link #linesOf};
+     *                      empty if the order had none.
+     * @throws InsufficientStockException if a product no longer exists or has not enough stock
+     *                                    available; then the previous reservation is kept.
+     */
+    public void reserve(Long orderId, Collection<OrderDetail> details, Map<Long, Long> reservedLines) {
+        Set<Long> productSupplierIds = new HashSet<>(reservedLines.keySet());
+        details.stream().map(OrderDetail::getProductSupplierId).filter(Objects::nonNull).forEach(productSupplierIds::add);
+        Map<Long, ProductSupplierDTO> relations = findRelations(productSupplierIds);
+        Map<Long, Long> previous = new TreeMap<>();
+        reservedLines.forEach((productSupplierId, quantity) -> {
+            ProductSupplierDTO relation = relations.get(productSupplierId);
+            // A product removed since can no longer be reserved again
+            if (relation != null && relation.getProductId() != null) {
+                previous.merge(relation.getProductId(), quantity, Long::sum);
+            }
+        });
+        reserve(orderId, quantities(orderId, details, relations), previous);
+    }
+
+    /**
+     * The quantity of each product-supplier relation in the details of an order. Taken before the
+     * details change, it is what the reservation of the order was made for.
+     *
+     * @param details the details of the order.
+     * @return the quantity by product-supplier relation ID.
+     */
+    public static Map<Long, Long> linesOf(Collection<OrderDetail> details) {
+        Map<Long, Long> lines = new HashMap<>();
+        for (OrderDetail detail : details) {
+            if (detail.getProductSupplierId() != null && detail.getQuantity() != null) {
+                lines.merge(detail.getProductSupplierId(), detail.getQuantity(), Long::sum);
+            }
+        }
+        return lines;
+    }
+
+    private void reserve(Long orderId, Map<Long, Long> quantities, Map<Long, Long> previous) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        List<StockReservationItemDTO> items = items(quantities);
+        try {
+            productAPIClient.reserveStock(new StockReservationRequestDTO(reservation(orderId), null, items));
+        } catch (FeignException.Conflict e) {
+            throw new InsufficientStockException("Not enough stock available for order " + orderId + ".");
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_ROLLED_BACK) {
+                        return;
+                    }
+                    if (previous.isEmpty()) {
+                        releaseNow(List.of(orderId));
+                    } else {
+                        restoreNow(orderId, previous);
+                    }
+                }
+            });
+        }
+        logger.info("Stock of {} products reserved for order {}", items.size(), orderId);
+    }
+
+    private void restoreNow(Long orderId, Map<Long, Long> previous) {
+        try {
+            productAPIClient.reserveStock(new StockReservationRequestDTO(reservation(orderId), null, items(previous)));
+            logger.info("Previous reservation of order {} put back, as its change was rolled back", orderId);
+        } catch (RuntimeException e) {
+            logger.error("Previous reservation of order {} not put back after its change was rolled back: {}",
+                    orderId, e.getMessage());
+        }
+    }
+
+    private static List<StockReservationItemDTO> items(Map<Long, Long> quantities) {
+        return new TreeMap<>(quantities).entrySet().stream()
+                .map(entry -> new StockReservationItemDTO(entry.getKey(), Math.toIntExact(entry.getValue())))
+                .toList();
+    }
+
+    /**
+     * Releases the reservations of orders that will not be processed. Within a transaction they
+     * are released once it commits. Failures are only logged, as reservations expire anyway.
+     *
+     * @param orderIds the IDs of the orders.
+     */
+    public void release(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(orderIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    releaseNow(ids);
+                }
+            });
+        } else {
+            releaseNow(ids);
+        }
+    }
+
+    private void releaseNow(List<Long> orderIds) {
+        try {
+            productAPIClient.releaseReservations(orderIds.stream().map(OrderStock::reservation).toList());
+        } catch (RuntimeException e) {
+            logger.warn("Reservations of orders {} not released, they will expire: {}", orderIds, e.getMessage());
+        }
+    }
+
+    /**
+     * Takes the products of an order out of stock. If called within a transaction that later rolls
+     * back, the stock is given back.
+     *
+     * @param orderId the ID of the order.
+     * @param details the details of the order.
+     * @throws InsufficientStockException if a product no longer exists or has not enough stock;
+     *                                    then no stock changes.
+     */
+    public void consume(Long orderId, Collection<OrderDetail> details) {
+        Map<Long, ProductSupplierDTO> relations = findRelations(details);
+        adjust(orderId, details, relations);
+    }
+
+    /**
+     * Takes the products of several orders out of stock, looking up their products with one call
+     * and sending the batches of up to {@value #BATCHES_PER_CALL} orders in one call, each batch
+     * applied or rejected on its own. If called within a transaction that later rolls back, the
+     * stock is given back.
+     *
+     * @param detailsByOrder the details of each order.
+     * @return the IDs of the orders whose stock could not be taken; nothing changed for them.
+     */
+    public Set<Long> consumeAll(Map<Long, ? extends Collection<OrderDetail>> detailsByOrder) {
+        Map<Long, ProductSupplierDTO> relations = findRelations(detailsByOrder.values().stream()
+                .flatMap(Collection::stream)
+                .toList());
+        Set<Long> failed = new LinkedHashSet<>();
+        Map<Long, List<StockAdjustmentDTO>> adjustmentsByOrder = new LinkedHashMap<>();
+        detailsByOrder.forEach((orderId, details) -> {
+            try {
+                List<StockAdjustmentDTO> adjustments = adjustments(orderId, details, relations);
+                if (!adjustments.isEmpty()) {
+                    adjustmentsByOrder.put(orderId, adjustments);
+                }
+            } catch (InsufficientStockException e) {
+                logger.warn("Stock of order {} not taken: {}", orderId, e.getMessage());
+                failed.add(orderId);
+            }
+        });
+
+        List<Long> orderIds = new ArrayList<>(adjustmentsByOrder.keySet());
+        for (int start = 0; start < orderIds.size(); start += BATCHES_PER_CALL) {
+            List<Long> chunk = orderIds.subList(start, Math.min(start + BATCHES_PER_CALL, orderIds.size()));
+            List<StockAdjustmentResultDTO> results;
+            try {
+                results = productAPIClient.adjustStocks(chunk.stream()
+                        .map(orderId -> new StockAdjustmentRequestDTO(reference(orderId), reservation(orderId), null,
+                                adjustmentsByOrder.get(orderId)))
+                        .toList());
+            } catch (RuntimeException e) {
+                // Some batches may have been applied before the call failed; undoing one that was not is a no-op
+                chunk.forEach(orderId -> revertOnRollback(orderId, adjustmentsByOrder.get(orderId)));
+                throw e;
+            }
+            for (int i = 0; i < chunk.size(); i++) {
+                Long orderId = chunk.get(i);
+                StockAdjustmentResultDTO result = results.get(i);
+                if (!result.isApplied()) {
+                    logger.warn("Stock of order {} not taken: products {} rejected", orderId, result.getRejectedProductIds());
+                    failed.add(orderId);
+                } else if (!result.isReplayed()) {
+                    revertOnRollback(orderId, adjustmentsByOrder.get(orderId));
+                }
+            }
+        }
+        logger.info("Stock taken for {} of {} orders", detailsByOrder.size() - failed.size(), detailsByOrder.size());
+        return failed;
+    }
+
+    private void adjust(Long orderId, Collection<OrderDetail> details, Map<Long, ProductSupplierDTO> relations) {
+        List<StockAdjustmentDTO> adjustments = adjustments(orderId, details, relations);
+        if (adjustments.isEmpty()) {
+            return;
+        }
+        StockAdjustmentResultDTO result;
+        try {
+            result = productAPIClient.adjustStock(new StockAdjustmentRequestDTO(reference(orderId), reservation(orderId),
+                    null, adjustments));
+        } catch (FeignException.Conflict e) {
+            throw new InsufficientStockException("Not enough stock to process order " + orderId + ".");
+        } catch (RuntimeException e) {
+            // The batch may have been applied before the call failed; undoing one that was not is a no-op
+            revertOnRollback(orderId, adjustments);
+            throw e;
+        }
+        // A replayed batch belongs to an earlier transaction, which is not this one to undo
+        if (result == null || !result.isReplayed()) {
+            revertOnRollback(orderId, adjustments);
+        }
+        logger.info("Stock of {} products taken for order {}", adjustments.size(), orderId);
+    }
+
+    private List<StockAdjustmentDTO> adjustments(Long orderId, Collection<OrderDetail> details,
+                                                 Map<Long, ProductSupplierDTO> relations) {
+        return quantities(orderId, details, relations).entrySet().stream()
+                .map(entry -> new StockAdjustmentDTO(entry.getKey(), -Math.toIntExact(entry.getValue())))
+                .toList();
+    }
+
+    private void revertOnRollback(Long orderId, List<StockAdjustmentDTO> adjustments) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        List<StockAdjustmentDTO> inverse = adjustments.stream()
+                .map(adjustment -> new StockAdjustmentDTO(adjustment.getProductId(), -adjustment.getDelta()))
+                .toList();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    revertNow(orderId, inverse);
+                }
+            }
+        });
+    }
+
+    private void revertNow(Long orderId, List<StockAdjustmentDTO> inverse) {
+        try {
+            productAPIClient.adjustStock(new StockAdjustmentRequestDTO(null, null, reference(orderId), inverse));
+            logger.info("Stock of order {} given back, as its update was rolled back", orderId);
+        } catch (RuntimeException e) {
+            logger.error("Stock of order {} not given back after its update was rolled back: {}", orderId, e.getMessage());
+        }
+    }
+
+    // Lines store the product-supplier relation, while stock is kept per product
+    private static Map<Long, Long> quantities(Long orderId, Collection<OrderDetail> details,
+                                              Map<Long, ProductSupplierDTO> relations) {
+        Map<Long, Long> quantities = new TreeMap<>();
+        for (OrderDetail detail : details) {
+            ProductSupplierDTO relation = relations.get(detail.getProductSupplierId());
+            if (relation == null || relation.getProductId() == null) {
+                throw new InsufficientStockException("The product of relation " + detail.getProductSupplierId()
+                        + " in order " + orderId + " no longer exists.");
+            }
+            quantities.merge(relation.getProductId(), detail.getQuantity(), Long::sum);
+        }
+        return quantities;
+    }
+
+    static String reference(Long orderId) {
+        return "order-" + orderId + "-processed";
+    }
+
+    static String reservation(Long orderId) {
+        return "order-" + orderId;
+    }
+
+    private Map<Long, ProductSupplierDTO> findRelations(Collection<OrderDetail> details) {
+        return findRelations(details.stream()
+                .map(OrderDetail::getProductSupplierId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+    }
+
+    private Map<Long, ProductSupplierDTO> findRelations(Set<Long> productSupplierIds) {
+        if (productSupplierIds.isEmpty()) {
+            return Map.of();
+        }
+        return productAPIClient.getRelationsByIds(productSupplierIds).stream()
+                .collect(Collectors.toMap(ProductSupplierDTO::getId, Function.identity(), (a, b) -> a));
+    }
+}
@@ -0,0 +1,65 @@
+package ucv.app_inventory.order_service.application;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import ucv.app_inventory.order_service.application.dto.ProductSupplierDTO;
+import ucv.app_inventory.order_service.domain.model.Order;
+import ucv.app_inventory.order_service.domain.model.OrderDetail;
+import ucv.app_inventory.order_service.exception.ProductSupplierNotFound;
+import ucv.app_inventory.order_service.infrastructure.cache.OrderCacheTags;
+import ucv.app_inventory.order_service.infrastructure.cache.OrderQueryCache;
+import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderMySqlRepository;
+import ucv.app_inventory.order_service.infrastructure.outbound.external.ProductAPIClient;
+
+import java.math.BigDecimal;
+
+/**
+ * Keeps the total of an order in sync when one of its lines changes, by applying the
+ * difference of that line alone instead of pricing every line again.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderTotals {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderTotals.class);
+
+    private final OrderMySqlRepository orderMySqlRepository;
+    private final ProductAPIClient productAPIClient;
+    private final OrderQueryCache orderQueryCache;
+
+    /**
+     * Returns the total of a line from its stored unit price. Lines priced before unit prices
+     * were stored fall back to the current price of their product-supplier relation, which is
+     * then stored on the line.
+     *
+     * @param detail the order line.
+     * @return the total of the line.
+     * @throws ProductSupplierNotFound if the line has no stored price and its relation no longer exists.
+     */
+    public BigDecimal lineTotalOf(OrderDetail detail) {
+        if (detail.getUnitPrice() == null) {
+            ProductSupplierDTO relation = productAPIClient.getRelationById(detail.getProductSupplierId())
+                    .orElseThrow(() -> new ProductSupplierNotFound("Product-Supplier relation not found"));
+            detail.setUnitPrice(relation.getPrice());
+        }
+        return OrderCreateUseCase.lineTotal(detail.getUnitPrice(), detail.getQuantity());
+    }
+
+    /**
+     * Adds the difference of a changed line to the total of its order and evicts the cached
+     * queries the order appears in.
+     *
+     * @param order the order of the line.
+     * @param delta the new line total minus the old one.
+     */
+    public void applyDelta(Order order, BigDecimal delta) {
+        if (delta.signum() == 0) {
+            return;
+        }
+        orderMySqlRepository.addToTotal(order.getId(), delta);
+        orderQueryCache.evictTagged(OrderCacheTags.of(order));
+        logger.info("Total of order {} changed by {}", order.getId(), delta);
+    }
+}
@@ -4,24 +4,47 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ucv.app_inventory.order_service.application.dto.OrderDTO;
 import ucv.app_inventory.order_service.application.dto.OrderDetailDTO;
 import ucv.app_inventory.order_service.application.dto.OrderRequestDTO;
+import ucv.app_inventory.order_service.application.dto.OrderStatusBulkResultDTO;
+import ucv.app_inventory.order_service.application.dto.ProductDTO;
+import ucv.app_inventory.order_service.application.dto.ProductSupplierDTO;
 import ucv.app_inventory.order_service.application.dto.SupplierDTO;
 import ucv.app_inventory.order_service.domain.model.Order;
+import ucv.app_inventory.order_service.domain.model.OrderDetail;
 import ucv.app_inventory.order_service.domain.model.OrderState;
 import ucv.app_inventory.order_service.exception.*;
+import ucv.app_inventory.order_service.infrastructure.cache.OrderCacheTags;
+import ucv.app_inventory.order_service.infrastructure.cache.OrderQueryCache;
 import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderDetailMySqlRepository;
 import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderMySqlRepository;
+import ucv.app_inventory.order_service.infrastructure.outbound.external.ProductAPIClient;
 import ucv.app_inventory.order_service.infrastructure.outbound.external.SupplierAPIClient;
 import ucv.app_inventory.order_service.application.dto.mappers.OrderMapper;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 @Slf4j
@@ -34,20 +57,72 @@ public class OrderUpdateUseCase {
     private final OrderCreateUseCase orderCreateUseCase;
     private final OrderFindUseCase orderFindUseCase;
     private final SupplierAPIClient supplierAPIClient;
+    private final ProductAPIClient productAPIClient;
     private final OrderMapper orderMapper;
+    private final OrderQueryCache orderQueryCache;
+    private final OptimisticRetry optimisticRetry;
+    private final OrderOutbox orderOutbox;
+    private final OrderStock orderStock;
     private final Logger logger = LoggerFactory.getLogger(OrderUpdateUseCase.class);
 
-    @Transactional
-    @CacheEvict(value = "orders")
-    // Evicts the cache for the specific order to ensure the latest version is fetched.
+    // Largest number of orders one bulk status change may name, to keep its IN lists bounded.
+    public static final int MAX_BULK_STATUS_CHANGES = 5000;
+
+    /**
+     * Updates an order. If the request carries the version the client read, the order must
+     * still have it; otherwise the update is applied to the current order, and run again from
+     * a fresh read when a concurrent write to the same order commits first.
+     *
+     * @param id              the ID of the order.
+     * @param orderRequestDTO the changes to the order and its details.
+     * @return the updated order.
+     * @throws VersionConflictException if the order no longer has the version of the request,
+     *                                  or kept changing until the retries ran out.
+     * @throws InsufficientStockException if the order moves to PROCESSED and its products are not in stock,
+     *                                    or stays PENDING with new details whose products cannot be reserved.
+     */
+    // Evicts the cached queries the order belonged to before the update and those it belongs to after it.
     public Order updateOrder(Long id, OrderRequestDTO orderRequestDTO) {
+        return optimisticRetry.execute("Order " + id, () -> applyUpdate(id, orderRequestDTO),
+                () -> orderMySqlRepository.findById(id).map(Order::getVersion).orElse(null));
+    }
+
+    private Order applyUpdate(Long id, OrderRequestDTO orderRequestDTO) {
         OrderDTO oldOrderDTO = orderFindUseCase.findById(id);
+        Long expectedVersion = orderRequestDTO.getOrder() == null ? null : orderRequestDTO.getOrder().getVersion();
+        if (expectedVersion != null && !expectedVersion.equals(oldOrderDTO.getVersion())) {
+            throw new VersionConflictException("Order " + id + " was changed by another request; its current version is "
+                    + oldOrderDTO.getVersion() + ".", oldOrderDTO.getVersion());
+        }
         Order oldOrder = orderMapper.mapToOrder(oldOrderDTO);
-        Order orderToUpdate = validateChanges(oldOrder, oldOrderDTO, orderRequestDTO.getOrder(), orderRequestDTO.getOrderDetails());
-        return orderMySqlRepository.save(orderToUpdate);
+        Set<String> tagsBefore = OrderCacheTags.of(oldOrder);
+        OrderState previousStatus = oldOrder.getStatus();
+        boolean newDetails = orderRequestDTO.getOrderDetails() != null && !orderRequestDTO.getOrderDetails().isEmpty();
+        List<OrderDetail> currentDetails = orderDetailMySqlRepository.findByOrderId(id);
+        // Taken before the details are reconciled, which changes the loaded ones in place
+        Map<Long, Long> reservedLines = previousStatus == OrderState.PENDING ? OrderStock.linesOf(currentDetails) : Map.of();
+        Order orderToUpdate = validateChanges(oldOrder, oldOrderDTO, orderRequestDTO.getOrder(),
+                orderRequestDTO.getOrderDetails(), currentDetails);
+        if (orderToUpdate.getStatus() == OrderState.PROCESSED && previousStatus != OrderState.PROCESSED) {
+            orderStock.consume(id, orderToUpdate.getOrderDetails());
+        } else if (orderToUpdate.getStatus() == OrderState.PENDING && newDetails) {
+            orderStock.reserve(id, orderToUpdate.getOrderDetails(), reservedLines);
+        }
+        Order saved = orderMySqlRepository.save(orderToUpdate);
+        if (saved.getStatus() == OrderState.CANCELED && previousStatus != OrderState.CANCELED) {
+            orderStock.release(List.of(id));
+        }
+        if (saved.getStatus() != previousStatus) {
+            orderOutbox.orderStatusChanged(saved, previousStatus, saved.getStatus());
+        }
+        Set<String> affected = new HashSet<>(tagsBefore);
+        affected.addAll(OrderCacheTags.of(saved));
+        orderQueryCache.evictTagged(affected);
+        return saved;
     }
 
-    public Order validateChanges(Order oldOrder, OrderDTO oldOrderDTO, OrderDTO newOrderDTO, List<OrderDetailDTO> orderDetailDTOList) {
+    public Order validateChanges(Order oldOrder, OrderDTO oldOrderDTO, OrderDTO newOrderDTO, List<OrderDetailDTO> orderDetailDTOList,
+                                 List<OrderDetail> currentDetails) {
 
         logger.info("Validating changes for {}", newOrderDTO);
 
@@ -91,18 +166,238 @@ public class OrderUpdateUseCase {
             oldOrder.setObservations(newOrderDTO.getObservations());
         }
 
-        // Update orderDetails
+        // Update orderDetails. The order is saved with the details it holds, so the current ones
+        // are always attached; otherwise saving it would remove them.
+        oldOrder.getOrderDetails().clear();
         if(orderDetailDTOList != null && !orderDetailDTOList.isEmpty()){
-            orderDetailMySqlRepository.deleteAll(orderDetailMySqlRepository.findByOrderId(oldOrder.getId()));
-            BigDecimal total = orderCreateUseCase.processOrderDetails(orderDetailDTOList, supplierDTO.getName(), oldOrder);
-            oldOrder.setTotal(total);
-            oldOrder.getOrderDetails().clear();
-            oldOrder.getOrderDetails().addAll(orderDetailMySqlRepository.findByOrderId(oldOrder.getId()));
+            reconcileDetails(oldOrder, currentDetails, orderDetailDTOList, supplierDTO.getName());
+        } else {
+            oldOrder.getOrderDetails().addAll(currentDetails);
         }
 
         return oldOrder;
     }
 
+    /**
+     * Replaces the details of the order with the requested lines, matching them by product name,
+     * ignoring case, with the current details. Matched details are kept, with their quantity
+     * updated if it changed; only lines for other products are resolved against the product
+     * service and added, and current details left unmatched are removed when the order is saved.
+     *
+     * @param order          the order being updated; its details are set to the reconciled ones.
+     * @param currentDetails the details the order has now.
+     * @param lines          the requested lines.
+     * @param supplierName   the name of the supplier of the order.
+     * @throws InvalidArgumentException if a line is invalid or its product cannot be resolved.
+     */
+    private void reconcileDetails(Order order, List<OrderDetail> currentDetails, List<OrderDetailDTO> lines,
+                                  String supplierName) {
+        validateLines(lines);
+
+        // Current details by product name, from the name and unit price stored on each line. Lines
+        // priced before those were stored are looked up once, and the result is stored on them.
+        Map<Long, ProductSupplierDTO> relations = findRelations(currentDetails.stream()
+                .filter(detail -> detail.getProductName() == null || detail.getUnitPrice() == null)
+                .toList());
+        Map<Long, String> productNames = findProductNames(currentDetails.stream()
+                .filter(detail -> detail.getProductName() == null)
+                .map(detail -> relations.get(detail.getProductSupplierId()))
+                .filter(Objects::nonNull)
+                .toList());
+        Map<String, Deque<OrderDetail>> currentByName = new HashMap<>();
+        for (OrderDetail detail : currentDetails) {
+            ProductSupplierDTO relation = relations.get(detail.getProductSupplierId());
+            if (relation != null) {
+                if (detail.getProductName() == null) {
+                    detail.setProductName(productNames.get(relation.getProductId()));
+                }
+                if (detail.getUnitPrice() == null) {
+                    detail.setUnitPrice(relation.getPrice());
+                }
+            }
+            if (detail.getProductName() != null && detail.getUnitPrice() != null) {
+                currentByName.computeIfAbsent(nameKey(detail.getProductName()), name -> new ArrayDeque<>()).add(detail);
+            }
+        }
+
+        BigDecimal total = BigDecimal.ZERO;
+        List<OrderDetailDTO> addedLines = new ArrayList<>();
+        Set<OrderDetail> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        int updated = 0;
+        for (OrderDetailDTO line : lines) {
+            Deque<OrderDetail> matches = currentByName.get(nameKey(line.getProductName()));
+            OrderDetail detail = matches == null ? null : matches.poll();
+            if (detail == null) {
+                addedLines.add(line);
+                continue;
+            }
+            if (!line.getQuantity().equals(detail.getQuantity())) {
+                detail.setQuantity(line.getQuantity());
+                updated++;
+            }
+            kept.add(detail);
+            order.getOrderDetails().add(detail);
+            total = total.add(OrderCreateUseCase.lineTotal(detail.getUnitPrice(), detail.getQuantity()));
+        }
+
+        // A name spelled differently from the product may still resolve to a current detail
+        OrderCreateUseCase.PricedOrderDetails added = orderCreateUseCase.priceDetails(addedLines, supplierName, order);
+        for (OrderDetail newDetail : added.details()) {
+            OrderDetail detail = currentDetails.stream()
+                    .filter(current -> !kept.contains(current)
+                            && current.getProductSupplierId().equals(newDetail.getProductSupplierId()))
+                    .findFirst()
+                    .orElse(newDetail);
+            if (detail != newDetail) {
+                detail.setQuantity(newDetail.getQuantity());
+                detail.setUnitPrice(newDetail.getUnitPrice());
+                detail.setProductName(newDetail.getProductName());
+                kept.add(detail);
+                updated++;
+            }
+            order.getOrderDetails().add(detail);
+        }
+        order.setTotal(total.add(added.total()));
+
+        logger.info("Details of order {} reconciled: {} kept, {} updated, {} added, {} removed", order.getId(),
+                kept.size(), updated, order.getOrderDetails().size() - kept.size(), currentDetails.size() - kept.size());
+    }
+
+    private static String nameKey(String productName) {
+        return productName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void validateLines(List<OrderDetailDTO> lines) {
+        for (OrderDetailDTO line : lines) {
+            if (line.getProductName() == null || line.getProductName().trim().isEmpty()) {
+                throw new InvalidArgumentException("Product name cannot be null or empty.");
+            }
+            if (line.getQuantity() == null || line.getQuantity() <= 0) {
+                throw new InvalidArgumentException("Quantity of product " + line.getProductName()
+                        + " must be greater than zero.");
+            }
+        }
+    }
+
+    private Map<Long, ProductSupplierDTO> findRelations(List<OrderDetail> details) {
+        Set<Long> productSupplierIds = details.stream()
+                .map(OrderDetail::getProductSupplierId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (productSupplierIds.isEmpty()) {
+            return Map.of();
+        }
+        return productAPIClient.getRelationsByIds(productSupplierIds).stream()
+                .collect(Collectors.toMap(ProductSupplierDTO::getId, Function.identity(), (a, b) -> a));
+    }
+
+    private Map<Long, String> findProductNames(Collection<ProductSupplierDTO> relations) {
+        Set<Long> productIds = relations.stream()
+                .map(ProductSupplierDTO::getProductId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        return productAPIClient.getProductsByIds(productIds).stream()
+                .filter(product -> product.getName() != null)
+                .collect(Collectors.toMap(ProductDTO::getId, ProductDTO::getName, (a, b) -> a));
+    }
+
+    /**
+     * Moves many orders to a status at once. The orders are read and locked with one query,
+     * classified with {@link #isValidStateTransition}, and the valid ones are updated with one
+     * UPDATE guarded by the statuses they may come from. Orders that cannot make the transition
+     * are reported instead of failing the whole request. Orders moving to PROCESSED take their
+     * products out of stock first, with one call to the product service for up to 500 orders while
+     * their rows are locked, and those without enough stock are rejected;
+     * orders moving to CANCELED release their reservations once the change commits.
+     *
+     * @param ids    the IDs of the orders.
+     * @param status the new status.
+     * @return the updated, unchanged, rejected and unknown IDs.
+     * @throws InvalidArgumentException if no IDs are given, too many are given or the status is not valid.
+     */
+    @Transactional
+    public OrderStatusBulkResultDTO updateStatuses(List<Long> ids, String status) {
+        if (ids == null || ids.isEmpty()) {
+            throw new InvalidArgumentException("At least one order ID is required.");
+        }
+        if (ids.size() > MAX_BULK_STATUS_CHANGES) {
+            throw new InvalidArgumentException("At most " + MAX_BULK_STATUS_CHANGES + " orders can change status at once.");
+        }
+        if (status == null) {
+            throw new InvalidArgumentException("The status is not valid.");
+        }
+        OrderState target = validateStatus(status);
+        Set<OrderState> sources = EnumSet.noneOf(OrderState.class);
+        for (OrderState state : OrderState.values()) {
+            if (state != target && isValidStateTransition(state, target)) {
+                sources.add(state);
+            }
+        }
+
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        OrderStatusBulkResultDTO result = new OrderStatusBulkResultDTO();
+        result.setStatus(target.name());
+        Set<String> affected = new HashSet<>();
+        Map<Long, Order> orders = new HashMap<>();
+        for (Order order : orderMySqlRepository.findAllForUpdateByIdIn(requested)) {
+            orders.put(order.getId(), order);
+        }
+        for (Long id : requested) {
+            Order order = orders.get(id);
+            if (order == null) {
+                result.getNotFound().add(id);
+            } else if (order.getStatus() == target) {
+                result.getUnchanged().add(id);
+            } else if (sources.contains(order.getStatus())) {
+                result.getUpdated().add(id);
+            } else {
+                result.getRejected().add(id);
+            }
+        }
+
+        if (target == OrderState.PROCESSED && !result.getUpdated().isEmpty()) {
+            Map<Long, List<OrderDetail>> detailsByOrder = new LinkedHashMap<>();
+            result.getUpdated().forEach(id -> detailsByOrder.put(id, new ArrayList<>()));
+            for (OrderDetail detail : orderDetailMySqlRepository.findByOrderIdIn(result.getUpdated())) {
+                detailsByOrder.get(detail.getOrder().getId()).add(detail);
+            }
+            Set<Long> withoutStock = orderStock.consumeAll(detailsByOrder);
+            result.getUpdated().removeAll(withoutStock);
+            result.getRejected().addAll(withoutStock);
+        }
+
+        for (Long id : result.getUpdated()) {
+            Order order = orders.get(id);
+            affected.addAll(OrderCacheTags.of(order));
+            affected.add(OrderCacheTags.status(target));
+            affected.add(OrderCacheTags.supplierAndStatus(order.getSupplierId(), target));
+        }
+        if (!result.getUpdated().isEmpty()) {
+            int updated = orderMySqlRepository.updateStatusByIdInAndStatusIn(result.getUpdated(), target, sources);
+            if (updated != result.getUpdated().size()) {
+                // The rows are locked, so this means the orders changed outside of this service
+                throw new IllegalStateException("Expected to update " + result.getUpdated().size()
+                        + " orders but updated " + updated + ".");
+            }
+            for (Long id : result.getUpdated()) {
+                Order order = orders.get(id);
+                orderOutbox.orderStatusChanged(order, order.getStatus(), target);
+            }
+            if (target == OrderState.CANCELED) {
+                orderStock.release(result.getUpdated());
+            }
+            orderQueryCache.evictTagged(affected);
+        }
+        logger.info("Bulk status change to {}: {} updated, {} unchanged, {} rejected, {} not found", target,
+                result.getUpdated().size(), result.getUnchanged().size(), result.getRejected().size(),
+                result.getNotFound().size());
+        return result;
+    }
+
     /**
      * Validates whether a state transition is allowed based on the current and new state.
      *
@@ -0,0 +1,116 @@
+package ucv.app_inventory.order_service.application;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import ucv.app_inventory.order_service.application.dto.SupplierDTO;
+import ucv.app_inventory.order_service.domain.model.SupplierProjection;
+import ucv.app_inventory.order_service.infrastructure.outbound.database.SupplierProjectionMySqlRepository;
+import ucv.app_inventory.order_service.infrastructure.outbound.external.SupplierAPIClient;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Resolves supplier names and IDs from the local supplier read model.
+ * The Supplier service is only called for suppliers the local copy does not know yet
+ * (e.g. created moments ago, before their change notification arrived); whatever it
+ * returns is stored locally so the next lookup is served without a remote call.
+ */
+@Service
+@RequiredArgsConstructor
+public class SupplierDirectory {
+
+    private static final Logger logger = LoggerFactory.getLogger(SupplierDirectory.class);
+
+    private final SupplierProjectionMySqlRepository supplierProjectionRepository;
+    private final SupplierAPIClient supplierAPIClient;
+
+    /**
+     * Resolves the names of the given suppliers. Suppliers that exist neither locally
+     * nor in the Supplier service are absent from the result.
+     *
+     * @param supplierIds the supplier IDs to resolve.
+     * @return the supplier names keyed by supplier ID.
+     */
+    public Map<Long, String> findNamesByIds(Collection<Long> supplierIds) {
+        if (supplierIds == null || supplierIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, String> names = new HashMap<>();
+        for (SupplierProjection supplier : supplierProjectionRepository.findAllById(supplierIds)) {
+            names.put(supplier.getSupplierId(), supplier.getName());
+        }
+
+        Set<Long> missing = new HashSet<>(supplierIds);
+        missing.removeAll(names.keySet());
+        if (!missing.isEmpty()) {
+            logger.info("{} of {} suppliers not replicated yet, asking the supplier service", missing.size(), supplierIds.size());
+            for (SupplierDTO supplierDTO : supplierAPIClient.getSuppliersByIds(missing)) {
+                store(supplierDTO);
+                names.put(supplierDTO.getId(), supplierDTO.getName());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Finds the ID of the first supplier whose name starts with the given name.
+     *
+     * @param name the supplier name (or name prefix).
+     * @return the supplier ID, or empty if no supplier matches.
+     */
+    public Optional<Long> findIdByName(String name) {
+        Optional<SupplierProjection> local = supplierProjectionRepository.findFirstByNameStartingWithOrderBySupplierIdAsc(name);
+        if (local.isPresent()) {
+            return Optional.of(local.get().getSupplierId());
+        }
+
+        Page<SupplierDTO> suppliers = supplierAPIClient.getSupplierByName(name, Pageable.unpaged());
+        if (suppliers.getContent().isEmpty()) {
+            return Optional.empty();
+        }
+        suppliers.getContent().forEach(this::store);
+        return Optional.of(suppliers.getContent().getFirst().getId());
+    }
+
+    /**
+     * Inserts or refreshes the local copy of a supplier.
+     *
+     * @param supplierId the supplier ID.
+     * @param name       the supplier name.
+     * @param state      the supplier state.
+     */
+    public void upsert(Long supplierId, String name, String state) {
+        SupplierProjection supplier = new SupplierProjection();
+        supplier.setSupplierId(supplierId);
+        supplier.setName(name);
+        supplier.setState(state);
+        supplier.setUpdatedAt(LocalDateTime.now());
+        supplierProjectionRepository.save(supplier);
+    }
+
+    /**
+     * Removes the local copy of a supplier that was deleted in the Supplier service.
+     *
+     * @param supplierId the supplier ID.
+     */
+    public void remove(Long supplierId) {
+        if (supplierProjectionRepository.existsById(supplierId)) {
+            supplierProjectionRepository.deleteById(supplierId);
+        }
+    }
+
+    private void store(SupplierDTO supplierDTO) {
+        upsert(supplierDTO.getId(), supplierDTO.getName(), supplierDTO.getState());
+    }
+}
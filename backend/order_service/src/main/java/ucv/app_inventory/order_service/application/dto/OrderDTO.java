@@ -17,4 +17,5 @@ public class OrderDTO {
     private String orderDate;
     private BigDecimal total;
     private LocalDateTime createdAt;
+    private Long version;
 }
\ No newline at end of file
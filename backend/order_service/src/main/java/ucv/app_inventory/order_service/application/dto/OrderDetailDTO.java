@@ -3,6 +3,8 @@ package ucv.app_inventory.order_service.application.dto;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 
+import java.math.BigDecimal;
+
 @Data
 public class OrderDetailDTO {
 
@@ -15,4 +17,12 @@ public class OrderDetailDTO {
     private String productName;
 
     private Long quantity;
+
+    @JsonProperty("unit_price")
+    private BigDecimal unitPrice;
+
+    @JsonProperty("line_total")
+    private BigDecimal lineTotal;
+
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package ucv.app_inventory.order_service.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderEventDTO {
+
+    // Unique per event, so consumers can drop the duplicates an at-least-once relay may deliver.
+    @JsonProperty("event_id")
+    private String eventId;
+
+    private String type;
+
+    @JsonProperty("order_id")
+    private Long orderId;
+
+    @JsonProperty("supplier_id")
+    private Long supplierId;
+
+    private String status;
+
+    @JsonProperty("previous_status")
+    private String previousStatus;
+
+    private BigDecimal total;
+
+    @JsonProperty("order_date")
+    private String orderDate;
+
+    @JsonProperty("occurred_at")
+    private String occurredAt;
+}
@@ -0,0 +1,16 @@
+package ucv.app_inventory.order_service.application.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class OrderFullDTO extends OrderDTO {
+
+    private List<OrderDetailDTO> details = new ArrayList<>();
+}
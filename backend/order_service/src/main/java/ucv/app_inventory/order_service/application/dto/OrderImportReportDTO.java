@@ -0,0 +1,14 @@
+package ucv.app_inventory.order_service.application.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class OrderImportReportDTO {
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<OrderImportResultDTO> results = new ArrayList<>();
+}
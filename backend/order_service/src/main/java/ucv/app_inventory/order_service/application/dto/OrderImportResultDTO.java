@@ -0,0 +1,19 @@
+package ucv.app_inventory.order_service.application.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class OrderImportResultDTO {
+    // Position of the order in the request, starting at 0.
+    private int index;
+
+    // Reference given to the order in a CSV import.
+    private String reference;
+
+    private boolean success;
+    private Long orderId;
+    private BigDecimal total;
+    private String error;
+}
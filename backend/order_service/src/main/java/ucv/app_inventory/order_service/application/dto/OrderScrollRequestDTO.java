@@ -0,0 +1,35 @@
+package ucv.app_inventory.order_service.application.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Query parameters of a keyset (cursor) scroll over orders. Every filter is optional;
+ * the cursor returned by the previous slice continues the same query.
+ */
+@Data
+public class OrderScrollRequestDTO {
+
+    // Sort key: orderDate (orders by date, id) or creationDate (orders by creation_date, id).
+    private String sortBy = "orderDate";
+    private String direction = "ASC";
+
+    private String status;
+    private String supplierName;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate startDate;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate endDate;
+
+    private int size = 20;
+
+    // Opaque continuation token; empty for the first slice.
+    private String cursor;
+
+    // The total is only counted when asked for, since it costs a full scan of the matching rows.
+    private boolean includeCount = false;
+}
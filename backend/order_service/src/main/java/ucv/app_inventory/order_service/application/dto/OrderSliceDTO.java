@@ -0,0 +1,21 @@
+package ucv.app_inventory.order_service.application.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One slice of a keyset scroll over orders.
+ */
+@Data
+public class OrderSliceDTO {
+    private List<OrderDTO> content;
+    private int size;
+    private boolean hasNext;
+
+    // Pass back as cursor to fetch the next slice; null on the last slice.
+    private String nextCursor;
+
+    // Only set when the count was requested.
+    private Long totalElements;
+}
@@ -0,0 +1,11 @@
+package ucv.app_inventory.order_service.application.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class OrderStatusBulkRequestDTO {
+    private List<Long> ids;
+    private String status;
+}
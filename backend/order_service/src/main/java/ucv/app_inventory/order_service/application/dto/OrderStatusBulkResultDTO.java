@@ -0,0 +1,19 @@
+package ucv.app_inventory.order_service.application.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class OrderStatusBulkResultDTO {
+    private String status;
+    // Orders moved to the status.
+    private List<Long> updated = new ArrayList<>();
+    // Orders that already had the status.
+    private List<Long> unchanged = new ArrayList<>();
+    // Orders whose current status cannot move to the requested one.
+    private List<Long> rejected = new ArrayList<>();
+    // IDs that match no order.
+    private List<Long> notFound = new ArrayList<>();
+}
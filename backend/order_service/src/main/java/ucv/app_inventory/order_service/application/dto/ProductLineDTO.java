@@ -0,0 +1,20 @@
+package ucv.app_inventory.order_service.application.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * An order line resolved by the product service: the request carries the product name and
+ * supplier, and the response fills in the product, the product-supplier relation and its price
+ * (left null when they do not exist), along with the name of the product as the catalog spells it.
+ */
+@Data
+public class ProductLineDTO {
+    private String productName;
+    private Long supplierId;
+    private Long productId;
+    private Long productSupplierId;
+    private BigDecimal price;
+    private String catalogName;
+}
@@ -0,0 +1,13 @@
+package ucv.app_inventory.order_service.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentDTO {
+    private Long productId;
+    private Integer delta;
+}
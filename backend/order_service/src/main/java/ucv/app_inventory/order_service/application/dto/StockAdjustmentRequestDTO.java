@@ -0,0 +1,20 @@
+package ucv.app_inventory.order_service.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentRequestDTO {
+    // Identifies the batch, so the product service applies it only once
+    private String reference;
+    // Reservation consumed by the batch, released by the product service together with it
+    private String reservation;
+    // Reference of an applied batch this one undoes; the product service applies it only if that batch is applied
+    private String reverts;
+    private List<StockAdjustmentDTO> adjustments;
+}
@@ -0,0 +1,15 @@
+package ucv.app_inventory.order_service.application.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class StockAdjustmentResultDTO {
+    private String reference;
+    private boolean applied;
+    // True if the batch had already been applied under the same reference
+    private boolean replayed;
+    private List<Long> rejectedProductIds = new ArrayList<>();
+}
@@ -0,0 +1,18 @@
+package ucv.app_inventory.order_service.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationRequestDTO {
+    // Identifies the reservation; reserving the same reference again replaces it
+    private String reference;
+    // How long the reservation lasts, or null for the default of the product service
+    private Long ttlSeconds;
+    private List<StockReservationItemDTO> items;
+}
@@ -0,0 +1,14 @@
+package ucv.app_inventory.order_service.application.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class StockReservationResultDTO {
+    private String reference;
+    private LocalDateTime expiresAt;
+    private List<Long> rejectedProductIds = new ArrayList<>();
+}
@@ -9,4 +9,5 @@ public class SupplierDTO {
     private String contact;
     private String email;
     private String phone;
+    private String state;
 }
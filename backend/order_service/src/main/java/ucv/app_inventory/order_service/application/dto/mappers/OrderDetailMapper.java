@@ -2,6 +2,7 @@ package ucv.app_inventory.order_service.application.dto.mappers;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import ucv.app_inventory.order_service.application.OrderCreateUseCase;
 import ucv.app_inventory.order_service.application.dto.OrderDetailDTO;
 import ucv.app_inventory.order_service.application.dto.ProductDTO;
 import ucv.app_inventory.order_service.application.dto.ProductSupplierDTO;
@@ -11,7 +12,13 @@ import ucv.app_inventory.order_service.exception.InvalidArgumentException;
 import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderMySqlRepository;
 import ucv.app_inventory.order_service.infrastructure.outbound.external.ProductAPIClient;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
@@ -33,8 +40,11 @@ public class OrderDetailMapper {
             throw new InvalidArgumentException("Order id is null");
         }
 
+        // Lines priced before product names were stored still ask the product service
         Long productSupplierId = orderDetail.getProductSupplierId();
-        if (productSupplierId != null) {
+        if (orderDetail.getProductName() != null) {
+            orderDetailDTO.setProductName(orderDetail.getProductName());
+        } else if (productSupplierId != null) {
             ProductSupplierDTO productSupplierDTO =
                     productAPIClient.getRelationById(productSupplierId).orElseThrow(() -> new InvalidArgumentException("Product supplier not found"));
             Long productId = productSupplierDTO.getProductId();
@@ -62,9 +72,93 @@ public class OrderDetailMapper {
         if (orderDetail.getOrder().getId() != null) {
             orderDetailDTO.setOrderId(orderDetail.getOrder().getId());
         }
+        orderDetailDTO.setUnitPrice(orderDetail.getUnitPrice());
+        orderDetailDTO.setLineTotal(lineTotalOf(orderDetail));
+        orderDetailDTO.setVersion(orderDetail.getVersion());
         return orderDetailDTO;
     }
 
+    /**
+     * Maps the details of an order from their stored product names and prices. Lines priced
+     * before those were stored are resolved together: their product-supplier relations with one
+     * bulk call and their product names with another, whatever the number of lines.
+     *
+     * @param orderDetails the details to map.
+     * @return the mapped details, in the same order.
+     * @throws InvalidArgumentException if a detail is invalid or its relation or product no longer exists.
+     */
+    public List<OrderDetailDTO> mapToOrderDetailDTOList(List<OrderDetail> orderDetails) {
+        if (orderDetails == null || orderDetails.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> productSupplierIds = orderDetails.stream()
+                .filter(orderDetail -> orderDetail != null && orderDetail.getProductName() == null)
+                .map(OrderDetail::getProductSupplierId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ProductSupplierDTO> relations = productSupplierIds.isEmpty() ? Map.of()
+                : productAPIClient.getRelationsByIds(productSupplierIds).stream()
+                .collect(Collectors.toMap(ProductSupplierDTO::getId, Function.identity(), (a, b) -> a));
+
+        Set<Long> productIds = relations.values().stream()
+                .map(ProductSupplierDTO::getProductId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, String> productNames = productIds.isEmpty() ? Map.of()
+                : productAPIClient.getProductsByIds(productIds).stream()
+                .filter(product -> product.getName() != null)
+                .collect(Collectors.toMap(ProductDTO::getId, ProductDTO::getName, (a, b) -> a));
+
+        return orderDetails.stream()
+                .map(orderDetail -> toOrderDetailDTO(orderDetail, relations, productNames))
+                .toList();
+    }
+
+    private OrderDetailDTO toOrderDetailDTO(OrderDetail orderDetail, Map<Long, ProductSupplierDTO> relations,
+                                            Map<Long, String> productNames) {
+        if (orderDetail == null || orderDetail.getId() == null) {
+            throw new InvalidArgumentException("Order id is null");
+        }
+        if (orderDetail.getProductSupplierId() == null) {
+            throw new InvalidArgumentException("Product supplier id is null");
+        }
+        String productName = orderDetail.getProductName();
+        if (productName == null) {
+            ProductSupplierDTO productSupplierDTO = relations.get(orderDetail.getProductSupplierId());
+            if (productSupplierDTO == null || productSupplierDTO.getProductId() == null) {
+                throw new InvalidArgumentException("Product supplier not found");
+            }
+            productName = productNames.get(productSupplierDTO.getProductId());
+            if (productName == null) {
+                throw new InvalidArgumentException("Product not found");
+            }
+        }
+        if (orderDetail.getQuantity() == null || orderDetail.getQuantity() <= 0) {
+            throw new InvalidArgumentException("Quantity is invalid");
+        }
+
+        OrderDetailDTO orderDetailDTO = new OrderDetailDTO();
+        orderDetailDTO.setId(orderDetail.getId());
+        orderDetailDTO.setProductName(productName);
+        orderDetailDTO.setQuantity(orderDetail.getQuantity());
+        if (orderDetail.getOrder() != null) {
+            orderDetailDTO.setOrderId(orderDetail.getOrder().getId());
+        }
+        orderDetailDTO.setUnitPrice(orderDetail.getUnitPrice());
+        orderDetailDTO.setLineTotal(lineTotalOf(orderDetail));
+        orderDetailDTO.setVersion(orderDetail.getVersion());
+        return orderDetailDTO;
+    }
+
+    private static BigDecimal lineTotalOf(OrderDetail orderDetail) {
+        // Computed rather than read, as the stored value is only refreshed when the line is flushed
+        if (orderDetail.getUnitPrice() == null) {
+            return orderDetail.getLineTotal();
+        }
+        return OrderCreateUseCase.lineTotal(orderDetail.getUnitPrice(), orderDetail.getQuantity());
+    }
+
     public OrderDetail mapToOrderDetail(OrderDetailDTO orderDetailDTO, Long supplierId) {
         if (orderDetailDTO == null) {
             throw new InvalidArgumentException("OrderDetail is null");
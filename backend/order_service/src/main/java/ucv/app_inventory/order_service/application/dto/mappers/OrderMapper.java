@@ -1,58 +1,114 @@
 package ucv.app_inventory.order_service.application.dto.mappers;
 
-import feign.FeignException;
 import lombok.RequiredArgsConstructor;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
+import ucv.app_inventory.order_service.application.SupplierDirectory;
 import ucv.app_inventory.order_service.application.dto.*;
 import ucv.app_inventory.order_service.domain.model.Order;
 import ucv.app_inventory.order_service.domain.model.OrderState;
 import ucv.app_inventory.order_service.exception.InvalidArgumentException;
 import ucv.app_inventory.order_service.exception.SupplierNotFoundException;
-import ucv.app_inventory.order_service.infrastructure.outbound.external.SupplierAPIClient;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 public class OrderMapper {
 
-    private static final Logger logger = LoggerFactory.getLogger(OrderMapper.class);
-    private final SupplierAPIClient supplierAPIClient;
+    private final SupplierDirectory supplierDirectory;
 
     public OrderDTO mapToOrderDTO(Order order) {
-        OrderDTO orderDTO = new OrderDTO();
+        if (order == null) {
+            throw new InvalidArgumentException("Order is null");
+        }
 
+        return toOrderDTO(order, supplierNameOf(order, findSupplierNames(List.of(order))));
+    }
+
+    /**
+     * Maps a page of orders to DTOs. The distinct suppliers referenced by the page are resolved
+     * in one lookup against the local supplier read model, whatever the page size.
+     *
+     * @param orders the page of orders to map.
+     * @return the page of mapped orders.
+     * @throws SupplierNotFoundException if an order references a supplier that no longer exists.
+     */
+    public Page<OrderDTO> mapToOrderDTOPage(Page<Order> orders) {
+        Map<Long, String> supplierNames = findSupplierNames(orders.getContent());
+        return orders.map(order -> toOrderDTO(order, supplierNameOf(order, supplierNames)));
+    }
+
+    /**
+     * Maps a list of orders to DTOs, resolving their suppliers in one lookup.
+     *
+     * @param orders the orders to map.
+     * @return the mapped orders, in the same order.
+     */
+    public List<OrderDTO> mapToOrderDTOList(List<Order> orders) {
+        Map<Long, String> supplierNames = findSupplierNames(orders);
+        return orders.stream()
+                .map(order -> toOrderDTO(order, supplierNameOf(order, supplierNames)))
+                .toList();
+    }
+
+    /**
+     * Maps an order and its already mapped details to the full order view.
+     *
+     * @param order   the order to map.
+     * @param details the mapped details of the order.
+     * @return the order with its details.
+     */
+    public OrderFullDTO mapToOrderFullDTO(Order order, List<OrderDetailDTO> details) {
         if (order == null) {
             throw new InvalidArgumentException("Order is null");
         }
 
-        if (order.getId() != null) {
-            orderDTO.setId(order.getId());
-            try {
-                if (order.getSupplierId() != null) {
-                    SupplierDTO supplierDTO = supplierAPIClient.getSupplierById(order.getSupplierId())
-                            .orElseThrow(() -> new SupplierNotFoundException(supplierNotFoundInOrder(order.getId(), order.getSupplierId())));
-                    logger.info("Supplier: {}", supplierDTO);
-                    orderDTO.setSupplierName(supplierDTO.getName());
-                }else {
-                    orderDTO.setSupplierName(null);
-                }
-            } catch (FeignException.NotFound e) {
-                throw new SupplierNotFoundException(supplierNotFoundInOrder(order.getId(), order.getSupplierId() == null ? null : order.getSupplierId()));
-            }
-        }else {
-            orderDTO.setId(null);
+        OrderFullDTO orderFullDTO = new OrderFullDTO();
+        fillOrderDTO(orderFullDTO, order, supplierNameOf(order, findSupplierNames(List.of(order))));
+        orderFullDTO.setDetails(details);
+        return orderFullDTO;
+    }
+
+    private Map<Long, String> findSupplierNames(List<Order> orders) {
+        Set<Long> supplierIds = orders.stream()
+                .filter(order -> order.getId() != null && order.getSupplierId() != null)
+                .map(Order::getSupplierId)
+                .collect(Collectors.toSet());
+        if (supplierIds.isEmpty()) {
+            return Map.of();
         }
 
+        return supplierDirectory.findNamesByIds(supplierIds);
+    }
+
+    private String supplierNameOf(Order order, Map<Long, String> supplierNames) {
+        if (order.getId() == null || order.getSupplierId() == null) {
+            return null;
+        }
+        if (!supplierNames.containsKey(order.getSupplierId())) {
+            throw new SupplierNotFoundException(supplierNotFoundInOrder(order.getId(), order.getSupplierId()));
+        }
+        return supplierNames.get(order.getSupplierId());
+    }
+
+    private OrderDTO toOrderDTO(Order order, String supplierName) {
+        return fillOrderDTO(new OrderDTO(), order, supplierName);
+    }
+
+    private OrderDTO fillOrderDTO(OrderDTO orderDTO, Order order, String supplierName) {
+        orderDTO.setId(order.getId());
+        orderDTO.setSupplierName(supplierName);
         orderDTO.setStatus(order.getStatus() == null ? null : String.valueOf(order.getStatus()));
         orderDTO.setObservations(order.getObservations() == null ? null : order.getObservations());
         orderDTO.setOrderDate(order.getOrderDate() == null ? null : order.getOrderDate().toString());
         orderDTO.setTotal(order.getTotal());
         orderDTO.setCreatedAt(order.getCreationDate() == null ? null : order.getCreationDate());
+        orderDTO.setVersion(order.getVersion());
 
         return orderDTO;
     }
@@ -70,18 +126,14 @@ public class OrderMapper {
         order.setOrderDate(orderDTO.getOrderDate() == null ? null : LocalDate.parse(orderDTO.getOrderDate()));
         order.setTotal(orderDTO.getTotal());
         order.setCreationDate(orderDTO.getCreatedAt());
+        order.setVersion(orderDTO.getVersion());
 
         // Get the Supplier by name from the OrderCreateDTO
         if (orderDTO.getSupplierName() != null) {
             String supplierName = orderDTO.getSupplierName();
-            Page<SupplierDTO> supplierByName = supplierAPIClient.getSupplierByName(supplierName, Pageable.unpaged());
-
-            logger.info("Page: {}", supplierByName.getContent().getFirst().toString());
-
-            if (supplierByName.getContent().isEmpty()) {
-                throw new SupplierNotFoundException("No supplier found for name: " + supplierName);
-            }
-            order.setSupplierId(supplierByName.getContent().getFirst().getId()); // Set supplierId in the Order
+            Long supplierId = supplierDirectory.findIdByName(supplierName)
+                    .orElseThrow(() -> new SupplierNotFoundException("No supplier found for name: " + supplierName));
+            order.setSupplierId(supplierId); // Set supplierId in the Order
         }else {
             order.setSupplierId(null);
         }
@@ -19,7 +19,8 @@ import java.time.LocalDateTime;
 public class Audit {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audits_seq")
+    @SequenceGenerator(name = "audits_seq", sequenceName = "audits_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "entity", nullable = false)
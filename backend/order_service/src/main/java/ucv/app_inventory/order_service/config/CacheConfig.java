@@ -1,17 +1,43 @@
 package ucv.app_inventory.order_service.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import ucv.app_inventory.order_service.infrastructure.cache.OrderCacheTagIndex;
+
+import java.util.List;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    public static final List<String> CACHE_NAMES = List.of("orders", "ordersByDate", "ordersBySupplier",
+            "ordersByStatus", "ordersBySupplierAndStatus", "ordersByCreationDate");
+
+    @Bean
+    public OrderCacheTagIndex orderCacheTagIndex() {
+        return new OrderCacheTagIndex();
+    }
+
+    /**
+     * Every order cache is bounded (Caffeine evicts with W-TinyLFU once the maximum size is reached)
+     * and expires its entries, as configured in {@link OrderCacheProperties}. Statistics are always
+     * recorded, so hits, misses and evictions are published per cache as {@code cache.*} metrics.
+     * Entries dropped on size or expiry are also removed from the tag index.
+     */
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager("orders", "ordersByDate", "ordersBySupplier", "ordersByStatus", "ordersBySupplierAndStatus", "ordersByCreationDate");
+    public CacheManager cacheManager(OrderCacheProperties orderCacheProperties, OrderCacheTagIndex orderCacheTagIndex) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        for (String cacheName : CACHE_NAMES) {
+            cacheManager.registerCustomCache(cacheName,
+                    Caffeine.from(orderCacheProperties.specFor(cacheName))
+                            .recordStats()
+                            .evictionListener(orderCacheTagIndex.evictionListener(cacheName))
+                            .build());
+        }
+        return cacheManager;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,94 @@
+package ucv.app_inventory.order_service.config;
+
+import feign.Capability;
+import feign.Feign;
+import feign.InvocationHandlerFactory;
+import feign.InvocationHandlerFactory.MethodHandler;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.Ordered;
+import ucv.app_inventory.order_service.infrastructure.outbound.external.Coalesced;
+import ucv.app_inventory.order_service.infrastructure.outbound.external.SingleFlight;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Puts a {@link SingleFlight} in front of every Feign client method annotated with
+ * {@link Coalesced}, keyed by the arguments of the call. Other methods are left as they are.
+ * <p>
+ * The first caller sends the request with its own token; callers that join it share the
+ * response. That is fine for lookups by ID, whose result does not depend on who asks.
+ * <p>
+ * Per method, under /actuator/metrics:
+ * <ul>
+ *     <li>feign.coalescing.calls, tagged outcome=executed for the requests actually sent and
+ *     outcome=coalesced for the calls served by one already in flight;</li>
+ *     <li>feign.coalescing.in.flight, the keys with a request in flight.</li>
+ * </ul>
+ */
+public class FeignCoalescingCapability implements Capability, Ordered {
+
+    static final int ORDER = 0;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, SingleFlight<List<Object>, Object>> flights = new ConcurrentHashMap<>();
+
+    public FeignCoalescingCapability(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public InvocationHandlerFactory enrich(InvocationHandlerFactory invocationHandlerFactory) {
+        return (target, dispatch) -> {
+            Map<Method, MethodHandler> coalescing = new LinkedHashMap<>(dispatch);
+            coalescing.replaceAll((method, handler) -> method.isAnnotationPresent(Coalesced.class)
+                    ? coalesce(flight(Feign.configKey(target.type(), method)), handler)
+                    : handler);
+            return invocationHandlerFactory.create(target, coalescing);
+        };
+    }
+
+    /**
+     * @param configKey the Feign config key of the method, e.g. {@code SupplierAPIClient#getSupplierById(Long)}.
+     * @return the flight of the method, or null if no client has such a coalesced method.
+     */
+    public SingleFlight<List<Object>, Object> getFlight(String configKey) {
+        return flights.get(configKey);
+    }
+
+    private static MethodHandler coalesce(SingleFlight<List<Object>, Object> flight, MethodHandler handler) {
+        return argv -> flight.execute(argv == null ? List.of() : Arrays.asList(argv.clone()), () -> handler.invoke(argv));
+    }
+
+    private SingleFlight<List<Object>, Object> flight(String configKey) {
+        return flights.computeIfAbsent(configKey, key -> {
+            SingleFlight<List<Object>, Object> flight = new SingleFlight<>();
+            FunctionCounter.builder("feign.coalescing.calls", flight, SingleFlight::executedCount)
+                    .tag("method", key)
+                    .tag("outcome", "executed")
+                    .description("Calls of a coalesced Feign method that sent a request")
+                    .register(meterRegistry);
+            FunctionCounter.builder("feign.coalescing.calls", flight, SingleFlight::coalescedCount)
+                    .tag("method", key)
+                    .tag("outcome", "coalesced")
+                    .description("Calls of a coalesced Feign method served by a request already in flight")
+                    .register(meterRegistry);
+            Gauge.builder("feign.coalescing.in.flight", flight, SingleFlight::inFlightCount)
+                    .tag("method", key)
+                    .description("Keys of a coalesced Feign method with a request in flight")
+                    .register(meterRegistry);
+            return flight;
+        });
+    }
+}
@@ -1,14 +1,59 @@
 package ucv.app_inventory.order_service.config;
 
-import jakarta.servlet.http.HttpServletRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
+/**
+ * Feign clients run on a pooled Apache HttpClient 5 (feign-hc5) instead of HttpURLConnection, so
+ * calls to the other services reuse open connections. The pool limits and timeouts are set with
+ * the spring.cloud.openfeign.httpclient.* properties; this adds idle eviction and pool metrics.
+ * Concurrent calls of the lookups marked {@code @Coalesced} share one request, and each service
+ * called gets its own bulkhead and circuit breaker.
+ */
 @Configuration
 public class FeignConfig {
 
     @Bean
-    public FeignInterceptor feignInterceptor(HttpServletRequest request) {
-        return new FeignInterceptor(request);
+    public FeignInterceptor feignInterceptor(ServiceIdentity serviceIdentity) {
+        return new FeignInterceptor(serviceIdentity);
+    }
+
+    // Closes pooled connections left unused for longer than feign.pool.idle-timeout
+    @Bean
+    public HttpClient5FeignConfiguration.HttpClientBuilderCustomizer idleConnectionEviction(
+            @Value("${feign.pool.idle-timeout:30s}") Duration idleTimeout) {
+        return builder -> builder.evictIdleConnections(TimeValue.ofMilliseconds(idleTimeout.toMillis()));
+    }
+
+    // Pool usage under /actuator/metrics/httpcomponents.httpclient.pool.*, tagged httpclient=feign
+    @Bean
+    public MeterBinder feignConnectionPoolMetrics(HttpClientConnectionManager connectionManager) {
+        return registry -> {
+            if (connectionManager instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, "feign").bindTo(registry);
+            }
+        };
+    }
+
+    // Picked up by every Feign client; only methods annotated with @Coalesced are affected
+    @Bean
+    public FeignCoalescingCapability feignCoalescingCapability(MeterRegistry meterRegistry) {
+        return new FeignCoalescingCapability(meterRegistry);
+    }
+
+    // Bulkhead and circuit breaker per Feign client, inside the coalescing above
+    @Bean
+    public FeignResilienceCapability feignResilienceCapability(FeignResilienceProperties properties, MeterRegistry meterRegistry) {
+        return new FeignResilienceCapability(properties, meterRegistry);
     }
-}
\ No newline at end of file
+}
@@ -2,25 +2,37 @@ package ucv.app_inventory.order_service.config;
 
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
-import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+/**
+ * Sends the caller's token with every Feign call. The token is taken from the security context,
+ * where {@link JwtAuthenticationFilter} keeps it as the credentials of the user, rather than
+ * from the HTTP request, so calls also work on other threads the context was carried to (see
+ * {@link SecurityContextTaskDecorator}). Calls with no user behind them, such as those of
+ * scheduled jobs and Kafka listeners, send the token of the {@link ServiceIdentity}.
+ */
 @Component
 public class FeignInterceptor implements RequestInterceptor {
 
-    private final HttpServletRequest request;
+    private final ServiceIdentity serviceIdentity;
 
-    public FeignInterceptor(HttpServletRequest request) {
-        this.request = request;
+    public FeignInterceptor(ServiceIdentity serviceIdentity) {
+        this.serviceIdentity = serviceIdentity;
     }
 
     @Override
     public void apply(RequestTemplate template) {
-        String token = request.getHeader(HttpHeaders.AUTHORIZATION);
+        template.header(HttpHeaders.AUTHORIZATION, "Bearer " + currentToken());
+    }
 
-        if (token != null && token.startsWith("Bearer ")) {
-            template.header(HttpHeaders.AUTHORIZATION, token);
+    private String currentToken() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getCredentials() instanceof String token && !token.isBlank()) {
+            return token;
         }
+        return serviceIdentity.token();
     }
-}
\ No newline at end of file
+}
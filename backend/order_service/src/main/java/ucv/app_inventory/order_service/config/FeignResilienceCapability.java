@@ -0,0 +1,183 @@
+package ucv.app_inventory.order_service.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import feign.Capability;
+import feign.Feign;
+import feign.FeignException;
+import feign.InvocationHandlerFactory;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.RetryableException;
+import feign.Target;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.functions.CheckedSupplier;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import ucv.app_inventory.order_service.exception.DownstreamUnavailableException;
+import ucv.app_inventory.order_service.infrastructure.outbound.external.StaleFallback;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Guards every Feign client with a bulkhead and a circuit breaker of its own, named after the
+ * client (e.g. supplier-service), so a slow service holds at most a bounded number of request
+ * threads and, once it keeps failing or answering slowly, is not called at all for a while:
+ * <ul>
+ *     <li>the bulkhead lets a limited number of calls run at once; further calls wait briefly
+ *     and are then refused;</li>
+ *     <li>the circuit breaker counts timeouts, connection failures, 5xx answers and slow calls;
+ *     4xx answers are regular results of the service and do not count;</li>
+ *     <li>a refused call of a {@link StaleFallback} read returns the last result for the same
+ *     arguments, if there is one; otherwise it fails with {@link DownstreamUnavailableException}.</li>
+ * </ul>
+ * Calls run on the caller's thread, so {@link FeignInterceptor} still finds the caller's token in
+ * its security context; their time limit is the read timeout of the client. Coalesced calls are guarded once
+ * per flight, as this capability runs inside {@link FeignCoalescingCapability}.
+ * <p>
+ * Under /actuator/metrics: resilience4j.circuitbreaker.state, .calls and .not.permitted.calls,
+ * resilience4j.bulkhead.available.concurrent.calls, all tagged with the client name, and
+ * feign.resilience.rejected{client, reason=circuit_open|bulkhead_full} and
+ * feign.resilience.stale.fallbacks{client}.
+ */
+public class FeignResilienceCapability implements Capability, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeignResilienceCapability.class);
+
+    private final FeignResilienceProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.ofDefaults();
+    private final Cache<List<Object>, Object> lastResults;
+
+    public FeignResilienceCapability(FeignResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.lastResults = Caffeine.newBuilder()
+                .maximumSize(properties.getStaleMaxEntries())
+                .expireAfterWrite(properties.getStaleTtl())
+                .build();
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+    }
+
+    // Runs after coalescing, which must wrap this one
+    @Override
+    public int getOrder() {
+        return FeignCoalescingCapability.ORDER + 1;
+    }
+
+    @Override
+    public InvocationHandlerFactory enrich(InvocationHandlerFactory invocationHandlerFactory) {
+        return (target, dispatch) -> {
+            CircuitBreaker circuitBreaker = circuitBreaker(target.name());
+            Bulkhead bulkhead = bulkhead(target.name());
+            Map<Method, MethodHandler> guarded = new LinkedHashMap<>(dispatch);
+            guarded.replaceAll((method, handler) -> guard(target, method, handler, circuitBreaker, bulkhead));
+            return invocationHandlerFactory.create(target, guarded);
+        };
+    }
+
+    /**
+     * @param client the Feign client name.
+     * @return the circuit breaker of the client.
+     */
+    public CircuitBreaker getCircuitBreaker(String client) {
+        return circuitBreaker(client);
+    }
+
+    private MethodHandler guard(Target<?> target, Method method, MethodHandler handler,
+                                CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        String client = target.name();
+        String configKey = Feign.configKey(target.type(), method);
+        boolean staleFallback = method.isAnnotationPresent(StaleFallback.class);
+        Counter circuitOpen = rejectedCounter(client, "circuit_open");
+        Counter bulkheadFull = rejectedCounter(client, "bulkhead_full");
+        Counter staleFallbacks = Counter.builder("feign.resilience.stale.fallbacks")
+                .tag("client", client)
+                .description("Refused calls answered with the last result of the same read")
+                .register(meterRegistry);
+
+        return argv -> {
+            CheckedSupplier<Object> call = CircuitBreaker.decorateCheckedSupplier(circuitBreaker,
+                    Bulkhead.decorateCheckedSupplier(bulkhead, () -> handler.invoke(argv)));
+            try {
+                Object result = call.get();
+                if (staleFallback && result != null) {
+                    lastResults.put(key(configKey, argv), result);
+                }
+                return result;
+            } catch (CallNotPermittedException | BulkheadFullException e) {
+                (e instanceof CallNotPermittedException ? circuitOpen : bulkheadFull).increment();
+                Object lastResult = staleFallback ? lastResults.getIfPresent(key(configKey, argv)) : null;
+                if (lastResult != null) {
+                    staleFallbacks.increment();
+                    logger.warn("{} refused ({}), returning the last result of {}", client, e.getMessage(), configKey);
+                    return lastResult;
+                }
+                throw new DownstreamUnavailableException(client + " is not available at the moment, please try again later.", e);
+            }
+        };
+    }
+
+    private Counter rejectedCounter(String client, String reason) {
+        return Counter.builder("feign.resilience.rejected")
+                .tag("client", client)
+                .tag("reason", reason)
+                .description("Feign calls refused without reaching the service")
+                .register(meterRegistry);
+    }
+
+    private static List<Object> key(String configKey, Object[] argv) {
+        List<Object> key = new ArrayList<>();
+        key.add(configKey);
+        if (argv != null) {
+            key.addAll(Arrays.asList(argv));
+        }
+        return key;
+    }
+
+    private CircuitBreaker circuitBreaker(String client) {
+        FeignResilienceProperties.Downstream limits = properties.forClient(client);
+        return circuitBreakerRegistry.circuitBreaker(client, CircuitBreakerConfig.custom()
+                .failureRateThreshold(limits.getFailureRateThreshold())
+                .slowCallRateThreshold(limits.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(limits.getSlowCallDuration())
+                .slidingWindowSize(limits.getSlidingWindowSize())
+                .minimumNumberOfCalls(limits.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(limits.getOpenDuration())
+                .permittedNumberOfCallsInHalfOpenState(limits.getHalfOpenCalls())
+                .recordException(FeignResilienceCapability::isFailure)
+                .ignoreExceptions(BulkheadFullException.class)
+                .build());
+    }
+
+    private Bulkhead bulkhead(String client) {
+        FeignResilienceProperties.Downstream limits = properties.forClient(client);
+        return bulkheadRegistry.bulkhead(client, BulkheadConfig.custom()
+                .maxConcurrentCalls(limits.getMaxConcurrentCalls())
+                .maxWaitDuration(limits.getMaxWait())
+                .build());
+    }
+
+    // Timeouts and connection failures surface as RetryableException
+    static boolean isFailure(Throwable e) {
+        return e instanceof RetryableException || e instanceof FeignException.FeignServerException;
+    }
+}
@@ -0,0 +1,51 @@
+package ucv.app_inventory.order_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bulkhead and circuit breaker limits of the Feign clients, per service called. The time limit
+ * of each call is the read timeout of its client (spring.cloud.openfeign.client.config.*).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "feign.resilience")
+public class FeignResilienceProperties {
+
+    // Per-service limits, keyed by Feign client name (e.g. supplier-service); unset fields keep the defaults below.
+    private Map<String, Downstream> clients = new LinkedHashMap<>();
+
+    // Last results kept for @StaleFallback reads, across all clients.
+    private int staleMaxEntries = 10000;
+
+    // How long a last result may be served while its service is refused.
+    private Duration staleTtl = Duration.ofHours(1);
+
+    public Downstream forClient(String name) {
+        return clients.getOrDefault(name, new Downstream());
+    }
+
+    @Data
+    public static class Downstream {
+
+        // Calls to the service running at once; further calls wait up to max-wait, then are refused.
+        private int maxConcurrentCalls = 25;
+        private Duration maxWait = Duration.ofMillis(100);
+
+        // The circuit opens when this share (%) of the last sliding-window-size calls failed or were slow.
+        private float failureRateThreshold = 50;
+        private float slowCallRateThreshold = 80;
+        private Duration slowCallDuration = Duration.ofSeconds(1);
+        private int slidingWindowSize = 20;
+        private int minimumNumberOfCalls = 10;
+
+        // How long the circuit stays open before letting half-open-calls through to probe the service.
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenCalls = 3;
+    }
+}
@@ -0,0 +1,53 @@
+package ucv.app_inventory.order_service.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * MySQL has no sequences, so Hibernate keeps the sequence of each entity in a one-row table
+ * ({@code next_val}). When the schema is updated on a database that already holds orders, that
+ * table starts at 1; this moves it past the highest existing ID before anything is inserted.
+ * On databases with real sequences (H2 in tests) nothing is done.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class IdSequenceInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+    // Sequence table -> entity table
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "orders_seq", "orders",
+            "order_details_seq", "order_details",
+            "audits_seq", "audits",
+            "order_outbox_seq", "order_outbox");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void alignSequences() {
+        String databaseName = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                JdbcUtils.commonDatabaseName(connection.getMetaData().getDatabaseProductName()));
+        if (!"MySQL".equals(databaseName) && !"MariaDB".equals(databaseName)) {
+            return;
+        }
+        SEQUENCES.forEach((sequence, table) -> {
+            int updated = jdbcTemplate.update("UPDATE " + sequence + " SET next_val = "
+                    + "(SELECT COALESCE(MAX(id), 0) + 1 FROM " + table + ") "
+                    + "WHERE next_val <= (SELECT COALESCE(MAX(id), 0) FROM " + table + ")");
+            if (updated > 0) {
+                logger.info("Moved {} past the highest ID of {}", sequence, table);
+            }
+        });
+    }
+}
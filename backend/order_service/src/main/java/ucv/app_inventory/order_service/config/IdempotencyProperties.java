@@ -0,0 +1,22 @@
+package ucv.app_inventory.order_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "order.idempotency")
+public class IdempotencyProperties {
+
+    // How long a response is replayed for retries carrying the same Idempotency-Key.
+    private Duration ttl = Duration.ofHours(24);
+
+    // Largest number of keys remembered at once; the oldest are dropped first.
+    private long maxEntries = 100_000;
+
+    // How long a duplicate waits for the request still in progress before giving up.
+    private Duration waitTimeout = Duration.ofSeconds(30);
+}
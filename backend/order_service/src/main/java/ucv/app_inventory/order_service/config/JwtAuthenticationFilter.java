@@ -58,8 +58,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 logger.debug("Parsed Username from JWT: {}", username);
 
                 if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                    // The token is kept as credentials so Feign calls can forward it from any thread
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            username, null, null);
+                            username, token, null);
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
@@ -0,0 +1,28 @@
+package ucv.app_inventory.order_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size and expiry limits of the order caches, written as Caffeine specs
+ * (e.g. {@code maximumSize=500,expireAfterWrite=10m}).
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "order.cache")
+public class OrderCacheProperties {
+
+    // Spec applied to every cache without an entry in specs.
+    private String defaultSpec = "maximumSize=500,expireAfterWrite=10m";
+
+    // Per-cache specs, keyed by cache name.
+    private Map<String, String> specs = new LinkedHashMap<>();
+
+    public String specFor(String cacheName) {
+        return specs.getOrDefault(cacheName, defaultSpec);
+    }
+}
@@ -0,0 +1,19 @@
+package ucv.app_inventory.order_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "order.concurrency")
+public class OrderConcurrencyProperties {
+
+    // Times an update is attempted when another write to the same order or line gets in first.
+    private int maxAttempts = 3;
+
+    // Pause before the first retry; it doubles on each following one, with some jitter.
+    private Duration backoff = Duration.ofMillis(20);
+}
@@ -0,0 +1,20 @@
+package ucv.app_inventory.order_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "order.export")
+public class OrderExportProperties {
+
+    // Rows the JDBC driver fetches per round trip while streaming (needs useCursorFetch=true on MySQL).
+    private int fetchSize = 1000;
+
+    // Orders buffered before their supplier and product names are resolved and written out.
+    private int batchSize = 500;
+
+    // Upper bound of the supplier/product names remembered across batches of one export.
+    private int nameCacheSize = 10000;
+}
@@ -0,0 +1,26 @@
+package ucv.app_inventory.order_service.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class OrderImportConfig {
+
+    /**
+     * Threads that validate and save the chunks of order imports. The pool size bounds how many
+     * chunks run at once across all imports; further chunks wait in the queue. Chunks run with the
+     * security context of the import request, so their remote calls carry the caller's token.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor orderImportExecutor(OrderImportProperties orderImportProperties,
+                                                      SecurityContextTaskDecorator securityContextTaskDecorator) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(orderImportProperties.getParallelism());
+        executor.setMaxPoolSize(orderImportProperties.getParallelism());
+        executor.setThreadNamePrefix("order-import-");
+        executor.setTaskDecorator(securityContextTaskDecorator);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
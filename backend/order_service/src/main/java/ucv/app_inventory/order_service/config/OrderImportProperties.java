@@ -0,0 +1,23 @@
+package ucv.app_inventory.order_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "order.import")
+public class OrderImportProperties {
+
+    // Largest number of orders accepted by one import request.
+    private int maxOrders = 1000;
+
+    // Orders validated, priced and saved together in one transaction.
+    private int chunkSize = 50;
+
+    // Chunks processed at the same time.
+    private int parallelism = 4;
+
+    // Product lines resolved per call to the product service.
+    private int lookupBatchSize = 500;
+}
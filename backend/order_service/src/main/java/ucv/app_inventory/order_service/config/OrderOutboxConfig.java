@@ -0,0 +1,22 @@
+package ucv.app_inventory.order_service.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class OrderOutboxConfig {
+
+    /**
+     * The order events topic, created on startup if it does not exist yet.
+     */
+    @Bean
+    public NewTopic orderEventsTopic(OrderOutboxProperties orderOutboxProperties) {
+        return TopicBuilder.name(orderOutboxProperties.getTopic())
+                .partitions(orderOutboxProperties.getPartitions())
+                .build();
+    }
+}
@@ -0,0 +1,28 @@
+package ucv.app_inventory.order_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "order.outbox")
+public class OrderOutboxProperties {
+
+    // Topic the order events are published to, keyed by order ID.
+    private String topic = "order-events";
+
+    // Partitions of the topic when it is created; events of one order always go to the same one.
+    private int partitions = 6;
+
+    // Pause between two runs of the relay once the outbox is empty.
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    // Events read, published and deleted together.
+    private int batchSize = 500;
+
+    // How long the relay waits for the broker to acknowledge a batch.
+    private Duration sendTimeout = Duration.ofSeconds(10);
+}
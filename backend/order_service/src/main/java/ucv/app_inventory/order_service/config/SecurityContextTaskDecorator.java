@@ -0,0 +1,22 @@
+package ucv.app_inventory.order_service.config;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carries the security context of the thread that submits a task, and with it the caller's
+ * token, into the thread that runs it, restoring the previous context afterwards. Applied to the
+ * executors of this service, and by Spring Boot to its own task executor, including the
+ * virtual-thread one. Executors created by hand can be wrapped in Spring Security's
+ * DelegatingSecurityContextExecutor(Service) to the same effect.
+ */
+@Component
+public class SecurityContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        // Captures the context now, on the submitting thread
+        return new DelegatingSecurityContextRunnable(runnable);
+    }
+}
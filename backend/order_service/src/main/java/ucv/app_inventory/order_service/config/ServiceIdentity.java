@@ -0,0 +1,59 @@
+package ucv.app_inventory.order_service.config;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Signs the token this service sends to the others when a call has no user behind it, e.g. from
+ * a scheduled job or a Kafka listener. It is signed with the shared JWT secret, so the other
+ * services accept it like a user token, with the service name as subject. The token is reused
+ * until most of its lifetime has passed.
+ */
+@Component
+public class ServiceIdentity {
+
+    private record SignedToken(String value, Instant renewAt) {
+    }
+
+    private final JwtConfig jwtConfig;
+    private final ServiceIdentityProperties properties;
+    private volatile SignedToken token;
+
+    public ServiceIdentity(JwtConfig jwtConfig, ServiceIdentityProperties properties) {
+        this.jwtConfig = jwtConfig;
+        this.properties = properties;
+    }
+
+    /**
+     * @return a valid token of this service, without the "Bearer " prefix.
+     */
+    public String token() {
+        SignedToken current = token;
+        Instant now = Instant.now();
+        if (current == null || !now.isBefore(current.renewAt())) {
+            // Two threads may both sign a token here; either one is valid
+            current = sign(now);
+            token = current;
+        }
+        return current.value();
+    }
+
+    private SignedToken sign(Instant now) {
+        SecretKey key = Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes(StandardCharsets.UTF_8));
+        Instant expiresAt = now.plus(properties.getTokenTtl());
+        String value = Jwts.builder()
+                .setSubject(properties.getName())
+                .claim("roles", "SERVICE")
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(expiresAt))
+                .signWith(key)
+                .compact();
+        return new SignedToken(value, expiresAt.minus(properties.getTokenTtl().dividedBy(5)));
+    }
+}
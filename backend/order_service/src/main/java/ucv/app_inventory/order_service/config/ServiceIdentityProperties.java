@@ -0,0 +1,19 @@
+package ucv.app_inventory.order_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "service.identity")
+public class ServiceIdentityProperties {
+
+    // Subject of the token this service sends when no user is behind a call (scheduled jobs, Kafka listeners).
+    private String name = "order-service";
+
+    // Lifetime of that token; a new one is signed once less than a fifth of it is left.
+    private Duration tokenTtl = Duration.ofMinutes(10);
+}
@@ -16,13 +16,20 @@ import java.util.List;
  * upon creation.
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // Keyset scrolls seek on (sort column, id); the filtered variants lead with the filter column.
+        @Index(name = "idx_orders_date_id", columnList = "date, id"),
+        @Index(name = "idx_orders_creation_date_id", columnList = "creation_date, id"),
+        @Index(name = "idx_orders_status_date_id", columnList = "status, date, id"),
+        @Index(name = "idx_orders_supplier_date_id", columnList = "supplier_id, date, id")
+})
 @Data
 public class Order {
 
-    // Unique identifier for each order, auto-generated.
+    // Unique identifier for each order, taken from blocks of a sequence (a table on MySQL) so inserts can be batched.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     // Stores only the supplier's ID to associate the order with a specific supplier.
@@ -55,6 +62,11 @@ public class Order {
     @Column(name = "creation_date", nullable = false)
     private LocalDateTime creationDate;
 
+    // Incremented on every write, so concurrent updates of the same order are detected instead of overwriting each other.
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     /**
      * Sets the date and creationDate fields to the current date and time when the order is created.
      * This method is automatically called before the entity is persisted.
@@ -76,6 +88,7 @@ public class Order {
                 ", total=" + total +
                 ", observations='" + observations + '\'' +
                 ", creationDate=" + creationDate +
+                ", version=" + version +
                 '}';
     }
 }
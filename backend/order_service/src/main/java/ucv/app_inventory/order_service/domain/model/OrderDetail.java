@@ -4,6 +4,9 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.Data;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
 /**
  * Represents the details of an order, including the product ID, quantity, and unit price.
  * This entity is used to store each item in an order, allowing for the calculation of
@@ -14,8 +17,10 @@ import lombok.Data;
 @Data
 public class OrderDetail {
 
+    // Taken from blocks of a sequence (a table on MySQL) so the details of an order are inserted in batches.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_details_seq")
+    @SequenceGenerator(name = "order_details_seq", sequenceName = "order_details_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -29,12 +34,45 @@ public class OrderDetail {
     @Column(name = "quantity", nullable = false)
     private Long quantity;
 
+    // Snapshot of the product when the line was priced, so the order can be shown and totaled
+    // without asking the product service, and later price changes do not alter it.
+    @Column(name = "product_name")
+    private String productName;
+
+    // Price of one unit when the line was priced; changes to the line adjust the order total from it.
+    @Column(name = "unit_price")
+    private BigDecimal unitPrice;
+
+    // Unit price times quantity, kept up to date whenever the line is written.
+    @Column(name = "line_total")
+    private BigDecimal lineTotal;
+
+    // Incremented on every write of the line, so concurrent edits of it are detected.
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    /**
+     * Recomputes the line total from the unit price and quantity before the line is written.
+     */
+    @PrePersist
+    @PreUpdate
+    protected void computeLineTotal() {
+        if (unitPrice != null && quantity != null) {
+            lineTotal = unitPrice.multiply(BigDecimal.valueOf(quantity)).setScale(2, RoundingMode.HALF_UP);
+        }
+    }
+
     @Override
     public String toString() {
         return "OrderDetail{" +
                 "id=" + id +
                 ", productSupplierId=" + productSupplierId +
+                ", productName='" + productName + '\'' +
                 ", quantity=" + quantity +
+                ", unitPrice=" + unitPrice +
+                ", lineTotal=" + lineTotal +
+                ", version=" + version +
                 ", orderId=" + order.getId() +
                 '}';
     }
@@ -0,0 +1,21 @@
+package ucv.app_inventory.order_service.domain.model;
+
+/**
+ * Lifecycle events of an order published to other services. The event name is what
+ * consumers see in the payload and in the {@code event-type} header.
+ */
+public enum OrderEventType {
+    ORDER_CREATED("OrderCreated"),
+    ORDER_STATUS_CHANGED("OrderStatusChanged"),
+    ORDER_DELETED("OrderDeleted");
+
+    private final String eventName;
+
+    OrderEventType(String eventName) {
+        this.eventName = eventName;
+    }
+
+    public String getEventName() {
+        return eventName;
+    }
+}
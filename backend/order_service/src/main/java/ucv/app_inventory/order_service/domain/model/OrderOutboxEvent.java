@@ -0,0 +1,46 @@
+package ucv.app_inventory.order_service.domain.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * An order event waiting to be published. It is written in the same transaction as the change
+ * of the order it describes, so an event exists if and only if the change was committed, and is
+ * deleted once the broker has acknowledged it.
+ */
+@Entity
+@Table(name = "order_outbox")
+@Data
+public class OrderOutboxEvent {
+
+    // Assigned by the database as the row is inserted, so a later write of the same order always gets a
+    // higher ID, whichever instance makes it; events are published in ID order. Blocks of a pooled
+    // sequence would not do: each instance takes IDs from its own block, out of write order.
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // The order the event is about; also the message key, so all events of an order land on one partition.
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 32)
+    private OrderEventType eventType;
+
+    // The event as published, in JSON.
+    @Column(name = "payload", nullable = false, length = 2000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ucv.app_inventory.order_service.domain.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Local, read-only copy of the supplier data the order service needs to display and filter orders.
+ * It is kept current from the supplier change notifications published by the Supplier service,
+ * so mapping orders no longer requires a remote call per request.
+ */
+@Entity
+@Table(name = "supplier_projection", indexes = {
+        @Index(name = "idx_supplier_projection_name", columnList = "name")
+})
+@Data
+public class SupplierProjection {
+
+    // Same identifier as the supplier in the Supplier service; never generated locally.
+    @Id
+    @Column(name = "supplier_id")
+    private Long supplierId;
+
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    // ACTIVE or INACTIVE, as reported by the Supplier service.
+    @Column(name = "state")
+    private String state;
+
+    // When this copy was last refreshed.
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,11 @@
+package ucv.app_inventory.order_service.exception;
+
+/**
+ * Thrown when a call to another service is refused locally, because its circuit breaker is open
+ * or too many calls to it are already running, and there is no earlier result to fall back to.
+ */
+public class DownstreamUnavailableException extends RuntimeException {
+    public DownstreamUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -25,6 +25,29 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
 
+    @ExceptionHandler(VersionConflictException.class)
+    public ResponseEntity<ApiResponseJSON<Long>> handleVersionConflictException(VersionConflictException ex) {
+        ApiResponseJSON<Long> response = new ApiResponseJSON<>(HttpStatus.CONFLICT.value(), ex.getMessage());
+        response.setData(ex.getCurrentVersion());
+        ResponseEntity.BodyBuilder conflict = ResponseEntity.status(HttpStatus.CONFLICT);
+        if (ex.getCurrentVersion() != null) {
+            conflict.eTag(String.valueOf(ex.getCurrentVersion()));
+        }
+        return conflict.body(response);
+    }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<ApiResponseJSON<Void>> handleInsufficientStockException(InsufficientStockException ex) {
+        ApiResponseJSON<Void> response = new ApiResponseJSON<>(HttpStatus.CONFLICT.value(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    @ExceptionHandler(DownstreamUnavailableException.class)
+    public ResponseEntity<ApiResponseJSON<Void>> handleDownstreamUnavailableException(DownstreamUnavailableException ex) {
+        ApiResponseJSON<Void> response = new ApiResponseJSON<>(HttpStatus.SERVICE_UNAVAILABLE.value(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+    }
+
     @ExceptionHandler(TotalCannotBeNullException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseEntity<ApiResponseJSON<Void>> handleTotalCannotBeNullException(TotalCannotBeNullException ex) {
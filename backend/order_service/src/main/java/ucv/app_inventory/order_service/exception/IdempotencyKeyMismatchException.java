@@ -0,0 +1,7 @@
+package ucv.app_inventory.order_service.exception;
+
+public class IdempotencyKeyMismatchException extends RuntimeException {
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
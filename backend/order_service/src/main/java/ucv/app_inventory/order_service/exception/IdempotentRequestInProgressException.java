@@ -0,0 +1,7 @@
+package ucv.app_inventory.order_service.exception;
+
+public class IdempotentRequestInProgressException extends RuntimeException {
+    public IdempotentRequestInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ucv.app_inventory.order_service.exception;
+
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package ucv.app_inventory.order_service.exception;
+
+public class VersionConflictException extends RuntimeException {
+
+    // Version of the order or line when the conflict was detected, or null if it no longer exists.
+    private final Long currentVersion;
+
+    public VersionConflictException(String message, Long currentVersion) {
+        super(message);
+        this.currentVersion = currentVersion;
+    }
+
+    public Long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -0,0 +1,146 @@
+package ucv.app_inventory.order_service.infrastructure.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import ucv.app_inventory.order_service.config.IdempotencyProperties;
+import ucv.app_inventory.order_service.exception.IdempotencyKeyMismatchException;
+import ucv.app_inventory.order_service.exception.IdempotentRequestInProgressException;
+import ucv.app_inventory.order_service.exception.InvalidArgumentException;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the result of requests sent with an idempotency key, so a retry gets the
+ * original result instead of running the request again. The first request with a key
+ * registers it before doing any work; duplicates arriving while it runs wait for its
+ * result. Keys expire after {@link IdempotencyProperties#getTtl()} and the store is
+ * local to this instance.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    /**
+     * The result of a request and whether it was replayed from an earlier one.
+     */
+    public record Outcome<T>(T value, boolean replayed) {
+    }
+
+    private record Key(String owner, String key) {
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<Object> result) {
+    }
+
+    private final Cache<Key, Entry> entries;
+    private final Duration waitTimeout;
+    private final ObjectMapper objectMapper;
+
+    public IdempotencyStore(IdempotencyProperties properties, ObjectMapper objectMapper) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+        this.waitTimeout = properties.getWaitTimeout();
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Runs the action once per key. A later call with the same key and an equal request returns
+     * the remembered result, waiting for it if the first call is still running.
+     *
+     * @param owner       the caller; keys of different callers never collide.
+     * @param key         the idempotency key sent by the caller.
+     * @param request     the request body; a key cannot be reused for a different one. It is compared
+     *                    by a hash of its JSON form taken before the action runs, which may change it.
+     * @param action      the work to do the first time.
+     * @param remember    whether a result should be replayed to later retries; results that fail it
+     *                    are only shared with the duplicates already waiting, so a retry runs again.
+     * @return the result and whether it was replayed.
+     * @throws IdempotencyKeyMismatchException       if the key was used with a different request.
+     * @throws IdempotentRequestInProgressException  if the first request does not finish in time.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Outcome<T> execute(String owner, String key, Object request, Supplier<T> action,
+                                  Predicate<? super T> remember) {
+        validateKey(key);
+        Key scopedKey = new Key(owner, key);
+        String fingerprint = fingerprintOf(request);
+        Entry entry = new Entry(fingerprint, new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(scopedKey, entry);
+        if (existing == null) {
+            return new Outcome<>(run(scopedKey, entry, action, remember), false);
+        }
+
+        if (!existing.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyMismatchException("The Idempotency-Key was already used for a different request.");
+        }
+        logger.info("Replaying the result of idempotency key {}", key);
+        try {
+            return new Outcome<>((T) existing.result().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS), true);
+        } catch (TimeoutException e) {
+            throw new IdempotentRequestInProgressException("A request with the same Idempotency-Key is still in progress.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotentRequestInProgressException("A request with the same Idempotency-Key is still in progress.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private <T> T run(Key key, Entry entry, Supplier<T> action, Predicate<? super T> remember) {
+        T value;
+        try {
+            value = action.get();
+        } catch (RuntimeException | Error e) {
+            entries.asMap().remove(key, entry);
+            entry.result().completeExceptionally(e);
+            throw e;
+        }
+        if (!remember.test(value)) {
+            entries.asMap().remove(key, entry);
+        }
+        entry.result().complete(value);
+        return value;
+    }
+
+    private String fingerprintOf(Object request) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("The request cannot be serialized.", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void validateKey(String key) {
+        if (key == null || key.isBlank()) {
+            throw new InvalidArgumentException("The Idempotency-Key cannot be empty.");
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidArgumentException("The Idempotency-Key cannot be longer than " + MAX_KEY_LENGTH + " characters.");
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package ucv.app_inventory.order_service.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.RemovalListener;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers which cached query results carry which tags, so a write can evict exactly
+ * the results it affects. Entries leave the index when they are evicted by tag or,
+ * through the cache eviction listener, when the cache drops them on size or expiry.
+ * Each tag also counts its evictions, so a result loaded while one of its tags was
+ * evicted can be recognized and dropped.
+ */
+public class OrderCacheTagIndex {
+
+    /**
+     * A cached query result, identified by its cache and key.
+     */
+    public record CachedQuery(String cacheName, Object key) {
+    }
+
+    private final Map<String, Set<CachedQuery>> queriesByTag = new ConcurrentHashMap<>();
+    private final Map<CachedQuery, Set<String>> tagsByQuery = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> evictionsByTag = new ConcurrentHashMap<>();
+
+    public void register(String cacheName, Object key, Set<String> tags) {
+        CachedQuery query = new CachedQuery(cacheName, key);
+        tagsByQuery.put(query, Set.copyOf(tags));
+        for (String tag : tags) {
+            queriesByTag.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(query);
+        }
+    }
+
+    public void unregister(String cacheName, Object key) {
+        CachedQuery query = new CachedQuery(cacheName, key);
+        Set<String> tags = tagsByQuery.remove(query);
+        if (tags == null) {
+            return;
+        }
+        for (String tag : tags) {
+            queriesByTag.computeIfPresent(tag, (t, queries) -> {
+                queries.remove(query);
+                return queries.isEmpty() ? null : queries;
+            });
+        }
+    }
+
+    /**
+     * @param cacheName the cache the listener is registered on.
+     * @return an eviction listener that removes the entries the cache drops on size or expiry.
+     */
+    public <K, V> RemovalListener<K, V> evictionListener(String cacheName) {
+        return (key, value, cause) -> unregister(cacheName, key);
+    }
+
+    /**
+     * Removes and returns every cached query carrying at least one of the given tags.
+     *
+     * @param tags the tags affected by a write.
+     * @return the cached queries to evict.
+     */
+    public Set<CachedQuery> removeTagged(Collection<String> tags) {
+        // Counted before looking up the tagged queries, so a query registered too late to be
+        // found here sees the new count
+        for (String tag : tags) {
+            evictionsByTag.computeIfAbsent(tag, t -> new AtomicLong()).incrementAndGet();
+        }
+        Set<CachedQuery> tagged = new HashSet<>();
+        for (String tag : tags) {
+            Set<CachedQuery> queries = queriesByTag.get(tag);
+            if (queries != null) {
+                tagged.addAll(queries);
+            }
+        }
+        tagged.forEach(query -> unregister(query.cacheName(), query.key()));
+        return tagged;
+    }
+
+    /**
+     * @param tags the tags of a query.
+     * @return a number that changes whenever one of the tags is evicted.
+     */
+    public long generation(Collection<String> tags) {
+        long generation = 0;
+        for (String tag : tags) {
+            AtomicLong evictions = evictionsByTag.get(tag);
+            if (evictions != null) {
+                generation += evictions.get();
+            }
+        }
+        return generation;
+    }
+
+    public int size() {
+        return tagsByQuery.size();
+    }
+}
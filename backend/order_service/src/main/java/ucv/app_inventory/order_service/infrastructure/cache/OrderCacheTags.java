@@ -0,0 +1,100 @@
+package ucv.app_inventory.order_service.infrastructure.cache;
+
+import ucv.app_inventory.order_service.domain.model.Order;
+import ucv.app_inventory.order_service.domain.model.OrderState;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Builds the tags of cached order queries and of order writes. A query is tagged with the
+ * filter it applies (supplier, status, order-date month, creation day); an order write
+ * carries the tags of every filter the order matches, so evicting a write's tags drops
+ * exactly the cached pages the order appears in (or could now appear in).
+ */
+public final class OrderCacheTags {
+
+    // Results that depend on every order, such as the unfiltered listing.
+    public static final String ALL = "all";
+
+    // Date ranges spanning more months than this are simply tagged as depending on every order.
+    private static final int MAX_MONTH_BUCKETS = 24;
+
+    private OrderCacheTags() {
+    }
+
+    public static String supplier(Long supplierId) {
+        return "supplier:" + supplierId;
+    }
+
+    public static String status(OrderState status) {
+        return "status:" + status;
+    }
+
+    public static String supplierAndStatus(Long supplierId, OrderState status) {
+        return "supplier:" + supplierId + ":status:" + status;
+    }
+
+    public static String orderMonth(YearMonth month) {
+        return "date:" + month;
+    }
+
+    public static String creationDay(LocalDate day) {
+        return "created:" + day;
+    }
+
+    /**
+     * Tags of a query over an order-date range: one per calendar month it covers.
+     *
+     * @param startDate the first day of the range.
+     * @param endDate   the last day of the range.
+     * @return the month tags of the range.
+     */
+    public static Set<String> orderDateRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            return Set.of(ALL);
+        }
+        YearMonth first = YearMonth.from(startDate);
+        YearMonth last = YearMonth.from(endDate);
+        if (first.plusMonths(MAX_MONTH_BUCKETS).isBefore(last)) {
+            return Set.of(ALL);
+        }
+        Set<String> tags = new HashSet<>();
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            tags.add(orderMonth(month));
+        }
+        return tags;
+    }
+
+    /**
+     * Tags affected by writing the given order, as it is before or after the write.
+     *
+     * @param order the order state.
+     * @return the tags of every cached query the order can appear in.
+     */
+    public static Set<String> of(Order order) {
+        Set<String> tags = new HashSet<>();
+        tags.add(ALL);
+        if (order == null) {
+            return tags;
+        }
+        if (order.getSupplierId() != null) {
+            tags.add(supplier(order.getSupplierId()));
+        }
+        if (order.getStatus() != null) {
+            tags.add(status(order.getStatus()));
+            if (order.getSupplierId() != null) {
+                tags.add(supplierAndStatus(order.getSupplierId(), order.getStatus()));
+            }
+        }
+        if (order.getOrderDate() != null) {
+            tags.add(orderMonth(YearMonth.from(order.getOrderDate())));
+        }
+        if (order.getCreationDate() != null) {
+            tags.add(creationDay(order.getCreationDate().toLocalDate()));
+        }
+        return tags;
+    }
+}
@@ -0,0 +1,96 @@
+package ucv.app_inventory.order_service.infrastructure.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for order queries with tag-based invalidation.
+ * Each cached result is registered under the tags of the filter that produced it
+ * (see {@link OrderCacheTags}); writes evict only the results sharing a tag with them.
+ */
+@Component
+public class OrderQueryCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderQueryCache.class);
+
+    private final CacheManager cacheManager;
+    private final OrderCacheTagIndex tagIndex;
+
+    public OrderQueryCache(CacheManager cacheManager, OrderCacheTagIndex tagIndex) {
+        this.cacheManager = cacheManager;
+        this.tagIndex = tagIndex;
+    }
+
+    /**
+     * Returns the cached result for the key, loading and tagging it on a miss. A result loaded
+     * while one of its tags was evicted is returned but not kept, as it may predate that write.
+     *
+     * @param cacheName the cache to use.
+     * @param key       the query key; it must identify the full query, including paging and sorting.
+     * @param tags      the tags of the query.
+     * @param loader    computes the result on a miss.
+     * @return the cached or freshly loaded result.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String cacheName, Object key, Set<String> tags, Supplier<T> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return loader.get();
+        }
+        Cache.ValueWrapper cached = cache.get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        long generation = tagIndex.generation(tags);
+        T value = loader.get();
+        // Registered after the put, as a put over an expired entry unregisters that entry's key
+        cache.put(key, value);
+        tagIndex.register(cacheName, key, tags);
+        // Checked after registering: an eviction that misses the registration has already counted
+        if (tagIndex.generation(tags) != generation) {
+            tagIndex.unregister(cacheName, key);
+            cache.evict(key);
+        }
+        return value;
+    }
+
+    /**
+     * Evicts every cached result carrying one of the given tags. Inside a transaction the
+     * eviction is repeated after commit, so a page reloaded while the write was still
+     * uncommitted does not survive it.
+     *
+     * @param tags the tags affected by a write.
+     */
+    public void evictTagged(Collection<String> tags) {
+        evictNow(tags);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            Set<String> affected = Set.copyOf(tags);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(affected);
+                }
+            });
+        }
+    }
+
+    private void evictNow(Collection<String> tags) {
+        Set<OrderCacheTagIndex.CachedQuery> tagged = tagIndex.removeTagged(tags);
+        for (OrderCacheTagIndex.CachedQuery query : tagged) {
+            Cache cache = cacheManager.getCache(query.cacheName());
+            if (cache != null) {
+                cache.evict(query.key());
+            }
+        }
+        logger.info("Evicted {} cached order queries for tags {}", tagged.size(), tags);
+    }
+}
@@ -2,11 +2,13 @@ package ucv.app_inventory.order_service.infrastructure.inbound.controllers;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,19 +17,34 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import ucv.app_inventory.order_service.application.OrderFindUseCase;
 import ucv.app_inventory.order_service.application.OrderCreateUseCase;
 import ucv.app_inventory.order_service.application.OrderUpdateUseCase;
 import ucv.app_inventory.order_service.application.OrderDeleteUseCase;
+import ucv.app_inventory.order_service.application.OrderExportUseCase;
+import ucv.app_inventory.order_service.application.OrderImportUseCase;
 import ucv.app_inventory.order_service.application.dto.OrderDTO;
+import ucv.app_inventory.order_service.application.dto.OrderFullDTO;
+import ucv.app_inventory.order_service.application.dto.OrderImportReportDTO;
 import ucv.app_inventory.order_service.application.dto.OrderRequestDTO;
+import ucv.app_inventory.order_service.application.dto.OrderScrollRequestDTO;
+import ucv.app_inventory.order_service.application.dto.OrderSliceDTO;
+import ucv.app_inventory.order_service.application.dto.OrderStatusBulkRequestDTO;
+import ucv.app_inventory.order_service.application.dto.OrderStatusBulkResultDTO;
 import ucv.app_inventory.order_service.application.dto.mappers.OrderMapper;
 import ucv.app_inventory.order_service.domain.model.Order;
+import ucv.app_inventory.order_service.domain.model.OrderState;
 import ucv.app_inventory.order_service.exception.*;
+import ucv.app_inventory.order_service.infrastructure.cache.IdempotencyStore;
 
+import java.io.IOException;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/order")
@@ -36,11 +53,17 @@ public class OrderController {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final OrderFindUseCase orderFindUseCase;
     private final OrderCreateUseCase orderCreateUseCase;
     private final OrderUpdateUseCase orderUpdateUseCase;
     private final OrderDeleteUseCase orderDeleteUseCase;
+    private final OrderExportUseCase orderExportUseCase;
+    private final OrderImportUseCase orderImportUseCase;
     private final OrderMapper orderMapper;
+    private final IdempotencyStore idempotencyStore;
 
     /**
      * Constructor for OrderController, initializing use cases and the mapper for order operations.
@@ -49,16 +72,24 @@ public class OrderController {
      * @param orderCreateUseCase Use case for creating new orders.
      * @param orderUpdateUseCase Use case for updating existing orders.
      * @param orderDeleteUseCase Use case for deleting orders.
+     * @param orderExportUseCase Use case for streaming order exports.
+     * @param orderImportUseCase Use case for importing orders in bulk.
      * @param orderMapper        Mapper for converting between Order and OrderDTO objects.
+     * @param idempotencyStore   Store of the responses to requests sent with an Idempotency-Key.
      */
     @Autowired
     public OrderController(OrderFindUseCase orderFindUseCase, OrderCreateUseCase orderCreateUseCase,
-                           OrderUpdateUseCase orderUpdateUseCase, OrderDeleteUseCase orderDeleteUseCase, OrderMapper orderMapper) {
+                           OrderUpdateUseCase orderUpdateUseCase, OrderDeleteUseCase orderDeleteUseCase,
+                           OrderExportUseCase orderExportUseCase, OrderImportUseCase orderImportUseCase,
+                           OrderMapper orderMapper, IdempotencyStore idempotencyStore) {
         this.orderFindUseCase = orderFindUseCase;
         this.orderCreateUseCase = orderCreateUseCase;
         this.orderUpdateUseCase = orderUpdateUseCase;
         this.orderDeleteUseCase = orderDeleteUseCase;
+        this.orderExportUseCase = orderExportUseCase;
+        this.orderImportUseCase = orderImportUseCase;
         this.orderMapper = orderMapper;
+        this.idempotencyStore = idempotencyStore;
     }
 
     /**
@@ -106,6 +137,9 @@ public class OrderController {
             // Handle specific exception for supplier not found
             ApiResponseJSON<Page<OrderDTO>> response = new ApiResponseJSON<>(HttpStatus.CONFLICT.value(), e.getMessage());
             return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (DownstreamUnavailableException e) {
+            // Left to GlobalExceptionHandler, which answers 503
+            throw e;
         } catch (Exception e) {
             // If any unexpected error occurs, return a 500 Internal Server Error response
             ApiResponseJSON<Page<OrderDTO>> response = new ApiResponseJSON<>(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage());
@@ -114,6 +148,147 @@ public class OrderController {
     }
 
 
+    /**
+     * Scrolls through orders with a continuation cursor instead of page offsets.
+     *
+     * @param request Filters, sort key, slice size and the cursor returned by the previous slice.
+     * @return ResponseEntity containing the slice of orders and the next cursor, or an error response.
+     */
+    @GetMapping("/scroll")
+    @Operation(
+            summary = "Scroll orders with a cursor",
+            description = "Retrieve orders ordered by (orderDate, id) or (creationDate, id) using keyset pagination. "
+                    + "Pass the returned nextCursor to get the following slice; the total is only counted when includeCount is true.",
+            parameters = {
+                    @Parameter(name = "sortBy", description = "orderDate (default) or creationDate"),
+                    @Parameter(name = "direction", description = "ASC (default) or DESC"),
+                    @Parameter(name = "status", description = "Optional status filter"),
+                    @Parameter(name = "supplierName", description = "Optional supplier name filter"),
+                    @Parameter(name = "startDate", description = "Optional start of the order date range (format: yyyy-MM-dd)"),
+                    @Parameter(name = "endDate", description = "Optional end of the order date range (format: yyyy-MM-dd)"),
+                    @Parameter(name = "size", description = "Slice size, between 1 and 100 (default 20)"),
+                    @Parameter(name = "cursor", description = "Cursor returned by the previous slice"),
+                    @Parameter(name = "includeCount", description = "Whether to count all matching orders (default false)")
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Orders retrieved successfully",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ApiResponseJSON.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid filter, size or cursor",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ApiResponseJSON.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "409",
+                            description = "Conflict occurred while retrieving orders",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ApiResponseJSON.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "500",
+                            description = "Internal server error",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ApiResponseJSON.class))
+                    )
+            }
+    )
+    public ResponseEntity<ApiResponseJSON<OrderSliceDTO>> scrollOrders(OrderScrollRequestDTO request) {
+        try {
+            OrderSliceDTO slice = orderFindUseCase.scrollOrders(request);
+
+            ApiResponseJSON<OrderSliceDTO> response = new ApiResponseJSON<>(HttpStatus.OK.value(), "Orders retrieved successfully.");
+            response.setData(slice);
+            return ResponseEntity.ok(response);
+
+        } catch (InvalidArgumentException e) {
+            // Handle invalid filters, size or cursor
+            ApiResponseJSON<OrderSliceDTO> response = new ApiResponseJSON<>(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (SupplierNotFoundException e) {
+            // Handle specific exception for supplier not found
+            ApiResponseJSON<OrderSliceDTO> response = new ApiResponseJSON<>(HttpStatus.CONFLICT.value(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (DownstreamUnavailableException e) {
+            // Left to GlobalExceptionHandler, which answers 503
+            throw e;
+        } catch (Exception e) {
+            // If any unexpected error occurs, return a 500 Internal Server Error response
+            ApiResponseJSON<OrderSliceDTO> response = new ApiResponseJSON<>(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Streams every order matching the filters, with its details, as NDJSON or CSV.
+     * The rows are read from a database cursor and written as they are read, so the
+     * export does not build the whole result in memory.
+     *
+     * @param startDate Optional start of the order date range (format: yyyy-MM-dd).
+     * @param endDate   Optional end of the order date range (format: yyyy-MM-dd).
+     * @param status    Optional status filter.
+     * @param format    ndjson (default) or csv.
+     * @param response  The response the export is written to.
+     * @return null once the export has been written, or an error response if the filters are invalid.
+     */
+    @GetMapping("/export")
+    @Operation(
+            summary = "Export orders",
+            description = "Stream all orders matching the filters, with their details, as NDJSON (one order per line) "
+                    + "or CSV (one detail per row).",
+            parameters = {
+                    @Parameter(name = "startDate", description = "Optional start of the order date range (format: yyyy-MM-dd)"),
+                    @Parameter(name = "endDate", description = "Optional end of the order date range (format: yyyy-MM-dd)"),
+                    @Parameter(name = "status", description = "Optional status filter"),
+                    @Parameter(name = "format", description = "ndjson (default) or csv")
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Orders exported successfully",
+                            content = {
+                                    @Content(mediaType = "application/x-ndjson"),
+                                    @Content(mediaType = "text/csv")
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid filter or format",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ApiResponseJSON.class))
+                    )
+            }
+    )
+    public ResponseEntity<ApiResponseJSON<Void>> exportOrders(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response) throws IOException {
+        OrderExportUseCase.Format exportFormat;
+        OrderState state;
+        try {
+            exportFormat = OrderExportUseCase.Format.from(format);
+            state = orderExportUseCase.validateFilters(startDate, endDate, status);
+        } catch (InvalidArgumentException e) {
+            // Reject invalid filters before anything is written to the response
+            ApiResponseJSON<Void> errorResponse = new ApiResponseJSON<>(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+
+        // Written on the request thread: the Feign calls that resolve names need the caller's token
+        boolean csv = exportFormat == OrderExportUseCase.Format.CSV;
+        response.setCharacterEncoding("UTF-8");
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setHeader("Content-Disposition", "attachment; filename=\"orders." + (csv ? "csv" : "ndjson") + "\"");
+        orderExportUseCase.exportOrders(startDate, endDate, state, exportFormat, response.getWriter());
+        return null;
+    }
+
     /**
      * Retrieves orders within a specified date range.
      *
@@ -181,6 +356,9 @@ public class OrderController {
             // Handle specific exception for supplier not found
             ApiResponseJSON<Page<OrderDTO>> response = new ApiResponseJSON<>(HttpStatus.CONFLICT.value(), e.getMessage());
             return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (DownstreamUnavailableException e) {
+            // Left to GlobalExceptionHandler, which answers 503
+            throw e;
         } catch (Exception e) {
             // If any unexpected error occurs, return a 500 Internal Server Error response
             ApiResponseJSON<Page<OrderDTO>> response = new ApiResponseJSON<>(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage());
@@ -263,6 +441,9 @@ public class OrderController {
             // Handle invalid arguments in the request
             ApiResponseJSON<Page<OrderDTO>> response = new ApiResponseJSON<>(HttpStatus.BAD_REQUEST.value(), e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (DownstreamUnavailableException e) {
+            // Left to GlobalExceptionHandler, which answers 503
+            throw e;
         } catch (Exception e) {
             // If any unexpected error occurs, return a 500 Internal Server Error response
             ApiResponseJSON<Page<OrderDTO>> response = new ApiResponseJSON<>(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage());
@@ -345,6 +526,9 @@ public class OrderController {
             // Handle invalid arguments in the request
             ApiResponseJSON<Page<OrderDTO>> response = new ApiResponseJSON<>(HttpStatus.BAD_REQUEST.value(), e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (DownstreamUnavailableException e) {
+            // Left to GlobalExceptionHandler, which answers 503
+            throw e;
         } catch (Exception e) {
             // If any unexpected error occurs, return a 500 Internal Server Error response
             ApiResponseJSON<Page<OrderDTO>> response = new ApiResponseJSON<>(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage());
@@ -430,6 +614,9 @@ public class OrderController {
             // Handle invalid arguments in the request
             ApiResponseJSON<Page<OrderDTO>> response = new ApiResponseJSON<>(HttpStatus.BAD_REQUEST.value(), e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (DownstreamUnavailableException e) {
+            // Left to GlobalExceptionHandler, which answers 503
+            throw e;
         } catch (Exception e) {
             // If any unexpected error occurs, return a 500 Internal Server Error response
             ApiResponseJSON<Page<OrderDTO>> response = new ApiResponseJSON<>(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage());
@@ -508,6 +695,9 @@ public class OrderController {
             // Handle case where order is not found
             ApiResponseJSON<OrderDTO> response = new ApiResponseJSON<>(HttpStatus.NOT_FOUND.value(), e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } catch (DownstreamUnavailableException e) {
+            // Left to GlobalExceptionHandler, which answers 503
+            throw e;
         } catch (Exception e) {
             // Log the exception and return a 500 Internal Server Error response
             logger.error("Error occurred while retrieving order with ID {}: {}", id, e.getMessage(), e);
@@ -516,6 +706,85 @@ public class OrderController {
         }
     }
 
+    /**
+     * Retrieves an order by its unique ID together with its details.
+     *
+     * @param id The unique identifier of the order.
+     * @return ResponseEntity containing the order and its details or an error response.
+     */
+    @GetMapping("/{id}/full")
+    @Operation(
+            summary = "Get order with its details",
+            description = "Retrieve an order by its unique ID together with its details and their product names.",
+            parameters = {
+                    @Parameter(name = "id", description = "Unique ID of the order to retrieve", required = true)
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Order retrieved successfully",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ApiResponseJSON.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Order not found with the specified ID",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ApiResponseJSON.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid ID format or invalid order detail",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ApiResponseJSON.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "409",
+                            description = "Conflict occurred while retrieving the order",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ApiResponseJSON.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "500",
+                            description = "Internal server error",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ApiResponseJSON.class))
+                    )
+            }
+    )
+    public ResponseEntity<ApiResponseJSON<OrderFullDTO>> findFullById(
+            @PathVariable Object id) {
+
+        try {
+            OrderFullDTO order = orderFindUseCase.findFullById(id);
+
+            ApiResponseJSON<OrderFullDTO> response = new ApiResponseJSON<>(HttpStatus.OK.value(), "Order retrieved successfully.");
+            response.setData(order);
+            return ResponseEntity.ok(response);
+
+        } catch (SupplierNotFoundException e) {
+            // Handle specific exception for supplier not found
+            ApiResponseJSON<OrderFullDTO> response = new ApiResponseJSON<>(HttpStatus.CONFLICT.value(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (InvalidArgumentException e) {
+            // Handle invalid arguments in the request
+            ApiResponseJSON<OrderFullDTO> response = new ApiResponseJSON<>(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (OrderNotFoundException e) {
+            // Handle case where order is not found
+            ApiResponseJSON<OrderFullDTO> response = new ApiResponseJSON<>(HttpStatus.NOT_FOUND.value(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } catch (DownstreamUnavailableException e) {
+            // Left to GlobalExceptionHandler, which answers 503
+            throw e;
+        } catch (Exception e) {
+            // Log the exception and return a 500 Internal Server Error response
+            logger.error("Error occurred while retrieving full order with ID {}: {}", id, e.getMessage(), e);
+            ApiResponseJSON<OrderFullDTO> response = new ApiResponseJSON<>(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     /**
      * Retrieves orders filtered by their creation date.
      *
@@ -570,6 +839,9 @@ public class OrderController {
             ApiResponseJSON<Page<Order>> response = new ApiResponseJSON<>(HttpStatus.NOT_FOUND.value(), "No orders found for the given creation date.");
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
 
+        } catch (DownstreamUnavailableException e) {
+            // Left to GlobalExceptionHandler, which answers 503
+            throw e;
         } catch (Exception e) {
             // If any unexpected error occurs, return a 500 Internal Server Error response
             ApiResponseJSON<Page<Order>> response = new ApiResponseJSON<>(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage());
@@ -647,6 +919,9 @@ public class OrderController {
             ApiResponseJSON<Page<Order>> response = new ApiResponseJSON<>(HttpStatus.NOT_FOUND.value(), "No orders found in the specified total range.");
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
 
+        } catch (DownstreamUnavailableException e) {
+            // Left to GlobalExceptionHandler, which answers 503
+            throw e;
         } catch (Exception e) {
             // If any unexpected error occurs, return a 500 Internal Server Error response
             ApiResponseJSON<Page<Order>> response = new ApiResponseJSON<>(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage());
@@ -657,14 +932,23 @@ public class OrderController {
 
     /**
      * Creates a new order and returns the created order details.
+     * Requests sent with an Idempotency-Key are run once per key: a retry gets the original
+     * response, and a retry arriving while the first request runs waits for its response.
      *
-     * @param orderRequest The data of the order and its details to be created.
+     * @param idempotencyKey Optional key identifying the order across retries.
+     * @param orderRequest   The data of the order and its details to be created.
      * @return ResponseEntity containing the created order details or an error response.
      */
     @PostMapping("/create")
     @Operation(
             summary = "Create a new order",
-            description = "Create a new order and return the details of the created order.",
+            description = "Create a new order and return the details of the created order. "
+                    + "Send an Idempotency-Key header to retry safely: a request with a key already used returns "
+                    + "the original response, with the Idempotent-Replayed header, instead of creating another order.",
+            parameters = {
+                    @Parameter(name = IDEMPOTENCY_KEY_HEADER, in = ParameterIn.HEADER,
+                            description = "Unique key of this order, reused on every retry (at most 255 characters)")
+            },
             requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
                     description = "Order data and details for the new order",
                     required = true,
@@ -674,13 +958,26 @@ public class OrderController {
             responses = {
                     @ApiResponse(
                             responseCode = "201",
-                            description = "Order created successfully",
+                            description = "Order created successfully, or replayed for a key already used",
                             content = @Content(mediaType = "application/json",
                                     schema = @Schema(implementation = ApiResponseJSON.class))
                     ),
                     @ApiResponse(
                             responseCode = "400",
-                            description = "Invalid request data or supplier not found",
+                            description = "Invalid request data, invalid Idempotency-Key or supplier not found",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ApiResponseJSON.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "409",
+                            description = "A request with the same Idempotency-Key is still in progress, or the "
+                                    + "products of the order do not have enough stock available to reserve",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ApiResponseJSON.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "422",
+                            description = "The Idempotency-Key was already used for a different request",
                             content = @Content(mediaType = "application/json",
                                     schema = @Schema(implementation = ApiResponseJSON.class))
                     ),
@@ -693,10 +990,46 @@ public class OrderController {
             }
     )
     public ResponseEntity<ApiResponseJSON<OrderDTO>> createOrder(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody
             @Parameter(description = "Order data and order details", required = true)
             OrderRequestDTO orderRequest) {
 
+        if (idempotencyKey == null) {
+            return createOrderResponse(orderRequest);
+        }
+
+        try {
+            // Only successful responses are replayed; a failed order can be retried with the same key
+            String owner = SecurityContextHolder.getContext().getAuthentication().getName();
+            IdempotencyStore.Outcome<ResponseEntity<ApiResponseJSON<OrderDTO>>> outcome = idempotencyStore.execute(
+                    owner, idempotencyKey, orderRequest, () -> createOrderResponse(orderRequest),
+                    response -> response.getStatusCode().is2xxSuccessful());
+            if (!outcome.replayed()) {
+                return outcome.value();
+            }
+            return ResponseEntity.status(outcome.value().getStatusCode())
+                    .header(IDEMPOTENT_REPLAYED_HEADER, "true")
+                    .body(outcome.value().getBody());
+
+        } catch (InvalidArgumentException e) {
+            // Handle an empty or too long key
+            ApiResponseJSON<OrderDTO> response = new ApiResponseJSON<>(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+
+        } catch (IdempotentRequestInProgressException e) {
+            // The first request with this key has not finished yet
+            ApiResponseJSON<OrderDTO> response = new ApiResponseJSON<>(HttpStatus.CONFLICT.value(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+
+        } catch (IdempotencyKeyMismatchException e) {
+            // The key belongs to another order
+            ApiResponseJSON<OrderDTO> response = new ApiResponseJSON<>(HttpStatus.UNPROCESSABLE_ENTITY.value(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(response);
+        }
+    }
+
+    private ResponseEntity<ApiResponseJSON<OrderDTO>> createOrderResponse(OrderRequestDTO orderRequest) {
         try {
             // Create the order and map it to DTO
             Order order = orderCreateUseCase.createOrder(orderRequest.getOrder(), orderRequest.getOrderDetails());
@@ -712,6 +1045,14 @@ public class OrderController {
             ApiResponseJSON<OrderDTO> response = new ApiResponseJSON<>(HttpStatus.BAD_REQUEST.value(), e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
 
+        } catch (InsufficientStockException e) {
+            // Handle an order whose products cannot be reserved
+            ApiResponseJSON<OrderDTO> response = new ApiResponseJSON<>(HttpStatus.CONFLICT.value(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+
+        } catch (DownstreamUnavailableException e) {
+            // Left to GlobalExceptionHandler, which answers 503
+            throw e;
         } catch (Exception e) {
             // Handle unexpected errors
             ApiResponseJSON<OrderDTO> response = new ApiResponseJSON<>(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage());
@@ -720,6 +1061,110 @@ public class OrderController {
     }
 
 
+    /**
+     * Imports many orders at once from a JSON array of orders, each with its details.
+     *
+     * @param orders The orders to import.
+     * @return ResponseEntity containing the result of every order or an error response.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+            summary = "Import orders",
+            description = "Create many orders in one request. Suppliers and products are looked up once for the whole import, "
+                    + "and the orders are validated and saved in chunks. Invalid orders do not stop the others; "
+                    + "the result of every order is returned.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Orders to import, each with its details",
+                    required = true,
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = OrderRequestDTO.class))
+            ),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Import processed; see the result of each order",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ApiResponseJSON.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Empty or too large import",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ApiResponseJSON.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "500",
+                            description = "Internal server error",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ApiResponseJSON.class))
+                    )
+            }
+    )
+    public ResponseEntity<ApiResponseJSON<OrderImportReportDTO>> importOrders(@RequestBody List<OrderRequestDTO> orders) {
+        return importResponse(() -> orderImportUseCase.importOrders(orders));
+    }
+
+    /**
+     * Imports many orders at once from a CSV with one order detail per row.
+     *
+     * @param csv The CSV content.
+     * @return ResponseEntity containing the result of every order or an error response.
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @Operation(
+            summary = "Import orders from CSV",
+            description = "Create many orders from a CSV with the header reference,supplier_name,order_date,observations,product_name,quantity. "
+                    + "Rows with the same reference are the details of one order.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Import processed; see the result of each order",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ApiResponseJSON.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Malformed, empty or too large CSV",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ApiResponseJSON.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "500",
+                            description = "Internal server error",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ApiResponseJSON.class))
+                    )
+            }
+    )
+    public ResponseEntity<ApiResponseJSON<OrderImportReportDTO>> importOrdersCsv(@RequestBody String csv) {
+        return importResponse(() -> orderImportUseCase.importOrdersCsv(csv));
+    }
+
+    private ResponseEntity<ApiResponseJSON<OrderImportReportDTO>> importResponse(
+            Supplier<OrderImportReportDTO> importer) {
+        try {
+            OrderImportReportDTO report = importer.get();
+
+            ApiResponseJSON<OrderImportReportDTO> response = new ApiResponseJSON<>(HttpStatus.OK.value(),
+                    report.getSucceeded() + " of " + report.getTotal() + " orders imported.");
+            response.setData(report);
+            return ResponseEntity.ok(response);
+
+        } catch (InvalidArgumentException e) {
+            // Handle an empty, malformed or too large import
+            ApiResponseJSON<OrderImportReportDTO> response = new ApiResponseJSON<>(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (DownstreamUnavailableException e) {
+            // Left to GlobalExceptionHandler, which answers 503
+            throw e;
+        } catch (Exception e) {
+            // Handle unexpected errors
+            logger.error("Error occurred while importing orders: {}", e.getMessage(), e);
+            ApiResponseJSON<OrderImportReportDTO> response = new ApiResponseJSON<>(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     /**
      * Updates an existing order's details by its unique ID.
      *
@@ -730,7 +1175,8 @@ public class OrderController {
     @PutMapping("/update/{id}")
     @Operation(
             summary = "Update an existing order",
-            description = "Update the details of an order by its unique ID.",
+            description = "Update the details of an order by its unique ID. Send the version of the order that was read "
+                    + "to update it only if nobody changed it since.",
             parameters = {
                     @Parameter(name = "id", description = "Unique ID of the order to update", required = true)
             },
@@ -759,6 +1205,14 @@ public class OrderController {
                             content = @Content(mediaType = "application/json",
                                     schema = @Schema(implementation = ApiResponseJSON.class))
                     ),
+                    @ApiResponse(
+                            responseCode = "409",
+                            description = "The order does not have the version sent, or kept changing concurrently, "
+                                    + "in which case the ETag header holds its current version; or it is moving to "
+                                    + "PROCESSED and its products are not in stock",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ApiResponseJSON.class))
+                    ),
                     @ApiResponse(
                             responseCode = "500",
                             description = "Internal server error",
@@ -791,6 +1245,23 @@ public class OrderController {
             ApiResponseJSON<OrderDTO> response = new ApiResponseJSON<>(HttpStatus.BAD_REQUEST.value(), e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
 
+        } catch (VersionConflictException e) {
+            // Handle an order changed by another request; the client reads it again at the current version
+            ApiResponseJSON<OrderDTO> response = new ApiResponseJSON<>(HttpStatus.CONFLICT.value(), e.getMessage());
+            ResponseEntity.BodyBuilder conflict = ResponseEntity.status(HttpStatus.CONFLICT);
+            if (e.getCurrentVersion() != null) {
+                conflict.eTag(String.valueOf(e.getCurrentVersion()));
+            }
+            return conflict.body(response);
+
+        } catch (InsufficientStockException e) {
+            // Handle an order that cannot be processed because its products are not in stock
+            ApiResponseJSON<OrderDTO> response = new ApiResponseJSON<>(HttpStatus.CONFLICT.value(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+
+        } catch (DownstreamUnavailableException e) {
+            // Left to GlobalExceptionHandler, which answers 503
+            throw e;
         } catch (Exception e) {
             // Handle unexpected errors
             ApiResponseJSON<OrderDTO> response = new ApiResponseJSON<>(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage());
@@ -799,6 +1270,73 @@ public class OrderController {
     }
 
 
+    /**
+     * Changes the status of many orders at once.
+     *
+     * @param request The IDs of the orders and the new status.
+     * @return ResponseEntity containing the updated, unchanged, rejected and unknown orders or an error response.
+     */
+    @PutMapping("/status")
+    @Operation(
+            summary = "Change the status of many orders",
+            description = "Move many orders to a status with one set-based update. Orders whose current status cannot move "
+                    + "to the new one, or that move to PROCESSED without their products in stock, are reported as "
+                    + "rejected instead of failing the request.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "IDs of the orders and the new status",
+                    required = true,
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = OrderStatusBulkRequestDTO.class))
+            ),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Status change processed; see the result of each order",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ApiResponseJSON.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "No IDs, too many IDs or invalid status",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ApiResponseJSON.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "500",
+                            description = "Internal server error",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ApiResponseJSON.class))
+                    )
+            }
+    )
+    public ResponseEntity<ApiResponseJSON<OrderStatusBulkResultDTO>> updateOrderStatuses(
+            @RequestBody OrderStatusBulkRequestDTO request) {
+
+        try {
+            OrderStatusBulkResultDTO result = orderUpdateUseCase.updateStatuses(request.getIds(), request.getStatus());
+
+            ApiResponseJSON<OrderStatusBulkResultDTO> response = new ApiResponseJSON<>(HttpStatus.OK.value(),
+                    result.getUpdated().size() + " of " + request.getIds().size() + " orders updated.");
+            response.setData(result);
+            return ResponseEntity.ok(response);
+
+        } catch (InvalidArgumentException e) {
+            // Handle missing IDs or an invalid status
+            ApiResponseJSON<OrderStatusBulkResultDTO> response = new ApiResponseJSON<>(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+
+        } catch (DownstreamUnavailableException e) {
+            // Left to GlobalExceptionHandler, which answers 503
+            throw e;
+        } catch (Exception e) {
+            // Handle unexpected errors
+            logger.error("Error occurred while changing the status of orders: {}", e.getMessage(), e);
+            ApiResponseJSON<OrderStatusBulkResultDTO> response = new ApiResponseJSON<>(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+
     /**
      * Deletes an order by its unique ID.
      *
@@ -861,6 +1399,9 @@ public class OrderController {
             // Handle case where the order is in an invalid state for deletion
             ApiResponseJSON<Void> response = new ApiResponseJSON<>(HttpStatus.CONFLICT.value(), e.getMessage());
             return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (DownstreamUnavailableException e) {
+            // Left to GlobalExceptionHandler, which answers 503
+            throw e;
         } catch (Exception e) {
             // Handle unexpected errors
             ApiResponseJSON<Void> response = new ApiResponseJSON<>(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage());
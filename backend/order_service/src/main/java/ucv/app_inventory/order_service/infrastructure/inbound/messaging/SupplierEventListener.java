@@ -0,0 +1,65 @@
+package ucv.app_inventory.order_service.infrastructure.inbound.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+import ucv.app_inventory.order_service.application.SupplierDirectory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the local supplier read model current from the Supplier service change notifications.
+ * <p>
+ * The topic is log-compacted and keyed by supplier ID. The read model is a table shared by all
+ * instances, so they share one consumer group and each change is applied once. Each partition is
+ * read from its beginning the first time this instance is assigned it, so a start of the service
+ * replays every supplier, a full resync that repairs the read model; later rebalances resume from
+ * the committed offsets. A record with a null value (tombstone) means the supplier was deleted.
+ */
+@Component
+@RequiredArgsConstructor
+public class SupplierEventListener implements ConsumerSeekAware {
+
+    private static final Logger logger = LoggerFactory.getLogger(SupplierEventListener.class);
+
+    private final SupplierDirectory supplierDirectory;
+    private final ObjectMapper objectMapper;
+    // The partitions already read from their beginning since this instance started
+    private final Set<TopicPartition> resynced = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        List<TopicPartition> partitions = assignments.keySet().stream().filter(resynced::add).toList();
+        if (!partitions.isEmpty()) {
+            callback.seekToBeginning(partitions);
+            logger.info("Resyncing the supplier read model from the beginning of {}", partitions);
+        }
+    }
+
+    @KafkaListener(
+            topics = "${supplier.events.topic:supplier-events}",
+            groupId = "${supplier.events.group-id:${spring.application.name}-suppliers}",
+            properties = "auto.offset.reset=earliest")
+    public void onSupplierEvent(ConsumerRecord<String, String> record) throws JsonProcessingException {
+        Long supplierId = Long.valueOf(record.key());
+        if (record.value() == null) {
+            supplierDirectory.remove(supplierId);
+            logger.info("Supplier {} removed from the local read model", supplierId);
+            return;
+        }
+
+        JsonNode supplier = objectMapper.readTree(record.value());
+        supplierDirectory.upsert(supplierId, supplier.path("name").asText(null), supplier.path("state").asText(null));
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import ucv.app_inventory.order_service.domain.model.OrderDetail;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -20,4 +21,12 @@ public interface OrderDetailMySqlRepository extends JpaRepository<OrderDetail, L
      * @return a list of order details associated with the specified order ID.
      */
     List<OrderDetail> findByOrderId(Long orderId);
+
+    /**
+     * Finds the details of several orders with one query.
+     *
+     * @param orderIds the IDs of the orders.
+     * @return the details of those orders.
+     */
+    List<OrderDetail> findByOrderIdIn(Collection<Long> orderIds);
 }
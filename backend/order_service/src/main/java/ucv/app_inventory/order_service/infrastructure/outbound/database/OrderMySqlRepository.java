@@ -1,22 +1,32 @@
 package ucv.app_inventory.order_service.infrastructure.outbound.database;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ucv.app_inventory.order_service.domain.model.Order;
 import ucv.app_inventory.order_service.domain.model.OrderState;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for accessing and managing Order entities in a MySQL database.
  * Provides methods for querying orders based on date ranges, supplier ID, and order status.
+ * Specification queries back the keyset (cursor) scrolls over orders.
  */
 @Repository
-public interface OrderMySqlRepository extends JpaRepository<Order, Long> {
+public interface OrderMySqlRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
 
     /**
      * Finds orders within a specified date range.
@@ -60,4 +70,52 @@ public interface OrderMySqlRepository extends JpaRepository<Order, Long> {
 
     Page<Order> findByTotalBetween(Double minTotal, Double maxTotal, Pageable pageable);
 
+    /**
+     * Finds an order together with its details in a single query.
+     *
+     * @param id the ID of the order.
+     * @return the order with its details initialized, if it exists.
+     */
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderDetails WHERE o.id = :id")
+    Optional<Order> findWithDetailsById(@Param("id") Long id);
+
+    /**
+     * Adds an amount to the total of an order in the database, so concurrent changes to
+     * different lines of the same order are all counted. The version of the order is
+     * incremented, so an update that read the previous total fails instead of overwriting it.
+     *
+     * @param id    the ID of the order.
+     * @param delta the amount to add; negative to subtract.
+     * @return the number of orders updated.
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.total = o.total + :delta, o.version = o.version + 1 WHERE o.id = :id")
+    int addToTotal(@Param("id") Long id, @Param("delta") BigDecimal delta);
+
+    /**
+     * Finds orders by ID and locks them until the end of the transaction, so their status
+     * cannot change between reading and updating them.
+     *
+     * @param ids the IDs of the orders.
+     * @return the orders found.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids")
+    List<Order> findAllForUpdateByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Moves the given orders to a status in one statement, but only those currently in one of
+     * the allowed source statuses. Their versions are incremented like on any other write.
+     *
+     * @param ids     the IDs of the orders.
+     * @param status  the new status.
+     * @param sources the statuses an order may move to the new one from.
+     * @return the number of orders updated.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :status, o.version = o.version + 1 "
+            + "WHERE o.id IN :ids AND o.status IN :sources")
+    int updateStatusByIdInAndStatusIn(@Param("ids") Collection<Long> ids, @Param("status") OrderState status,
+                                      @Param("sources") Collection<OrderState> sources);
+
 }
\ No newline at end of file
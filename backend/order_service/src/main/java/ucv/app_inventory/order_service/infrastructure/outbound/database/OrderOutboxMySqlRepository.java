@@ -0,0 +1,27 @@
+package ucv.app_inventory.order_service.infrastructure.outbound.database;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ucv.app_inventory.order_service.domain.model.OrderOutboxEvent;
+
+import java.util.List;
+
+@Repository
+public interface OrderOutboxMySqlRepository extends JpaRepository<OrderOutboxEvent, Long> {
+
+    /**
+     * Finds the oldest events waiting to be published and locks them until the end of the
+     * transaction, so another instance relaying at the same time waits instead of publishing
+     * them too, or publishing later events of the same order first.
+     *
+     * @param pageable how many events to take.
+     * @return the events, oldest first.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM OrderOutboxEvent e ORDER BY e.id")
+    List<OrderOutboxEvent> findNextBatch(Pageable pageable);
+}
@@ -0,0 +1,32 @@
+package ucv.app_inventory.order_service.infrastructure.outbound.database;
+
+import org.springframework.data.jpa.domain.Specification;
+import ucv.app_inventory.order_service.domain.model.Order;
+import ucv.app_inventory.order_service.domain.model.OrderState;
+
+import java.time.LocalDate;
+
+/**
+ * Composable filters over orders, used by the keyset scroll queries.
+ */
+public final class OrderSpecifications {
+
+    private OrderSpecifications() {
+    }
+
+    public static Specification<Order> hasStatus(OrderState status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Order> hasSupplier(Long supplierId) {
+        return (root, query, cb) -> cb.equal(root.get("supplierId"), supplierId);
+    }
+
+    public static Specification<Order> orderDateFrom(LocalDate startDate) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("orderDate"), startDate);
+    }
+
+    public static Specification<Order> orderDateTo(LocalDate endDate) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("orderDate"), endDate);
+    }
+}
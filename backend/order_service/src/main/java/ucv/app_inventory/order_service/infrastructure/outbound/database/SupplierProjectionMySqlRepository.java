@@ -0,0 +1,23 @@
+package ucv.app_inventory.order_service.infrastructure.outbound.database;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ucv.app_inventory.order_service.domain.model.SupplierProjection;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for the local supplier read model.
+ */
+@Repository
+public interface SupplierProjectionMySqlRepository extends JpaRepository<SupplierProjection, Long> {
+
+    /**
+     * Finds the first supplier whose name starts with the given prefix, matching the
+     * behaviour of the Supplier service name search.
+     *
+     * @param name the name prefix.
+     * @return the supplier with the lowest ID among those matching.
+     */
+    Optional<SupplierProjection> findFirstByNameStartingWithOrderBySupplierIdAsc(String name);
+}
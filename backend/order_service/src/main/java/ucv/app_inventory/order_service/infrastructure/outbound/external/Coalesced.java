@@ -0,0 +1,18 @@
+package ucv.app_inventory.order_service.infrastructure.outbound.external;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a Feign client method whose concurrent calls with the same arguments share one request
+ * and its result, see {@link SingleFlight}. Only meant for idempotent lookups whose result does
+ * not depend on the caller.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalesced {
+}
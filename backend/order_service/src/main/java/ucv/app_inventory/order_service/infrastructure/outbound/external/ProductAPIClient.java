@@ -4,10 +4,18 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import ucv.app_inventory.order_service.application.dto.ProductDTO;
+import ucv.app_inventory.order_service.application.dto.ProductLineDTO;
 import ucv.app_inventory.order_service.application.dto.ProductSupplierDTO;
+import ucv.app_inventory.order_service.application.dto.StockAdjustmentRequestDTO;
+import ucv.app_inventory.order_service.application.dto.StockAdjustmentResultDTO;
+import ucv.app_inventory.order_service.application.dto.StockReservationRequestDTO;
+import ucv.app_inventory.order_service.application.dto.StockReservationResultDTO;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,10 +28,13 @@ public interface ProductAPIClient {
 
     /**
      * Fetches product information by product ID from the Product service.
+     * Concurrent calls for the same ID share one request.
      *
      * @param id The ID of the product to retrieve.
      * @return A ProductDTO containing product details.
      */
+    @StaleFallback
+    @Coalesced
     @GetMapping("/api/product/findProductById/{id}")
     ProductDTO getProductById(@PathVariable("id") Long id);
 
@@ -35,19 +46,95 @@ public interface ProductAPIClient {
      * @param size The number of products per page (default 15).
      * @return A list of ProductDTOs containing product details.
      */
+    @StaleFallback
     @GetMapping("/api/product/findByName")
     Optional<List<ProductDTO>> getProductsByName(
             @RequestParam("name") String name,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "15") int size);
 
+    @StaleFallback
     @GetMapping("/api/product-supplier/{productId}/suppliers/{supplierId}")
     Optional<ProductSupplierDTO> getRelationByProductIdAndSupplierId(
             @PathVariable Long productId, @PathVariable Long supplierId);
 
+    @StaleFallback
     @GetMapping("/api/product-supplier/product/{productId}")
     List<ProductSupplierDTO> getRelationsByProductId(@PathVariable Long productId);
 
+    @StaleFallback
     @GetMapping("/api/product-supplier/findById/{id}")
     Optional<ProductSupplierDTO> getRelationById(@PathVariable Long id);
-}
\ No newline at end of file
+
+    /**
+     * Fetches several products by ID in one call. Unknown IDs are absent from the result.
+     *
+     * @param ids The product IDs.
+     * @return The products found.
+     */
+    @StaleFallback
+    @PostMapping("/api/product/findByIds")
+    List<ProductDTO> getProductsByIds(@RequestBody Collection<Long> ids);
+
+    /**
+     * Fetches several product-supplier relations by ID in one call. Unknown IDs are absent from the result.
+     *
+     * @param ids The relation IDs.
+     * @return The relations found.
+     */
+    @StaleFallback
+    @PostMapping("/api/product-supplier/findByIds")
+    List<ProductSupplierDTO> getRelationsByIds(@RequestBody Collection<Long> ids);
+
+    /**
+     * Resolves the product, the product-supplier relation and the price of several order lines
+     * in one call. The response keeps the order of the request; unresolved fields are null.
+     *
+     * @param lines The lines, each with a product name and a supplier ID.
+     * @return The resolved lines.
+     */
+    @PostMapping("/api/product-supplier/resolveLines")
+    List<ProductLineDTO> resolveLines(@RequestBody List<ProductLineDTO> lines);
+
+    /**
+     * Applies a batch of stock changes atomically: either every product has enough stock and all
+     * of them change, or none does and the service answers 409 Conflict. A batch whose reference
+     * was already applied is not applied again.
+     *
+     * @param request The reference of the batch and the change per product.
+     * @return The result of the batch.
+     */
+    @PostMapping("/api/product/adjustStock")
+    StockAdjustmentResultDTO adjustStock(@RequestBody StockAdjustmentRequestDTO request);
+
+    /**
+     * Applies several batches of stock changes in one call, each atomically and on its own: a
+     * batch some product has not enough stock for is not applied, and its result says so with
+     * {@code applied} false, while the others still are.
+     *
+     * @param requests The batches, at most 500.
+     * @return The result of each batch, in the order of the request.
+     */
+    @PostMapping("/api/product/adjustStock/batches")
+    List<StockAdjustmentResultDTO> adjustStocks(@RequestBody List<StockAdjustmentRequestDTO> requests);
+
+    /**
+     * Reserves several products for a while, all or nothing: if a product does not have enough
+     * stock left after the active reservations of other references, the service answers 409
+     * Conflict. Reserving a reference again replaces its previous reservation.
+     *
+     * @param request The reference, how long it lasts and the quantity per product.
+     * @return The reference and when the reservation expires.
+     */
+    @PostMapping("/api/product/reservations")
+    StockReservationResultDTO reserveStock(@RequestBody StockReservationRequestDTO request);
+
+    /**
+     * Releases the reservations of several references. Unknown references are ignored.
+     *
+     * @param references The references.
+     * @return The number of reserved products released.
+     */
+    @PostMapping("/api/product/reservations/release")
+    Integer releaseReservations(@RequestBody Collection<String> references);
+}
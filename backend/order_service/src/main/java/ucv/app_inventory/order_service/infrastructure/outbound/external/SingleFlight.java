@@ -0,0 +1,90 @@
+package ucv.app_inventory.order_service.infrastructure.outbound.external;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller runs the call on its own thread
+ * and every caller arriving while it is in flight waits for it and gets the same result, or the
+ * same exception. Once the call finishes the key is free again, so nothing is cached.
+ * <p>
+ * Callers register with a single putIfAbsent on a concurrent map; no lock is held while the call
+ * runs and calls for different keys never wait for each other. Results are shared between the
+ * callers of a flight and must not be modified.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the results.
+ */
+public class SingleFlight<K, V> {
+
+    /**
+     * A call that may throw whatever the underlying client throws.
+     */
+    @FunctionalInterface
+    public interface Call<V> {
+        V call() throws Throwable;
+    }
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Runs the call, or joins the one already in flight for the same key.
+     *
+     * @param key  the key of the call.
+     * @param call the call to run if none is in flight for the key.
+     * @return the result of the call.
+     * @throws Throwable whatever the call threw.
+     */
+    public V execute(K key, Call<V> call) throws Throwable {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause();
+            }
+        }
+
+        executed.increment();
+        V result;
+        try {
+            result = call.call();
+        } catch (Throwable t) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(t);
+            throw t;
+        }
+        // Freed before completing, so a caller arriving now starts a new call instead of reusing this result
+        inFlight.remove(key, flight);
+        flight.complete(result);
+        return result;
+    }
+
+    /**
+     * @return the number of calls actually run.
+     */
+    public long executedCount() {
+        return executed.sum();
+    }
+
+    /**
+     * @return the number of calls that joined one already in flight instead of running.
+     */
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return the number of keys with a call in flight.
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,18 @@
+package ucv.app_inventory.order_service.infrastructure.outbound.external;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a Feign client read whose last result for the same arguments may be returned while the
+ * service it calls is refused, i.e. its circuit breaker is open or its bulkhead is full. Only
+ * meant for lookups where a slightly old answer beats no answer.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StaleFallback {
+}
@@ -5,9 +5,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import ucv.app_inventory.order_service.application.dto.SupplierDTO;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -19,13 +23,28 @@ public interface SupplierAPIClient {
 
     /**
      * Fetches supplier information by supplier ID from the Supplier service.
+     * Concurrent calls for the same ID share one request.
      *
      * @param id The ID of the supplier to retrieve.
      * @return A SupplierDTO containing supplier details.
      */
+    @StaleFallback
+    @Coalesced
     @GetMapping("/api/supplier/getById/{id}")
     Optional<SupplierDTO> getSupplierById(@PathVariable Long id);
 
+    /**
+     * Fetches every supplier whose ID is in the given collection in a single round trip.
+     * Unknown IDs are omitted from the response.
+     *
+     * @param ids The IDs of the suppliers to retrieve.
+     * @return The suppliers found.
+     */
+    @StaleFallback
+    @PostMapping("/api/supplier/getByIds")
+    List<SupplierDTO> getSuppliersByIds(@RequestBody Collection<Long> ids);
+
+    @StaleFallback
     @GetMapping("/api/supplier/findByName")
     Page<SupplierDTO> getSupplierByName(@RequestParam String name, Pageable pageable);
 }
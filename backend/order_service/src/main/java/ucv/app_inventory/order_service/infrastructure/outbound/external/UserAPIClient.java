@@ -19,6 +19,7 @@ public interface UserAPIClient {
      * @param email The email of the user to retrieve.
      * @return A UserDTO containing user details.
      */
+    @StaleFallback
     @GetMapping("/api/users/findByEmail")
     ApiResponseJSON<UserDTO> getUserByEmail(@RequestParam String email);
 }
\ No newline at end of file
@@ -0,0 +1,135 @@
+package ucv.app_inventory.order_service.infrastructure.outbound.messaging;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ucv.app_inventory.order_service.config.OrderOutboxProperties;
+import ucv.app_inventory.order_service.domain.model.OrderOutboxEvent;
+import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderOutboxMySqlRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes the events of the outbox to Kafka. Each run locks the oldest batch of events, sends
+ * all of them without waiting in between, waits for the broker to acknowledge them, and deletes
+ * the acknowledged ones in the same transaction.
+ * <p>
+ * Events are keyed by order ID, so the events of an order share a partition and are sent in the
+ * order they were written. When an event fails, the later events of the same order are kept
+ * for the next run even if they were sent, so they are published again after it. Delivery is
+ * therefore at least once; consumers drop duplicates by {@code event_id}.
+ */
+@Component
+public class OrderOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderOutboxRelay.class);
+
+    static final String EVENT_TYPE_HEADER = "event-type";
+
+    private final OrderOutboxMySqlRepository orderOutboxMySqlRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final OrderOutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderOutboxRelay(OrderOutboxMySqlRepository orderOutboxMySqlRepository,
+                            KafkaTemplate<String, String> kafkaTemplate,
+                            OrderOutboxProperties properties,
+                            PlatformTransactionManager transactionManager) {
+        this.orderOutboxMySqlRepository = orderOutboxMySqlRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Publishes batches until the outbox is empty or a batch is not fully acknowledged.
+     */
+    @Scheduled(fixedDelayString = "#{@orderOutboxProperties.pollInterval.toMillis()}")
+    public void relay() {
+        int published;
+        do {
+            published = publishBatch();
+        } while (published == properties.getBatchSize());
+    }
+
+    /**
+     * Publishes the oldest batch of events.
+     *
+     * @return the number of events published and deleted.
+     */
+    public int publishBatch() {
+        Integer published = transactionTemplate.execute(status -> {
+            List<OrderOutboxEvent> batch = orderOutboxMySqlRepository.findNextBatch(PageRequest.of(0, properties.getBatchSize()));
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>(batch.size());
+            for (OrderOutboxEvent event : batch) {
+                sends.add(send(event));
+            }
+            kafkaTemplate.flush();
+
+            List<Long> acknowledged = new ArrayList<>(batch.size());
+            Set<Long> failedOrders = new HashSet<>();
+            long deadline = System.nanoTime() + properties.getSendTimeout().toNanos();
+            for (int i = 0; i < batch.size(); i++) {
+                OrderOutboxEvent event = batch.get(i);
+                if (awaitAcknowledgement(event, sends.get(i), deadline) && !failedOrders.contains(event.getOrderId())) {
+                    acknowledged.add(event.getId());
+                } else {
+                    failedOrders.add(event.getOrderId());
+                }
+            }
+            if (!acknowledged.isEmpty()) {
+                orderOutboxMySqlRepository.deleteAllByIdInBatch(acknowledged);
+            }
+            if (!failedOrders.isEmpty()) {
+                logger.warn("{} of {} order events were not published; the events of orders {} will be retried",
+                        batch.size() - acknowledged.size(), batch.size(), failedOrders);
+            }
+            return acknowledged.size();
+        });
+        return published == null ? 0 : published;
+    }
+
+    private CompletableFuture<SendResult<String, String>> send(OrderOutboxEvent event) {
+        ProducerRecord<String, String> record = new ProducerRecord<>(properties.getTopic(),
+                String.valueOf(event.getOrderId()), event.getPayload());
+        record.headers().add(EVENT_TYPE_HEADER, event.getEventType().getEventName().getBytes(StandardCharsets.UTF_8));
+        try {
+            return kafkaTemplate.send(record);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private boolean awaitAcknowledgement(OrderOutboxEvent event, CompletableFuture<SendResult<String, String>> send,
+                                         long deadline) {
+        try {
+            send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (ExecutionException | TimeoutException e) {
+            logger.debug("Order event {} was not acknowledged: {}", event.getId(), e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -17,13 +17,15 @@ import ucv.app_inventory.order_service.domain.model.OrderDetail;
 import ucv.app_inventory.order_service.domain.model.OrderState;
 import ucv.app_inventory.order_service.exception.InvalidArgumentException;
 import ucv.app_inventory.order_service.exception.SupplierNotFoundException;
-import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderDetailMySqlRepository;
+import ucv.app_inventory.order_service.infrastructure.cache.OrderQueryCache;
 import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderMySqlRepository;
 import ucv.app_inventory.order_service.infrastructure.outbound.external.ProductAPIClient;
 import ucv.app_inventory.order_service.infrastructure.outbound.external.SupplierAPIClient;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.Mockito.*;
@@ -34,22 +36,28 @@ public class OrderCreateUseCaseTest {
     @Mock
     private OrderMySqlRepository orderMySqlRepository;
 
-    @Mock
-    private OrderDetailMySqlRepository orderDetailMySqlRepository;
-
     @Mock
     private SupplierAPIClient supplierAPIClient;
 
     @Mock
     private ProductAPIClient productAPIClient;
 
+    @Mock
+    private OrderQueryCache orderQueryCache;
+
+    @Mock
+    private OrderOutbox orderOutbox;
+
+    @Mock
+    private OrderStock orderStock;
+
     @InjectMocks
     private OrderCreateUseCase orderCreateUseCase;
 
     private static final String VALID_SUPPLIER_NAME = "Supplier A";
     private static final String VALID_PRODUCT_NAME = "Product A";
     private static final String INVALID_PRODUCT_NAME = "Nonexistent Product";
-    private static final String VALID_ORDER_DATE = "2024-12-20";
+    private static final String VALID_ORDER_DATE = LocalDate.now().plusDays(30).toString();
 
     @Test
     void shouldCreateOrderSuccessfully() {
@@ -67,13 +75,12 @@ public class OrderCreateUseCaseTest {
         detailDTO.setProductName(VALID_PRODUCT_NAME);
         detailDTO.setQuantity(10L);
 
-        ProductDTO productDTO = new ProductDTO();
-        productDTO.setId(1L);
-        productDTO.setName(VALID_PRODUCT_NAME);
-
-        ProductSupplierDTO productSupplierDTO = new ProductSupplierDTO();
-        productSupplierDTO.setId(1L);
-        productSupplierDTO.setPrice(BigDecimal.valueOf(100));
+        ProductLineDTO productLineDTO = new ProductLineDTO();
+        productLineDTO.setProductName(VALID_PRODUCT_NAME);
+        productLineDTO.setSupplierId(1L);
+        productLineDTO.setProductId(1L);
+        productLineDTO.setProductSupplierId(1L);
+        productLineDTO.setPrice(BigDecimal.valueOf(100));
 
         Order order = new Order();
         order.setId(1L);
@@ -85,11 +92,7 @@ public class OrderCreateUseCaseTest {
         when(supplierAPIClient.getSupplierByName(eq(VALID_SUPPLIER_NAME), any(Pageable.class)))
                 .thenReturn(supplierPage);
 
-        when(productAPIClient.getProductsByName(eq(VALID_PRODUCT_NAME), anyInt(), anyInt()))
-                .thenReturn(Optional.of(List.of(productDTO)));
-
-        when(productAPIClient.getRelationByProductIdAndSupplierId(eq(1L), eq(1L)))
-                .thenReturn(Optional.of(productSupplierDTO));
+        when(productAPIClient.resolveLines(anyList())).thenReturn(List.of(productLineDTO));
 
         when(orderMySqlRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order savedOrder = invocation.getArgument(0);
@@ -106,16 +109,22 @@ public class OrderCreateUseCaseTest {
         assertEquals(OrderState.PENDING, result.getStatus());
         assertEquals(1L, result.getSupplierId());
 
-        // Capture the orders saved
+        // The order is saved once, with its final total and its details cascading from it
         ArgumentCaptor<Order> orderCaptor = ArgumentCaptor.forClass(Order.class);
-        verify(orderMySqlRepository, times(2)).save(orderCaptor.capture());
-        List<Order> savedOrders = orderCaptor.getAllValues();
-
-        // Validate final total
-        assertEquals(0, savedOrders.get(1).getTotal().compareTo(BigDecimal.valueOf(1000))); // Final total
-
-        // Verify the order details are saved
-        verify(orderDetailMySqlRepository, times(1)).save(any(OrderDetail.class));
+        verify(orderMySqlRepository, times(1)).save(orderCaptor.capture());
+        Order savedOrder = orderCaptor.getValue();
+        assertEquals(0, savedOrder.getTotal().compareTo(BigDecimal.valueOf(1000))); // Final total
+        assertEquals(1, savedOrder.getOrderDetails().size());
+        verify(orderOutbox, times(1)).orderCreated(savedOrder);
+        assertSame(savedOrder, savedOrder.getOrderDetails().getFirst().getOrder());
+        // Each line keeps the product name and unit price it was ordered at
+        assertEquals(VALID_PRODUCT_NAME, savedOrder.getOrderDetails().getFirst().getProductName());
+        assertEquals(0, savedOrder.getOrderDetails().getFirst().getUnitPrice().compareTo(BigDecimal.valueOf(100)));
+
+        // Verify the order details are resolved with one call
+        verify(productAPIClient, times(1)).resolveLines(anyList());
+        // and their products reserved with another
+        verify(orderStock, times(1)).reserve(1L, Map.of(1L, 10L));
     }
 
     @Test
@@ -153,8 +162,10 @@ public class OrderCreateUseCaseTest {
                 .thenReturn(supplierPage);
 
         // Mock behavior for product not found
-        when(productAPIClient.getProductsByName(eq(INVALID_PRODUCT_NAME), anyInt(), anyInt()))
-                .thenThrow(new InvalidArgumentException("No product found with name Nonexistent Product"));
+        ProductLineDTO unresolvedLine = new ProductLineDTO();
+        unresolvedLine.setProductName(INVALID_PRODUCT_NAME);
+        unresolvedLine.setSupplierId(1L);
+        when(productAPIClient.resolveLines(anyList())).thenReturn(List.of(unresolvedLine));
 
         // When & Then
         InvalidArgumentException exception = assertThrows(
@@ -0,0 +1,65 @@
+package ucv.app_inventory.order_service.application;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import ucv.app_inventory.order_service.domain.model.Order;
+import ucv.app_inventory.order_service.exception.InvalidArgumentException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderCursorTest {
+
+    @Test
+    void shouldRoundTripTheLastOrderKeys() {
+        // Given
+        Order last = new Order();
+        last.setId(42L);
+        last.setOrderDate(LocalDate.of(2030, 5, 17));
+        last.setCreationDate(LocalDateTime.of(2030, 5, 1, 9, 30, 15));
+
+        // When
+        String byDate = OrderCursor.encode(OrderCursor.SortKey.ORDER_DATE, Sort.Direction.ASC, last);
+        String byCreation = OrderCursor.encode(OrderCursor.SortKey.CREATION_DATE, Sort.Direction.DESC, last);
+
+        // Then
+        KeysetScrollPosition datePosition = (KeysetScrollPosition) OrderCursor.decode(byDate, OrderCursor.SortKey.ORDER_DATE, Sort.Direction.ASC);
+        assertEquals(LocalDate.of(2030, 5, 17), datePosition.getKeys().get("orderDate"));
+        assertEquals(42L, datePosition.getKeys().get("id"));
+
+        KeysetScrollPosition creationPosition = (KeysetScrollPosition) OrderCursor.decode(byCreation, OrderCursor.SortKey.CREATION_DATE, Sort.Direction.DESC);
+        assertEquals(LocalDateTime.of(2030, 5, 1, 9, 30, 15), creationPosition.getKeys().get("creationDate"));
+    }
+
+    @Test
+    void shouldStartFromTheBeginningWithoutCursor() {
+        // When
+        ScrollPosition position = OrderCursor.decode(null, OrderCursor.SortKey.ORDER_DATE, Sort.Direction.ASC);
+
+        // Then
+        assertTrue(position.isInitial());
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        assertThrows(InvalidArgumentException.class,
+                () -> OrderCursor.decode("not a cursor!", OrderCursor.SortKey.ORDER_DATE, Sort.Direction.ASC));
+    }
+
+    @Test
+    void shouldRejectCursorIssuedForAnotherOrdering() {
+        // Given
+        Order last = new Order();
+        last.setId(1L);
+        last.setOrderDate(LocalDate.of(2030, 1, 1));
+        String cursor = OrderCursor.encode(OrderCursor.SortKey.ORDER_DATE, Sort.Direction.ASC, last);
+
+        // When & Then
+        assertThrows(InvalidArgumentException.class,
+                () -> OrderCursor.decode(cursor, OrderCursor.SortKey.ORDER_DATE, Sort.Direction.DESC));
+    }
+}
@@ -8,6 +8,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import ucv.app_inventory.order_service.domain.model.Order;
 import ucv.app_inventory.order_service.domain.model.OrderState;
 import ucv.app_inventory.order_service.exception.InvalidStateException;
+import ucv.app_inventory.order_service.infrastructure.cache.OrderQueryCache;
 import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderMySqlRepository;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -19,6 +20,12 @@ public class OrderDeleteUseCaseTest {
     @Mock
     private OrderMySqlRepository orderMySqlRepository;
 
+    @Mock
+    private OrderQueryCache orderQueryCache;
+
+    @Mock
+    private OrderOutbox orderOutbox;
+
     @InjectMocks
     private OrderDeleteUseCase orderDeleteUseCase;
 
@@ -36,6 +43,7 @@ public class OrderDeleteUseCaseTest {
 
         // Then
         verify(orderMySqlRepository, times(1)).deleteById(1L);
+        verify(orderOutbox, times(1)).orderDeleted(order);
     }
 
     @Test
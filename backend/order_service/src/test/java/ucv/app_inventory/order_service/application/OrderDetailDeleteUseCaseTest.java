@@ -0,0 +1,144 @@
+package ucv.app_inventory.order_service.application;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ucv.app_inventory.order_service.application.dto.ProductSupplierDTO;
+import ucv.app_inventory.order_service.domain.model.Order;
+import ucv.app_inventory.order_service.domain.model.OrderDetail;
+import ucv.app_inventory.order_service.domain.model.OrderState;
+import ucv.app_inventory.order_service.exception.OrderNotFoundException;
+import ucv.app_inventory.order_service.infrastructure.cache.OrderQueryCache;
+import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderDetailMySqlRepository;
+import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderMySqlRepository;
+import ucv.app_inventory.order_service.infrastructure.outbound.external.ProductAPIClient;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderDetailDeleteUseCaseTest {
+
+    @Mock
+    private OrderDetailMySqlRepository orderDetailRepository;
+
+    @Mock
+    private OrderMySqlRepository orderMySqlRepository;
+
+    @Mock
+    private ProductAPIClient productAPIClient;
+
+    @Mock
+    private OrderQueryCache orderQueryCache;
+
+    @Mock
+    private OrderStock orderStock;
+
+    private OrderDetailDeleteUseCase orderDetailDeleteUseCase;
+
+    @BeforeEach
+    void setUp() {
+        orderDetailDeleteUseCase = new OrderDetailDeleteUseCase(orderDetailRepository,
+                new OrderTotals(orderMySqlRepository, productAPIClient, orderQueryCache), orderStock);
+    }
+
+    @Test
+    void shouldSubtractTheLineFromTheOrderTotal() {
+        // Given
+        OrderDetail detail = detail(null);
+        detail.setUnitPrice(new BigDecimal("2.50"));
+        when(orderDetailRepository.findById(100L)).thenReturn(Optional.of(detail));
+
+        // When
+        orderDetailDeleteUseCase.deleteOrderDetail(100L);
+
+        // Then
+        verify(orderDetailRepository).delete(detail);
+        verify(orderMySqlRepository).addToTotal(1L, new BigDecimal("-7.50"));
+        verify(orderQueryCache).evictTagged(anySet());
+        verifyNoInteractions(productAPIClient);
+    }
+
+    @Test
+    void shouldReserveOnlyTheRemainingLinesOfAPendingOrder() {
+        // Given
+        OrderDetail detail = detail(new BigDecimal("2.50"));
+        OrderDetail other = new OrderDetail();
+        other.setId(101L);
+        other.setOrder(detail.getOrder());
+        detail.getOrder().setStatus(OrderState.PENDING);
+        detail.getOrder().getOrderDetails().addAll(List.of(detail, other));
+        when(orderDetailRepository.findById(100L)).thenReturn(Optional.of(detail));
+
+        // When
+        orderDetailDeleteUseCase.deleteOrderDetail(100L);
+
+        // Then
+        // The deleted line is still part of the reservation put back if the delete rolls back
+        verify(orderStock).reserve(1L, List.of(other), Map.of(10L, 3L));
+        verify(orderStock, never()).release(anyCollection());
+    }
+
+    @Test
+    void shouldReleaseTheReservationWhenThePendingOrderHasNoLinesLeft() {
+        // Given
+        OrderDetail detail = detail(new BigDecimal("2.50"));
+        detail.getOrder().setStatus(OrderState.PENDING);
+        detail.getOrder().getOrderDetails().add(detail);
+        when(orderDetailRepository.findById(100L)).thenReturn(Optional.of(detail));
+
+        // When
+        orderDetailDeleteUseCase.deleteOrderDetail(100L);
+
+        // Then
+        verify(orderStock).release(List.of(1L));
+        verify(orderStock, never()).reserve(anyLong(), anyCollection(), anyMap());
+    }
+
+    @Test
+    void shouldPriceALineWithoutStoredPriceFromItsRelation() {
+        // Given
+        OrderDetail detail = detail(null);
+        ProductSupplierDTO relation = new ProductSupplierDTO();
+        relation.setId(10L);
+        relation.setPrice(new BigDecimal("4.00"));
+        when(orderDetailRepository.findById(100L)).thenReturn(Optional.of(detail));
+        when(productAPIClient.getRelationById(10L)).thenReturn(Optional.of(relation));
+
+        // When
+        orderDetailDeleteUseCase.deleteOrderDetail(100L);
+
+        // Then
+        verify(orderMySqlRepository).addToTotal(1L, new BigDecimal("-12.00"));
+    }
+
+    @Test
+    void shouldThrowWhenTheLineDoesNotExist() {
+        // Given
+        when(orderDetailRepository.findById(100L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(OrderNotFoundException.class, () -> orderDetailDeleteUseCase.deleteOrderDetail(100L));
+        verifyNoInteractions(orderMySqlRepository);
+    }
+
+    private static OrderDetail detail(BigDecimal unitPrice) {
+        Order order = new Order();
+        order.setId(1L);
+        OrderDetail detail = new OrderDetail();
+        detail.setId(100L);
+        detail.setOrder(order);
+        detail.setProductSupplierId(10L);
+        detail.setQuantity(3L);
+        detail.setUnitPrice(unitPrice);
+        return detail;
+    }
+}
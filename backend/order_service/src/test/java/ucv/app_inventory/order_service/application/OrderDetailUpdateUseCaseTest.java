@@ -0,0 +1,260 @@
+package ucv.app_inventory.order_service.application;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ucv.app_inventory.order_service.application.dto.OrderDetailDTO;
+import ucv.app_inventory.order_service.application.dto.ProductDTO;
+import ucv.app_inventory.order_service.application.dto.ProductSupplierDTO;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import ucv.app_inventory.order_service.application.dto.mappers.OrderDetailMapper;
+import ucv.app_inventory.order_service.config.OrderConcurrencyProperties;
+import ucv.app_inventory.order_service.domain.model.Order;
+import ucv.app_inventory.order_service.domain.model.OrderDetail;
+import ucv.app_inventory.order_service.domain.model.OrderState;
+import ucv.app_inventory.order_service.exception.VersionConflictException;
+import ucv.app_inventory.order_service.infrastructure.cache.OrderQueryCache;
+import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderDetailMySqlRepository;
+import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderMySqlRepository;
+import ucv.app_inventory.order_service.infrastructure.outbound.external.ProductAPIClient;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderDetailUpdateUseCaseTest {
+
+    @Mock
+    private OrderDetailMySqlRepository orderDetailRepository;
+
+    @Mock
+    private OrderMySqlRepository orderMySqlRepository;
+
+    @Mock
+    private ProductAPIClient productAPIClient;
+
+    @Mock
+    private OrderDetailMapper orderDetailMapper;
+
+    @Mock
+    private OrderQueryCache orderQueryCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private OrderStock orderStock;
+
+    private OrderDetailUpdateUseCase orderDetailUpdateUseCase;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        OrderTotals orderTotals = new OrderTotals(orderMySqlRepository, productAPIClient, orderQueryCache);
+        OrderConcurrencyProperties concurrency = new OrderConcurrencyProperties();
+        concurrency.setBackoff(Duration.ZERO);
+        orderDetailUpdateUseCase = new OrderDetailUpdateUseCase(orderDetailRepository, productAPIClient,
+                orderDetailMapper, orderTotals, new OptimisticRetry(transactionManager, concurrency), orderStock);
+        order = new Order();
+        order.setId(1L);
+        order.setSupplierId(7L);
+        order.setTotal(new BigDecimal("50.00"));
+    }
+
+    @Test
+    void shouldApplyTheQuantityChangeToTheOrderTotalWithTheStoredPrice() {
+        // Given
+        OrderDetail current = detail(100L, 10L, 2L, "5.00");
+        when(orderDetailRepository.findById(100L)).thenReturn(Optional.of(current));
+        when(orderDetailRepository.save(any(OrderDetail.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        orderDetailUpdateUseCase.updateOrderDetail(request(100L, "Rice", 5L));
+
+        // Then
+        // The line keeps the price it was ordered at: 5 x 5.00 - 2 x 5.00
+        ArgumentCaptor<OrderDetail> saved = ArgumentCaptor.forClass(OrderDetail.class);
+        verify(orderDetailRepository).save(saved.capture());
+        assertEquals(0, new BigDecimal("5.00").compareTo(saved.getValue().getUnitPrice()));
+        verify(orderMySqlRepository).addToTotal(1L, new BigDecimal("15.00"));
+        verify(orderQueryCache).evictTagged(anySet());
+        // The product did not change, so the product service is not asked
+        verifyNoInteractions(productAPIClient);
+    }
+
+    @Test
+    void shouldPriceANewProductAtItsCurrentPrice() {
+        // Given
+        OrderDetail current = detail(100L, 10L, 2L, "5.00");
+        when(orderDetailRepository.findById(100L)).thenReturn(Optional.of(current));
+        givenProduct("Sugar", 501L, relation(11L, 501L, "2.50"));
+        when(orderDetailRepository.save(any(OrderDetail.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        orderDetailUpdateUseCase.updateOrderDetail(request(100L, "Sugar", 2L));
+
+        // Then
+        // 2 x 2.50 - 2 x 5.00
+        ArgumentCaptor<OrderDetail> saved = ArgumentCaptor.forClass(OrderDetail.class);
+        verify(orderDetailRepository).save(saved.capture());
+        assertEquals("Sugar", saved.getValue().getProductName());
+        assertEquals(11L, saved.getValue().getProductSupplierId());
+        verify(orderMySqlRepository).addToTotal(1L, new BigDecimal("-5.00"));
+    }
+
+    @Test
+    void shouldLeaveTheTotalAloneWhenTheLineTotalDoesNotChange() {
+        // Given
+        OrderDetail current = detail(100L, 10L, 2L, "5.00");
+        when(orderDetailRepository.findById(100L)).thenReturn(Optional.of(current));
+        when(orderDetailRepository.save(any(OrderDetail.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        orderDetailUpdateUseCase.updateOrderDetail(request(100L, "rice", 2L));
+
+        // Then
+        verifyNoInteractions(orderMySqlRepository, orderQueryCache);
+    }
+
+    @Test
+    void shouldRenewTheReservationOfAPendingOrderWithTheChangedLine() {
+        // Given
+        order.setStatus(OrderState.PENDING);
+        OrderDetail current = detail(100L, 10L, 2L, "5.00");
+        OrderDetail other = detail(101L, 20L, 1L, "3.00");
+        order.getOrderDetails().addAll(List.of(current, other));
+        when(orderDetailRepository.findById(100L)).thenReturn(Optional.of(current));
+        when(orderDetailRepository.save(any(OrderDetail.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        orderDetailUpdateUseCase.updateOrderDetail(request(100L, "Rice", 5L));
+
+        // Then
+        ArgumentCaptor<Collection<OrderDetail>> reserved = ArgumentCaptor.forClass(Collection.class);
+        // The lines before the change are what is reserved again if it rolls back
+        verify(orderStock).reserve(eq(1L), reserved.capture(), eq(Map.of(10L, 2L, 20L, 1L)));
+        assertEquals(Map.of(100L, 5L, 101L, 1L), reserved.getValue().stream()
+                .collect(Collectors.toMap(OrderDetail::getId, OrderDetail::getQuantity)));
+    }
+
+    @Test
+    void shouldNotReserveForAnOrderThatIsNotPending() {
+        // Given
+        order.setStatus(OrderState.PROCESSED);
+        OrderDetail current = detail(100L, 10L, 2L, "5.00");
+        when(orderDetailRepository.findById(100L)).thenReturn(Optional.of(current));
+        when(orderDetailRepository.save(any(OrderDetail.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        orderDetailUpdateUseCase.updateOrderDetail(request(100L, "Rice", 5L));
+
+        // Then
+        verifyNoInteractions(orderStock);
+    }
+
+    @Test
+    void shouldRetryFromAFreshReadWhenAConcurrentWriteCommitsFirst() {
+        // Given
+        when(orderDetailRepository.findById(100L))
+                .thenReturn(Optional.of(detail(100L, 10L, 2L, "5.00")))
+                .thenReturn(Optional.of(detail(100L, 10L, 3L, "5.00")));
+        when(orderDetailRepository.save(any(OrderDetail.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(OrderDetail.class, 100L))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        orderDetailUpdateUseCase.updateOrderDetail(request(100L, "Rice", 5L));
+
+        // Then
+        // The second attempt starts from the quantity the concurrent write left: 5 x 5.00 - 3 x 5.00
+        verify(orderDetailRepository, times(2)).save(any(OrderDetail.class));
+        verify(orderMySqlRepository).addToTotal(1L, new BigDecimal("10.00"));
+        verify(orderMySqlRepository, never()).addToTotal(1L, new BigDecimal("15.00"));
+    }
+
+    @Test
+    void shouldReportTheCurrentVersionWhenTheRetriesRunOut() {
+        // Given
+        OrderDetail current = detail(100L, 10L, 2L, "5.00");
+        current.setVersion(4L);
+        when(orderDetailRepository.findById(100L)).thenReturn(Optional.of(current));
+        when(orderDetailRepository.save(any(OrderDetail.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(OrderDetail.class, 100L));
+
+        // When
+        VersionConflictException exception = assertThrows(VersionConflictException.class,
+                () -> orderDetailUpdateUseCase.updateOrderDetail(request(100L, "Rice", 5L)));
+
+        // Then
+        assertEquals(4L, exception.getCurrentVersion());
+        verify(orderDetailRepository, times(3)).save(any(OrderDetail.class));
+    }
+
+    @Test
+    void shouldRejectAnUpdateOfAStaleVersionWithoutRetrying() {
+        // Given
+        OrderDetail current = detail(100L, 10L, 2L, "5.00");
+        current.setVersion(4L);
+        when(orderDetailRepository.findById(100L)).thenReturn(Optional.of(current));
+        OrderDetailDTO request = request(100L, "Rice", 5L);
+        request.setVersion(3L);
+
+        // When
+        VersionConflictException exception = assertThrows(VersionConflictException.class,
+                () -> orderDetailUpdateUseCase.updateOrderDetail(request));
+
+        // Then
+        assertEquals(4L, exception.getCurrentVersion());
+        verify(orderDetailRepository, times(1)).findById(100L);
+        verify(orderDetailRepository, never()).save(any(OrderDetail.class));
+    }
+
+    private void givenProduct(String name, Long productId, ProductSupplierDTO relation) {
+        ProductDTO product = new ProductDTO();
+        product.setId(productId);
+        product.setName(name);
+        when(productAPIClient.getProductsByName(name, 0, 1)).thenReturn(Optional.of(List.of(product)));
+        when(productAPIClient.getRelationByProductIdAndSupplierId(productId, 7L)).thenReturn(Optional.of(relation));
+    }
+
+    private OrderDetail detail(Long id, Long productSupplierId, Long quantity, String unitPrice) {
+        OrderDetail detail = new OrderDetail();
+        detail.setId(id);
+        detail.setOrder(order);
+        detail.setProductSupplierId(productSupplierId);
+        detail.setProductName("Rice");
+        detail.setQuantity(quantity);
+        detail.setUnitPrice(new BigDecimal(unitPrice));
+        return detail;
+    }
+
+    private static OrderDetailDTO request(Long id, String productName, Long quantity) {
+        OrderDetailDTO request = new OrderDetailDTO();
+        request.setId(id);
+        request.setProductName(productName);
+        request.setQuantity(quantity);
+        return request;
+    }
+
+    private static ProductSupplierDTO relation(Long id, Long productId, String price) {
+        ProductSupplierDTO relation = new ProductSupplierDTO();
+        relation.setId(id);
+        relation.setProductId(productId);
+        relation.setPrice(new BigDecimal(price));
+        return relation;
+    }
+}
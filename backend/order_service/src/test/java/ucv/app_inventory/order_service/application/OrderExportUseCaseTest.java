@@ -0,0 +1,202 @@
+package ucv.app_inventory.order_service.application;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import ucv.app_inventory.order_service.application.dto.ProductDTO;
+import ucv.app_inventory.order_service.application.dto.ProductSupplierDTO;
+import ucv.app_inventory.order_service.config.OrderExportProperties;
+import ucv.app_inventory.order_service.domain.model.OrderState;
+import ucv.app_inventory.order_service.exception.InvalidArgumentException;
+import ucv.app_inventory.order_service.infrastructure.outbound.external.ProductAPIClient;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderExportUseCaseTest {
+
+    @Mock
+    private SupplierDirectory supplierDirectory;
+
+    @Mock
+    private ProductAPIClient productAPIClient;
+
+    private JdbcTemplate jdbcTemplate;
+    private OrderExportUseCase orderExportUseCase;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:export;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE orders (id BIGINT PRIMARY KEY, supplier_id BIGINT NOT NULL, date DATE NOT NULL, "
+                + "status VARCHAR(20) NOT NULL, total DECIMAL(10,2) NOT NULL, observations VARCHAR(255), "
+                + "creation_date TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE order_details (id BIGINT PRIMARY KEY, order_id BIGINT NOT NULL, "
+                + "product_supplier_id BIGINT NOT NULL, quantity BIGINT NOT NULL, product_name VARCHAR(255), "
+                + "unit_price DECIMAL(10,2))");
+
+        jdbcTemplate.update("INSERT INTO orders VALUES (1, 10, DATE '2025-01-10', 'PENDING', 30.00, 'first, urgent', TIMESTAMP '2025-01-01 10:00:00')");
+        jdbcTemplate.update("INSERT INTO orders VALUES (2, 20, DATE '2025-01-11', 'PROCESSED', 5.00, NULL, TIMESTAMP '2025-01-02 10:00:00')");
+        jdbcTemplate.update("INSERT INTO orders VALUES (3, 10, DATE '2025-01-12', 'PENDING', 0.00, NULL, TIMESTAMP '2025-01-03 10:00:00')");
+        // Line 101 stores its product name and price; the others were priced before they were stored
+        jdbcTemplate.update("INSERT INTO order_details VALUES (100, 1, 1000, 2, NULL, NULL)");
+        jdbcTemplate.update("INSERT INTO order_details VALUES (101, 1, 1001, 4, 'Sugar', 5.00)");
+        jdbcTemplate.update("INSERT INTO order_details VALUES (102, 2, 1000, 1, NULL, NULL)");
+
+        OrderExportProperties properties = new OrderExportProperties();
+        properties.setFetchSize(2);
+        properties.setBatchSize(2);
+        orderExportUseCase = new OrderExportUseCase(jdbcTemplate, supplierDirectory, productAPIClient,
+                properties, new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void shouldStreamOrdersAsNdjsonResolvingNamesPerBatch() throws Exception {
+        // Given
+        when(supplierDirectory.findNamesByIds(anyCollection())).thenReturn(Map.of(10L, "Supplier A", 20L, "Supplier B"));
+        when(productAPIClient.getRelationsByIds(Set.of(1000L))).thenReturn(List.of(relation(1000L, 500L, "5.00")));
+        when(productAPIClient.getProductsByIds(Set.of(500L))).thenReturn(List.of(product(500L, "Rice")));
+        StringWriter writer = new StringWriter();
+
+        // When
+        long exported = orderExportUseCase.exportOrders(null, null, null, OrderExportUseCase.Format.NDJSON, writer);
+
+        // Then
+        String[] lines = writer.toString().split("\n");
+        assertEquals(3, exported);
+        assertEquals(3, lines.length);
+        JsonNode first = new ObjectMapper().readTree(lines[0]);
+        // The keys are the columns of the CSV header
+        Set<String> keys = new HashSet<>();
+        first.fieldNames().forEachRemaining(keys::add);
+        assertEquals(Set.of("order_id", "supplier_name", "status", "order_date", "total", "observations", "created_at",
+                "details"), keys);
+        Set<String> detailKeys = new HashSet<>();
+        first.get("details").get(0).fieldNames().forEachRemaining(detailKeys::add);
+        assertEquals(Set.of("detail_id", "product_name", "quantity", "unit_price"), detailKeys);
+        assertEquals("Supplier A", first.get("supplier_name").asText());
+        assertEquals("2025-01-10", first.get("order_date").asText());
+        assertEquals("2025-01-01T10:00", first.get("created_at").asText());
+        assertEquals(2, first.get("details").size());
+        assertEquals("Sugar", first.get("details").get(1).get("product_name").asText());
+        assertEquals(0, new ObjectMapper().readTree(lines[2]).get("details").size());
+        // Two batches of orders, but names already seen in the first one are not requested again,
+        // and the line storing its product name and price is not resolved at all
+        verify(productAPIClient, times(1)).getRelationsByIds(anyCollection());
+        verify(productAPIClient, times(1)).getProductsByIds(anyCollection());
+    }
+
+    @Test
+    void shouldStreamOrdersAsCsvWithOneRowPerDetail() {
+        // Given
+        when(supplierDirectory.findNamesByIds(Set.of(10L))).thenReturn(Map.of(10L, "Supplier A"));
+        when(productAPIClient.getRelationsByIds(Set.of(1000L))).thenReturn(List.of(relation(1000L, 500L, "5.00")));
+        when(productAPIClient.getProductsByIds(Set.of(500L))).thenReturn(List.of(product(500L, "Rice")));
+        StringWriter writer = new StringWriter();
+
+        // When
+        orderExportUseCase.exportOrders(null, null, OrderState.PENDING, OrderExportUseCase.Format.CSV, writer);
+
+        // Then
+        String[] lines = writer.toString().split("\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].startsWith("order_id,supplier_name"));
+        assertEquals("1,Supplier A,PENDING,2025-01-10,30.00,\"first, urgent\",2025-01-01T10:00,100,Rice,2,5.00", lines[1]);
+        assertEquals("3,Supplier A,PENDING,2025-01-12,0.00,,2025-01-03T10:00,,,,", lines[3]);
+    }
+
+    @Test
+    void shouldFilterByDateRange() {
+        // Given
+        when(supplierDirectory.findNamesByIds(Set.of(20L))).thenReturn(Map.of(20L, "Supplier B"));
+        when(productAPIClient.getRelationsByIds(Set.of(1000L))).thenReturn(List.of(relation(1000L, 500L, "5.00")));
+        when(productAPIClient.getProductsByIds(Set.of(500L))).thenReturn(List.of(product(500L, "Rice")));
+        StringWriter writer = new StringWriter();
+
+        // When
+        long exported = orderExportUseCase.exportOrders(LocalDate.of(2025, 1, 11), LocalDate.of(2025, 1, 11), null,
+                OrderExportUseCase.Format.NDJSON, writer);
+
+        // Then
+        assertEquals(1, exported);
+    }
+
+    @Test
+    void shouldKeepTheNamesOfABatchLargerThanTheNameCache() throws Exception {
+        // Given
+        jdbcTemplate.update("INSERT INTO order_details VALUES (103, 2, 1002, 3, NULL, NULL)");
+        OrderExportProperties properties = new OrderExportProperties();
+        properties.setFetchSize(2);
+        properties.setBatchSize(2);
+        properties.setNameCacheSize(1);
+        orderExportUseCase = new OrderExportUseCase(jdbcTemplate, supplierDirectory, productAPIClient,
+                properties, new ObjectMapper());
+        when(supplierDirectory.findNamesByIds(anyCollection())).thenReturn(Map.of(10L, "Supplier A", 20L, "Supplier B"));
+        when(productAPIClient.getRelationsByIds(Set.of(1000L, 1002L)))
+                .thenReturn(List.of(relation(1000L, 500L, "5.00"), relation(1002L, 501L, "7.50")));
+        when(productAPIClient.getProductsByIds(Set.of(500L, 501L)))
+                .thenReturn(List.of(product(500L, "Rice"), product(501L, "Beans")));
+        StringWriter writer = new StringWriter();
+
+        // When
+        orderExportUseCase.exportOrders(null, null, null, OrderExportUseCase.Format.NDJSON, writer);
+
+        // Then
+        String[] lines = writer.toString().split("\n");
+        JsonNode first = new ObjectMapper().readTree(lines[0]);
+        JsonNode second = new ObjectMapper().readTree(lines[1]);
+        assertEquals("Supplier A", first.get("supplier_name").asText());
+        assertEquals("Rice", first.get("details").get(0).get("product_name").asText());
+        assertEquals(0, new BigDecimal("5.00").compareTo(first.get("details").get(0).get("unit_price").decimalValue()));
+        assertEquals("Supplier B", second.get("supplier_name").asText());
+        assertEquals("Rice", second.get("details").get(0).get("product_name").asText());
+        assertEquals("Beans", second.get("details").get(1).get("product_name").asText());
+        assertEquals(0, new BigDecimal("7.50").compareTo(second.get("details").get(1).get("unit_price").decimalValue()));
+    }
+
+    @Test
+    void shouldRejectInvalidFilters() {
+        // When & Then
+        assertThrows(InvalidArgumentException.class,
+                () -> orderExportUseCase.validateFilters(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1), null));
+        assertThrows(InvalidArgumentException.class, () -> orderExportUseCase.validateFilters(null, null, "UNKNOWN"));
+        assertThrows(InvalidArgumentException.class, () -> OrderExportUseCase.Format.from("xml"));
+    }
+
+    private static ProductSupplierDTO relation(Long id, Long productId, String price) {
+        ProductSupplierDTO relation = new ProductSupplierDTO();
+        relation.setId(id);
+        relation.setProductId(productId);
+        relation.setPrice(new BigDecimal(price));
+        return relation;
+    }
+
+    private static ProductDTO product(Long id, String name) {
+        ProductDTO product = new ProductDTO();
+        product.setId(id);
+        product.setName(name);
+        return product;
+    }
+}
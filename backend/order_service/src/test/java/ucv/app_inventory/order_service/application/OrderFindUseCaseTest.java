@@ -4,25 +4,39 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import ucv.app_inventory.order_service.application.dto.OrderDTO;
+import ucv.app_inventory.order_service.application.dto.OrderDetailDTO;
+import ucv.app_inventory.order_service.application.dto.OrderFullDTO;
+import ucv.app_inventory.order_service.application.dto.OrderScrollRequestDTO;
+import ucv.app_inventory.order_service.application.dto.OrderSliceDTO;
+import ucv.app_inventory.order_service.application.dto.mappers.OrderDetailMapper;
 import ucv.app_inventory.order_service.application.dto.mappers.OrderMapper;
 import ucv.app_inventory.order_service.domain.model.Order;
+import ucv.app_inventory.order_service.domain.model.OrderDetail;
 import ucv.app_inventory.order_service.domain.model.OrderState;
 import ucv.app_inventory.order_service.exception.InvalidArgumentException;
 import ucv.app_inventory.order_service.exception.OrderNotFoundException;
+import ucv.app_inventory.order_service.infrastructure.cache.OrderCacheTagIndex;
+import ucv.app_inventory.order_service.infrastructure.cache.OrderQueryCache;
 import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderMySqlRepository;
-import ucv.app_inventory.order_service.infrastructure.outbound.external.SupplierAPIClient;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,11 +46,17 @@ public class OrderFindUseCaseTest {
     private OrderMySqlRepository orderMySqlRepository;
 
     @Mock
-    private SupplierAPIClient supplierAPIClient;
+    private SupplierDirectory supplierDirectory;
 
     @Mock
     private OrderMapper orderMapper;
 
+    @Mock
+    private OrderDetailMapper orderDetailMapper;
+
+    @Spy
+    private OrderQueryCache orderQueryCache = new OrderQueryCache(new ConcurrentMapCacheManager(), new OrderCacheTagIndex());
+
     @InjectMocks
     private OrderFindUseCase orderFindUseCase;
 
@@ -61,6 +81,44 @@ public class OrderFindUseCaseTest {
         verify(orderMySqlRepository, times(1)).findById(1L);
     }
 
+    @Test
+    void shouldFindFullOrderWithDetailsFetchedTogether() {
+        // Given
+        Order order = new Order();
+        order.setId(1L);
+        OrderDetail detail = new OrderDetail();
+        detail.setId(10L);
+        detail.setOrder(order);
+        order.getOrderDetails().add(detail);
+
+        List<OrderDetailDTO> details = List.of(new OrderDetailDTO());
+        OrderFullDTO orderFullDTO = new OrderFullDTO();
+        orderFullDTO.setId(1L);
+        orderFullDTO.setDetails(details);
+
+        when(orderMySqlRepository.findWithDetailsById(1L)).thenReturn(Optional.of(order));
+        when(orderDetailMapper.mapToOrderDetailDTOList(order.getOrderDetails())).thenReturn(details);
+        when(orderMapper.mapToOrderFullDTO(order, details)).thenReturn(orderFullDTO);
+
+        // When
+        OrderFullDTO result = orderFindUseCase.findFullById("1");
+
+        // Then
+        assertEquals(1L, result.getId());
+        assertEquals(1, result.getDetails().size());
+        verify(orderMySqlRepository, never()).findById(any());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenFullOrderNotFound() {
+        // Given
+        when(orderMySqlRepository.findWithDetailsById(1L)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(OrderNotFoundException.class, () -> orderFindUseCase.findFullById(1L));
+        verifyNoInteractions(orderDetailMapper);
+    }
+
     @Test
     void shouldThrowExceptionWhenOrderNotFoundById() {
         // Given
@@ -86,7 +144,7 @@ public class OrderFindUseCaseTest {
         OrderDTO orderDTO = new OrderDTO();
 
         when(orderMySqlRepository.findAll(pageable)).thenReturn(orderPage);
-        when(orderMapper.mapToOrderDTO(order)).thenReturn(orderDTO);
+        when(orderMapper.mapToOrderDTOPage(orderPage)).thenReturn(new PageImpl<>(List.of(orderDTO)));
 
         // When
         Page<OrderDTO> result = orderFindUseCase.listOrdersPaginated(pageable);
@@ -110,7 +168,7 @@ public class OrderFindUseCaseTest {
         OrderDTO orderDTO = new OrderDTO();
 
         when(orderMySqlRepository.findByOrderDateBetween(startDate, endDate, pageable)).thenReturn(orderPage);
-        when(orderMapper.mapToOrderDTO(order)).thenReturn(orderDTO);
+        when(orderMapper.mapToOrderDTOPage(orderPage)).thenReturn(new PageImpl<>(List.of(orderDTO)));
 
         // When
         Page<OrderDTO> result = orderFindUseCase.findOrdersByDate(startDate, endDate, pageable);
@@ -149,7 +207,7 @@ public class OrderFindUseCaseTest {
         OrderDTO orderDTO = new OrderDTO();
 
         when(orderMySqlRepository.findByStatus(OrderState.PENDING, pageable)).thenReturn(orderPage);
-        when(orderMapper.mapToOrderDTO(order)).thenReturn(orderDTO);
+        when(orderMapper.mapToOrderDTOPage(orderPage)).thenReturn(new PageImpl<>(List.of(orderDTO)));
 
         // When
         Page<OrderDTO> result = orderFindUseCase.findOrdersByStatus("PENDING", pageable);
@@ -174,4 +232,41 @@ public class OrderFindUseCaseTest {
         assertEquals("The status is not valid.", exception.getMessage());
         verify(orderMySqlRepository, never()).findByStatus(any(), any());
     }
+
+    @Test
+    void shouldScrollOrdersAndReturnNextCursorWithoutCounting() {
+        // Given
+        Order last = new Order();
+        last.setId(7L);
+        last.setSupplierId(1L);
+        last.setStatus(OrderState.PENDING);
+        last.setOrderDate(LocalDate.of(2030, 1, 2));
+        Window<Order> window = Window.from(List.of(last), index -> ScrollPosition.keyset(), true);
+        OrderDTO orderDTO = new OrderDTO();
+        orderDTO.setId(7L);
+
+        doReturn(window).when(orderMySqlRepository).findBy(any(Specification.class), any());
+        when(orderMapper.mapToOrderDTOList(List.of(last))).thenReturn(List.of(orderDTO));
+
+        // When
+        OrderSliceDTO slice = orderFindUseCase.scrollOrders(new OrderScrollRequestDTO());
+
+        // Then
+        assertEquals(List.of(orderDTO), slice.getContent());
+        assertTrue(slice.isHasNext());
+        assertEquals(OrderCursor.encode(OrderCursor.SortKey.ORDER_DATE, Sort.Direction.ASC, last), slice.getNextCursor());
+        assertNull(slice.getTotalElements());
+        verify(orderMySqlRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    void shouldRejectScrollSizeOutOfBounds() {
+        // Given
+        OrderScrollRequestDTO request = new OrderScrollRequestDTO();
+        request.setSize(1000);
+
+        // When & Then
+        assertThrows(InvalidArgumentException.class, () -> orderFindUseCase.scrollOrders(request));
+        verifyNoInteractions(orderMySqlRepository);
+    }
 }
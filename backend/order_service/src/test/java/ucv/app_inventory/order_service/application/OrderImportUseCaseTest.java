@@ -0,0 +1,229 @@
+package ucv.app_inventory.order_service.application;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ucv.app_inventory.order_service.application.dto.*;
+import ucv.app_inventory.order_service.config.OrderImportProperties;
+import ucv.app_inventory.order_service.domain.model.Order;
+import ucv.app_inventory.order_service.infrastructure.cache.OrderQueryCache;
+import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderMySqlRepository;
+import ucv.app_inventory.order_service.infrastructure.outbound.external.ProductAPIClient;
+import ucv.app_inventory.order_service.infrastructure.outbound.external.SupplierAPIClient;
+import ucv.app_inventory.order_service.exception.InsufficientStockException;
+import ucv.app_inventory.order_service.exception.InvalidArgumentException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderImportUseCaseTest {
+
+    @Mock
+    private OrderMySqlRepository orderMySqlRepository;
+
+    @Mock
+    private SupplierAPIClient supplierAPIClient;
+
+    @Mock
+    private ProductAPIClient productAPIClient;
+
+    @Mock
+    private SupplierDirectory supplierDirectory;
+
+    @Mock
+    private OrderQueryCache orderQueryCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private OrderOutbox orderOutbox;
+
+    @Mock
+    private OrderStock orderStock;
+
+    private OrderImportUseCase orderImportUseCase;
+
+    private static final String ORDER_DATE = LocalDate.now().plusDays(10).toString();
+
+    @BeforeEach
+    void setUp() {
+        OrderCreateUseCase orderCreateUseCase = new OrderCreateUseCase(orderMySqlRepository, supplierAPIClient,
+                productAPIClient, orderQueryCache, orderOutbox, orderStock);
+        OrderImportProperties properties = new OrderImportProperties();
+        properties.setChunkSize(2);
+        // Chunks run on the calling thread, so the test stays deterministic
+        orderImportUseCase = new OrderImportUseCase(orderCreateUseCase, orderMySqlRepository, supplierDirectory,
+                productAPIClient, orderQueryCache, orderOutbox, orderStock, properties, transactionManager, Runnable::run);
+    }
+
+    @Test
+    void shouldLookUpEachSupplierAndProductOnceAndReportEveryOrder() {
+        // Given
+        List<OrderRequestDTO> orders = List.of(
+                order("Supplier A", "Rice", 2),
+                order("Supplier A", "Rice", 3),
+                order("Unknown", "Rice", 1),
+                order("Supplier A", "Sugar", 1));
+        when(supplierDirectory.findIdByName("Supplier A")).thenReturn(Optional.of(1L));
+        when(supplierDirectory.findIdByName("Unknown")).thenReturn(Optional.empty());
+        when(productAPIClient.resolveLines(anyList())).thenReturn(List.of(line("Rice", 1L, 10L, "5.00"), line("Sugar", 1L, null, null)));
+        AtomicLong ids = new AtomicLong();
+        when(orderMySqlRepository.saveAll(anyCollection())).thenAnswer(invocation -> {
+            List<Order> saved = new ArrayList<>(invocation.<Collection<Order>>getArgument(0));
+            saved.forEach(order -> order.setId(ids.incrementAndGet()));
+            return saved;
+        });
+
+        // When
+        OrderImportReportDTO report = orderImportUseCase.importOrders(orders);
+
+        // Then
+        assertEquals(4, report.getTotal());
+        assertEquals(2, report.getSucceeded());
+        assertEquals(2, report.getFailed());
+        assertTrue(report.getResults().get(0).isSuccess());
+        assertEquals(0, new BigDecimal("15.00").compareTo(report.getResults().get(1).getTotal()));
+        assertEquals("Supplier with name Unknown does not exist.", report.getResults().get(2).getError());
+        assertFalse(report.getResults().get(3).isSuccess());
+
+        verify(supplierDirectory, times(1)).findIdByName("Supplier A");
+        verify(productAPIClient, times(1)).resolveLines(argThat(lines -> lines.size() == 2));
+        // The second chunk has no valid order left, so only the first one is saved
+        verify(orderMySqlRepository, times(1)).saveAll(anyCollection());
+        verify(orderQueryCache, times(1)).evictTagged(anySet());
+        verify(orderOutbox, times(1)).ordersCreated(argThat(saved -> saved.size() == 2));
+        // Each saved order reserves its products, under the ID it was saved with
+        verify(orderStock).reserve(1L, Map.of(110L, 2L));
+        verify(orderStock).reserve(2L, Map.of(110L, 3L));
+    }
+
+    @Test
+    void shouldSaveOrdersOneByOneWhenTheirChunkFails() {
+        // Given
+        List<OrderRequestDTO> orders = List.of(order("Supplier A", "Rice", 2), order("Supplier A", "Rice", 3));
+        when(supplierDirectory.findIdByName("Supplier A")).thenReturn(Optional.of(1L));
+        when(productAPIClient.resolveLines(anyList())).thenReturn(List.of(line("Rice", 1L, 10L, "5.00")));
+        when(orderMySqlRepository.saveAll(anyCollection())).thenThrow(new IllegalStateException("Deadlock"));
+        when(orderMySqlRepository.save(any(Order.class)))
+                .thenAnswer(invocation -> {
+                    Order order = invocation.getArgument(0);
+                    order.setId(7L);
+                    return order;
+                })
+                .thenThrow(new IllegalStateException("Duplicate entry"));
+
+        // When
+        OrderImportReportDTO report = orderImportUseCase.importOrders(orders);
+
+        // Then
+        assertEquals(1, report.getSucceeded());
+        assertEquals(7L, report.getResults().get(0).getOrderId());
+        assertEquals("Duplicate entry", report.getResults().get(1).getError());
+    }
+
+    @Test
+    void shouldFailOnlyTheOrderWhoseProductsCannotBeReserved() {
+        // Given
+        List<OrderRequestDTO> orders = List.of(order("Supplier A", "Rice", 2), order("Supplier A", "Rice", 300));
+        when(supplierDirectory.findIdByName("Supplier A")).thenReturn(Optional.of(1L));
+        when(productAPIClient.resolveLines(anyList())).thenReturn(List.of(line("Rice", 1L, 10L, "5.00")));
+        AtomicLong ids = new AtomicLong();
+        when(orderMySqlRepository.saveAll(anyCollection())).thenAnswer(invocation -> {
+            List<Order> saved = new ArrayList<>(invocation.<Collection<Order>>getArgument(0));
+            saved.forEach(order -> order.setId(ids.incrementAndGet()));
+            return saved;
+        });
+        when(orderMySqlRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(ids.incrementAndGet());
+            return order;
+        });
+        // The second order asks for more rice than is in stock, whichever ID it is saved with
+        lenient().doAnswer(invocation -> {
+            throw new InsufficientStockException("Not enough stock available for order " + invocation.getArgument(0) + ".");
+        }).when(orderStock).reserve(anyLong(), eq(Map.of(110L, 300L)));
+
+        // When
+        OrderImportReportDTO report = orderImportUseCase.importOrders(orders);
+
+        // Then
+        // The chunk fails as a whole, then each order is saved and reserved on its own
+        assertEquals(1, report.getSucceeded());
+        assertEquals(3L, report.getResults().get(0).getOrderId());
+        assertEquals("Not enough stock available for order 4.", report.getResults().get(1).getError());
+        verify(orderOutbox, never()).ordersCreated(anyList());
+        verify(orderOutbox, times(1)).orderCreated(any(Order.class));
+    }
+
+    @Test
+    void shouldGroupCsvRowsByReference() {
+        // Given
+        String csv = """
+                reference,supplier_name,order_date,observations,product_name,quantity
+                A-1,Supplier A,%s,"Urgent, morning",Rice,2
+                A-1,Supplier A,%s,,Sugar,1
+                A-2,Supplier A,%s,,Rice,4
+                """.formatted(ORDER_DATE, ORDER_DATE, ORDER_DATE);
+        when(supplierDirectory.findIdByName("Supplier A")).thenReturn(Optional.of(1L));
+        when(productAPIClient.resolveLines(anyList()))
+                .thenReturn(List.of(line("Rice", 1L, 10L, "5.00"), line("Sugar", 1L, 11L, "2.00")));
+        when(orderMySqlRepository.saveAll(anyCollection())).thenAnswer(invocation -> new ArrayList<>(invocation.<Collection<Order>>getArgument(0)));
+
+        // When
+        OrderImportReportDTO report = orderImportUseCase.importOrdersCsv(csv);
+
+        // Then
+        assertEquals(2, report.getTotal());
+        assertEquals(2, report.getSucceeded());
+        assertEquals("A-1", report.getResults().get(0).getReference());
+        assertEquals(0, new BigDecimal("12.00").compareTo(report.getResults().get(0).getTotal()));
+    }
+
+    @Test
+    void shouldRejectEmptyOrMalformedImports() {
+        // When & Then
+        assertThrows(InvalidArgumentException.class, () -> orderImportUseCase.importOrders(List.of()));
+        assertThrows(InvalidArgumentException.class, () -> orderImportUseCase.importOrdersCsv("id,name\n1,x"));
+        assertThrows(InvalidArgumentException.class, () -> orderImportUseCase.importOrdersCsv(
+                "reference,supplier_name,order_date,observations,product_name,quantity\nA-1,Supplier A,2030-01-01,,Rice,two"));
+        verifyNoInteractions(supplierDirectory, productAPIClient, orderMySqlRepository);
+    }
+
+    private static OrderRequestDTO order(String supplierName, String productName, long quantity) {
+        OrderDTO order = new OrderDTO();
+        order.setSupplierName(supplierName);
+        order.setOrderDate(ORDER_DATE);
+        OrderDetailDTO detail = new OrderDetailDTO();
+        detail.setProductName(productName);
+        detail.setQuantity(quantity);
+        OrderRequestDTO request = new OrderRequestDTO();
+        request.setOrder(order);
+        request.setOrderDetails(List.of(detail));
+        return request;
+    }
+
+    private static ProductLineDTO line(String productName, Long supplierId, Long productSupplierId, String price) {
+        ProductLineDTO line = new ProductLineDTO();
+        line.setProductName(productName);
+        line.setSupplierId(supplierId);
+        line.setProductId(productSupplierId == null ? null : productSupplierId + 100);
+        line.setProductSupplierId(productSupplierId);
+        line.setPrice(price == null ? null : new BigDecimal(price));
+        return line;
+    }
+}
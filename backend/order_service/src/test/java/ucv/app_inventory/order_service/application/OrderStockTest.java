@@ -0,0 +1,291 @@
+package ucv.app_inventory.order_service.application;
+
+import feign.FeignException;
+import feign.Request;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ucv.app_inventory.order_service.application.dto.ProductSupplierDTO;
+import ucv.app_inventory.order_service.application.dto.StockAdjustmentDTO;
+import ucv.app_inventory.order_service.application.dto.StockAdjustmentRequestDTO;
+import ucv.app_inventory.order_service.application.dto.StockAdjustmentResultDTO;
+import ucv.app_inventory.order_service.application.dto.StockReservationItemDTO;
+import ucv.app_inventory.order_service.application.dto.StockReservationRequestDTO;
+import ucv.app_inventory.order_service.domain.model.OrderDetail;
+import ucv.app_inventory.order_service.exception.InsufficientStockException;
+import ucv.app_inventory.order_service.infrastructure.outbound.external.ProductAPIClient;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderStockTest {
+
+    @Mock
+    private ProductAPIClient productAPIClient;
+
+    @InjectMocks
+    private OrderStock orderStock;
+
+    @Test
+    void shouldSendTheBatchOfEveryOrderInOneCall() {
+        // Given
+        // Relations 100 and 101 are two suppliers of the same product
+        when(productAPIClient.getRelationsByIds(Set.of(100L, 101L, 200L)))
+                .thenReturn(List.of(relation(100L, 1L), relation(101L, 1L), relation(200L, 2L)));
+        when(productAPIClient.adjustStocks(anyList())).thenReturn(List.of(applied(), applied()));
+        Map<Long, List<OrderDetail>> detailsByOrder = new LinkedHashMap<>();
+        detailsByOrder.put(7L, List.of(detail(100L, 2L), detail(101L, 3L)));
+        detailsByOrder.put(8L, List.of(detail(200L, 4L)));
+
+        // When
+        Set<Long> failed = orderStock.consumeAll(detailsByOrder);
+
+        // Then
+        assertTrue(failed.isEmpty());
+        verify(productAPIClient, times(1)).getRelationsByIds(anyCollection());
+        verify(productAPIClient, times(1)).adjustStocks(List.of(
+                new StockAdjustmentRequestDTO("order-7-processed", "order-7", null, List.of(new StockAdjustmentDTO(1L, -5))),
+                new StockAdjustmentRequestDTO("order-8-processed", "order-8", null, List.of(new StockAdjustmentDTO(2L, -4)))));
+        verify(productAPIClient, never()).adjustStock(any());
+    }
+
+    @Test
+    void shouldSendAtMostTheBatchesOfOneCallAtATime() {
+        // Given
+        when(productAPIClient.getRelationsByIds(Set.of(100L))).thenReturn(List.of(relation(100L, 1L)));
+        when(productAPIClient.adjustStocks(anyList()))
+                .thenAnswer(invocation -> invocation.<List<?>>getArgument(0).stream().map(request -> applied()).toList());
+        Map<Long, List<OrderDetail>> detailsByOrder = new LinkedHashMap<>();
+        for (long orderId = 1; orderId <= OrderStock.BATCHES_PER_CALL + 1; orderId++) {
+            detailsByOrder.put(orderId, List.of(detail(100L, 1L)));
+        }
+
+        // When
+        orderStock.consumeAll(detailsByOrder);
+
+        // Then
+        verify(productAPIClient).adjustStocks(argThat(requests -> requests.size() == OrderStock.BATCHES_PER_CALL));
+        verify(productAPIClient).adjustStocks(argThat(requests -> requests.size() == 1));
+    }
+
+    @Test
+    void shouldReportOrdersWithoutStock() {
+        // Given
+        when(productAPIClient.getRelationsByIds(Set.of(100L, 300L))).thenReturn(List.of(relation(100L, 1L)));
+        when(productAPIClient.getRelationsByIds(Set.of(100L))).thenReturn(List.of(relation(100L, 1L)));
+        StockAdjustmentResultDTO rejected = new StockAdjustmentResultDTO();
+        rejected.setRejectedProductIds(List.of(1L));
+        when(productAPIClient.adjustStocks(anyList())).thenReturn(List.of(rejected));
+        when(productAPIClient.adjustStock(any())).thenThrow(conflict());
+        Map<Long, List<OrderDetail>> detailsByOrder = new LinkedHashMap<>();
+        detailsByOrder.put(7L, List.of(detail(100L, 2L)));
+        // A line whose product no longer exists is not sent at all
+        detailsByOrder.put(8L, List.of(detail(300L, 1L)));
+
+        // When & Then
+        assertEquals(Set.of(7L, 8L), orderStock.consumeAll(detailsByOrder));
+        verify(productAPIClient).adjustStocks(argThat(requests -> requests.size() == 1));
+        assertThrows(InsufficientStockException.class, () -> orderStock.consume(7L, List.of(detail(100L, 2L))));
+        assertThrows(InsufficientStockException.class, () -> orderStock.consume(8L, List.of(detail(300L, 1L))));
+        verify(productAPIClient, times(1)).adjustStock(any());
+    }
+
+    @Test
+    void shouldGiveBackTheStockOfTheOrdersTakenWhenTheTransactionRollsBack() {
+        // Given
+        when(productAPIClient.getRelationsByIds(Set.of(100L))).thenReturn(List.of(relation(100L, 1L)));
+        StockAdjustmentResultDTO rejected = new StockAdjustmentResultDTO();
+        when(productAPIClient.adjustStocks(anyList())).thenReturn(List.of(applied(), rejected));
+        Map<Long, List<OrderDetail>> detailsByOrder = new LinkedHashMap<>();
+        detailsByOrder.put(7L, List.of(detail(100L, 2L)));
+        detailsByOrder.put(8L, List.of(detail(100L, 3L)));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            orderStock.consumeAll(detailsByOrder);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            // Then
+            // Only the batch that was applied is undone
+            verify(productAPIClient).adjustStock(new StockAdjustmentRequestDTO(null, null, "order-7-processed",
+                    List.of(new StockAdjustmentDTO(1L, 2))));
+            verify(productAPIClient, times(1)).adjustStock(any());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldReserveAllProductsOfAnOrderInOneCall() {
+        // When
+        orderStock.reserve(7L, Map.of(2L, 3L, 1L, 5L));
+
+        // Then
+        verify(productAPIClient).reserveStock(new StockReservationRequestDTO("order-7", null,
+                List.of(new StockReservationItemDTO(1L, 5), new StockReservationItemDTO(2L, 3))));
+    }
+
+    @Test
+    void shouldReleaseReservationsOnlyAfterTheTransactionCommits() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            orderStock.release(List.of(7L, 8L));
+
+            // Then
+            verifyNoInteractions(productAPIClient);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(productAPIClient).releaseReservations(List.of("order-7", "order-8"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldGiveTheStockBackWhenTheTransactionRollsBack() {
+        // Given
+        when(productAPIClient.getRelationsByIds(Set.of(100L, 200L)))
+                .thenReturn(List.of(relation(100L, 1L), relation(200L, 2L)));
+        when(productAPIClient.adjustStock(any())).thenReturn(new StockAdjustmentResultDTO());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            orderStock.consume(7L, List.of(detail(100L, 2L), detail(200L, 4L)));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            // Then
+            // Applied only if order-7-processed is still applied, so a consume that never arrived is not undone
+            verify(productAPIClient).adjustStock(new StockAdjustmentRequestDTO(null, null, "order-7-processed",
+                    List.of(new StockAdjustmentDTO(1L, 2), new StockAdjustmentDTO(2L, 4))));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldKeepTheStockTakenWhenTheTransactionCommitsOrTheBatchWasReplayed() {
+        // Given
+        StockAdjustmentResultDTO replayed = new StockAdjustmentResultDTO();
+        replayed.setReplayed(true);
+        when(productAPIClient.getRelationsByIds(Set.of(100L))).thenReturn(List.of(relation(100L, 1L)));
+        when(productAPIClient.adjustStock(any())).thenReturn(new StockAdjustmentResultDTO(), replayed);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            orderStock.consume(7L, List.of(detail(100L, 2L)));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            TransactionSynchronizationManager.clearSynchronization();
+            TransactionSynchronizationManager.initSynchronization();
+            orderStock.consume(7L, List.of(detail(100L, 2L)));
+
+            // Then
+            assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+            verify(productAPIClient, times(2)).adjustStock(argThat(request -> request.getReverts() == null));
+            verify(productAPIClient, never()).adjustStock(argThat(request -> request.getReverts() != null));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldReleaseTheReservationOfANewOrderWhenTheTransactionRollsBack() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            orderStock.reserve(7L, Map.of(1L, 5L));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            // Then
+            verify(productAPIClient).releaseReservations(List.of("order-7"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldPutBackThePreviousReservationWhenTheChangeRollsBack() {
+        // Given
+        // The order had 2 of relation 100; the change adds relation 200
+        when(productAPIClient.getRelationsByIds(Set.of(100L, 200L)))
+                .thenReturn(List.of(relation(100L, 1L), relation(200L, 2L)));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            orderStock.reserve(7L, List.of(detail(100L, 3L), detail(200L, 4L)), Map.of(100L, 2L));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            // Then
+            verify(productAPIClient, times(1)).getRelationsByIds(anyCollection());
+            verify(productAPIClient).reserveStock(new StockReservationRequestDTO("order-7", null,
+                    List.of(new StockReservationItemDTO(1L, 3), new StockReservationItemDTO(2L, 4))));
+            verify(productAPIClient).reserveStock(new StockReservationRequestDTO("order-7", null,
+                    List.of(new StockReservationItemDTO(1L, 2))));
+            verify(productAPIClient, never()).releaseReservations(anyList());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldTakeTheLinesOfAnOrderByRelation() {
+        // When
+        Map<Long, Long> lines = OrderStock.linesOf(List.of(detail(100L, 2L), detail(101L, 3L), detail(100L, 1L)));
+
+        // Then
+        assertEquals(Map.of(100L, 3L, 101L, 3L), lines);
+    }
+
+    @Test
+    void shouldReportAReservationWithoutStock() {
+        // Given
+        when(productAPIClient.reserveStock(any())).thenThrow(conflict());
+
+        // When & Then
+        assertThrows(InsufficientStockException.class, () -> orderStock.reserve(7L, Map.of(1L, 5L)));
+    }
+
+    private static StockAdjustmentResultDTO applied() {
+        StockAdjustmentResultDTO result = new StockAdjustmentResultDTO();
+        result.setApplied(true);
+        return result;
+    }
+
+    private static OrderDetail detail(Long productSupplierId, Long quantity) {
+        OrderDetail detail = new OrderDetail();
+        detail.setProductSupplierId(productSupplierId);
+        detail.setQuantity(quantity);
+        return detail;
+    }
+
+    private static ProductSupplierDTO relation(Long id, Long productId) {
+        ProductSupplierDTO relation = new ProductSupplierDTO();
+        relation.setId(id);
+        relation.setProductId(productId);
+        return relation;
+    }
+
+    private static FeignException conflict() {
+        Request request = Request.create(Request.HttpMethod.POST, "/api/product/adjustStock", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        return new FeignException.Conflict("Conflict", request, null, Map.of());
+    }
+}
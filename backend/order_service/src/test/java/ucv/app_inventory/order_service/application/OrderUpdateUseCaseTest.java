@@ -4,24 +4,34 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 import ucv.app_inventory.order_service.application.dto.*;
 import ucv.app_inventory.order_service.application.dto.mappers.OrderMapper;
+import ucv.app_inventory.order_service.config.OrderConcurrencyProperties;
 import ucv.app_inventory.order_service.domain.model.Order;
+import ucv.app_inventory.order_service.domain.model.OrderDetail;
 import ucv.app_inventory.order_service.domain.model.OrderState;
 import ucv.app_inventory.order_service.exception.InvalidArgumentException;
 import ucv.app_inventory.order_service.exception.InvalidStateTransitionException;
 import ucv.app_inventory.order_service.exception.SupplierNotFoundException;
+import ucv.app_inventory.order_service.exception.VersionConflictException;
+import ucv.app_inventory.order_service.infrastructure.cache.OrderQueryCache;
 import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderDetailMySqlRepository;
 import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderMySqlRepository;
+import ucv.app_inventory.order_service.infrastructure.outbound.external.ProductAPIClient;
 import ucv.app_inventory.order_service.infrastructure.outbound.external.SupplierAPIClient;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,12 +52,30 @@ public class OrderUpdateUseCaseTest {
     @Mock
     private SupplierAPIClient supplierAPIClient;
 
+    @Mock
+    private ProductAPIClient productAPIClient;
+
     @Mock
     private OrderMapper orderMapper;
 
+    @Mock
+    private OrderQueryCache orderQueryCache;
+
+    @Mock
+    private OrderOutbox orderOutbox;
+
+    @Mock
+    private OrderStock orderStock;
+
+    @Spy
+    private OptimisticRetry optimisticRetry = new OptimisticRetry(mock(PlatformTransactionManager.class),
+            new OrderConcurrencyProperties());
+
     @InjectMocks
     private OrderUpdateUseCase orderUpdateUseCase;
 
+    private static final LocalDate NEW_ORDER_DATE = LocalDate.now().plusDays(30);
+
     @Test
     void shouldUpdateOrderSuccessfully() {
         // Given
@@ -66,7 +94,7 @@ public class OrderUpdateUseCaseTest {
 
         OrderDTO newOrderDTO = new OrderDTO();
         newOrderDTO.setStatus("PROCESSED");
-        newOrderDTO.setOrderDate("2024-12-31");
+        newOrderDTO.setOrderDate(NEW_ORDER_DATE.toString());
 
         SupplierDTO supplierDTO = new SupplierDTO();
         supplierDTO.setId(1L);
@@ -87,8 +115,9 @@ public class OrderUpdateUseCaseTest {
         // Then
         assertNotNull(updatedOrder);
         assertEquals(OrderState.PROCESSED, updatedOrder.getStatus());
-        assertEquals(LocalDate.of(2024, 12, 31), updatedOrder.getOrderDate());
+        assertEquals(NEW_ORDER_DATE, updatedOrder.getOrderDate());
         verify(orderMySqlRepository, times(1)).save(any(Order.class));
+        verify(orderOutbox, times(1)).orderStatusChanged(updatedOrder, OrderState.PENDING, OrderState.PROCESSED);
     }
 
     /*@Test
@@ -195,11 +224,13 @@ public class OrderUpdateUseCaseTest {
         orderRequestDTO.setOrder(oldOrderDTO);
         orderRequestDTO.setOrderDetails(List.of(detailDTO));
 
+        OrderDetail newDetail = detail(null, 10L, 5L);
         when(orderFindUseCase.findById(orderId)).thenReturn(oldOrderDTO);
         when(orderMapper.mapToOrder(oldOrderDTO)).thenReturn(oldOrder);
         when(supplierAPIClient.getSupplierById(1L)).thenReturn(Optional.of(supplierDTO));
-        when(orderCreateUseCase.processOrderDetails(anyList(), anyString(), any(Order.class)))
-                .thenReturn(BigDecimal.valueOf(500));
+        when(orderDetailMySqlRepository.findByOrderId(orderId)).thenReturn(List.of());
+        when(orderCreateUseCase.priceDetails(anyList(), anyString(), any(Order.class)))
+                .thenReturn(new OrderCreateUseCase.PricedOrderDetails(List.of(newDetail), BigDecimal.valueOf(500)));
         when(orderMySqlRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
@@ -208,7 +239,223 @@ public class OrderUpdateUseCaseTest {
         // Then
         assertNotNull(updatedOrder);
         assertEquals(BigDecimal.valueOf(500), updatedOrder.getTotal());
-        verify(orderDetailMySqlRepository, times(1)).deleteAll(anyList());
+        assertEquals(List.of(newDetail), updatedOrder.getOrderDetails());
         verify(orderMySqlRepository, times(1)).save(any(Order.class));
+        verifyNoInteractions(productAPIClient);
+    }
+
+    @Test
+    void shouldOnlyChangeTheDetailsThatDiffer() {
+        // Given
+        Long orderId = 1L;
+
+        OrderDTO oldOrderDTO = new OrderDTO();
+        oldOrderDTO.setId(orderId);
+
+        Order oldOrder = new Order();
+        oldOrder.setId(orderId);
+        oldOrder.setSupplierId(1L);
+        oldOrder.setStatus(OrderState.PENDING);
+
+        SupplierDTO supplierDTO = new SupplierDTO();
+        supplierDTO.setId(1L);
+        supplierDTO.setName("Supplier A");
+
+        // Rice is unchanged, Sugar changes quantity, Salt is removed and Flour is new.
+        // Rice stores its name and the price it was ordered at; Sugar and Salt were priced before
+        // those were stored, so only they are looked up.
+        OrderDetail rice = detail(100L, 10L, 2L);
+        rice.setProductName("Rice");
+        rice.setUnitPrice(new BigDecimal("4.00"));
+        OrderDetail sugar = detail(101L, 11L, 1L);
+        OrderDetail salt = detail(102L, 12L, 3L);
+        OrderDetail flour = detail(null, 13L, 4L);
+
+        OrderRequestDTO orderRequestDTO = new OrderRequestDTO();
+        orderRequestDTO.setOrder(oldOrderDTO);
+        orderRequestDTO.setOrderDetails(List.of(line("rice", 2L), line("Sugar", 6L), line("Flour", 4L)));
+
+        when(orderFindUseCase.findById(orderId)).thenReturn(oldOrderDTO);
+        when(orderMapper.mapToOrder(oldOrderDTO)).thenReturn(oldOrder);
+        when(supplierAPIClient.getSupplierById(1L)).thenReturn(Optional.of(supplierDTO));
+        when(orderDetailMySqlRepository.findByOrderId(orderId)).thenReturn(List.of(rice, sugar, salt));
+        when(productAPIClient.getRelationsByIds(Set.of(11L, 12L))).thenReturn(List.of(
+                relation(11L, 501L, "2.00"), relation(12L, 502L, "1.00")));
+        when(productAPIClient.getProductsByIds(Set.of(501L, 502L))).thenReturn(List.of(
+                product(501L, "Sugar"), product(502L, "Salt")));
+        when(orderCreateUseCase.priceDetails(anyList(), anyString(), any(Order.class)))
+                .thenReturn(new OrderCreateUseCase.PricedOrderDetails(List.of(flour), new BigDecimal("12.00")));
+        when(orderMySqlRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        Order updatedOrder = orderUpdateUseCase.updateOrder(orderId, orderRequestDTO);
+
+        // Then
+        assertEquals(List.of(rice, sugar, flour), updatedOrder.getOrderDetails());
+        assertEquals(2L, rice.getQuantity());
+        assertEquals(6L, sugar.getQuantity());
+        // 2 x 4.00 + 6 x 2.00 + 12.00
+        assertEquals(0, new BigDecimal("32.00").compareTo(updatedOrder.getTotal()));
+        assertEquals(0, new BigDecimal("2.00").compareTo(sugar.getUnitPrice()));
+        assertEquals("Sugar", sugar.getProductName());
+        // Only the new product is resolved; nothing is deleted or re-read
+        verify(orderCreateUseCase).priceDetails(argThat(lines -> lines.size() == 1
+                && lines.getFirst().getProductName().equals("Flour")), eq("Supplier A"), eq(oldOrder));
+        verify(orderDetailMySqlRepository, times(1)).findByOrderId(orderId);
+        verifyNoMoreInteractions(orderDetailMySqlRepository);
+        // The lines as they were before the update are reserved again if it rolls back
+        verify(orderStock).reserve(orderId, List.of(rice, sugar, flour), Map.of(10L, 2L, 11L, 1L, 12L, 3L));
+    }
+
+    @Test
+    void shouldRejectAnUpdateOfAStaleOrderVersion() {
+        // Given
+        OrderDTO current = new OrderDTO();
+        current.setId(1L);
+        current.setStatus("PENDING");
+        current.setVersion(5L);
+        when(orderFindUseCase.findById(1L)).thenReturn(current);
+        OrderDTO changes = new OrderDTO();
+        changes.setObservations("Deliver in the morning");
+        changes.setVersion(4L);
+        OrderRequestDTO request = new OrderRequestDTO();
+        request.setOrder(changes);
+
+        // When
+        VersionConflictException exception = assertThrows(VersionConflictException.class,
+                () -> orderUpdateUseCase.updateOrder(1L, request));
+
+        // Then
+        assertEquals(5L, exception.getCurrentVersion());
+        verify(orderMySqlRepository, never()).save(any(Order.class));
+        verifyNoInteractions(orderQueryCache);
+    }
+
+    @Test
+    void shouldChangeTheStatusOfValidOrdersWithOneUpdate() {
+        // Given
+        Order pending = order(1L, OrderState.PENDING);
+        Order processed = order(2L, OrderState.PROCESSED);
+        Order canceled = order(3L, OrderState.CANCELED);
+        when(orderMySqlRepository.findAllForUpdateByIdIn(Set.of(1L, 2L, 3L, 4L)))
+                .thenReturn(List.of(pending, processed, canceled));
+        when(orderMySqlRepository.updateStatusByIdInAndStatusIn(List.of(1L), OrderState.PROCESSED, Set.of(OrderState.PENDING)))
+                .thenReturn(1);
+
+        // When
+        OrderStatusBulkResultDTO result = orderUpdateUseCase.updateStatuses(List.of(1L, 2L, 3L, 4L), "PROCESSED");
+
+        // Then
+        assertEquals(List.of(1L), result.getUpdated());
+        assertEquals(List.of(2L), result.getUnchanged());
+        assertEquals(List.of(3L), result.getRejected());
+        assertEquals(List.of(4L), result.getNotFound());
+        verify(orderQueryCache).evictTagged(argThat(tags -> tags.contains("status:PENDING") && tags.contains("status:PROCESSED")));
+        verify(orderOutbox).orderStatusChanged(pending, OrderState.PENDING, OrderState.PROCESSED);
+        verifyNoMoreInteractions(orderOutbox);
+        verify(orderMySqlRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void shouldRejectOrdersWithoutStockWhenProcessingMany() {
+        // Given
+        Order first = order(1L, OrderState.PENDING);
+        Order second = order(2L, OrderState.PENDING);
+        OrderDetail firstDetail = detail(10L, 100L, 2L);
+        firstDetail.setOrder(first);
+        OrderDetail secondDetail = detail(20L, 200L, 5L);
+        secondDetail.setOrder(second);
+        when(orderMySqlRepository.findAllForUpdateByIdIn(Set.of(1L, 2L))).thenReturn(List.of(first, second));
+        when(orderDetailMySqlRepository.findByOrderIdIn(List.of(1L, 2L))).thenReturn(List.of(firstDetail, secondDetail));
+        when(orderStock.consumeAll(Map.of(1L, List.of(firstDetail), 2L, List.of(secondDetail)))).thenReturn(Set.of(2L));
+        when(orderMySqlRepository.updateStatusByIdInAndStatusIn(List.of(1L), OrderState.PROCESSED, Set.of(OrderState.PENDING)))
+                .thenReturn(1);
+
+        // When
+        OrderStatusBulkResultDTO result = orderUpdateUseCase.updateStatuses(List.of(1L, 2L), "PROCESSED");
+
+        // Then
+        assertEquals(List.of(1L), result.getUpdated());
+        assertEquals(List.of(2L), result.getRejected());
+        verify(orderOutbox).orderStatusChanged(first, OrderState.PENDING, OrderState.PROCESSED);
+        verifyNoMoreInteractions(orderOutbox);
+        verify(orderStock, never()).release(anyCollection());
+    }
+
+    @Test
+    void shouldReleaseTheReservationsOfCanceledOrders() {
+        // Given
+        when(orderMySqlRepository.findAllForUpdateByIdIn(Set.of(1L, 2L)))
+                .thenReturn(List.of(order(1L, OrderState.PENDING), order(2L, OrderState.CANCELED)));
+        when(orderMySqlRepository.updateStatusByIdInAndStatusIn(List.of(1L), OrderState.CANCELED,
+                Set.of(OrderState.PENDING, OrderState.PROCESSED))).thenReturn(1);
+
+        // When
+        orderUpdateUseCase.updateStatuses(List.of(1L, 2L), "CANCELED");
+
+        // Then
+        verify(orderStock).release(List.of(1L));
+        verify(orderStock, never()).consumeAll(anyMap());
+    }
+
+    @Test
+    void shouldNotUpdateWhenNoOrderCanChangeStatus() {
+        // Given
+        when(orderMySqlRepository.findAllForUpdateByIdIn(Set.of(1L))).thenReturn(List.of(order(1L, OrderState.CANCELED)));
+
+        // When
+        OrderStatusBulkResultDTO result = orderUpdateUseCase.updateStatuses(List.of(1L), "PENDING");
+
+        // Then
+        assertEquals(List.of(1L), result.getRejected());
+        verify(orderMySqlRepository, never()).updateStatusByIdInAndStatusIn(anyCollection(), any(), anyCollection());
+        verifyNoInteractions(orderQueryCache);
+    }
+
+    @Test
+    void shouldRejectInvalidBulkStatusChanges() {
+        // When & Then
+        assertThrows(InvalidArgumentException.class, () -> orderUpdateUseCase.updateStatuses(List.of(), "PROCESSED"));
+        assertThrows(InvalidArgumentException.class, () -> orderUpdateUseCase.updateStatuses(List.of(1L), "SHIPPED"));
+        verifyNoInteractions(orderMySqlRepository);
+    }
+
+    private static Order order(Long id, OrderState status) {
+        Order order = new Order();
+        order.setId(id);
+        order.setSupplierId(10L);
+        order.setStatus(status);
+        order.setOrderDate(NEW_ORDER_DATE);
+        return order;
+    }
+
+    private static OrderDetailDTO line(String productName, Long quantity) {
+        OrderDetailDTO line = new OrderDetailDTO();
+        line.setProductName(productName);
+        line.setQuantity(quantity);
+        return line;
+    }
+
+    private static OrderDetail detail(Long id, Long productSupplierId, Long quantity) {
+        OrderDetail detail = new OrderDetail();
+        detail.setId(id);
+        detail.setProductSupplierId(productSupplierId);
+        detail.setQuantity(quantity);
+        return detail;
+    }
+
+    private static ProductSupplierDTO relation(Long id, Long productId, String price) {
+        ProductSupplierDTO relation = new ProductSupplierDTO();
+        relation.setId(id);
+        relation.setProductId(productId);
+        relation.setPrice(new BigDecimal(price));
+        return relation;
+    }
+
+    private static ProductDTO product(Long id, String name) {
+        ProductDTO product = new ProductDTO();
+        product.setId(id);
+        product.setName(name);
+        return product;
     }
 }
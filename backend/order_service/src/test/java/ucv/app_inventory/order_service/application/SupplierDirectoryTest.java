@@ -0,0 +1,129 @@
+package ucv.app_inventory.order_service.application;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import ucv.app_inventory.order_service.application.dto.SupplierDTO;
+import ucv.app_inventory.order_service.domain.model.SupplierProjection;
+import ucv.app_inventory.order_service.infrastructure.outbound.database.SupplierProjectionMySqlRepository;
+import ucv.app_inventory.order_service.infrastructure.outbound.external.SupplierAPIClient;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SupplierDirectoryTest {
+
+    @Mock
+    private SupplierProjectionMySqlRepository supplierProjectionRepository;
+
+    @Mock
+    private SupplierAPIClient supplierAPIClient;
+
+    @InjectMocks
+    private SupplierDirectory supplierDirectory;
+
+    @Test
+    void shouldResolveReplicatedSuppliersWithoutRemoteCall() {
+        // Given
+        when(supplierProjectionRepository.findAllById(Set.of(10L, 20L)))
+                .thenReturn(List.of(projection(10L, "Supplier A"), projection(20L, "Supplier B")));
+
+        // When
+        Map<Long, String> names = supplierDirectory.findNamesByIds(Set.of(10L, 20L));
+
+        // Then
+        assertEquals(Map.of(10L, "Supplier A", 20L, "Supplier B"), names);
+        verifyNoInteractions(supplierAPIClient);
+    }
+
+    @Test
+    void shouldFetchAndStoreSuppliersMissingLocally() {
+        // Given
+        when(supplierProjectionRepository.findAllById(Set.of(10L, 20L)))
+                .thenReturn(List.of(projection(10L, "Supplier A")));
+        when(supplierAPIClient.getSuppliersByIds(Set.of(20L)))
+                .thenReturn(List.of(supplier(20L, "Supplier B")));
+
+        // When
+        Map<Long, String> names = supplierDirectory.findNamesByIds(Set.of(10L, 20L));
+
+        // Then
+        assertEquals(Map.of(10L, "Supplier A", 20L, "Supplier B"), names);
+        verify(supplierProjectionRepository).save(argThat(saved -> saved.getSupplierId().equals(20L)));
+    }
+
+    @Test
+    void shouldResolveIdByNameLocallyFirst() {
+        // Given
+        when(supplierProjectionRepository.findFirstByNameStartingWithOrderBySupplierIdAsc("Supplier A"))
+                .thenReturn(Optional.of(projection(10L, "Supplier A")));
+
+        // When
+        Optional<Long> id = supplierDirectory.findIdByName("Supplier A");
+
+        // Then
+        assertEquals(Optional.of(10L), id);
+        verifyNoInteractions(supplierAPIClient);
+    }
+
+    @Test
+    void shouldReturnEmptyWhenNameIsUnknownEverywhere() {
+        // Given
+        when(supplierProjectionRepository.findFirstByNameStartingWithOrderBySupplierIdAsc("Unknown"))
+                .thenReturn(Optional.empty());
+        when(supplierAPIClient.getSupplierByName(eq("Unknown"), any(Pageable.class)))
+                .thenReturn(Page.empty());
+
+        // When
+        Optional<Long> id = supplierDirectory.findIdByName("Unknown");
+
+        // Then
+        assertTrue(id.isEmpty());
+        verify(supplierProjectionRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldStoreSupplierFoundRemotelyByName() {
+        // Given
+        when(supplierProjectionRepository.findFirstByNameStartingWithOrderBySupplierIdAsc("Supplier B"))
+                .thenReturn(Optional.empty());
+        when(supplierAPIClient.getSupplierByName(eq("Supplier B"), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(supplier(20L, "Supplier B"))));
+
+        // When
+        Optional<Long> id = supplierDirectory.findIdByName("Supplier B");
+
+        // Then
+        assertEquals(Optional.of(20L), id);
+        verify(supplierProjectionRepository).save(any(SupplierProjection.class));
+    }
+
+    private static SupplierProjection projection(Long id, String name) {
+        SupplierProjection projection = new SupplierProjection();
+        projection.setSupplierId(id);
+        projection.setName(name);
+        projection.setUpdatedAt(LocalDateTime.now());
+        return projection;
+    }
+
+    private static SupplierDTO supplier(Long id, String name) {
+        SupplierDTO supplierDTO = new SupplierDTO();
+        supplierDTO.setId(id);
+        supplierDTO.setName(name);
+        return supplierDTO;
+    }
+}
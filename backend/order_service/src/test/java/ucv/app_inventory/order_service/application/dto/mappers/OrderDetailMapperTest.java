@@ -0,0 +1,137 @@
+package ucv.app_inventory.order_service.application.dto.mappers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ucv.app_inventory.order_service.application.dto.OrderDetailDTO;
+import ucv.app_inventory.order_service.application.dto.ProductDTO;
+import ucv.app_inventory.order_service.application.dto.ProductSupplierDTO;
+import ucv.app_inventory.order_service.domain.model.Order;
+import ucv.app_inventory.order_service.domain.model.OrderDetail;
+import ucv.app_inventory.order_service.exception.InvalidArgumentException;
+import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderMySqlRepository;
+import ucv.app_inventory.order_service.infrastructure.outbound.external.ProductAPIClient;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderDetailMapperTest {
+
+    @Mock
+    private ProductAPIClient productAPIClient;
+
+    @Mock
+    private OrderMySqlRepository orderMySqlRepository;
+
+    @InjectMocks
+    private OrderDetailMapper orderDetailMapper;
+
+    @Test
+    void shouldResolveAllLinesWithOneCallPerDependency() {
+        // Given
+        Order order = new Order();
+        order.setId(1L);
+        List<OrderDetail> details = new ArrayList<>();
+        List<ProductSupplierDTO> relations = new ArrayList<>();
+        List<ProductDTO> products = new ArrayList<>();
+        for (long i = 1; i <= 200; i++) {
+            details.add(detail(i, order, 1000 + i));
+            relations.add(relation(1000 + i, 500 + (i % 50)));
+        }
+        for (long i = 0; i < 50; i++) {
+            products.add(product(500 + i, "Product " + i));
+        }
+        when(productAPIClient.getRelationsByIds(anyCollection())).thenReturn(relations);
+        when(productAPIClient.getProductsByIds(anyCollection())).thenReturn(products);
+
+        // When
+        List<OrderDetailDTO> result = orderDetailMapper.mapToOrderDetailDTOList(details);
+
+        // Then
+        assertEquals(200, result.size());
+        assertEquals("Product 1", result.getFirst().getProductName());
+        assertEquals(1L, result.getFirst().getOrderId());
+        verify(productAPIClient, times(1)).getRelationsByIds(anyCollection());
+        verify(productAPIClient, times(1)).getProductsByIds(anyCollection());
+        verify(productAPIClient, never()).getRelationById(anyLong());
+        verify(productAPIClient, never()).getProductById(anyLong());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenRelationOfALineNoLongerExists() {
+        // Given
+        Order order = new Order();
+        order.setId(1L);
+        List<OrderDetail> details = List.of(detail(1L, order, 1001L), detail(2L, order, 1002L));
+        when(productAPIClient.getRelationsByIds(Set.of(1001L, 1002L))).thenReturn(List.of(relation(1001L, 500L)));
+        when(productAPIClient.getProductsByIds(Set.of(500L))).thenReturn(List.of(product(500L, "Rice")));
+
+        // When & Then
+        assertThrows(InvalidArgumentException.class, () -> orderDetailMapper.mapToOrderDetailDTOList(details));
+    }
+
+    @Test
+    void shouldMapLinesFromTheirStoredSnapshot() {
+        // Given
+        Order order = new Order();
+        order.setId(1L);
+        OrderDetail stored = detail(1L, order, 1001L);
+        stored.setProductName("Rice");
+        stored.setUnitPrice(new BigDecimal("2.50"));
+        OrderDetail older = detail(2L, order, 1002L);
+        when(productAPIClient.getRelationsByIds(Set.of(1002L))).thenReturn(List.of(relation(1002L, 501L)));
+        when(productAPIClient.getProductsByIds(Set.of(501L))).thenReturn(List.of(product(501L, "Sugar")));
+
+        // When
+        List<OrderDetailDTO> result = orderDetailMapper.mapToOrderDetailDTOList(List.of(stored, older));
+
+        // Then
+        assertEquals("Rice", result.get(0).getProductName());
+        assertEquals(0, new BigDecimal("5.00").compareTo(result.get(0).getLineTotal()));
+        assertEquals("Sugar", result.get(1).getProductName());
+        assertNull(result.get(1).getUnitPrice());
+    }
+
+    @Test
+    void shouldNotCallProductServiceForOrderWithoutDetails() {
+        // When
+        List<OrderDetailDTO> result = orderDetailMapper.mapToOrderDetailDTOList(List.of());
+
+        // Then
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(productAPIClient);
+    }
+
+    private static OrderDetail detail(Long id, Order order, Long productSupplierId) {
+        OrderDetail detail = new OrderDetail();
+        detail.setId(id);
+        detail.setOrder(order);
+        detail.setProductSupplierId(productSupplierId);
+        detail.setQuantity(2L);
+        return detail;
+    }
+
+    private static ProductSupplierDTO relation(Long id, Long productId) {
+        ProductSupplierDTO relation = new ProductSupplierDTO();
+        relation.setId(id);
+        relation.setProductId(productId);
+        return relation;
+    }
+
+    private static ProductDTO product(Long id, String name) {
+        ProductDTO product = new ProductDTO();
+        product.setId(id);
+        product.setName(name);
+        return product;
+    }
+}
@@ -0,0 +1,108 @@
+package ucv.app_inventory.order_service.application.dto.mappers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import ucv.app_inventory.order_service.application.SupplierDirectory;
+import ucv.app_inventory.order_service.application.dto.OrderDTO;
+import ucv.app_inventory.order_service.domain.model.Order;
+import ucv.app_inventory.order_service.domain.model.OrderState;
+import ucv.app_inventory.order_service.exception.SupplierNotFoundException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderMapperTest {
+
+    @Mock
+    private SupplierDirectory supplierDirectory;
+
+    @InjectMocks
+    private OrderMapper orderMapper;
+
+    @Test
+    void shouldResolveAllSuppliersOfAPageInOneCall() {
+        // Given
+        Page<Order> orders = new PageImpl<>(List.of(order(1L, 10L), order(2L, 20L), order(3L, 10L)));
+
+        when(supplierDirectory.findNamesByIds(Set.of(10L, 20L)))
+                .thenReturn(Map.of(10L, "Supplier A", 20L, "Supplier B"));
+
+        // When
+        Page<OrderDTO> result = orderMapper.mapToOrderDTOPage(orders);
+
+        // Then
+        assertEquals(3, result.getNumberOfElements());
+        assertEquals("Supplier A", result.getContent().get(0).getSupplierName());
+        assertEquals("Supplier B", result.getContent().get(1).getSupplierName());
+        assertEquals("Supplier A", result.getContent().get(2).getSupplierName());
+        verify(supplierDirectory, times(1)).findNamesByIds(anyCollection());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenSupplierOfPageNoLongerExists() {
+        // Given
+        Page<Order> orders = new PageImpl<>(List.of(order(1L, 10L), order(2L, 20L)));
+
+        when(supplierDirectory.findNamesByIds(Set.of(10L, 20L)))
+                .thenReturn(Map.of(10L, "Supplier A"));
+
+        // When & Then
+        assertThrows(SupplierNotFoundException.class, () -> orderMapper.mapToOrderDTOPage(orders));
+    }
+
+    @Test
+    void shouldNotCallSupplierServiceForEmptyPage() {
+        // When
+        Page<OrderDTO> result = orderMapper.mapToOrderDTOPage(Page.empty());
+
+        // Then
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(supplierDirectory);
+    }
+
+    @Test
+    void shouldResolveSupplierIdByNameThroughDirectory() {
+        // Given
+        OrderDTO orderDTO = new OrderDTO();
+        orderDTO.setStatus("PENDING");
+        orderDTO.setSupplierName("Supplier A");
+        when(supplierDirectory.findIdByName("Supplier A")).thenReturn(Optional.of(10L));
+
+        // When
+        Order order = orderMapper.mapToOrder(orderDTO);
+
+        // Then
+        assertEquals(10L, order.getSupplierId());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenSupplierNameIsUnknown() {
+        // Given
+        OrderDTO orderDTO = new OrderDTO();
+        orderDTO.setStatus("PENDING");
+        orderDTO.setSupplierName("Unknown");
+        when(supplierDirectory.findIdByName("Unknown")).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(SupplierNotFoundException.class, () -> orderMapper.mapToOrder(orderDTO));
+    }
+
+    private static Order order(Long id, Long supplierId) {
+        Order order = new Order();
+        order.setId(id);
+        order.setSupplierId(supplierId);
+        order.setStatus(OrderState.PENDING);
+        return order;
+    }
+}
@@ -0,0 +1,146 @@
+package ucv.app_inventory.order_service.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Feign;
+import feign.Param;
+import feign.RequestLine;
+import feign.hc5.ApacheHttp5Client;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the two transports Feign can use for the lookups of the order list, which arrive in
+ * bursts: a page of orders fans out into supplier and product lookups from many request threads
+ * at once, followed by a quiet gap.
+ * <ul>
+ *     <li>the default client on HttpURLConnection, whose JDK keep-alive cache keeps at most
+ *     {@code http.maxConnections} (5) idle connections per host, so after every gap most of the
+ *     next burst opens new connections;</li>
+ *     <li>a pooled Apache HttpClient 5, as configured for the Feign clients, which keeps up to 50
+ *     connections per host open between bursts.</li>
+ * </ul>
+ * Each lookup is served by a local HTTP server after a short delay; the number of distinct client
+ * ports it sees is the number of TCP connections opened. Run with
+ * {@code mvn test -Dtest=FeignClientPoolBenchmarkTest -Dbenchmark=true}. Over loopback without TLS
+ * a new connection costs well under a millisecond, so against remote services behind TLS the
+ * latency gap grows with the handshakes saved.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class FeignClientPoolBenchmarkTest {
+
+    private static final int THREADS = 32;
+    private static final int BURSTS = 50;
+    private static final int CALLS_PER_BURST = 4;
+    private static final int GAP_MILLIS = 20;
+    private static final int SERVER_DELAY_MILLIS = 2;
+
+    interface Lookup {
+        @RequestLine("GET /api/supplier/findById/{id}")
+        String findSupplier(@Param("id") long id);
+    }
+
+    @Test
+    void compareDefaultAndPooledClients() throws Exception {
+        // Otherwise the server's header and body writes meet delayed ACKs and every lookup waits ~40 ms
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 256);
+        server.createContext("/api/supplier/findById", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            try {
+                Thread.sleep(SERVER_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"id\":1,\"name\":\"Supplier A\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newFixedThreadPool(THREADS * 2));
+        server.start();
+        String url = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        PoolingHttpClientConnectionManager pool = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(200)
+                .setMaxConnPerRoute(50)
+                .build();
+        try (CloseableHttpClient httpClient = HttpClients.custom().setConnectionManager(pool).build()) {
+            Lookup defaultClient = Feign.builder().client(new Client.Default(null, null)).target(Lookup.class, url);
+            Lookup pooledClient = Feign.builder().client(new ApacheHttp5Client(httpClient)).target(Lookup.class, url);
+
+            // Warm-up
+            run(defaultClient);
+            run(pooledClient);
+
+            clientPorts.clear();
+            Result before = run(defaultClient);
+            int connectionsBefore = clientPorts.size();
+            clientPorts.clear();
+            Result after = run(pooledClient);
+            int connectionsAfter = clientPorts.size();
+
+            System.out.printf("%d bursts of %d threads x %d lookups, %d ms apart, %d ms per lookup on the server%n",
+                    BURSTS, THREADS, CALLS_PER_BURST, GAP_MILLIS, SERVER_DELAY_MILLIS);
+            System.out.printf("Before, HttpURLConnection: %,.0f lookups/s, p50 %.2f ms, p99 %.2f ms, %d connections opened%n",
+                    before.throughput(), before.p50(), before.p99(), connectionsBefore);
+            System.out.printf("After, pooled HttpClient 5: %,.0f lookups/s, p50 %.2f ms, p99 %.2f ms, %d connections opened%n",
+                    after.throughput(), after.p50(), after.p99(), connectionsAfter);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private record Result(double throughput, double p50, double p99) {
+    }
+
+    private static Result run(Lookup lookup) throws Exception {
+        long[] latencies = new long[BURSTS * THREADS * CALLS_PER_BURST];
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long busy = 0;
+        try {
+            for (int burst = 0; burst < BURSTS; burst++) {
+                long start = System.nanoTime();
+                Future<?>[] futures = new Future<?>[THREADS];
+                for (int t = 0; t < THREADS; t++) {
+                    futures[t] = executor.submit(() -> {
+                        for (int i = 0; i < CALLS_PER_BURST; i++) {
+                            long callStart = System.nanoTime();
+                            lookup.findSupplier(i);
+                            latencies[next.getAndIncrement()] = System.nanoTime() - callStart;
+                        }
+                    });
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                busy += System.nanoTime() - start;
+                Thread.sleep(GAP_MILLIS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Arrays.sort(latencies);
+        // Throughput while a burst is running; the gaps between bursts are left out
+        return new Result(latencies.length / (busy / 1_000_000_000.0),
+                latencies[latencies.length / 2] / 1_000_000.0,
+                latencies[(int) (latencies.length * 0.99)] / 1_000_000.0);
+    }
+}
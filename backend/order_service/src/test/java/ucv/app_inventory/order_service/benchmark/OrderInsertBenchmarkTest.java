@@ -0,0 +1,238 @@
+package ucv.app_inventory.order_service.benchmark;
+
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ucv.app_inventory.order_service.domain.model.Order;
+import ucv.app_inventory.order_service.domain.model.OrderDetail;
+import ucv.app_inventory.order_service.domain.model.OrderState;
+import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderMySqlRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the cascaded save of an order with {@value #LINES} lines through
+ * {@link OrderMySqlRepository}, whose entities take their IDs from pooled sequences, with the
+ * same save of an equivalent pair of entities mapped with {@code GenerationType.IDENTITY}, which
+ * forces Hibernate to insert and read back every row on its own. Each order is saved and committed
+ * in its own transaction; the statements come from Hibernate statistics.
+ * <p>
+ * Run with {@code mvn test -Dtest=OrderInsertBenchmarkTest -Dbenchmark=true}. By default it uses the
+ * embedded H2 database of the JPA slice, which only shows the per-statement overhead; point it at
+ * MySQL to see the round trips as well, e.g.
+ * {@code -Dspring.test.database.replace=none -Dspring.datasource.url=jdbc:mysql://localhost:3306/orders?rewriteBatchedStatements=true
+ * -Dspring.datasource.username=... -Dspring.datasource.password=... -Dspring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect}.
+ */
+@DataJpaTest(properties = {
+        // The Feign clients declared on the application class need resolvable URLs even in a JPA slice.
+        "supplier.service.url=http://localhost",
+        "product.service.url=http://localhost",
+        "user.service.url=http://localhost",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class OrderInsertBenchmarkTest {
+
+    private static final int LINES = 500;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private OrderMySqlRepository orderMySqlRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void compareIdentityAndSequenceCascadedSaves() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        SimpleJpaRepository<IdentityOrder, Long> identityOrderRepository =
+                new SimpleJpaRepository<>(IdentityOrder.class, entityManager);
+
+        // Warm-up
+        transaction.executeWithoutResult(status -> identityOrderRepository.save(identityOrder()));
+        transaction.executeWithoutResult(status -> orderMySqlRepository.save(sequenceOrder()));
+
+        long identityNanos = 0;
+        long sequenceNanos = 0;
+        long identityStatements = 0;
+        long sequenceStatements = 0;
+        for (int round = 1; round <= ROUNDS; round++) {
+            IdentityOrder identityOrder = identityOrder();
+            statistics.clear();
+            long start = System.nanoTime();
+            transaction.executeWithoutResult(status -> identityOrderRepository.save(identityOrder));
+            identityNanos += System.nanoTime() - start;
+            identityStatements += statistics.getPrepareStatementCount();
+            assertEquals(LINES + 1, statistics.getEntityInsertCount());
+
+            Order order = sequenceOrder();
+            statistics.clear();
+            start = System.nanoTime();
+            transaction.executeWithoutResult(status -> orderMySqlRepository.save(order));
+            sequenceNanos += System.nanoTime() - start;
+            sequenceStatements += statistics.getPrepareStatementCount();
+            assertEquals(LINES + 1, statistics.getEntityInsertCount());
+        }
+
+        System.out.printf("%d orders of %d lines%n", ROUNDS, LINES);
+        System.out.printf("Before, IDENTITY: %,.0f rows/s, %d statements per order%n",
+                throughput(identityNanos), identityStatements / ROUNDS);
+        System.out.printf("After, pooled sequence: %,.0f rows/s, %d statements per order%n",
+                throughput(sequenceNanos), sequenceStatements / ROUNDS);
+        // IDENTITY needs one INSERT per row; batches of 50 and blocks of 50 IDs need a small fraction of that
+        assertTrue(identityStatements / ROUNDS > LINES);
+        assertTrue(sequenceStatements / ROUNDS < LINES / 10);
+
+        transaction.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM OrderInsertBenchmarkTest$IdentityOrderDetail").executeUpdate();
+            entityManager.createQuery("DELETE FROM OrderInsertBenchmarkTest$IdentityOrder").executeUpdate();
+        });
+        orderMySqlRepository.deleteAll();
+    }
+
+    private static Order sequenceOrder() {
+        Order order = new Order();
+        order.setSupplierId(1L);
+        order.setStatus(OrderState.PENDING);
+        order.setOrderDate(LocalDate.of(2030, 1, 1));
+        order.setTotal(BigDecimal.valueOf(LINES));
+        for (long i = 1; i <= LINES; i++) {
+            OrderDetail detail = new OrderDetail();
+            detail.setOrder(order);
+            detail.setProductSupplierId(i);
+            detail.setQuantity(1L);
+            detail.setUnitPrice(BigDecimal.ONE);
+            order.getOrderDetails().add(detail);
+        }
+        return order;
+    }
+
+    private static IdentityOrder identityOrder() {
+        IdentityOrder order = new IdentityOrder();
+        order.setSupplierId(1L);
+        order.setStatus(OrderState.PENDING.name());
+        order.setOrderDate(LocalDate.of(2030, 1, 1));
+        order.setTotal(BigDecimal.valueOf(LINES));
+        order.setCreationDate(LocalDateTime.now());
+        for (long i = 1; i <= LINES; i++) {
+            IdentityOrderDetail detail = new IdentityOrderDetail();
+            detail.setOrder(order);
+            detail.setProductSupplierId(i);
+            detail.setQuantity(1L);
+            detail.setUnitPrice(BigDecimal.ONE);
+            detail.setLineTotal(BigDecimal.ONE);
+            order.getOrderDetails().add(detail);
+        }
+        return order;
+    }
+
+    private static double throughput(long nanos) {
+        return (double) (LINES + 1) * ROUNDS / (nanos / 1_000_000_000.0);
+    }
+
+    // The columns of orders and order_details, with the IDENTITY keys they had before.
+    @Entity
+    @Table(name = "benchmark_identity_orders")
+    @Getter
+    @Setter
+    static class IdentityOrder {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        @Column(name = "supplier_id", nullable = false)
+        private Long supplierId;
+
+        @Column(name = "date", nullable = false)
+        private LocalDate orderDate;
+
+        @Column(name = "status", nullable = false)
+        private String status;
+
+        @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
+        private List<IdentityOrderDetail> orderDetails = new ArrayList<>();
+
+        @Column(name = "total", nullable = false)
+        private BigDecimal total;
+
+        @Column(name = "creation_date", nullable = false)
+        private LocalDateTime creationDate;
+
+        @Version
+        @Column(name = "version", nullable = false)
+        private Long version;
+    }
+
+    @Entity
+    @Table(name = "benchmark_identity_order_details")
+    @Getter
+    @Setter
+    static class IdentityOrderDetail {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        @ManyToOne
+        @JoinColumn(name = "order_id", nullable = false)
+        private IdentityOrder order;
+
+        @Column(name = "product_supplier_id", nullable = false)
+        private Long productSupplierId;
+
+        @Column(name = "quantity", nullable = false)
+        private Long quantity;
+
+        @Column(name = "unit_price")
+        private BigDecimal unitPrice;
+
+        @Column(name = "line_total")
+        private BigDecimal lineTotal;
+
+        @Version
+        @Column(name = "version", nullable = false)
+        private Long version;
+    }
+}
@@ -0,0 +1,55 @@
+package ucv.app_inventory.order_service.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import ucv.app_inventory.order_service.infrastructure.cache.OrderCacheTagIndex;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheConfigTest {
+
+    @Test
+    void shouldBoundEveryOrderCacheAndRecordStatistics() {
+        // Given
+        OrderCacheProperties orderCacheProperties = new OrderCacheProperties();
+        orderCacheProperties.setSpecs(Map.of("orders", "maximumSize=2,expireAfterWrite=1m"));
+
+        // When
+        CacheManager cacheManager = new CacheConfig().cacheManager(orderCacheProperties, new OrderCacheTagIndex());
+
+        // Then
+        for (String cacheName : CacheConfig.CACHE_NAMES) {
+            Cache<Object, Object> cache = nativeCache(cacheManager, cacheName);
+            assertTrue(cache.policy().eviction().isPresent(), cacheName + " must be bounded");
+            assertTrue(cache.policy().expireAfterWrite().isPresent(), cacheName + " must expire");
+            assertTrue(cache.policy().isRecordingStats(), cacheName + " must record statistics");
+        }
+        assertEquals(2, nativeCache(cacheManager, "orders").policy().eviction().orElseThrow().getMaximum());
+        assertEquals(500, nativeCache(cacheManager, "ordersByStatus").policy().eviction().orElseThrow().getMaximum());
+    }
+
+    @Test
+    void shouldCountHitsAndMisses() {
+        // Given
+        CacheManager cacheManager = new CacheConfig().cacheManager(new OrderCacheProperties(), new OrderCacheTagIndex());
+        org.springframework.cache.Cache orders = cacheManager.getCache("orders");
+
+        // When
+        orders.get("page-0");
+        orders.put("page-0", "value");
+        orders.get("page-0");
+
+        // Then
+        Cache<Object, Object> cache = nativeCache(cacheManager, "orders");
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    private static Cache<Object, Object> nativeCache(CacheManager cacheManager, String cacheName) {
+        return ((CaffeineCache) cacheManager.getCache(cacheName)).getNativeCache();
+    }
+}
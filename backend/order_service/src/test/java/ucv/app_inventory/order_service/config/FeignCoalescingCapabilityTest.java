@@ -0,0 +1,49 @@
+package ucv.app_inventory.order_service.config;
+
+import feign.InvocationHandlerFactory;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.Target;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ucv.app_inventory.order_service.infrastructure.outbound.external.SupplierAPIClient;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeignCoalescingCapabilityTest {
+
+    @Test
+    void shouldCoalesceOnlyTheAnnotatedMethodsAndCountTheirCalls() throws Throwable {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        FeignCoalescingCapability capability = new FeignCoalescingCapability(meterRegistry);
+        Method getSupplierById = SupplierAPIClient.class.getMethod("getSupplierById", Long.class);
+        Method getSuppliersByIds = SupplierAPIClient.class.getMethod("getSuppliersByIds", java.util.Collection.class);
+        MethodHandler byId = argv -> "Supplier " + argv[0];
+        MethodHandler byIds = argv -> "Suppliers";
+        Map<Method, MethodHandler> dispatch = new HashMap<>(Map.of(getSupplierById, byId, getSuppliersByIds, byIds));
+        AtomicReference<Map<Method, MethodHandler>> enriched = new AtomicReference<>();
+        InvocationHandlerFactory factory = (target, handlers) -> {
+            enriched.set(handlers);
+            return null;
+        };
+
+        // When
+        capability.enrich(factory).create(new Target.HardCodedTarget<>(SupplierAPIClient.class, "http://localhost"), dispatch);
+        Object result = enriched.get().get(getSupplierById).invoke(new Object[]{7L});
+
+        // Then
+        assertEquals("Supplier 7", result);
+        assertNotSame(byId, enriched.get().get(getSupplierById));
+        assertSame(byIds, enriched.get().get(getSuppliersByIds));
+        assertEquals(1, capability.getFlight("SupplierAPIClient#getSupplierById(Long)").executedCount());
+        assertEquals(1.0, meterRegistry.get("feign.coalescing.calls")
+                .tag("method", "SupplierAPIClient#getSupplierById(Long)")
+                .tag("outcome", "executed")
+                .functionCounter().count());
+    }
+}
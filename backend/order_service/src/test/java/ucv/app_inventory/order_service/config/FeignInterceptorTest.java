@@ -0,0 +1,85 @@
+package ucv.app_inventory.order_service.config;
+
+import feign.RequestTemplate;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeignInterceptorTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    private FeignInterceptor feignInterceptor;
+
+    @BeforeEach
+    void setUp() {
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setSecret(SECRET);
+        feignInterceptor = new FeignInterceptor(new ServiceIdentity(jwtConfig, new ServiceIdentityProperties()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldForwardTheTokenOfTheUserToTasksRunOnOtherThreads() throws Exception {
+        // Given
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user@maroqui.com", "user-token", null));
+        SecurityContextTaskDecorator decorator = new SecurityContextTaskDecorator();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        // When
+        CompletableFuture<String> header = new CompletableFuture<>();
+        try {
+            executor.execute(decorator.decorate(() -> header.complete(authorizationOf(feignInterceptor))));
+        } finally {
+            executor.shutdown();
+        }
+
+        // Then
+        assertEquals("Bearer user-token", header.get());
+    }
+
+    @Test
+    void shouldSendTheServiceTokenWhenNoUserIsBehindTheCall() {
+        // Given
+        SecurityContextHolder.clearContext();
+
+        // When
+        String first = authorizationOf(feignInterceptor);
+        String second = authorizationOf(feignInterceptor);
+
+        // Then
+        assertTrue(first.startsWith("Bearer "));
+        assertEquals(first, second);
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(first.substring("Bearer ".length()))
+                .getBody();
+        assertEquals("order-service", claims.getSubject());
+        assertTrue(claims.getExpiration().after(claims.getIssuedAt()));
+    }
+
+    private static String authorizationOf(FeignInterceptor feignInterceptor) {
+        RequestTemplate template = new RequestTemplate();
+        feignInterceptor.apply(template);
+        return template.headers().get(HttpHeaders.AUTHORIZATION).iterator().next();
+    }
+}
@@ -0,0 +1,159 @@
+package ucv.app_inventory.order_service.config;
+
+import feign.FeignException;
+import feign.InvocationHandlerFactory;
+import feign.InvocationHandlerFactory.MethodHandler;
+import feign.Request;
+import feign.RetryableException;
+import feign.Target;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ucv.app_inventory.order_service.application.dto.SupplierDTO;
+import ucv.app_inventory.order_service.exception.DownstreamUnavailableException;
+import ucv.app_inventory.order_service.infrastructure.outbound.external.SupplierAPIClient;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeignResilienceCapabilityTest {
+
+    private static final Request REQUEST = Request.create(Request.HttpMethod.GET, "/api/supplier/getById/1",
+            Map.of(), null, StandardCharsets.UTF_8, null);
+
+    private SimpleMeterRegistry meterRegistry;
+    private FeignResilienceProperties properties;
+    private Method getSupplierById;
+    private Method getSuppliersByIds;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        meterRegistry = new SimpleMeterRegistry();
+        FeignResilienceProperties.Downstream limits = new FeignResilienceProperties.Downstream();
+        limits.setSlidingWindowSize(2);
+        limits.setMinimumNumberOfCalls(2);
+        limits.setMaxConcurrentCalls(1);
+        limits.setMaxWait(Duration.ZERO);
+        properties = new FeignResilienceProperties();
+        properties.getClients().put("supplier-service", limits);
+        getSupplierById = SupplierAPIClient.class.getMethod("getSupplierById", Long.class);
+        getSuppliersByIds = SupplierAPIClient.class.getMethod("getSuppliersByIds", Collection.class);
+    }
+
+    @Test
+    void shouldAnswerReadsFromTheirLastResultWhileTheCircuitIsOpen() throws Throwable {
+        // Given
+        SupplierDTO supplier = new SupplierDTO();
+        supplier.setId(1L);
+        supplier.setName("Supplier A");
+        AtomicReference<Boolean> up = new AtomicReference<>(true);
+        FeignResilienceCapability capability = new FeignResilienceCapability(properties, meterRegistry);
+        Map<Method, MethodHandler> handlers = enrich(capability, Map.of(
+                getSupplierById, argv -> {
+                    if (!up.get()) {
+                        throw timeout();
+                    }
+                    return Optional.of(supplier);
+                },
+                getSuppliersByIds, argv -> {
+                    throw timeout();
+                }));
+
+        // When
+        assertEquals(Optional.of(supplier), handlers.get(getSupplierById).invoke(new Object[]{1L}));
+        up.set(false);
+        // One failure out of two calls reaches the 50% failure rate
+        assertThrows(RetryableException.class, () -> handlers.get(getSupplierById).invoke(new Object[]{1L}));
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, capability.getCircuitBreaker("supplier-service").getState());
+        assertEquals(Optional.of(supplier), handlers.get(getSupplierById).invoke(new Object[]{1L}));
+        assertThrows(DownstreamUnavailableException.class, () -> handlers.get(getSupplierById).invoke(new Object[]{2L}));
+        assertThrows(DownstreamUnavailableException.class, () -> handlers.get(getSuppliersByIds).invoke(new Object[]{List.of(1L)}));
+        assertEquals(3.0, meterRegistry.get("feign.resilience.rejected")
+                .tag("client", "supplier-service").tag("reason", "circuit_open").counters().stream()
+                .mapToDouble(counter -> counter.count()).sum());
+        assertEquals(1.0, meterRegistry.get("feign.resilience.stale.fallbacks").tag("client", "supplier-service").counter().count());
+        assertEquals(1.0, meterRegistry.get("resilience4j.circuitbreaker.state")
+                .tag("name", "supplier-service").tag("state", "open").gauge().value());
+    }
+
+    @Test
+    void shouldNotOpenTheCircuitOnClientErrors() throws Throwable {
+        // Given
+        FeignResilienceCapability capability = new FeignResilienceCapability(properties, meterRegistry);
+        Map<Method, MethodHandler> handlers = enrich(capability, Map.of(getSupplierById, argv -> {
+            throw new FeignException.NotFound("Supplier not found", REQUEST, null, null);
+        }));
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            assertThrows(FeignException.NotFound.class, () -> handlers.get(getSupplierById).invoke(new Object[]{1L}));
+        }
+
+        // Then
+        assertEquals(CircuitBreaker.State.CLOSED, capability.getCircuitBreaker("supplier-service").getState());
+    }
+
+    @Test
+    void shouldRefuseCallsBeyondTheBulkheadWithoutWaiting() throws Throwable {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FeignResilienceCapability capability = new FeignResilienceCapability(properties, meterRegistry);
+        Map<Method, MethodHandler> handlers = enrich(capability, Map.of(getSupplierById, argv -> {
+            started.countDown();
+            release.await();
+            return Optional.empty();
+        }));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // When
+        try {
+            executor.submit(() -> {
+                try {
+                    return handlers.get(getSupplierById).invoke(new Object[]{1L});
+                } catch (Throwable t) {
+                    throw new IllegalStateException(t);
+                }
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // Then
+            assertThrows(DownstreamUnavailableException.class, () -> handlers.get(getSupplierById).invoke(new Object[]{2L}));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+        assertEquals(1.0, meterRegistry.get("feign.resilience.rejected")
+                .tag("client", "supplier-service").tag("reason", "bulkhead_full").counter().count());
+        assertEquals(CircuitBreaker.State.CLOSED, capability.getCircuitBreaker("supplier-service").getState());
+    }
+
+    private static Map<Method, MethodHandler> enrich(FeignResilienceCapability capability, Map<Method, MethodHandler> dispatch) {
+        AtomicReference<Map<Method, MethodHandler>> enriched = new AtomicReference<>();
+        InvocationHandlerFactory factory = (target, handlers) -> {
+            enriched.set(handlers);
+            return null;
+        };
+        capability.enrich(factory).create(new Target.HardCodedTarget<>(SupplierAPIClient.class, "supplier-service", "http://localhost"), dispatch);
+        return enriched.get();
+    }
+
+    private static RetryableException timeout() {
+        return new RetryableException(-1, "Read timed out", Request.HttpMethod.GET, (Long) null, REQUEST);
+    }
+}
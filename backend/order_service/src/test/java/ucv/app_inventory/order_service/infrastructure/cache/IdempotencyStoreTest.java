@@ -0,0 +1,182 @@
+package ucv.app_inventory.order_service.infrastructure.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ucv.app_inventory.order_service.application.dto.OrderDTO;
+import ucv.app_inventory.order_service.application.dto.OrderRequestDTO;
+import ucv.app_inventory.order_service.config.IdempotencyProperties;
+import ucv.app_inventory.order_service.exception.IdempotencyKeyMismatchException;
+import ucv.app_inventory.order_service.exception.IdempotentRequestInProgressException;
+import ucv.app_inventory.order_service.exception.InvalidArgumentException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdempotencyStoreTest {
+
+    private IdempotencyStore idempotencyStore;
+    private AtomicInteger runs;
+
+    @BeforeEach
+    void setUp() {
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setWaitTimeout(Duration.ofSeconds(5));
+        idempotencyStore = new IdempotencyStore(properties, new ObjectMapper());
+        runs = new AtomicInteger();
+    }
+
+    @Test
+    void shouldReplayTheFirstResultForTheSameKey() {
+        // When
+        IdempotencyStore.Outcome<String> first = idempotencyStore.execute("alice", "key-1", "order", this::create, result -> true);
+        IdempotencyStore.Outcome<String> retry = idempotencyStore.execute("alice", "key-1", "order", this::create, result -> true);
+
+        // Then
+        assertEquals(1, runs.get());
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals(first.value(), retry.value());
+    }
+
+    @Test
+    void shouldReplayARetryOfARequestTheFirstRunChanged() {
+        // Given
+        OrderRequestDTO request = orderRequest();
+        idempotencyStore.execute("alice", "key-1", request, () -> {
+            // As creating an order does with the status of the request
+            request.getOrder().setStatus("PENDING");
+            return create();
+        }, result -> true);
+
+        // When
+        IdempotencyStore.Outcome<String> retry = idempotencyStore.execute("alice", "key-1", orderRequest(),
+                this::create, result -> true);
+
+        // Then
+        assertTrue(retry.replayed());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void shouldKeepKeysOfDifferentCallersApart() {
+        // When
+        idempotencyStore.execute("alice", "key-1", "order", this::create, result -> true);
+        IdempotencyStore.Outcome<String> other = idempotencyStore.execute("bob", "key-1", "order", this::create, result -> true);
+
+        // Then
+        assertEquals(2, runs.get());
+        assertFalse(other.replayed());
+    }
+
+    @Test
+    void shouldRejectAKeyReusedForADifferentRequest() {
+        // Given
+        idempotencyStore.execute("alice", "key-1", "order", this::create, result -> true);
+
+        // When & Then
+        assertThrows(IdempotencyKeyMismatchException.class,
+                () -> idempotencyStore.execute("alice", "key-1", "another order", this::create, result -> true));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void shouldRunAgainWhenTheResultIsNotRemembered() {
+        // When
+        idempotencyStore.execute("alice", "key-1", "order", this::create, result -> false);
+        assertThrows(IllegalStateException.class, () -> idempotencyStore.execute("alice", "key-2", "order",
+                () -> {
+                    throw new IllegalStateException("Product service unavailable");
+                }, result -> true));
+        idempotencyStore.execute("alice", "key-1", "order", this::create, result -> true);
+        idempotencyStore.execute("alice", "key-2", "order", this::create, result -> true);
+
+        // Then
+        assertEquals(3, runs.get());
+    }
+
+    @Test
+    void shouldMakeConcurrentDuplicatesWaitForTheRequestInProgress() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<IdempotencyStore.Outcome<String>> first = CompletableFuture.supplyAsync(
+                () -> idempotencyStore.execute("alice", "key-1", "order", () -> {
+                    started.countDown();
+                    await(release);
+                    return create();
+                }, result -> true));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When
+        CompletableFuture<IdempotencyStore.Outcome<String>> duplicate = CompletableFuture.supplyAsync(
+                () -> idempotencyStore.execute("alice", "key-1", "order", this::create, result -> true));
+        Thread.sleep(100);
+        assertFalse(duplicate.isDone());
+        release.countDown();
+
+        // Then
+        assertEquals(first.get(5, TimeUnit.SECONDS).value(), duplicate.get(5, TimeUnit.SECONDS).value());
+        assertTrue(duplicate.get().replayed());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void shouldGiveUpWaitingAfterTheTimeout() throws Exception {
+        // Given
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setWaitTimeout(Duration.ofMillis(50));
+        IdempotencyStore store = new IdempotencyStore(properties, new ObjectMapper());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<IdempotencyStore.Outcome<String>> first = CompletableFuture.supplyAsync(
+                () -> store.execute("alice", "key-1", "order", () -> {
+                    started.countDown();
+                    await(release);
+                    return create();
+                }, result -> true));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When & Then
+        assertThrows(IdempotentRequestInProgressException.class,
+                () -> store.execute("alice", "key-1", "order", this::create, result -> true));
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void shouldRejectInvalidKeys() {
+        // When & Then
+        assertThrows(InvalidArgumentException.class,
+                () -> idempotencyStore.execute("alice", " ", "order", this::create, result -> true));
+        assertThrows(InvalidArgumentException.class,
+                () -> idempotencyStore.execute("alice", "k".repeat(256), "order", this::create, result -> true));
+        assertEquals(0, runs.get());
+    }
+
+    private static OrderRequestDTO orderRequest() {
+        OrderDTO order = new OrderDTO();
+        order.setSupplierName("Supplier A");
+        order.setOrderDate("2030-01-01");
+        OrderRequestDTO request = new OrderRequestDTO();
+        request.setOrder(order);
+        return request;
+    }
+
+    private String create() {
+        return "order-" + runs.incrementAndGet();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
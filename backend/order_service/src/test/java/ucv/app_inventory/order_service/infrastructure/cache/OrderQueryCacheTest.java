@@ -0,0 +1,161 @@
+package ucv.app_inventory.order_service.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import ucv.app_inventory.order_service.domain.model.Order;
+import ucv.app_inventory.order_service.domain.model.OrderState;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderQueryCacheTest {
+
+    private OrderCacheTagIndex tagIndex;
+    private OrderQueryCache orderQueryCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        tagIndex = new OrderCacheTagIndex();
+        orderQueryCache = new OrderQueryCache(new ConcurrentMapCacheManager(), tagIndex);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void shouldServeRepeatedQueriesFromCache() {
+        // When
+        load("ordersByStatus", "pending-0", OrderCacheTags.status(OrderState.PENDING));
+        load("ordersByStatus", "pending-0", OrderCacheTags.status(OrderState.PENDING));
+
+        // Then
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldEvictOnlyQueriesTaggedByTheWrite() {
+        // Given
+        load("ordersByStatus", "pending-0", OrderCacheTags.status(OrderState.PENDING));
+        load("ordersByStatus", "canceled-0", OrderCacheTags.status(OrderState.CANCELED));
+        load("ordersBySupplier", "supplier-10", OrderCacheTags.supplier(10L));
+        load("ordersBySupplier", "supplier-20", OrderCacheTags.supplier(20L));
+        load("ordersByDate", "january", OrderCacheTags.orderDateRange(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 31)));
+        load("ordersByDate", "march", OrderCacheTags.orderDateRange(LocalDate.of(2030, 3, 1), LocalDate.of(2030, 3, 31)));
+        load("orders", "all-0", OrderCacheTags.ALL);
+        loads.set(0);
+
+        // When
+        orderQueryCache.evictTagged(OrderCacheTags.of(order(10L, OrderState.PENDING, LocalDate.of(2030, 1, 15))));
+
+        // Then
+        load("ordersByStatus", "pending-0", OrderCacheTags.status(OrderState.PENDING));
+        load("ordersBySupplier", "supplier-10", OrderCacheTags.supplier(10L));
+        load("ordersByDate", "january", OrderCacheTags.orderDateRange(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 31)));
+        load("orders", "all-0", OrderCacheTags.ALL);
+        assertEquals(4, loads.get());
+
+        load("ordersByStatus", "canceled-0", OrderCacheTags.status(OrderState.CANCELED));
+        load("ordersBySupplier", "supplier-20", OrderCacheTags.supplier(20L));
+        load("ordersByDate", "march", OrderCacheTags.orderDateRange(LocalDate.of(2030, 3, 1), LocalDate.of(2030, 3, 31)));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void shouldTagLongDateRangesAsDependingOnEveryOrder() {
+        // When
+        Set<String> tags = OrderCacheTags.orderDateRange(LocalDate.of(2020, 1, 1), LocalDate.of(2030, 1, 1));
+
+        // Then
+        assertEquals(Set.of(OrderCacheTags.ALL), tags);
+    }
+
+    @Test
+    void shouldForgetEvictedQueriesInTheIndex() {
+        // Given
+        load("ordersByStatus", "pending-0", OrderCacheTags.status(OrderState.PENDING));
+
+        // When
+        orderQueryCache.evictTagged(Set.of(OrderCacheTags.status(OrderState.PENDING)));
+
+        // Then
+        assertEquals(0, tagIndex.size());
+    }
+
+    @Test
+    void shouldNotKeepAResultLoadedWhileOneOfItsTagsWasEvicted() {
+        // Given
+        String tag = OrderCacheTags.status(OrderState.PENDING);
+
+        // When
+        // A write commits and evicts the tag while the query is still reading the old rows
+        orderQueryCache.get("ordersByStatus", "pending-0", Set.of(tag), () -> {
+            loads.incrementAndGet();
+            orderQueryCache.evictTagged(Set.of(tag));
+            return List.of("stale");
+        });
+        load("ordersByStatus", "pending-0", tag);
+        load("ordersByStatus", "pending-0", tag);
+
+        // Then
+        assertEquals(2, loads.get());
+        assertEquals(1, tagIndex.size());
+    }
+
+    @Test
+    void shouldKeepTheTagsOfAResultStoredOverAnExpiredOne() {
+        // Given
+        AtomicLong nanos = new AtomicLong();
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache("ordersByStatus", Caffeine.newBuilder()
+                .ticker(nanos::get)
+                // Maintenance never runs, so the expired entry is still there when the result is stored
+                .executor(task -> { })
+                .expireAfterWrite(Duration.ofMinutes(1))
+                .evictionListener(tagIndex.evictionListener("ordersByStatus"))
+                .build());
+        orderQueryCache = new OrderQueryCache(cacheManager, tagIndex);
+        String tag = OrderCacheTags.status(OrderState.PENDING);
+        load("ordersByStatus", "pending-0", tag);
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+
+        // When
+        // Stored over the expired entry, which fires the eviction listener for it
+        load("ordersByStatus", "pending-0", tag);
+        orderQueryCache.evictTagged(Set.of(tag));
+        load("ordersByStatus", "pending-0", tag);
+
+        // Then
+        assertEquals(3, loads.get());
+        assertEquals(1, tagIndex.size());
+    }
+
+    private void load(String cacheName, String key, String tag) {
+        load(cacheName, key, Set.of(tag));
+    }
+
+    private void load(String cacheName, String key, Set<String> tags) {
+        orderQueryCache.get(cacheName, key, tags, () -> {
+            loads.incrementAndGet();
+            return List.of(key);
+        });
+    }
+
+    private static Order order(Long supplierId, OrderState status, LocalDate orderDate) {
+        Order order = new Order();
+        order.setId(1L);
+        order.setSupplierId(supplierId);
+        order.setStatus(status);
+        order.setOrderDate(orderDate);
+        order.setCreationDate(LocalDateTime.of(2029, 12, 1, 10, 0));
+        return order;
+    }
+}
@@ -0,0 +1,63 @@
+package ucv.app_inventory.order_service.infrastructure.inbound.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+import ucv.app_inventory.order_service.application.SupplierDirectory;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SupplierEventListenerTest {
+
+    @Mock
+    private SupplierDirectory supplierDirectory;
+
+    @Mock
+    private ConsumerSeekCallback callback;
+
+    private SupplierEventListener supplierEventListener;
+
+    @BeforeEach
+    void setUp() {
+        supplierEventListener = new SupplierEventListener(supplierDirectory, new ObjectMapper());
+    }
+
+    @Test
+    void shouldReadEachPartitionFromItsBeginningOnlyTheFirstTimeItIsAssigned() {
+        // Given
+        TopicPartition first = new TopicPartition("supplier-events", 0);
+        TopicPartition second = new TopicPartition("supplier-events", 1);
+
+        // When
+        supplierEventListener.onPartitionsAssigned(Map.of(first, 10L), callback);
+        // A rebalance gives this instance another partition as well
+        supplierEventListener.onPartitionsAssigned(Map.of(first, 25L, second, 7L), callback);
+
+        // Then
+        verify(callback).seekToBeginning(List.of(first));
+        verify(callback).seekToBeginning(List.of(second));
+        verifyNoMoreInteractions(callback);
+    }
+
+    @Test
+    void shouldApplyChangesAndTombstonesToTheReadModel() throws Exception {
+        // When
+        supplierEventListener.onSupplierEvent(new ConsumerRecord<>("supplier-events", 0, 0L, "7",
+                "{\"name\":\"Supplier A\",\"state\":\"ACTIVE\"}"));
+        supplierEventListener.onSupplierEvent(new ConsumerRecord<>("supplier-events", 0, 1L, "8", null));
+
+        // Then
+        verify(supplierDirectory).upsert(7L, "Supplier A", "ACTIVE");
+        verify(supplierDirectory).remove(8L);
+    }
+}
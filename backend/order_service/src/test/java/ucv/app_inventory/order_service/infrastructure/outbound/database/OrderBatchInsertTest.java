@@ -0,0 +1,107 @@
+package ucv.app_inventory.order_service.infrastructure.outbound.database;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import ucv.app_inventory.order_service.domain.model.Order;
+import ucv.app_inventory.order_service.domain.model.OrderDetail;
+import ucv.app_inventory.order_service.domain.model.OrderState;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        // The Feign clients declared on the application class need resolvable URLs even in a JPA slice.
+        "supplier.service.url=http://localhost",
+        "product.service.url=http://localhost",
+        "user.service.url=http://localhost",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+public class OrderBatchInsertTest {
+
+    @Autowired
+    private OrderMySqlRepository orderMySqlRepository;
+
+    @Autowired
+    private OrderDetailMySqlRepository orderDetailMySqlRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void shouldInsertTheDetailsOfAnOrderInJdbcBatches() {
+        // Given
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Order order = new Order();
+        order.setSupplierId(1L);
+        order.setStatus(OrderState.PENDING);
+        order.setOrderDate(LocalDate.of(2030, 1, 1));
+        order.setTotal(BigDecimal.TEN);
+        order = orderMySqlRepository.save(order);
+
+        List<OrderDetail> details = new ArrayList<>();
+        for (long i = 1; i <= 500; i++) {
+            OrderDetail detail = new OrderDetail();
+            detail.setOrder(order);
+            detail.setProductSupplierId(i);
+            detail.setQuantity(1L);
+            details.add(detail);
+        }
+
+        // When
+        orderDetailMySqlRepository.saveAll(details);
+        entityManager.flush();
+
+        // Then
+        assertEquals(501, statistics.getEntityInsertCount());
+        // 501 rows, 50 per batch, plus one call per block of 50 IDs; one statement per row without batching
+        assertTrue(statistics.getPrepareStatementCount() < 50,
+                "Expected batched inserts but " + statistics.getPrepareStatementCount() + " statements were prepared");
+        assertEquals(500, orderDetailMySqlRepository.count());
+    }
+
+    @Test
+    void shouldPersistANewOrderAndItsDetailsInOneCascadedFlush() {
+        // Given
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Order order = new Order();
+        order.setSupplierId(1L);
+        order.setStatus(OrderState.PENDING);
+        order.setOrderDate(LocalDate.of(2030, 1, 1));
+        order.setTotal(BigDecimal.valueOf(30));
+        for (long i = 1; i <= 3; i++) {
+            OrderDetail detail = new OrderDetail();
+            detail.setOrder(order);
+            detail.setProductSupplierId(i);
+            detail.setQuantity(1L);
+            order.getOrderDetails().add(detail);
+        }
+
+        // When
+        orderMySqlRepository.save(order);
+        entityManager.flush();
+
+        // Then
+        assertEquals(4, statistics.getEntityInsertCount());
+        assertEquals(0, statistics.getEntityUpdateCount());
+        assertEquals(3, orderDetailMySqlRepository.findByOrderId(order.getId()).size());
+    }
+}
@@ -0,0 +1,119 @@
+package ucv.app_inventory.order_service.infrastructure.outbound.database;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import ucv.app_inventory.order_service.application.OrderDetailDeleteUseCase;
+import ucv.app_inventory.order_service.application.OrderStock;
+import ucv.app_inventory.order_service.application.OrderTotals;
+import ucv.app_inventory.order_service.domain.model.Order;
+import ucv.app_inventory.order_service.domain.model.OrderDetail;
+import ucv.app_inventory.order_service.domain.model.OrderState;
+import ucv.app_inventory.order_service.infrastructure.cache.OrderQueryCache;
+import ucv.app_inventory.order_service.infrastructure.outbound.external.ProductAPIClient;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = {
+        // The Feign clients declared on the application class need resolvable URLs even in a JPA slice.
+        "supplier.service.url=http://localhost",
+        "product.service.url=http://localhost",
+        "user.service.url=http://localhost",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@ActiveProfiles("test")
+@Import({OrderDetailDeleteUseCase.class, OrderTotals.class})
+public class OrderDetailDeleteJpaTest {
+
+    @Autowired
+    private OrderDetailDeleteUseCase orderDetailDeleteUseCase;
+
+    @Autowired
+    private OrderMySqlRepository orderMySqlRepository;
+
+    @Autowired
+    private OrderDetailMySqlRepository orderDetailMySqlRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private OrderStock orderStock;
+
+    @MockBean
+    private ProductAPIClient productAPIClient;
+
+    @MockBean
+    private OrderQueryCache orderQueryCache;
+
+    @Test
+    void shouldDeleteTheLineOfAPendingOrderAndReserveTheRest() {
+        // Given
+        Order order = orderMySqlRepository.save(orderWithTwoLines(OrderState.PENDING));
+        Long deletedId = order.getOrderDetails().get(0).getId();
+        Long keptId = order.getOrderDetails().get(1).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        orderDetailDeleteUseCase.deleteOrderDetail(deletedId);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then
+        List<OrderDetail> remaining = orderDetailMySqlRepository.findByOrderId(order.getId());
+        assertEquals(1, remaining.size());
+        assertEquals(keptId, remaining.get(0).getId());
+        assertEquals(0, new BigDecimal("10.00").compareTo(orderMySqlRepository.findById(order.getId()).orElseThrow().getTotal()));
+        verify(orderStock).reserve(eq(order.getId()), argThat((Collection<OrderDetail> lines) -> lines.size() == 1),
+                eq(Map.of(1L, 1L, 2L, 1L)));
+    }
+
+    @Test
+    void shouldDeleteTheLineOfAProcessedOrderWithoutTouchingStock() {
+        // Given
+        Order order = orderMySqlRepository.save(orderWithTwoLines(OrderState.PROCESSED));
+        Long deletedId = order.getOrderDetails().get(0).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        orderDetailDeleteUseCase.deleteOrderDetail(deletedId);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then
+        assertEquals(1, orderDetailMySqlRepository.findByOrderId(order.getId()).size());
+        assertEquals(0, new BigDecimal("10.00").compareTo(orderMySqlRepository.findById(order.getId()).orElseThrow().getTotal()));
+        verifyNoInteractions(orderStock);
+    }
+
+    private static Order orderWithTwoLines(OrderState status) {
+        Order order = new Order();
+        order.setSupplierId(1L);
+        order.setStatus(status);
+        order.setOrderDate(LocalDate.of(2030, 1, 1));
+        order.setTotal(new BigDecimal("20.00"));
+        for (long i = 1; i <= 2; i++) {
+            OrderDetail detail = new OrderDetail();
+            detail.setOrder(order);
+            detail.setProductSupplierId(i);
+            detail.setQuantity(1L);
+            detail.setUnitPrice(BigDecimal.TEN);
+            order.getOrderDetails().add(detail);
+        }
+        return order;
+    }
+}
@@ -0,0 +1,86 @@
+package ucv.app_inventory.order_service.infrastructure.outbound.database;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+import ucv.app_inventory.order_service.application.OrderCursor;
+import ucv.app_inventory.order_service.domain.model.Order;
+import ucv.app_inventory.order_service.domain.model.OrderState;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        // The Feign clients declared on the application class need resolvable URLs even in a JPA slice.
+        "supplier.service.url=http://localhost",
+        "product.service.url=http://localhost",
+        "user.service.url=http://localhost",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@ActiveProfiles("test")
+public class OrderScrollRepositoryTest {
+
+    @Autowired
+    private OrderMySqlRepository orderMySqlRepository;
+
+    @BeforeEach
+    void setUp() {
+        orderMySqlRepository.deleteAll();
+        for (int i = 0; i < 7; i++) {
+            Order order = new Order();
+            order.setSupplierId(i % 2 == 0 ? 10L : 20L);
+            order.setStatus(OrderState.PENDING);
+            // Several orders share a date, so the id has to break ties.
+            order.setOrderDate(LocalDate.of(2030, 1, 1).plusDays(i / 3));
+            order.setTotal(BigDecimal.TEN);
+            orderMySqlRepository.save(order);
+        }
+    }
+
+    @Test
+    void shouldVisitEveryOrderOnceWhenScrollingWithCursors() {
+        // Given
+        OrderCursor.SortKey key = OrderCursor.SortKey.ORDER_DATE;
+        List<Long> visited = new ArrayList<>();
+        String cursor = null;
+
+        // When
+        Window<Order> window;
+        do {
+            ScrollPosition position = OrderCursor.decode(cursor, key, Sort.Direction.ASC);
+            window = orderMySqlRepository.findBy(Specification.allOf(List.of()), query -> query
+                    .sortBy(OrderCursor.sort(key, Sort.Direction.ASC))
+                    .limit(3)
+                    .scroll(position));
+            window.forEach(order -> visited.add(order.getId()));
+            cursor = window.isEmpty() ? null : OrderCursor.encode(key, Sort.Direction.ASC, window.getContent().getLast());
+        } while (window.hasNext());
+
+        // Then
+        assertEquals(orderMySqlRepository.findAll(Sort.by("orderDate", "id")).stream().map(Order::getId).toList(), visited);
+    }
+
+    @Test
+    void shouldApplyFiltersWhileScrolling() {
+        // When
+        Window<Order> window = orderMySqlRepository.findBy(OrderSpecifications.hasSupplier(20L), query -> query
+                .sortBy(OrderCursor.sort(OrderCursor.SortKey.ORDER_DATE, Sort.Direction.DESC))
+                .limit(10)
+                .scroll(ScrollPosition.keyset()));
+
+        // Then
+        assertEquals(3, window.size());
+        assertFalse(window.hasNext());
+        assertTrue(window.stream().allMatch(order -> order.getSupplierId().equals(20L)));
+    }
+}
@@ -0,0 +1,60 @@
+package ucv.app_inventory.order_service.infrastructure.outbound.database;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import ucv.app_inventory.order_service.domain.model.Order;
+import ucv.app_inventory.order_service.domain.model.OrderState;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        // The Feign clients declared on the application class need resolvable URLs even in a JPA slice.
+        "supplier.service.url=http://localhost",
+        "product.service.url=http://localhost",
+        "user.service.url=http://localhost",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@ActiveProfiles("test")
+public class OrderStatusBulkUpdateTest {
+
+    @Autowired
+    private OrderMySqlRepository orderMySqlRepository;
+
+    @Test
+    void shouldOnlyUpdateOrdersInAnAllowedSourceStatus() {
+        // Given
+        Order pending = orderMySqlRepository.save(order(OrderState.PENDING));
+        Order canceled = orderMySqlRepository.save(order(OrderState.CANCELED));
+        List<Long> ids = List.of(pending.getId(), canceled.getId());
+
+        // When
+        int updated = orderMySqlRepository.updateStatusByIdInAndStatusIn(ids, OrderState.PROCESSED, Set.of(OrderState.PENDING));
+
+        // Then
+        assertEquals(1, updated);
+        Order processed = orderMySqlRepository.findById(pending.getId()).orElseThrow();
+        assertEquals(OrderState.PROCESSED, processed.getStatus());
+        // Like any other write, so an update that read the order before fails instead of overwriting it
+        assertEquals(pending.getVersion() + 1, processed.getVersion());
+        Order untouched = orderMySqlRepository.findById(canceled.getId()).orElseThrow();
+        assertEquals(OrderState.CANCELED, untouched.getStatus());
+        assertEquals(canceled.getVersion(), untouched.getVersion());
+        assertEquals(2, orderMySqlRepository.findAllForUpdateByIdIn(ids).size());
+    }
+
+    private static Order order(OrderState status) {
+        Order order = new Order();
+        order.setSupplierId(1L);
+        order.setStatus(status);
+        order.setOrderDate(LocalDate.of(2030, 1, 1));
+        order.setTotal(BigDecimal.TEN);
+        return order;
+    }
+}
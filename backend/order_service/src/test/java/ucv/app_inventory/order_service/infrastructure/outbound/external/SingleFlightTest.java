@@ -0,0 +1,125 @@
+package ucv.app_inventory.order_service.infrastructure.outbound.external;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    private static final int CALLERS = 16;
+
+    @Test
+    void shouldShareOneCallBetweenConcurrentCallersOfTheSameKey() throws Exception {
+        // Given
+        SingleFlight<Long, String> flight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+        // When
+        List<Future<String>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(caller(flight, () -> {
+                    calls.incrementAndGet();
+                    release.await();
+                    return "Supplier A";
+                })));
+            }
+            awaitCoalesced(flight, CALLERS - 1);
+            release.countDown();
+
+            // Then
+            for (Future<String> result : results) {
+                assertEquals("Supplier A", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+        assertEquals(1, flight.executedCount());
+        assertEquals(CALLERS - 1, flight.coalescedCount());
+        assertEquals(0, flight.inFlightCount());
+    }
+
+    @Test
+    void shouldPassTheFailureToEveryCallerAndRunAgainAfterwards() throws Throwable {
+        // Given
+        SingleFlight<Long, String> flight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // When
+        try {
+            Future<String> first = executor.submit(caller(flight, () -> {
+                release.await();
+                throw new IllegalStateException("supplier service down");
+            }));
+            awaitExecuted(flight);
+            Future<String> second = executor.submit(caller(flight, () -> "unused"));
+            awaitCoalesced(flight, 1);
+            release.countDown();
+
+            // Then
+            for (Future<String> result : List.of(first, second)) {
+                Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalStateException.class, e.getCause());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals("Supplier A", flight.execute(1L, () -> "Supplier A"));
+        assertEquals(2, flight.executedCount());
+    }
+
+    @Test
+    void shouldNotCoalesceDifferentKeysOrSequentialCalls() throws Throwable {
+        // Given
+        SingleFlight<Long, String> flight = new SingleFlight<>();
+
+        // When
+        flight.execute(1L, () -> "Supplier A");
+        flight.execute(1L, () -> "Supplier A");
+        flight.execute(2L, () -> "Supplier B");
+
+        // Then
+        assertEquals(3, flight.executedCount());
+        assertEquals(0, flight.coalescedCount());
+    }
+
+    private static Callable<String> caller(SingleFlight<Long, String> flight, SingleFlight.Call<String> call) {
+        return () -> {
+            try {
+                return flight.execute(1L, call);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        };
+    }
+
+    private static void awaitExecuted(SingleFlight<?, ?> flight) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flight.executedCount() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void awaitCoalesced(SingleFlight<?, ?> flight, int callers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flight.coalescedCount() < callers && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+}
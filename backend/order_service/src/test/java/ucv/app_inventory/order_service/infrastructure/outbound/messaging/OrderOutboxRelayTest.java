@@ -0,0 +1,150 @@
+package ucv.app_inventory.order_service.infrastructure.outbound.messaging;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import ucv.app_inventory.order_service.application.OrderOutbox;
+import ucv.app_inventory.order_service.config.OrderOutboxProperties;
+import ucv.app_inventory.order_service.domain.model.Order;
+import ucv.app_inventory.order_service.domain.model.OrderOutboxEvent;
+import ucv.app_inventory.order_service.domain.model.OrderState;
+import ucv.app_inventory.order_service.infrastructure.outbound.database.OrderOutboxMySqlRepository;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = {
+        // The Feign clients declared on the application class need resolvable URLs even in a JPA slice.
+        "supplier.service.url=http://localhost",
+        "product.service.url=http://localhost",
+        "user.service.url=http://localhost",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@EmbeddedKafka(partitions = 3, topics = OrderOutboxRelayTest.TOPIC)
+@ActiveProfiles("test")
+public class OrderOutboxRelayTest {
+
+    static final String TOPIC = "order-events-test";
+
+    @Autowired
+    private OrderOutboxMySqlRepository orderOutboxMySqlRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    private OrderOutbox orderOutbox;
+    private OrderOutboxProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        orderOutbox = new OrderOutbox(orderOutboxMySqlRepository, new ObjectMapper());
+        properties = new OrderOutboxProperties();
+        properties.setTopic(TOPIC);
+        properties.setBatchSize(2);
+    }
+
+    @Test
+    void shouldPublishEveryEventInOrderPerOrderAndEmptyTheOutbox() {
+        // Given
+        Order first = order(1L, OrderState.PENDING);
+        Order second = order(2L, OrderState.PENDING);
+        orderOutbox.orderCreated(first);
+        orderOutbox.orderCreated(second);
+        orderOutbox.orderStatusChanged(first, OrderState.PENDING, OrderState.PROCESSED);
+        first.setStatus(OrderState.PROCESSED);
+        orderOutbox.orderDeleted(first);
+        KafkaTemplate<String, String> kafkaTemplate = new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+                KafkaTestUtils.producerProps(embeddedKafka), new StringSerializer(), new StringSerializer()));
+        OrderOutboxRelay relay = new OrderOutboxRelay(orderOutboxMySqlRepository, kafkaTemplate, properties, transactionManager);
+
+        // When
+        relay.relay();
+
+        // Then
+        assertEquals(0, orderOutboxMySqlRepository.count());
+        Map<String, List<String>> typesByOrder = new HashMap<>();
+        try (Consumer<String, String> consumer = consumer()) {
+            embeddedKafka.consumeFromAnEmbeddedTopic(consumer, TOPIC);
+            for (ConsumerRecord<String, String> record : KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(10), 4)) {
+                typesByOrder.computeIfAbsent(record.key(), key -> new ArrayList<>()).add(new String(
+                        record.headers().lastHeader(OrderOutboxRelay.EVENT_TYPE_HEADER).value(), StandardCharsets.UTF_8));
+            }
+        }
+        assertEquals(List.of("OrderCreated", "OrderStatusChanged", "OrderDeleted"), typesByOrder.get("1"));
+        assertEquals(List.of("OrderCreated"), typesByOrder.get("2"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldKeepTheLaterEventsOfAnOrderWhoseEventFailed() {
+        // Given
+        Order first = order(1L, OrderState.PENDING);
+        Order second = order(2L, OrderState.PENDING);
+        orderOutbox.orderCreated(first);
+        orderOutbox.orderCreated(second);
+        orderOutbox.orderStatusChanged(first, OrderState.PENDING, OrderState.CANCELED);
+        properties.setBatchSize(10);
+        KafkaTemplate<String, String> kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Broker unavailable")))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        OrderOutboxRelay relay = new OrderOutboxRelay(orderOutboxMySqlRepository, kafkaTemplate, properties, transactionManager);
+
+        // When
+        int published = relay.publishBatch();
+
+        // Then
+        // The event of the second order is done; both events of the first one are sent again next time
+        assertEquals(1, published);
+        List<OrderOutboxEvent> remaining = orderOutboxMySqlRepository.findAll();
+        assertEquals(2, remaining.size());
+        assertTrue(remaining.stream().allMatch(event -> event.getOrderId().equals(1L)));
+    }
+
+    private Consumer<String, String> consumer() {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("order-events-test", "false", embeddedKafka);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new StringDeserializer()).createConsumer();
+    }
+
+    private static Order order(Long id, OrderState status) {
+        Order order = new Order();
+        order.setId(id);
+        order.setSupplierId(10L);
+        order.setStatus(status);
+        order.setOrderDate(LocalDate.of(2030, 1, 1));
+        order.setTotal(new BigDecimal("25.00"));
+        return order;
+    }
+}
@@ -6,12 +6,14 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import ucv.app_inventory.adapters.config.JwtConfig;
 
 @SpringBootApplication(scanBasePackages = "ucv.app_inventory")
 @EnableFeignClients
 @EnableCaching
 @EnableDiscoveryClient
+@EnableScheduling
 @EnableConfigurationProperties(JwtConfig.class)
 public class ProductApplication {
 
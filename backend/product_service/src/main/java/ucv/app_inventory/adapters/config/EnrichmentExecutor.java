@@ -0,0 +1,122 @@
+package ucv.app_inventory.adapters.config;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import ucv.app_inventory.exception.EnrichmentTimeoutException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Ejecuta en paralelo, en hilos virtuales, las consultas remotas con las que se completa una
+ * lista, de modo que la lista tarda lo que la consulta más lenta y no la suma de todas.
+ * <ul>
+ *     <li>Cada servicio remoto tiene un límite de consultas simultáneas compartido por todas las
+ *     solicitudes, para no saturarlo cuando llegan muchas listas a la vez.</li>
+ *     <li>Todas las consultas de una lista deben terminar antes del plazo configurado; si no, o si
+ *     alguna falla, se cancelan las pendientes (se interrumpe su hilo, lo que cierra la conexión).</li>
+ *     <li>Cada consulta se ejecuta con el contexto de seguridad de quien la lanzó, para que
+ *     FeignInterceptor reenvíe su token. No se pasa la solicitud HTTP: un hilo cancelado puede
+ *     seguir vivo después de que la solicitud termine y se recicle.</li>
+ * </ul>
+ */
+@Component
+public class EnrichmentExecutor {
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("enrichment-", 0).factory());
+    private final Map<String, Semaphore> limits = new ConcurrentHashMap<>();
+    private final EnrichmentProperties properties;
+
+    public EnrichmentExecutor(EnrichmentProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Aplica una consulta remota a cada elemento, en paralelo.
+     *
+     * @param downstream nombre del servicio consultado, al que se aplica su límite.
+     * @param items      elementos a completar.
+     * @param lookup     consulta de un elemento.
+     * @return los resultados, en el orden de los elementos.
+     * @throws EnrichmentTimeoutException si no terminan todas dentro del plazo.
+     */
+    public <I, O> List<O> mapAll(String downstream, List<I> items, Function<I, O> lookup) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        long deadline = System.nanoTime() + properties.getDeadline().toNanos();
+        Semaphore limit = limits.computeIfAbsent(downstream, name -> new Semaphore(properties.maxConcurrentCallsFor(name)));
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        // Se marca antes de cancelar, para que una consulta que obtiene turno después ya no empiece
+        AtomicBoolean abandoned = new AtomicBoolean();
+
+        List<Future<O>> futures = new ArrayList<>(items.size());
+        for (I item : items) {
+            futures.add(executor.submit(() -> {
+                if (!limit.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    throw new TimeoutException("Sin turno para " + downstream + " antes del plazo");
+                }
+                try {
+                    if (abandoned.get()) {
+                        throw new CancellationException("Lista abandonada");
+                    }
+                    SecurityContextHolder.setContext(securityContext);
+                    return lookup.apply(item);
+                } finally {
+                    SecurityContextHolder.clearContext();
+                    limit.release();
+                }
+            }));
+        }
+
+        List<O> results = new ArrayList<>(items.size());
+        try {
+            for (Future<O> future : futures) {
+                results.add(future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+            }
+        } catch (TimeoutException e) {
+            abandon(abandoned, futures);
+            throw new EnrichmentTimeoutException("Las consultas a " + downstream + " no terminaron en "
+                    + properties.getDeadline().toMillis() + " ms");
+        } catch (ExecutionException e) {
+            abandon(abandoned, futures);
+            if (e.getCause() instanceof TimeoutException) {
+                throw new EnrichmentTimeoutException(e.getCause().getMessage());
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            abandon(abandoned, futures);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Consulta a " + downstream + " interrumpida", e);
+        }
+        return results;
+    }
+
+    private static void abandon(AtomicBoolean abandoned, List<? extends Future<?>> futures) {
+        abandoned.set(true);
+        futures.forEach(future -> future.cancel(true));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
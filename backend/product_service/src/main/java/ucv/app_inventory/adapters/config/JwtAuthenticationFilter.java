@@ -50,8 +50,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 logger.debug("Parsed Username from JWT: " + username);
 
                 if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                    // El token queda como credenciales, para que FeignInterceptor lo reenvíe
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            username, null, null);
+                            username, token, null);
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
@@ -0,0 +1,21 @@
+package ucv.app_inventory.adapters.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "stock.reservation")
+public class ReservationProperties {
+    // Vigencia de una reserva cuando la solicitud no indica otra
+    private Duration ttl = Duration.ofMinutes(15);
+    // Vigencia máxima que puede pedir una solicitud
+    private Duration maxTtl = Duration.ofHours(24);
+    // Cada cuánto avanza la rueda de vencimientos
+    private Duration tick = Duration.ofSeconds(1);
+    // Ranuras de la rueda; una vuelta completa dura tick * wheelSlots
+    private int wheelSlots = 512;
+}
@@ -2,17 +2,25 @@ package ucv.app_inventory.adapters.repositories;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ucv.app_inventory.domain.entities.Product;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long>{
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
     Page<Product> findByNameContainingIgnoreCase(String name, Pageable pageable);
     Page<Product> findByStatus(Product.Status status, Pageable pageable);
     @Query("SELECT p FROM Product p JOIN Category c ON p.categoryId = c.id WHERE LOWER(c.name) LIKE LOWER(CONCAT('%', :name, '%'))")
@@ -22,4 +30,43 @@ public interface ProductRepository extends JpaRepository<Product, Long>{
     String findLastProductCode();
 
     Optional<Product> findProductByNameEquals(String name);
+
+    // Buscar varios productos por nombre exacto (sin distinguir mayúsculas); los nombres deben venir en minúsculas
+    @Query("SELECT p FROM Product p WHERE LOWER(p.name) IN :names ORDER BY p.id")
+    List<Product> findByLowerNameIn(@Param("names") Collection<String> names);
+
+    // Buscar en una consulta los productos cuyo nombre contiene alguno de los dados, como
+    // findByNameContainingIgnoreCase para cada uno; los nombres deben venir en minúsculas
+    default List<Product> findByLowerNameContainingAny(Collection<String> names) {
+        if (names.isEmpty()) {
+            return List.of();
+        }
+        Specification<Product> containsAny = (root, query, builder) -> builder.or(names.stream()
+                .map(name -> builder.like(builder.lower(root.get("name")), "%" + escapeLike(name) + "%", '\\'))
+                .toArray(Predicate[]::new));
+        return findAll(containsAny, Sort.by("id"));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // Bloquea los productos en orden de ID, para que dos transacciones que bloquean los mismos productos no se crucen
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllForUpdateByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Suma delta al stock en una sola sentencia, solo si el resultado no queda negativo, y
+    // actualiza el estado en la misma sentencia: OUT_OF_STOCK al llegar a cero y ACTIVE al
+    // reponer un producto agotado. Devuelve 0 si el producto no existe o no alcanza el stock.
+    // El estado se asigna antes que el stock: MySQL aplica las asignaciones de izquierda a
+    // derecha y el CASE vería el stock ya actualizado.
+    @Modifying
+    @Query("UPDATE Product p SET "
+            + "p.status = CASE WHEN COALESCE(p.stock, 0) + :delta = 0 THEN :outOfStock "
+            + "WHEN p.status = :outOfStock THEN :active ELSE p.status END, "
+            + "p.stock = COALESCE(p.stock, 0) + :delta "
+            + "WHERE p.id = :id AND COALESCE(p.stock, 0) + :delta >= 0")
+    int adjustStock(@Param("id") Long id, @Param("delta") int delta,
+                    @Param("outOfStock") Product.Status outOfStock, @Param("active") Product.Status active);
 }
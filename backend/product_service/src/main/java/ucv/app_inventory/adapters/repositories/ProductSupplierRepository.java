@@ -6,6 +6,7 @@ import ucv.app_inventory.application.DTO.ProductSupplierDTO;
 import ucv.app_inventory.domain.entities.ProductSupplier;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -22,6 +23,9 @@ public interface ProductSupplierRepository extends JpaRepository<ProductSupplier
     // Buscar una relación por ID del producto y proveedor
     ProductSupplier findByProductIdAndSupplierId(Long productId, Long supplierId);
 
+    // Buscar en una sola consulta las relaciones entre varios productos y proveedores
+    List<ProductSupplier> findByProductIdInAndSupplierIdIn(Collection<Long> productIds, Collection<Long> supplierIds);
+
 
 
 
@@ -0,0 +1,18 @@
+package ucv.app_inventory.adapters.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ucv.app_inventory.domain.entities.StockAdjustment;
+
+@Repository
+public interface StockAdjustmentRepository extends JpaRepository<StockAdjustment, Long> {
+    boolean existsByReference(String reference);
+
+    // Bloquea la fila borrada, así dos peticiones que deshacen el mismo lote no lo deshacen dos veces
+    @Modifying
+    @Query("DELETE FROM StockAdjustment a WHERE a.reference = :reference")
+    int deleteByReference(@Param("reference") String reference);
+}
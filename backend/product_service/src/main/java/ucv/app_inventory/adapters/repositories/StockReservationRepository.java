@@ -0,0 +1,41 @@
+package ucv.app_inventory.adapters.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ucv.app_inventory.domain.entities.StockReservation;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    // Cantidad reservada y vigente de cada producto: filas [productId, suma]
+    @Query("SELECT r.productId, SUM(r.quantity) FROM StockReservation r "
+            + "WHERE r.productId IN :productIds AND r.expiresAt > :now GROUP BY r.productId")
+    List<Object[]> sumActiveByProductIdIn(@Param("productIds") Collection<Long> productIds, @Param("now") LocalDateTime now);
+
+    // Reservas vigentes, para cargarlas en la rueda de vencimientos al arrancar: filas [id, expiresAt]
+    @Query("SELECT r.id, r.expiresAt FROM StockReservation r WHERE r.expiresAt > :now")
+    List<Object[]> findActiveExpirations(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.reference IN :references")
+    int deleteByReferenceIn(@Param("references") Collection<String> references);
+
+    // Borra las reservas indicadas que ya vencieron; las renovadas o liberadas se ignoran
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.id IN :ids AND r.expiresAt <= :now")
+    int deleteExpiredByIdIn(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
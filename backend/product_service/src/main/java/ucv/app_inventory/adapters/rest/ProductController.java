@@ -7,8 +7,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ucv.app_inventory.application.DTO.ProductDTO;
+import ucv.app_inventory.application.DTO.StockAdjustmentRequestDTO;
+import ucv.app_inventory.application.DTO.StockAdjustmentResultDTO;
 import ucv.app_inventory.application.services.ProductApplicationService;
 import ucv.app_inventory.domain.entities.Product;
+import ucv.app_inventory.exception.InsufficientStockException;
 import ucv.app_inventory.exception.ProductNotFoundException;
 
 import java.util.List;
@@ -70,6 +73,32 @@ public class ProductController {
         }
     }
 
+    @PostMapping("/findByIds")
+    public ResponseEntity<List<ProductDTO>> findByIds(@RequestBody List<Long> ids) {
+        logger.info("Buscando {} productos por id", ids.size());
+        return ResponseEntity.ok(productApplicationService.findProductsByIds(ids));
+    }
+
+    // Aplica un lote de ajustes de stock (todos o ninguno); 409 con los productos rechazados si alguno no alcanza
+    @PostMapping("/adjustStock")
+    public ResponseEntity<StockAdjustmentResultDTO> adjustStock(@RequestBody StockAdjustmentRequestDTO request) {
+        try {
+            return ResponseEntity.ok(productApplicationService.adjustStock(request));
+        } catch (InsufficientStockException e) {
+            logger.warn("Ajuste de stock {} rechazado: {}", request.getReference(), e.getMessage());
+            StockAdjustmentResultDTO result = new StockAdjustmentResultDTO();
+            result.setReference(request.getReference());
+            result.setRejectedProductIds(e.getProductIds());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(result);
+        }
+    }
+
+    // Aplica varios lotes de ajustes en una llamada, cada uno todo o nada; los rechazados vuelven con applied en false
+    @PostMapping("/adjustStock/batches")
+    public ResponseEntity<List<StockAdjustmentResultDTO>> adjustStocks(@RequestBody List<StockAdjustmentRequestDTO> requests) {
+        return ResponseEntity.ok(productApplicationService.adjustStocks(requests));
+    }
+
     @GetMapping("/findByName")
     public ResponseEntity<List<ProductDTO>> findByName(
             @RequestParam String name,
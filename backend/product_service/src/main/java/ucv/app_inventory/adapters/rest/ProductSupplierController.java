@@ -3,6 +3,7 @@ package ucv.app_inventory.adapters.rest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ucv.app_inventory.application.DTO.ProductLineDTO;
 import ucv.app_inventory.application.DTO.ProductSupplierDTO;
 import ucv.app_inventory.application.DTO.SupplierDTO;
 import ucv.app_inventory.application.services.ProductSupplierService;
@@ -77,4 +78,17 @@ public class ProductSupplierController {
         return productSupplier == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(productSupplier);
     }
 
+    // Obtener varias relaciones por ID en una sola consulta
+    @PostMapping("/findByIds")
+    public ResponseEntity<List<ProductSupplier>> getByIds(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(productSupplierService.getByIds(ids));
+    }
+
+    // Resolver en una sola llamada el producto, la relación y el precio de varias líneas de pedido.
+    // La respuesta mantiene el orden de la petición; los campos no encontrados quedan en null
+    @PostMapping("/resolveLines")
+    public ResponseEntity<List<ProductLineDTO>> resolveLines(@RequestBody List<ProductLineDTO> lines) {
+        return ResponseEntity.ok(productSupplierService.resolveLines(lines));
+    }
+
 }
\ No newline at end of file
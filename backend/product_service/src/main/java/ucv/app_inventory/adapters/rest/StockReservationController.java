@@ -0,0 +1,51 @@
+package ucv.app_inventory.adapters.rest;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ucv.app_inventory.application.DTO.StockAvailabilityDTO;
+import ucv.app_inventory.application.DTO.StockReservationRequestDTO;
+import ucv.app_inventory.application.DTO.StockReservationResultDTO;
+import ucv.app_inventory.application.services.StockReservationApplicationService;
+import ucv.app_inventory.exception.InsufficientStockException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/product")
+@RequiredArgsConstructor
+public class StockReservationController {
+
+    private final StockReservationApplicationService stockReservationApplicationService;
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationController.class);
+
+    // Reserva varios productos para una referencia (todos o ninguno); 409 con los productos rechazados si alguno no alcanza
+    @PostMapping("/reservations")
+    public ResponseEntity<StockReservationResultDTO> reserve(@RequestBody StockReservationRequestDTO request) {
+        try {
+            return ResponseEntity.ok(stockReservationApplicationService.reserve(request));
+        } catch (InsufficientStockException e) {
+            logger.warn("Reserva {} rechazada: {}", request.getReference(), e.getMessage());
+            StockReservationResultDTO result = new StockReservationResultDTO();
+            result.setReference(request.getReference());
+            result.setRejectedProductIds(e.getProductIds());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(result);
+        }
+    }
+
+    // Libera las reservas de varias referencias; devuelve cuántas reservas se liberaron
+    @PostMapping("/reservations/release")
+    public ResponseEntity<Integer> release(@RequestBody List<String> references) {
+        return ResponseEntity.ok(stockReservationApplicationService.release(references));
+    }
+
+    // Stock, reservado y disponible de varios productos en una sola llamada
+    @PostMapping("/availability")
+    public ResponseEntity<List<StockAvailabilityDTO>> findAvailability(@RequestBody List<Long> productIds) {
+        logger.info("Consultando disponibilidad de {} productos", productIds.size());
+        return ResponseEntity.ok(stockReservationApplicationService.findAvailability(productIds));
+    }
+}
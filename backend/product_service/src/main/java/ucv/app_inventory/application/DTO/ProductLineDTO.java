@@ -0,0 +1,18 @@
+package ucv.app_inventory.application.DTO;
+
+import lombok.Data;
+
+/**
+ * Una línea de pedido a resolver: el cliente envía productName y supplierId,
+ * y el servicio completa productId, productSupplierId y price cuando los encuentra.
+ * catalogName es el nombre del producto tal como está registrado.
+ */
+@Data
+public class ProductLineDTO {
+    private String productName;
+    private Long supplierId;
+    private Long productId;
+    private Long productSupplierId;
+    private Double price;
+    private String catalogName;
+}
@@ -0,0 +1,12 @@
+package ucv.app_inventory.application.DTO;
+
+import lombok.Data;
+
+/**
+ * Cambio de stock de un producto: delta negativo para descontar, positivo para reponer.
+ */
+@Data
+public class StockAdjustmentDTO {
+    private Long productId;
+    private Integer delta;
+}
@@ -0,0 +1,23 @@
+package ucv.app_inventory.application.DTO;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Lote de ajustes de stock que se aplican todos o ninguno. La referencia identifica el lote
+ * (por ejemplo, el pedido que lo origina): un lote con una referencia ya aplicada no se vuelve
+ * a aplicar, así el cliente puede reintentar sin descontar dos veces. Si el lote consume una
+ * reserva, se indica su referencia para liberarla en la misma transacción.
+ * <p>
+ * Un lote con {@code reverts} deshace el lote aplicado con esa referencia, con los ajustes
+ * inversos que envía el cliente: solo se aplica si ese lote sigue aplicado, y lo borra, así que
+ * un lote que nunca llegó a aplicarse no se deshace y su referencia se puede volver a usar.
+ */
+@Data
+public class StockAdjustmentRequestDTO {
+    private String reference;
+    private String reservation;
+    private String reverts;
+    private List<StockAdjustmentDTO> adjustments;
+}
@@ -0,0 +1,17 @@
+package ucv.app_inventory.application.DTO;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class StockAdjustmentResultDTO {
+    private String reference;
+    // true si el lote quedó aplicado, ahora o en una petición anterior con la misma referencia
+    private boolean applied;
+    // true si la referencia ya estaba aplicada, o el lote a deshacer no lo estaba, y no se cambió nada
+    private boolean replayed;
+    // Productos inexistentes o sin stock suficiente; si hay alguno, no se aplicó ningún ajuste
+    private List<Long> rejectedProductIds = new ArrayList<>();
+}
@@ -0,0 +1,18 @@
+package ucv.app_inventory.application.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stock de un producto, lo reservado y vigente, y lo disponible (stock - reservado, nunca negativo).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAvailabilityDTO {
+    private Long productId;
+    private Integer stock;
+    private Integer reserved;
+    private Integer available;
+}
@@ -0,0 +1,12 @@
+package ucv.app_inventory.application.DTO;
+
+import lombok.Data;
+
+/**
+ * Cantidad de un producto que se quiere reservar.
+ */
+@Data
+public class StockReservationItemDTO {
+    private Long productId;
+    private Integer quantity;
+}
@@ -0,0 +1,17 @@
+package ucv.app_inventory.application.DTO;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Reserva de varios productos para una referencia (por ejemplo, un pedido pendiente). Reservar de
+ * nuevo la misma referencia reemplaza su reserva anterior. Sin ttlSeconds se usa la vigencia por
+ * defecto.
+ */
+@Data
+public class StockReservationRequestDTO {
+    private String reference;
+    private Long ttlSeconds;
+    private List<StockReservationItemDTO> items;
+}
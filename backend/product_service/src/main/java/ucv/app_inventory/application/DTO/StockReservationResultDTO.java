@@ -0,0 +1,15 @@
+package ucv.app_inventory.application.DTO;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class StockReservationResultDTO {
+    private String reference;
+    // Vencimiento de la reserva; null si no se reservó
+    private LocalDateTime expiresAt;
+    private List<Long> rejectedProductIds = new ArrayList<>();
+}
@@ -6,11 +6,20 @@ import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Service;
 import ucv.app_inventory.application.DTO.ProductDTO;
+import ucv.app_inventory.application.DTO.StockAdjustmentDTO;
+import ucv.app_inventory.application.DTO.StockAdjustmentRequestDTO;
+import ucv.app_inventory.application.DTO.StockAdjustmentResultDTO;
 import ucv.app_inventory.domain.entities.Product;
 import ucv.app_inventory.exception.CategoryNotFoundException;
+import ucv.app_inventory.exception.InsufficientStockException;
+import ucv.app_inventory.exception.InvalidFieldException;
 import ucv.app_inventory.exception.ProductNotFoundException;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,6 +29,10 @@ public class ProductApplicationService {
     private final ProductService productService;
     private final CategoryService categoryService;
     private static final Logger logger = LoggerFactory.getLogger(ProductApplicationService.class);
+    // Máximo de ajustes aceptados en un lote
+    private static final int MAX_STOCK_ADJUSTMENTS = 1000;
+    // Máximo de lotes aceptados en una llamada
+    public static final int MAX_STOCK_ADJUSTMENT_BATCHES = 500;
 
     public ProductApplicationService(ProductService productService, CategoryService categoryService) {
         this.productService = productService;
@@ -70,8 +83,24 @@ public class ProductApplicationService {
         return convertToDto(product);
     }
 
+    /**
+     * Finds every product whose ID is in the given collection in a single query.
+     * IDs that do not exist are simply absent from the result; each category is looked up once.
+     */
+    public List<ProductDTO> findProductsByIds(Collection<Long> ids) {
+        Map<Long, String> categoryNames = new HashMap<>();
+        return productService.findProductsByIds(ids).stream()
+                .map(product -> convertToDto(product, categoryNames.computeIfAbsent(product.getCategoryId(),
+                        categoryId -> categoryService.findCategoryById(categoryId).getName())))
+                .collect(Collectors.toList());
+    }
+
     private ProductDTO convertToDto(Product product) {
         String categoryName = categoryService.findCategoryById(product.getCategoryId()).getName();
+        return convertToDto(product, categoryName);
+    }
+
+    private ProductDTO convertToDto(Product product, String categoryName) {
         return new ProductDTO(
                 product.getId(), product.getName(), product.getCode(), product.getDescription(),
                 product.getUnitMeasurement(), product.getStock(), product.getSalePrice(),
@@ -155,4 +184,81 @@ public class ProductApplicationService {
         Page<Product> productPage = productService.findProductsByCategoryName(categoryName, page, size);
         return productPage.stream().map(this::convertToDto).collect(Collectors.toList());
     }
+
+    /**
+     * Valida y aplica un lote de ajustes de stock, o deshace el lote indicado en reverts. Los
+     * ajustes del mismo producto se suman en uno.
+     *
+     * @param request referencia del lote y ajustes.
+     * @return el resultado del lote.
+     * @throws InvalidFieldException      si el lote está vacío, es demasiado grande o tiene ajustes incompletos.
+     * @throws InsufficientStockException si algún producto no existe o no alcanza; no se aplica nada.
+     */
+    public StockAdjustmentResultDTO adjustStock(StockAdjustmentRequestDTO request) {
+        if (request == null || request.getAdjustments() == null || request.getAdjustments().isEmpty()) {
+            throw new InvalidFieldException("Se requiere al menos un ajuste de stock");
+        }
+        if (request.getAdjustments().size() > MAX_STOCK_ADJUSTMENTS) {
+            throw new InvalidFieldException("Se permiten como máximo " + MAX_STOCK_ADJUSTMENTS + " ajustes por lote");
+        }
+        if (request.getReference() != null && (request.getReference().isBlank() || request.getReference().length() > 255)) {
+            throw new InvalidFieldException("La referencia debe tener entre 1 y 255 caracteres");
+        }
+        if (request.getReverts() != null && (request.getReference() != null || request.getReservation() != null)) {
+            throw new InvalidFieldException("Un lote que deshace otro no lleva referencia ni reserva propias");
+        }
+        Map<Long, Integer> deltas = new HashMap<>();
+        for (StockAdjustmentDTO adjustment : request.getAdjustments()) {
+            if (adjustment == null || adjustment.getProductId() == null || adjustment.getDelta() == null) {
+                throw new InvalidFieldException("Cada ajuste requiere productId y delta");
+            }
+            deltas.merge(adjustment.getProductId(), adjustment.getDelta(), Math::addExact);
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+
+        logger.info("Adjusting stock of {} products", deltas.size());
+        boolean appliedNow = request.getReverts() != null
+                ? productService.revertStockAdjustment(request.getReverts(), deltas)
+                : productService.adjustStock(request.getReference(), request.getReservation(), deltas);
+        StockAdjustmentResultDTO result = new StockAdjustmentResultDTO();
+        result.setReference(request.getReverts() != null ? request.getReverts() : request.getReference());
+        result.setApplied(true);
+        result.setReplayed(!appliedNow);
+        return result;
+    }
+
+    /**
+     * Aplica varios lotes de ajustes de stock en una sola llamada, cada uno en su propia
+     * transacción y con las mismas reglas que {@link #adjustStock}. Un lote sin stock suficiente
+     * no impide aplicar los demás: su resultado lleva applied en false y los productos rechazados.
+     *
+     * @param requests los lotes.
+     * @return el resultado de cada lote, en el orden de la petición.
+     * @throws InvalidFieldException si no hay lotes, hay demasiados o alguno no es válido; no se aplica ninguno.
+     */
+    public List<StockAdjustmentResultDTO> adjustStocks(List<StockAdjustmentRequestDTO> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new InvalidFieldException("Se requiere al menos un lote de ajustes");
+        }
+        if (requests.size() > MAX_STOCK_ADJUSTMENT_BATCHES) {
+            throw new InvalidFieldException("Se permiten como máximo " + MAX_STOCK_ADJUSTMENT_BATCHES + " lotes por llamada");
+        }
+        if (requests.stream().anyMatch(request -> request == null || request.getAdjustments() == null
+                || request.getAdjustments().isEmpty() || request.getAdjustments().size() > MAX_STOCK_ADJUSTMENTS)) {
+            throw new InvalidFieldException("Cada lote requiere entre 1 y " + MAX_STOCK_ADJUSTMENTS + " ajustes");
+        }
+        List<StockAdjustmentResultDTO> results = new ArrayList<>(requests.size());
+        for (StockAdjustmentRequestDTO request : requests) {
+            try {
+                results.add(adjustStock(request));
+            } catch (InsufficientStockException e) {
+                logger.warn("Ajuste de stock {} rechazado: {}", request.getReference(), e.getMessage());
+                StockAdjustmentResultDTO result = new StockAdjustmentResultDTO();
+                result.setReference(request.getReverts() != null ? request.getReverts() : request.getReference());
+                result.setRejectedProductIds(e.getProductIds());
+                results.add(result);
+            }
+        }
+        return results;
+    }
 }
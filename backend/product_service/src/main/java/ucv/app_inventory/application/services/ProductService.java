@@ -4,7 +4,9 @@ import org.springframework.data.domain.Page;
 import ucv.app_inventory.application.DTO.SupplierDTO;
 import ucv.app_inventory.domain.entities.Product;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface ProductService {
 
@@ -18,6 +20,8 @@ public interface ProductService {
 
     Product findProductById(final Long id);
 
+    List<Product> findProductsByIds(Collection<Long> ids);
+
     Page<Product> findProductsByName(String name, int page, int size);
 
     Page<Product> findProductsByStatus(Product.Status status, int page, int size);
@@ -28,5 +32,9 @@ public interface ProductService {
 
     List<SupplierDTO> getSuppliersForProduct(Long productId);
 
+    boolean adjustStock(String reference, String reservation, Map<Long, Integer> deltas);
+
+    boolean revertStockAdjustment(String reference, Map<Long, Integer> deltas);
+
 
 }
@@ -6,30 +6,52 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ucv.app_inventory.adapters.config.EnrichmentExecutor;
 import ucv.app_inventory.adapters.outbounds.SupplierClient;
 import ucv.app_inventory.adapters.repositories.ProductRepository;
 import ucv.app_inventory.adapters.repositories.ProductSupplierRepository;
+import ucv.app_inventory.adapters.repositories.StockAdjustmentRepository;
+import ucv.app_inventory.adapters.repositories.StockReservationRepository;
 import ucv.app_inventory.application.DTO.SupplierDTO;
 import ucv.app_inventory.domain.entities.Product;
 import ucv.app_inventory.domain.entities.ProductSupplier;
+import ucv.app_inventory.domain.entities.StockAdjustment;
+import ucv.app_inventory.exception.InsufficientStockException;
 import ucv.app_inventory.exception.InvalidFieldException;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.TreeMap;
 
 @Service
 public class ProductServiceImpl implements ProductService{
     private final ProductRepository productRepository;
     private final SupplierClient supplierClient;
     private final ProductSupplierRepository productSupplierRepository;
-
+    private final StockAdjustmentRepository stockAdjustmentRepository;
+    private final StockReservationRepository stockReservationRepository;
+    private final StockReservationService stockReservationService;
+    private final EnrichmentExecutor enrichmentExecutor;
 
     @Autowired
-    public ProductServiceImpl(ProductRepository productRepository, SupplierClient supplierClient, ProductSupplierRepository productSupplierRepository) {
+    public ProductServiceImpl(ProductRepository productRepository, SupplierClient supplierClient,
+                              ProductSupplierRepository productSupplierRepository,
+                              StockAdjustmentRepository stockAdjustmentRepository,
+                              StockReservationRepository stockReservationRepository,
+                              StockReservationService stockReservationService,
+                              EnrichmentExecutor enrichmentExecutor) {
         this.productRepository = productRepository;
         this.supplierClient = supplierClient;
         this.productSupplierRepository = productSupplierRepository;
+        this.stockAdjustmentRepository = stockAdjustmentRepository;
+        this.stockReservationRepository = stockReservationRepository;
+        this.stockReservationService = stockReservationService;
+        this.enrichmentExecutor = enrichmentExecutor;
     }
 
 
@@ -75,6 +97,14 @@ public class ProductServiceImpl implements ProductService{
         return productRepository.findById(id).orElse(null);
     }
 
+    @Override
+    public List<Product> findProductsByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return productRepository.findAllById(ids);
+    }
+
 
     @Override
     public Page<Product> findProductsByName(String name, int page, int size) {
@@ -106,13 +136,82 @@ public class ProductServiceImpl implements ProductService{
         if(productSuppliers==null|| productSuppliers.isEmpty()){
             throw new InvalidFieldException("Not found suppliers for product with ID: "+ productId);
         }
-        List<SupplierDTO>supplierDTOList=new ArrayList<>();
-        productSuppliers.forEach(productSupplier -> {
-            Long supplierId = productSupplier.getSupplierId();
-            SupplierDTO supplierDTO = supplierClient.getSupplierById(supplierId);
-            supplierDTOList.add(supplierDTO);
+        // Los proveedores se consultan en paralelo; la lista tarda lo que la consulta más lenta
+        return enrichmentExecutor.mapAll("supplier-service", productSuppliers,
+                productSupplier -> supplierClient.getSupplierById(productSupplier.getSupplierId()));
+    }
+
+    /**
+     * Aplica un lote de ajustes de stock en una transacción: los productos se bloquean en orden
+     * de ID, para que dos lotes concurrentes, o un lote y una reserva, no se crucen, y un ajuste
+     * que descuenta no puede dejar el stock por debajo de lo reservado por otras referencias.
+     * Cada producto se actualiza con una sentencia condicional que no deja el stock negativo.
+     * Si algún producto no existe o no alcanza, se deshace todo el lote.
+     *
+     * @param reference   identificador del lote; si ya se aplicó, no se hace nada. Puede ser null.
+     * @param reservation reserva que el lote consume y se libera junto con él. Puede ser null.
+     * @param deltas      cambio de stock por ID de producto.
+     * @return true si se aplicó ahora, false si la referencia ya estaba aplicada.
+     * @throws InsufficientStockException con los productos rechazados.
+     */
+    @Override
+    @Transactional
+    public boolean adjustStock(String reference, String reservation, Map<Long, Integer> deltas) {
+        if (reservation != null) {
+            stockReservationRepository.deleteByReferenceIn(List.of(reservation));
+        }
+        if (reference != null && stockAdjustmentRepository.existsByReference(reference)) {
+            return false;
+        }
+        Map<Long, Integer> stocks = new HashMap<>();
+        for (Product product : productRepository.findAllForUpdateByIdIn(deltas.keySet())) {
+            stocks.put(product.getId(), product.getStock() == null ? 0 : product.getStock());
+        }
+        // La reserva que consume el lote ya se borró, así que solo cuentan las de otras referencias
+        Map<Long, Integer> reserved = stockReservationService.findReservedQuantities(deltas.keySet());
+        List<Long> rejected = new ArrayList<>();
+        new TreeMap<>(deltas).forEach((productId, delta) -> {
+            Integer stock = stocks.get(productId);
+            if (stock == null || (delta < 0 && stock + delta < reserved.getOrDefault(productId, 0))
+                    || productRepository.adjustStock(productId, delta, Product.Status.OUT_OF_STOCK, Product.Status.ACTIVE) == 0) {
+                rejected.add(productId);
+            }
         });
-        return supplierDTOList;
+        if (!rejected.isEmpty()) {
+            throw new InsufficientStockException("Productos inexistentes o sin stock disponible: " + rejected, rejected);
+        }
+        if (reference != null) {
+            stockAdjustmentRepository.save(new StockAdjustment(reference));
+        }
+        return true;
+    }
+
+    /**
+     * Deshace un lote aplicado con {@link #adjustStock}, por ejemplo cuando el pedido que lo
+     * originó no llegó a guardarse. El registro del lote se borra en la misma transacción, así
+     * que solo se deshace una vez y su referencia se puede volver a aplicar.
+     *
+     * @param reference referencia del lote a deshacer.
+     * @param deltas    ajustes inversos a los del lote.
+     * @return true si se deshizo ahora, false si el lote no estaba aplicado.
+     * @throws InsufficientStockException si algún producto ya no existe o no alcanza; no se deshace nada.
+     */
+    @Override
+    @Transactional
+    public boolean revertStockAdjustment(String reference, Map<Long, Integer> deltas) {
+        if (stockAdjustmentRepository.deleteByReference(reference) == 0) {
+            return false;
+        }
+        List<Long> rejected = new ArrayList<>();
+        new TreeMap<>(deltas).forEach((productId, delta) -> {
+            if (productRepository.adjustStock(productId, delta, Product.Status.OUT_OF_STOCK, Product.Status.ACTIVE) == 0) {
+                rejected.add(productId);
+            }
+        });
+        if (!rejected.isEmpty()) {
+            throw new InsufficientStockException("Productos inexistentes o sin stock suficiente: " + rejected, rejected);
+        }
+        return true;
     }
 
     public String getNextProductCode() {
@@ -2,10 +2,12 @@ package ucv.app_inventory.application.services;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import ucv.app_inventory.application.DTO.ProductLineDTO;
 import ucv.app_inventory.application.DTO.ProductSupplierDTO;
 import ucv.app_inventory.application.DTO.SupplierDTO;
 import ucv.app_inventory.domain.entities.ProductSupplier;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductSupplierService {
@@ -26,6 +28,10 @@ public interface ProductSupplierService {
 
     ProductSupplier getById(Long id);
 
+    List<ProductSupplier> getByIds(Collection<Long> ids);
+
+    List<ProductLineDTO> resolveLines(List<ProductLineDTO> lines);
+
     void removeRelationsById(Long id);
 
 }
@@ -8,13 +8,22 @@ import org.springframework.stereotype.Service;
 import ucv.app_inventory.adapters.outbounds.SupplierClient;
 import ucv.app_inventory.adapters.repositories.ProductRepository;
 import ucv.app_inventory.adapters.repositories.ProductSupplierRepository;
+import ucv.app_inventory.application.DTO.ProductLineDTO;
 import ucv.app_inventory.application.DTO.ProductSupplierDTO;
 import ucv.app_inventory.application.DTO.SupplierDTO;
+import ucv.app_inventory.domain.entities.Product;
 import ucv.app_inventory.domain.entities.ProductSupplier;
 import ucv.app_inventory.exception.InvalidFieldException;
 import ucv.app_inventory.exception.ProductNotFoundException;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -112,6 +121,80 @@ public class ProductSupplierServiceImpl implements ProductSupplierService {
         return productSupplierRepository.findById(id).orElse(null);
     }
 
+    @Override
+    public List<ProductSupplier> getByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return productSupplierRepository.findAllById(ids);
+    }
+
+    // Resolver varias líneas (nombre de producto, proveedor) con un número fijo de consultas: una de
+    // productos por nombre exacto, otra por nombre parcial solo para los que falten, con la misma
+    // búsqueda de /findByName (el primer producto por ID cuyo nombre lo contiene), y otra de relaciones
+    @Override
+    public List<ProductLineDTO> resolveLines(List<ProductLineDTO> lines) {
+        if (lines == null || lines.isEmpty()) {
+            return List.of();
+        }
+
+        Set<String> names = new HashSet<>();
+        for (ProductLineDTO line : lines) {
+            if (line.getProductName() != null && !line.getProductName().isBlank()) {
+                names.add(line.getProductName().trim().toLowerCase(Locale.ROOT));
+            }
+        }
+
+        Map<String, Long> productIds = new HashMap<>();
+        Map<Long, String> catalogNames = new HashMap<>();
+        if (!names.isEmpty()) {
+            for (Product product : productRepository.findByLowerNameIn(names)) {
+                productIds.putIfAbsent(product.getName().toLowerCase(Locale.ROOT), product.getId());
+                catalogNames.putIfAbsent(product.getId(), product.getName());
+            }
+        }
+        Set<String> unmatched = new HashSet<>(names);
+        unmatched.removeAll(productIds.keySet());
+        List<Product> partialMatches = productRepository.findByLowerNameContainingAny(unmatched);
+        for (String name : unmatched) {
+            partialMatches.stream()
+                    .filter(product -> product.getName() != null && product.getName().toLowerCase(Locale.ROOT).contains(name))
+                    .findFirst()
+                    .ifPresent(product -> {
+                        productIds.put(name, product.getId());
+                        catalogNames.putIfAbsent(product.getId(), product.getName());
+                    });
+        }
+
+        Set<Long> supplierIds = new HashSet<>();
+        lines.stream().map(ProductLineDTO::getSupplierId).filter(Objects::nonNull).forEach(supplierIds::add);
+        Map<String, ProductSupplier> relations = new HashMap<>();
+        if (!productIds.isEmpty() && !supplierIds.isEmpty()) {
+            for (ProductSupplier relation : productSupplierRepository
+                    .findByProductIdInAndSupplierIdIn(new HashSet<>(productIds.values()), supplierIds)) {
+                relations.put(relation.getProductId() + ":" + relation.getSupplierId(), relation);
+            }
+        }
+
+        return lines.stream().map(line -> {
+            ProductLineDTO resolved = new ProductLineDTO();
+            resolved.setProductName(line.getProductName());
+            resolved.setSupplierId(line.getSupplierId());
+            if (line.getProductName() == null) {
+                return resolved;
+            }
+            Long productId = productIds.get(line.getProductName().trim().toLowerCase(Locale.ROOT));
+            resolved.setProductId(productId);
+            resolved.setCatalogName(productId == null ? null : catalogNames.get(productId));
+            ProductSupplier relation = productId == null ? null : relations.get(productId + ":" + line.getSupplierId());
+            if (relation != null) {
+                resolved.setProductSupplierId(relation.getId());
+                resolved.setPrice(relation.getPrice());
+            }
+            return resolved;
+        }).collect(Collectors.toList());
+    }
+
     @Override
     public void removeRelationsById(Long id){
         productSupplierRepository.findById(id).orElseThrow(() -> new InvalidFieldException("Relation not found"));
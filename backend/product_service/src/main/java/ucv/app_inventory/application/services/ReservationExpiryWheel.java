@@ -0,0 +1,121 @@
+package ucv.app_inventory.application.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ucv.app_inventory.adapters.config.ReservationProperties;
+import ucv.app_inventory.adapters.repositories.StockReservationRepository;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Rueda de vencimientos en memoria para las reservas de stock. Cada reserva se anota en la
+ * ranura de su tick de vencimiento y, al avanzar, la rueda borra de la tabla solo las reservas
+ * de las ranuras recorridas, sin recorrer la tabla. La disponibilidad no depende de la rueda:
+ * las consultas ya ignoran las reservas vencidas, y la rueda solo evita que se acumulen.
+ */
+@Component
+public class ReservationExpiryWheel {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationExpiryWheel.class);
+    // Máximo de IDs por sentencia DELETE
+    private static final int DELETE_BATCH_SIZE = 500;
+
+    private record Entry(Long id, long expiresAt) {
+    }
+
+    private final StockReservationRepository stockReservationRepository;
+    private final Clock clock;
+    private final long tickMillis;
+    private final Queue<Entry>[] slots;
+    // Último tick ya recorrido
+    private volatile long currentTick;
+
+    @Autowired
+    public ReservationExpiryWheel(StockReservationRepository stockReservationRepository, ReservationProperties properties) {
+        this(stockReservationRepository, properties, Clock.systemDefaultZone());
+    }
+
+    @SuppressWarnings("unchecked")
+    ReservationExpiryWheel(StockReservationRepository stockReservationRepository, ReservationProperties properties, Clock clock) {
+        this.stockReservationRepository = stockReservationRepository;
+        this.clock = clock;
+        this.tickMillis = properties.getTick().toMillis();
+        this.slots = new Queue[properties.getWheelSlots()];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.currentTick = clock.millis() / tickMillis;
+    }
+
+    /**
+     * Anota una reserva para borrarla cuando venza.
+     */
+    public void schedule(Long id, LocalDateTime expiresAt) {
+        long expiresAtMillis = expiresAt.atZone(clock.getZone()).toInstant().toEpochMilli();
+        // Una reserva que vence en un tick ya recorrido va al siguiente
+        long tick = Math.max(expiresAtMillis / tickMillis, currentTick + 1);
+        slots[(int) (tick % slots.length)].add(new Entry(id, expiresAtMillis));
+    }
+
+    /**
+     * Recorre las ranuras de los ticks transcurridos y borra las reservas vencidas. Las que
+     * vencen en una vuelta posterior de la rueda se dejan en su ranura.
+     */
+    @Scheduled(fixedDelayString = "#{@reservationProperties.tick.toMillis()}")
+    public void advance() {
+        long now = clock.millis();
+        long nowTick = now / tickMillis;
+        List<Long> expired = new ArrayList<>();
+        // Tras una pausa más larga que una vuelta basta con recorrer cada ranura una vez
+        for (long tick = Math.max(currentTick + 1, nowTick - slots.length + 1); tick <= nowTick; tick++) {
+            Queue<Entry> slot = slots[(int) (tick % slots.length)];
+            for (int pending = slot.size(); pending > 0; pending--) {
+                Entry entry = slot.poll();
+                if (entry == null) {
+                    break;
+                }
+                if (entry.expiresAt() <= now) {
+                    expired.add(entry.id());
+                } else {
+                    slot.add(entry);
+                }
+            }
+        }
+        currentTick = nowTick;
+        if (expired.isEmpty()) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now(clock);
+        int deleted = 0;
+        for (int from = 0; from < expired.size(); from += DELETE_BATCH_SIZE) {
+            deleted += stockReservationRepository.deleteExpiredByIdIn(
+                    expired.subList(from, Math.min(from + DELETE_BATCH_SIZE, expired.size())), cutoff);
+        }
+        logger.info("Reservas de stock vencidas borradas: {}", deleted);
+    }
+
+    /**
+     * Al arrancar borra las reservas que vencieron mientras el servicio estaba detenido y anota
+     * las vigentes en la rueda.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        int deleted = stockReservationRepository.deleteExpired(now);
+        List<Object[]> active = stockReservationRepository.findActiveExpirations(now);
+        for (Object[] row : active) {
+            schedule((Long) row[0], (LocalDateTime) row[1]);
+        }
+        logger.info("Rueda de vencimientos cargada: {} reservas vigentes, {} vencidas borradas", active.size(), deleted);
+    }
+}
@@ -0,0 +1,126 @@
+package ucv.app_inventory.application.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import ucv.app_inventory.adapters.config.ReservationProperties;
+import ucv.app_inventory.application.DTO.StockAvailabilityDTO;
+import ucv.app_inventory.application.DTO.StockReservationItemDTO;
+import ucv.app_inventory.application.DTO.StockReservationRequestDTO;
+import ucv.app_inventory.application.DTO.StockReservationResultDTO;
+import ucv.app_inventory.domain.entities.Product;
+import ucv.app_inventory.exception.InsufficientStockException;
+import ucv.app_inventory.exception.InvalidFieldException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+@Service
+public class StockReservationApplicationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationApplicationService.class);
+    // Máximo de productos o referencias aceptados en una solicitud
+    private static final int MAX_ITEMS = 1000;
+
+    private final StockReservationService stockReservationService;
+    private final ProductService productService;
+    private final ReservationProperties reservationProperties;
+
+    public StockReservationApplicationService(StockReservationService stockReservationService,
+                                              ProductService productService,
+                                              ReservationProperties reservationProperties) {
+        this.stockReservationService = stockReservationService;
+        this.productService = productService;
+        this.reservationProperties = reservationProperties;
+    }
+
+    /**
+     * Valida y registra una reserva. Las cantidades del mismo producto se suman en una.
+     *
+     * @param request referencia, vigencia y cantidades.
+     * @return la referencia y el vencimiento de la reserva.
+     * @throws InvalidFieldException      si la referencia, la vigencia o algún producto no son válidos.
+     * @throws InsufficientStockException si algún producto no existe o no tiene disponibilidad; no se reserva nada.
+     */
+    public StockReservationResultDTO reserve(StockReservationRequestDTO request) {
+        if (request == null || request.getReference() == null || request.getReference().isBlank()
+                || request.getReference().length() > 255) {
+            throw new InvalidFieldException("La referencia debe tener entre 1 y 255 caracteres");
+        }
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new InvalidFieldException("Se requiere al menos un producto a reservar");
+        }
+        if (request.getItems().size() > MAX_ITEMS) {
+            throw new InvalidFieldException("Se permiten como máximo " + MAX_ITEMS + " productos por reserva");
+        }
+        Duration ttl = reservationProperties.getTtl();
+        if (request.getTtlSeconds() != null) {
+            ttl = Duration.ofSeconds(request.getTtlSeconds());
+            if (ttl.isNegative() || ttl.isZero() || ttl.compareTo(reservationProperties.getMaxTtl()) > 0) {
+                throw new InvalidFieldException("La vigencia debe estar entre 1 y "
+                        + reservationProperties.getMaxTtl().toSeconds() + " segundos");
+            }
+        }
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (StockReservationItemDTO item : request.getItems()) {
+            if (item == null || item.getProductId() == null || item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new InvalidFieldException("Cada producto requiere productId y una cantidad mayor que cero");
+            }
+            quantities.merge(item.getProductId(), item.getQuantity(), Math::addExact);
+        }
+
+        logger.info("Reservando {} productos para {}", quantities.size(), request.getReference());
+        LocalDateTime expiresAt = stockReservationService.reserve(request.getReference(), quantities, ttl);
+        StockReservationResultDTO result = new StockReservationResultDTO();
+        result.setReference(request.getReference());
+        result.setExpiresAt(expiresAt);
+        return result;
+    }
+
+    /**
+     * Libera las reservas de las referencias indicadas; las que no existen se ignoran.
+     *
+     * @return el número de reservas liberadas.
+     */
+    public int release(List<String> references) {
+        if (references == null || references.isEmpty()) {
+            return 0;
+        }
+        if (references.size() > MAX_ITEMS) {
+            throw new InvalidFieldException("Se permiten como máximo " + MAX_ITEMS + " referencias por solicitud");
+        }
+        Set<String> distinct = new LinkedHashSet<>(references);
+        distinct.remove(null);
+        return distinct.isEmpty() ? 0 : stockReservationService.release(distinct);
+    }
+
+    /**
+     * Disponibilidad de varios productos con dos consultas. Los IDs desconocidos no aparecen.
+     */
+    public List<StockAvailabilityDTO> findAvailability(List<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return List.of();
+        }
+        if (productIds.size() > MAX_ITEMS) {
+            throw new InvalidFieldException("Se permiten como máximo " + MAX_ITEMS + " productos por consulta");
+        }
+        Set<Long> ids = new LinkedHashSet<>(productIds);
+        ids.remove(null);
+        List<Product> products = productService.findProductsByIds(ids);
+        Map<Long, Integer> reserved = stockReservationService.findReservedQuantities(ids);
+        return products.stream()
+                .map(product -> {
+                    int stock = Objects.requireNonNullElse(product.getStock(), 0);
+                    int reservedQuantity = reserved.getOrDefault(product.getId(), 0);
+                    return new StockAvailabilityDTO(product.getId(), stock, reservedQuantity,
+                            Math.max(0, stock - reservedQuantity));
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,15 @@
+package ucv.app_inventory.application.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+public interface StockReservationService {
+
+    LocalDateTime reserve(String reference, Map<Long, Integer> quantities, Duration ttl);
+
+    int release(Collection<String> references);
+
+    Map<Long, Integer> findReservedQuantities(Collection<Long> productIds);
+}
@@ -0,0 +1,113 @@
+package ucv.app_inventory.application.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ucv.app_inventory.adapters.repositories.ProductRepository;
+import ucv.app_inventory.adapters.repositories.StockReservationRepository;
+import ucv.app_inventory.domain.entities.Product;
+import ucv.app_inventory.domain.entities.StockReservation;
+import ucv.app_inventory.exception.InsufficientStockException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationServiceImpl.class);
+
+    private final StockReservationRepository stockReservationRepository;
+    private final ProductRepository productRepository;
+    private final ReservationExpiryWheel reservationExpiryWheel;
+
+    public StockReservationServiceImpl(StockReservationRepository stockReservationRepository,
+                                       ProductRepository productRepository,
+                                       ReservationExpiryWheel reservationExpiryWheel) {
+        this.stockReservationRepository = stockReservationRepository;
+        this.productRepository = productRepository;
+        this.reservationExpiryWheel = reservationExpiryWheel;
+    }
+
+    /**
+     * Reserva las cantidades de una referencia, reemplazando las reservas que ya tuviera. Los
+     * productos se bloquean en orden de ID mientras se comprueba que el stock menos lo reservado
+     * por otras referencias alcance, así dos reservas concurrentes no cuentan con las mismas
+     * unidades. Se reserva todo o nada.
+     *
+     * @param reference  referencia de la reserva, por ejemplo el pedido.
+     * @param quantities cantidad por ID de producto.
+     * @param ttl        vigencia de la reserva.
+     * @return el vencimiento de la reserva.
+     * @throws InsufficientStockException con los productos inexistentes o sin disponibilidad.
+     */
+    @Override
+    @Transactional
+    public LocalDateTime reserve(String reference, Map<Long, Integer> quantities, Duration ttl) {
+        stockReservationRepository.deleteByReferenceIn(List.of(reference));
+        Map<Long, Product> products = productRepository.findAllForUpdateByIdIn(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Integer> reserved = reservedQuantities(quantities.keySet(), now);
+
+        List<Long> rejected = new ArrayList<>();
+        Map<Long, Integer> sorted = new TreeMap<>(quantities);
+        sorted.forEach((productId, quantity) -> {
+            Product product = products.get(productId);
+            int stock = product == null || product.getStock() == null ? 0 : product.getStock();
+            if (product == null || stock - reserved.getOrDefault(productId, 0) < quantity) {
+                rejected.add(productId);
+            }
+        });
+        if (!rejected.isEmpty()) {
+            throw new InsufficientStockException("Productos inexistentes o sin stock disponible: " + rejected, rejected);
+        }
+
+        LocalDateTime expiresAt = now.plus(ttl);
+        List<StockReservation> reservations = sorted.entrySet().stream()
+                .map(entry -> new StockReservation(reference, entry.getKey(), entry.getValue(), expiresAt))
+                .toList();
+        for (StockReservation reservation : stockReservationRepository.saveAll(reservations)) {
+            reservationExpiryWheel.schedule(reservation.getId(), expiresAt);
+        }
+        logger.info("Reserva {} de {} productos hasta {}", reference, reservations.size(), expiresAt);
+        return expiresAt;
+    }
+
+    /**
+     * Libera las reservas de las referencias indicadas.
+     *
+     * @return el número de reservas liberadas.
+     */
+    @Override
+    @Transactional
+    public int release(Collection<String> references) {
+        return stockReservationRepository.deleteByReferenceIn(references);
+    }
+
+    /**
+     * Cantidad reservada y vigente de cada producto; los productos sin reservas no aparecen.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> findReservedQuantities(Collection<Long> productIds) {
+        return reservedQuantities(productIds, LocalDateTime.now());
+    }
+
+    private Map<Long, Integer> reservedQuantities(Collection<Long> productIds, LocalDateTime now) {
+        Map<Long, Integer> reserved = new HashMap<>();
+        for (Object[] row : stockReservationRepository.sumActiveByProductIdIn(productIds, now)) {
+            reserved.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        return reserved;
+    }
+}
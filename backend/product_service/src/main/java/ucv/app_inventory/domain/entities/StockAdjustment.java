@@ -0,0 +1,39 @@
+package ucv.app_inventory.domain.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de un lote de ajustes de stock ya aplicado, guardado en la misma transacción que los
+ * ajustes, para reconocer los reintentos con la misma referencia.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "stock_adjustments")
+public class StockAdjustment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String reference;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public StockAdjustment(String reference) {
+        this.reference = reference;
+    }
+
+    @PrePersist
+    public void prePersist() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ucv.app_inventory.domain.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cantidad de un producto apartada para una referencia (por ejemplo, un pedido pendiente) hasta
+ * que vence. Las reservas vencidas ya no cuentan para la disponibilidad aunque sigan en la tabla.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "stock_reservations", indexes = {
+        @Index(name = "idx_stock_reservations_reference", columnList = "reference"),
+        @Index(name = "idx_stock_reservations_product", columnList = "product_id, expires_at")
+})
+public class StockReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String reference;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public StockReservation(String reference, Long productId, Integer quantity, LocalDateTime expiresAt) {
+        this.reference = reference;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.expiresAt = expiresAt;
+    }
+
+    @PrePersist
+    public void prePersist() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
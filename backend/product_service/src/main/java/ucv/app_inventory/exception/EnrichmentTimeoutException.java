@@ -0,0 +1,7 @@
+package ucv.app_inventory.exception;
+
+public class EnrichmentTimeoutException extends RuntimeException {
+    public EnrichmentTimeoutException(String message) {
+        super(message);
+    }
+}
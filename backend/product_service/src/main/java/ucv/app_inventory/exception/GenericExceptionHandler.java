@@ -27,6 +27,12 @@ public class GenericExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
     }
 
+    @ExceptionHandler(EnrichmentTimeoutException.class)
+    public ResponseEntity<String> handleEnrichmentTimeoutException(EnrichmentTimeoutException ex) {
+        logger.warn("Enrichment timeout: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(ex.getMessage());
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<String> handleRuntimeException(RuntimeException ex) {
         logger.error("Runtime exception: {}", ex.getMessage());
@@ -0,0 +1,17 @@
+package ucv.app_inventory.exception;
+
+import java.util.List;
+
+public class InsufficientStockException extends RuntimeException {
+
+    private final List<Long> productIds;
+
+    public InsufficientStockException(String message, List<Long> productIds) {
+        super(message);
+        this.productIds = productIds;
+    }
+
+    public List<Long> getProductIds() {
+        return productIds;
+    }
+}
@@ -0,0 +1,91 @@
+package ucv.app_inventory.adapters.repositories;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import ucv.app_inventory.domain.entities.Product;
+import ucv.app_inventory.domain.entities.StockAdjustment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        // Los clientes Feign de la aplicación necesitan URLs resolubles incluso en un test de JPA
+        "supplier.service.url=http://localhost",
+        "user.service.url=http://localhost",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+public class ProductRepositoryTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockAdjustmentRepository stockAdjustmentRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    // El ajuste se aplica en una sola sentencia y deja el estado de acuerdo con el stock
+    @Test
+    void shouldAdjustTheStockAndItsStatusInOneStatement() {
+        Product product = productRepository.save(ProductStockMySqlTest.product("PRO801", 5));
+
+        assertEquals(1, productRepository.adjustStock(product.getId(), -5, Product.Status.OUT_OF_STOCK, Product.Status.ACTIVE));
+        assertEquals(Product.Status.OUT_OF_STOCK, reload(product).getStatus());
+        assertEquals(1, productRepository.adjustStock(product.getId(), 4, Product.Status.OUT_OF_STOCK, Product.Status.ACTIVE));
+
+        Product restocked = reload(product);
+        assertEquals(4, restocked.getStock());
+        assertEquals(Product.Status.ACTIVE, restocked.getStatus());
+    }
+
+    // Un producto descontinuado sigue descontinuado aunque se reponga
+    @Test
+    void shouldKeepADiscontinuedProductDiscontinued() {
+        Product product = ProductStockMySqlTest.product("PRO802", 5);
+        product.setStatus(Product.Status.DISCONTINUED);
+        product = productRepository.save(product);
+
+        productRepository.adjustStock(product.getId(), 2, Product.Status.OUT_OF_STOCK, Product.Status.ACTIVE);
+
+        assertEquals(Product.Status.DISCONTINUED, reload(product).getStatus());
+    }
+
+    // La condición de la sentencia rechaza el ajuste que deja el stock negativo y el de un producto inexistente
+    @Test
+    void shouldNotUpdateWhenTheStockWouldGoNegativeOrTheProductDoesNotExist() {
+        Product product = productRepository.save(ProductStockMySqlTest.product("PRO803", 2));
+
+        assertEquals(0, productRepository.adjustStock(product.getId(), -3, Product.Status.OUT_OF_STOCK, Product.Status.ACTIVE));
+        assertEquals(0, productRepository.adjustStock(-1L, 1, Product.Status.OUT_OF_STOCK, Product.Status.ACTIVE));
+        assertEquals(2, reload(product).getStock());
+    }
+
+    // La referencia única es la que impide aplicar dos veces el mismo lote, aun entre peticiones concurrentes
+    @Test
+    void shouldRecordEachAdjustmentReferenceOnce() {
+        stockAdjustmentRepository.saveAndFlush(new StockAdjustment("order-7-processed"));
+
+        assertTrue(stockAdjustmentRepository.existsByReference("order-7-processed"));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> stockAdjustmentRepository.saveAndFlush(new StockAdjustment("order-7-processed")));
+    }
+
+    // Deshacer un lote borra su registro una sola vez
+    @Test
+    void shouldDeleteAnAdjustmentReferenceOnce() {
+        stockAdjustmentRepository.saveAndFlush(new StockAdjustment("order-8-processed"));
+
+        assertEquals(1, stockAdjustmentRepository.deleteByReference("order-8-processed"));
+        assertEquals(0, stockAdjustmentRepository.deleteByReference("order-8-processed"));
+        assertFalse(stockAdjustmentRepository.existsByReference("order-8-processed"));
+    }
+
+    private Product reload(Product product) {
+        entityManager.flush();
+        entityManager.clear();
+        return productRepository.findById(product.getId()).orElseThrow();
+    }
+}
@@ -0,0 +1,103 @@
+package ucv.app_inventory.adapters.repositories;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ucv.app_inventory.domain.entities.Product;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// MySQL aplica las asignaciones de un UPDATE de izquierda a derecha, a diferencia de H2, así que
+// la sentencia de ProductRepository.adjustStock se prueba contra MySQL. Necesita Docker.
+@DataJpaTest(properties = {
+        // Los clientes Feign de la aplicación necesitan URLs resolubles incluso en un test de JPA
+        "supplier.service.url=http://localhost",
+        "user.service.url=http://localhost"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+public class ProductStockMySqlTest {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    // Stock 5, delta -5: queda en 0 y pasa a OUT_OF_STOCK
+    @Test
+    void shouldMarkTheProductOutOfStockWhenTheStockReachesZero() {
+        Product product = productRepository.save(product("PRO901", 5));
+
+        int updated = productRepository.adjustStock(product.getId(), -5, Product.Status.OUT_OF_STOCK, Product.Status.ACTIVE);
+
+        assertEquals(1, updated);
+        Product adjusted = reload(product);
+        assertEquals(0, adjusted.getStock());
+        assertEquals(Product.Status.OUT_OF_STOCK, adjusted.getStatus());
+    }
+
+    // Stock 10, delta -5: queda en 5 y sigue ACTIVE
+    @Test
+    void shouldKeepTheProductActiveWhenStockRemains() {
+        Product product = productRepository.save(product("PRO902", 10));
+
+        int updated = productRepository.adjustStock(product.getId(), -5, Product.Status.OUT_OF_STOCK, Product.Status.ACTIVE);
+
+        assertEquals(1, updated);
+        Product adjusted = reload(product);
+        assertEquals(5, adjusted.getStock());
+        assertEquals(Product.Status.ACTIVE, adjusted.getStatus());
+    }
+
+    // Reponer un producto agotado lo vuelve a ACTIVE
+    @Test
+    void shouldReactivateAnOutOfStockProductWhenRestocked() {
+        Product product = productRepository.save(product("PRO903", 0));
+
+        int updated = productRepository.adjustStock(product.getId(), 3, Product.Status.OUT_OF_STOCK, Product.Status.ACTIVE);
+
+        assertEquals(1, updated);
+        Product adjusted = reload(product);
+        assertEquals(3, adjusted.getStock());
+        assertEquals(Product.Status.ACTIVE, adjusted.getStatus());
+    }
+
+    // Un ajuste que dejaría el stock negativo no cambia nada
+    @Test
+    void shouldRefuseAnAdjustmentBelowZero() {
+        Product product = productRepository.save(product("PRO904", 2));
+
+        int updated = productRepository.adjustStock(product.getId(), -3, Product.Status.OUT_OF_STOCK, Product.Status.ACTIVE);
+
+        assertEquals(0, updated);
+        Product untouched = reload(product);
+        assertEquals(2, untouched.getStock());
+        assertEquals(Product.Status.ACTIVE, untouched.getStatus());
+    }
+
+    private Product reload(Product product) {
+        entityManager.flush();
+        entityManager.clear();
+        return productRepository.findById(product.getId()).orElseThrow();
+    }
+
+    static Product product(String code, int stock) {
+        Product product = new Product();
+        product.setName("Producto " + code);
+        product.setCode(code);
+        product.setCategoryId(1L);
+        product.setStock(stock);
+        return product;
+    }
+}
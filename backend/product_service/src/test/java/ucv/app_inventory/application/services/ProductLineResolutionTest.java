@@ -0,0 +1,75 @@
+package ucv.app_inventory.application.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import ucv.app_inventory.adapters.outbounds.SupplierClient;
+import ucv.app_inventory.adapters.repositories.ProductRepository;
+import ucv.app_inventory.adapters.repositories.ProductSupplierRepository;
+import ucv.app_inventory.application.DTO.ProductLineDTO;
+import ucv.app_inventory.domain.entities.Product;
+import ucv.app_inventory.domain.entities.ProductSupplier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        // Los clientes Feign de la aplicación necesitan URLs resolubles incluso en un test de JPA
+        "supplier.service.url=http://localhost",
+        "user.service.url=http://localhost",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import(ProductSupplierServiceImpl.class)
+public class ProductLineResolutionTest {
+
+    @MockBean
+    private SupplierClient supplierClient;
+
+    @Autowired
+    private ProductSupplierService productSupplierService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSupplierRepository productSupplierRepository;
+
+    // El nombre exacto tiene prioridad; los demás se buscan por nombre parcial, como en /findByName
+    @Test
+    void shouldFallBackToAPartialMatchForNamesWithoutAnExactOne() {
+        Product rice = productRepository.save(product("PRO901", "Arroz"));
+        Product longRice = productRepository.save(product("PRO902", "Arroz largo"));
+        Product sugar = productRepository.save(product("PRO903", "Azúcar rubia"));
+        productSupplierRepository.save(new ProductSupplier(null, rice.getId(), 1L, 4.0));
+        productSupplierRepository.save(new ProductSupplier(null, longRice.getId(), 1L, 5.0));
+        productSupplierRepository.save(new ProductSupplier(null, sugar.getId(), 1L, 3.0));
+
+        List<ProductLineDTO> resolved = productSupplierService.resolveLines(List.of(
+                line("arroz"), line("LARGO"), line("azúcar"), line("sal"), line("%")));
+
+        assertEquals(rice.getId(), resolved.get(0).getProductId());
+        assertEquals(longRice.getId(), resolved.get(1).getProductId());
+        assertEquals("Arroz largo", resolved.get(1).getCatalogName());
+        assertEquals(sugar.getId(), resolved.get(2).getProductId());
+        assertEquals(3.0, resolved.get(2).getPrice());
+        assertNull(resolved.get(3).getProductId());
+        // Los comodines del nombre se buscan como texto
+        assertNull(resolved.get(4).getProductId());
+    }
+
+    private static ProductLineDTO line(String productName) {
+        ProductLineDTO line = new ProductLineDTO();
+        line.setProductName(productName);
+        line.setSupplierId(1L);
+        return line;
+    }
+
+    private static Product product(String code, String name) {
+        Product product = ProductStockAdjustmentTest.product(code, 10);
+        product.setName(name);
+        return product;
+    }
+}
@@ -0,0 +1,157 @@
+package ucv.app_inventory.application.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ucv.app_inventory.adapters.config.EnrichmentExecutor;
+import ucv.app_inventory.adapters.outbounds.SupplierClient;
+import ucv.app_inventory.adapters.repositories.ProductRepository;
+import ucv.app_inventory.adapters.repositories.StockAdjustmentRepository;
+import ucv.app_inventory.application.DTO.StockAdjustmentDTO;
+import ucv.app_inventory.application.DTO.StockAdjustmentRequestDTO;
+import ucv.app_inventory.application.DTO.StockAdjustmentResultDTO;
+import ucv.app_inventory.domain.entities.Product;
+import ucv.app_inventory.exception.InsufficientStockException;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        // Los clientes Feign de la aplicación necesitan URLs resolubles incluso en un test de JPA
+        "supplier.service.url=http://localhost",
+        "user.service.url=http://localhost",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import({ProductServiceImpl.class, StockReservationServiceImpl.class, ProductApplicationService.class})
+// Cada llamada al servicio se confirma o se deshace por su cuenta, como en producción
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ProductStockAdjustmentTest {
+
+    @MockBean
+    private SupplierClient supplierClient;
+
+    @MockBean
+    private EnrichmentExecutor enrichmentExecutor;
+
+    @MockBean
+    private ReservationExpiryWheel reservationExpiryWheel;
+
+    @MockBean
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductApplicationService productApplicationService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockAdjustmentRepository stockAdjustmentRepository;
+
+    @AfterEach
+    void tearDown() {
+        stockAdjustmentRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    // Si un producto no alcanza, no se aplica ningún ajuste del lote ni se registra la referencia
+    @Test
+    void shouldApplyAllAdjustmentsOfABatchOrNone() {
+        Product rice = productRepository.save(product("PRO701", 10));
+        Product sugar = productRepository.save(product("PRO702", 1));
+
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+                () -> productService.adjustStock("order-7-processed", null, Map.of(rice.getId(), -4, sugar.getId(), -2)));
+
+        assertEquals(List.of(sugar.getId()), exception.getProductIds());
+        assertEquals(10, stockOf(rice));
+        assertEquals(1, stockOf(sugar));
+        assertFalse(stockAdjustmentRepository.existsByReference("order-7-processed"));
+    }
+
+    // Un lote reenviado con la misma referencia no descuenta dos veces
+    @Test
+    void shouldApplyABatchOnlyOncePerReference() {
+        Product rice = productRepository.save(product("PRO703", 10));
+
+        assertTrue(productService.adjustStock("order-7-processed", null, Map.of(rice.getId(), -4)));
+        assertFalse(productService.adjustStock("order-7-processed", null, Map.of(rice.getId(), -4)));
+
+        assertEquals(6, stockOf(rice));
+    }
+
+    // Deshacer un lote devuelve su stock una vez, y su referencia se puede volver a aplicar
+    @Test
+    void shouldRevertAnAppliedBatchOnce() {
+        Product rice = productRepository.save(product("PRO704", 10));
+        productService.adjustStock("order-7-processed", null, Map.of(rice.getId(), -4));
+
+        assertTrue(productService.revertStockAdjustment("order-7-processed", Map.of(rice.getId(), 4)));
+        assertFalse(productService.revertStockAdjustment("order-7-processed", Map.of(rice.getId(), 4)));
+        assertEquals(10, stockOf(rice));
+
+        assertTrue(productService.adjustStock("order-7-processed", null, Map.of(rice.getId(), -4)));
+        assertEquals(6, stockOf(rice));
+    }
+
+    // Un lote que nunca se aplicó no se deshace
+    @Test
+    void shouldNotRevertABatchThatWasNeverApplied() {
+        Product rice = productRepository.save(product("PRO705", 10));
+
+        assertFalse(productService.revertStockAdjustment("order-8-processed", Map.of(rice.getId(), 4)));
+
+        assertEquals(10, stockOf(rice));
+    }
+
+    // Cada lote de la llamada se aplica o se rechaza por su cuenta
+    @Test
+    void shouldApplyTheBatchesOfOneCallEachOnItsOwn() {
+        Product rice = productRepository.save(product("PRO706", 10));
+
+        List<StockAdjustmentResultDTO> results = productApplicationService.adjustStocks(List.of(
+                batch("order-7-processed", rice.getId(), -4),
+                batch("order-8-processed", rice.getId(), -20),
+                batch("order-9-processed", rice.getId(), -5)));
+
+        assertTrue(results.get(0).isApplied());
+        assertFalse(results.get(1).isApplied());
+        assertEquals(List.of(rice.getId()), results.get(1).getRejectedProductIds());
+        assertTrue(results.get(2).isApplied());
+        assertEquals(1, stockOf(rice));
+        assertFalse(stockAdjustmentRepository.existsByReference("order-8-processed"));
+    }
+
+    private static StockAdjustmentRequestDTO batch(String reference, Long productId, int delta) {
+        StockAdjustmentDTO adjustment = new StockAdjustmentDTO();
+        adjustment.setProductId(productId);
+        adjustment.setDelta(delta);
+        StockAdjustmentRequestDTO request = new StockAdjustmentRequestDTO();
+        request.setReference(reference);
+        request.setAdjustments(List.of(adjustment));
+        return request;
+    }
+
+    private int stockOf(Product product) {
+        return productRepository.findById(product.getId()).orElseThrow().getStock();
+    }
+
+    static Product product(String code, int stock) {
+        Product product = new Product();
+        product.setName("Producto " + code);
+        product.setCode(code);
+        product.setCategoryId(1L);
+        product.setStock(stock);
+        return product;
+    }
+}
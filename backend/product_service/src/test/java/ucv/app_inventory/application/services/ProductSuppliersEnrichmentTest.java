@@ -0,0 +1,199 @@
+package ucv.app_inventory.application.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import ucv.app_inventory.adapters.config.EnrichmentExecutor;
+import ucv.app_inventory.adapters.config.EnrichmentProperties;
+import ucv.app_inventory.adapters.outbounds.SupplierClient;
+import ucv.app_inventory.adapters.repositories.ProductSupplierRepository;
+import ucv.app_inventory.application.DTO.SupplierDTO;
+import ucv.app_inventory.domain.entities.ProductSupplier;
+import ucv.app_inventory.exception.EnrichmentTimeoutException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class ProductSuppliersEnrichmentTest {
+
+    private EnrichmentProperties properties;
+    private EnrichmentExecutor enrichmentExecutor;
+    private SupplierClient supplierClient;
+    private ProductSupplierRepository productSupplierRepository;
+    private ProductServiceImpl productService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new EnrichmentProperties();
+        properties.setDeadline(Duration.ofSeconds(2));
+        enrichmentExecutor = new EnrichmentExecutor(properties);
+        supplierClient = mock(SupplierClient.class);
+        productSupplierRepository = mock(ProductSupplierRepository.class);
+        productService = new ProductServiceImpl(null, supplierClient, productSupplierRepository,
+                null, null, null, enrichmentExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        enrichmentExecutor.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    // Los proveedores se consultan a la vez: cada consulta espera a que hayan empezado todas
+    @Test
+    void shouldLookUpTheSuppliersInParallelAndKeepTheOrderOfTheRelations() {
+        givenSuppliersOfProduct(3L, 1L, 2L);
+        CountDownLatch allStarted = new CountDownLatch(3);
+        when(supplierClient.getSupplierById(anyLong())).thenAnswer(invocation -> {
+            allStarted.countDown();
+            await(allStarted);
+            return supplier(invocation.getArgument(0));
+        });
+
+        List<SupplierDTO> suppliers = productService.getSuppliersForProduct(7L);
+
+        assertEquals(List.of(3L, 1L, 2L), suppliers.stream().map(SupplierDTO::getId).toList());
+    }
+
+    // Al vencer el plazo se cancelan las consultas al servicio de proveedores, lo que interrumpe su hilo
+    @Test
+    void shouldCancelTheSupplierLookupsWhenTheDeadlinePasses() throws InterruptedException {
+        properties.setDeadline(Duration.ofMillis(200));
+        givenSuppliersOfProduct(1L);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(supplierClient.getSupplierById(1L)).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(Duration.ofSeconds(30));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return supplier(1L);
+        });
+
+        assertThrows(EnrichmentTimeoutException.class, () -> productService.getSuppliersForProduct(7L));
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    // Si falla la consulta de un proveedor se propaga su error y se cancelan las demás
+    @Test
+    void shouldRethrowTheFailureOfASupplierLookupAndCancelTheOthers() throws InterruptedException {
+        givenSuppliersOfProduct(1L, 2L);
+        CountDownLatch sleeping = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(supplierClient.getSupplierById(1L)).thenAnswer(invocation -> {
+            // Falla cuando la otra consulta ya está en curso
+            await(sleeping);
+            throw new IllegalArgumentException("Proveedor 1 no encontrado");
+        });
+        when(supplierClient.getSupplierById(2L)).thenAnswer(invocation -> {
+            try {
+                sleeping.countDown();
+                Thread.sleep(Duration.ofSeconds(30));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return supplier(2L);
+        });
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> productService.getSuppliersForProduct(7L));
+
+        assertEquals("Proveedor 1 no encontrado", exception.getMessage());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    // El límite del servicio de proveedores se comparte entre peticiones y se devuelve al terminar cada consulta
+    @Test
+    void shouldNotExceedTheConcurrentCallsToTheSupplierService() {
+        properties.getMaxConcurrentCalls().put("supplier-service", 2);
+        givenSuppliersOfProduct(1L, 2L, 3L, 4L, 5L, 6L);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(supplierClient.getSupplierById(anyLong())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(Duration.ofMillis(20));
+            running.decrementAndGet();
+            return supplier(invocation.getArgument(0));
+        });
+
+        for (int round = 0; round < 2; round++) {
+            assertEquals(6, productService.getSuppliersForProduct(7L).size());
+        }
+
+        assertEquals(2, maxRunning.get());
+    }
+
+    // Una consulta que no consigue turno antes del plazo falla por plazo, sin llegar al servicio de proveedores
+    @Test
+    void shouldTimeOutWhenNoPermitIsFreedBeforeTheDeadline() {
+        properties.setDeadline(Duration.ofMillis(200));
+        properties.getMaxConcurrentCalls().put("supplier-service", 1);
+        givenSuppliersOfProduct(1L, 2L);
+        when(supplierClient.getSupplierById(anyLong())).thenAnswer(invocation -> {
+            sleep(Duration.ofSeconds(30));
+            return supplier(invocation.getArgument(0));
+        });
+
+        assertThrows(EnrichmentTimeoutException.class, () -> productService.getSuppliersForProduct(7L));
+
+        verify(supplierClient, times(1)).getSupplierById(anyLong());
+    }
+
+    // Cada consulta al servicio de proveedores ve el contexto de seguridad de la petición, para reenviar su token
+    @Test
+    void shouldLookUpTheSuppliersWithTheCallersSecurityContext() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("ana@maroqui.pe", "token-de-ana", null));
+        givenSuppliersOfProduct(1L, 2L);
+        when(supplierClient.getSupplierById(anyLong())).thenAnswer(invocation -> {
+            SupplierDTO supplier = supplier(invocation.getArgument(0));
+            supplier.setContact((String) SecurityContextHolder.getContext().getAuthentication().getCredentials());
+            return supplier;
+        });
+
+        List<SupplierDTO> suppliers = productService.getSuppliersForProduct(7L);
+
+        assertEquals(List.of("token-de-ana", "token-de-ana"), suppliers.stream().map(SupplierDTO::getContact).toList());
+    }
+
+    private void givenSuppliersOfProduct(Long... supplierIds) {
+        List<ProductSupplier> relations = Arrays.stream(supplierIds)
+                .map(supplierId -> new ProductSupplier(null, 7L, supplierId, 10.0))
+                .toList();
+        when(productSupplierRepository.findByProductId(7L)).thenReturn(relations);
+    }
+
+    private static SupplierDTO supplier(Long id) {
+        SupplierDTO supplier = new SupplierDTO();
+        supplier.setId(id);
+        supplier.setName("Proveedor " + id);
+        return supplier;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package ucv.app_inventory.application.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ucv.app_inventory.adapters.config.ReservationProperties;
+import ucv.app_inventory.adapters.repositories.StockReservationRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReservationExpiryWheelTest {
+
+    // Inicio de un tick, para que los vencimientos caigan en el tick que indica cada test
+    private static final Instant START = Instant.ofEpochSecond(1_800_000_000L);
+
+    @Mock
+    private StockReservationRepository stockReservationRepository;
+
+    private MutableClock clock;
+    private ReservationExpiryWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        ReservationProperties properties = new ReservationProperties();
+        properties.setTick(Duration.ofSeconds(1));
+        // Una vuelta de la rueda dura 4 segundos
+        properties.setWheelSlots(4);
+        clock = new MutableClock(START);
+        wheel = new ReservationExpiryWheel(stockReservationRepository, properties, clock);
+    }
+
+    @Test
+    void shouldDeleteTheReservationsOfTheTicksThatHavePassed() {
+        // Given
+        wheel.schedule(1L, at(1_500));
+        wheel.schedule(2L, at(3_200));
+
+        // When
+        clock.set(2_000);
+        wheel.advance();
+
+        // Then
+        verify(stockReservationRepository).deleteExpiredByIdIn(List.of(1L), LocalDateTime.now(clock));
+
+        // When
+        clock.set(3_500);
+        wheel.advance();
+
+        // Then
+        verify(stockReservationRepository).deleteExpiredByIdIn(List.of(2L), LocalDateTime.now(clock));
+        verifyNoMoreInteractions(stockReservationRepository);
+    }
+
+    @Test
+    void shouldLeaveAReservationOfALaterLapInItsSlot() {
+        // Given
+        // Tick 5 comparte ranura con el tick 1, pero vence una vuelta después
+        wheel.schedule(1L, at(5_500));
+
+        // When
+        clock.set(1_900);
+        wheel.advance();
+
+        // Then
+        verifyNoInteractions(stockReservationRepository);
+
+        // When
+        clock.set(6_000);
+        wheel.advance();
+
+        // Then
+        verify(stockReservationRepository).deleteExpiredByIdIn(List.of(1L), LocalDateTime.now(clock));
+    }
+
+    @Test
+    void shouldDeleteAReservationThatHadAlreadyExpiredOnTheNextTick() {
+        // Given
+        wheel.schedule(1L, at(-10_000));
+
+        // When
+        clock.set(1_000);
+        wheel.advance();
+
+        // Then
+        verify(stockReservationRepository).deleteExpiredByIdIn(List.of(1L), LocalDateTime.now(clock));
+    }
+
+    @Test
+    void shouldVisitEachSlotOnceAfterAPauseLongerThanALap() {
+        // Given
+        wheel.schedule(1L, at(1_500));
+        wheel.schedule(2L, at(2_500));
+        wheel.schedule(3L, at(30_000));
+
+        // When
+        clock.set(20_000);
+        wheel.advance();
+
+        // Then
+        // La reserva 3 vence más adelante y sigue en la rueda
+        verify(stockReservationRepository).deleteExpiredByIdIn(List.of(1L, 2L), LocalDateTime.now(clock));
+        verifyNoMoreInteractions(stockReservationRepository);
+
+        // When
+        clock.set(30_000);
+        wheel.advance();
+
+        // Then
+        verify(stockReservationRepository).deleteExpiredByIdIn(List.of(3L), LocalDateTime.now(clock));
+    }
+
+    @Test
+    void shouldDeleteInBatchesOfAtMost500Ids() {
+        // Given
+        for (long id = 1; id <= 501; id++) {
+            wheel.schedule(id, at(1_500));
+        }
+
+        // When
+        clock.set(2_000);
+        wheel.advance();
+
+        // Then
+        verify(stockReservationRepository).deleteExpiredByIdIn(argThat(ids -> ids.size() == 500), any());
+        verify(stockReservationRepository).deleteExpiredByIdIn(eq(List.of(501L)), any());
+    }
+
+    private LocalDateTime at(long millisAfterStart) {
+        return LocalDateTime.ofInstant(START.plusMillis(millisAfterStart), clock.getZone());
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void set(long millisAfterStart) {
+            instant = START.plusMillis(millisAfterStart);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package ucv.app_inventory.application.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ucv.app_inventory.adapters.config.EnrichmentExecutor;
+import ucv.app_inventory.adapters.outbounds.SupplierClient;
+import ucv.app_inventory.adapters.repositories.ProductRepository;
+import ucv.app_inventory.adapters.repositories.StockReservationRepository;
+import ucv.app_inventory.domain.entities.Product;
+import ucv.app_inventory.domain.entities.StockReservation;
+import ucv.app_inventory.exception.InsufficientStockException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = {
+        // Los clientes Feign de la aplicación necesitan URLs resolubles incluso en un test de JPA
+        "supplier.service.url=http://localhost",
+        "user.service.url=http://localhost",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import({ProductServiceImpl.class, StockReservationServiceImpl.class})
+// Cada llamada al servicio se confirma o se deshace por su cuenta, como en producción
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class StockReservationServiceImplTest {
+
+    private static final Duration TTL = Duration.ofMinutes(15);
+
+    @MockBean
+    private SupplierClient supplierClient;
+
+    @MockBean
+    private EnrichmentExecutor enrichmentExecutor;
+
+    @MockBean
+    private ReservationExpiryWheel reservationExpiryWheel;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @AfterEach
+    void tearDown() {
+        stockReservationRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    // Si un producto no alcanza no se reserva ninguno, y la reserva anterior de la referencia se conserva
+    @Test
+    void shouldReserveAllProductsOrNone() {
+        Product rice = productRepository.save(ProductStockAdjustmentTest.product("PRO601", 5));
+        Product sugar = productRepository.save(ProductStockAdjustmentTest.product("PRO602", 1));
+        stockReservationService.reserve("order-7", Map.of(rice.getId(), 1), TTL);
+
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+                () -> stockReservationService.reserve("order-7", Map.of(rice.getId(), 3, sugar.getId(), 2), TTL));
+
+        assertEquals(List.of(sugar.getId()), exception.getProductIds());
+        assertEquals(Map.of(rice.getId(), 1), stockReservationService.findReservedQuantities(List.of(rice.getId(), sugar.getId())));
+    }
+
+    // Lo disponible es el stock menos lo reservado por otras referencias; la propia reserva se reemplaza
+    @Test
+    void shouldOnlyReserveWhatOtherReferencesLeaveAvailable() {
+        Product rice = productRepository.save(ProductStockAdjustmentTest.product("PRO603", 5));
+        stockReservationService.reserve("order-7", Map.of(rice.getId(), 3), TTL);
+
+        assertThrows(InsufficientStockException.class,
+                () -> stockReservationService.reserve("order-8", Map.of(rice.getId(), 3), TTL));
+        stockReservationService.reserve("order-8", Map.of(rice.getId(), 2), TTL);
+        stockReservationService.reserve("order-7", Map.of(rice.getId(), 3), TTL);
+
+        assertEquals(Map.of(rice.getId(), 5), stockReservationService.findReservedQuantities(List.of(rice.getId())));
+        verify(reservationExpiryWheel, times(3)).schedule(anyLong(), any());
+    }
+
+    // Una reserva vencida ya no aparta unidades, aunque la rueda aún no la haya borrado
+    @Test
+    void shouldIgnoreExpiredReservations() {
+        Product rice = productRepository.save(ProductStockAdjustmentTest.product("PRO604", 5));
+        stockReservationRepository.save(new StockReservation("order-6", rice.getId(), 5, LocalDateTime.now().minusMinutes(1)));
+
+        stockReservationService.reserve("order-7", Map.of(rice.getId(), 5), TTL);
+
+        assertEquals(Map.of(rice.getId(), 5), stockReservationService.findReservedQuantities(List.of(rice.getId())));
+    }
+
+    // Un ajuste que descuenta no puede tomar unidades reservadas por otra referencia
+    @Test
+    void shouldNotAdjustIntoUnitsReservedByOtherReferences() {
+        Product rice = productRepository.save(ProductStockAdjustmentTest.product("PRO605", 5));
+        stockReservationService.reserve("order-7", Map.of(rice.getId(), 3), TTL);
+        stockReservationService.reserve("order-8", Map.of(rice.getId(), 2), TTL);
+
+        // 5 - 3 deja menos que las 3 de order-7, aunque el lote libere la reserva de order-8
+        assertThrows(InsufficientStockException.class,
+                () -> productService.adjustStock("order-8-processed", "order-8", Map.of(rice.getId(), -3)));
+        assertTrue(productService.adjustStock("order-8-processed", "order-8", Map.of(rice.getId(), -2)));
+        // Reponer no depende de las reservas
+        assertTrue(productService.adjustStock(null, null, Map.of(rice.getId(), 1)));
+
+        assertEquals(4, productRepository.findById(rice.getId()).orElseThrow().getStock());
+        assertEquals(Map.of(rice.getId(), 3), stockReservationService.findReservedQuantities(List.of(rice.getId())));
+    }
+}
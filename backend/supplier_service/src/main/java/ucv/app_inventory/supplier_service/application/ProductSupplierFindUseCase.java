@@ -10,6 +10,7 @@ import org.springframework.stereotype.Service;
 
 import ucv.app_inventory.supplier_service.application.dto.ProductDTO;
 import ucv.app_inventory.supplier_service.application.dto.ProductSupplierDTO;
+import ucv.app_inventory.supplier_service.config.EnrichmentExecutor;
 import ucv.app_inventory.supplier_service.domain.model.ProductSupplier;
 import ucv.app_inventory.supplier_service.domain.model.Supplier;
 import ucv.app_inventory.supplier_service.infrastructure.outbound.database.ProductSupplierMySqlRepository;
@@ -17,7 +18,6 @@ import ucv.app_inventory.supplier_service.infrastructure.outbound.database.Suppl
 import ucv.app_inventory.supplier_service.infrastructure.outbound.external.ProductAPIClient;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -27,24 +27,25 @@ public class ProductSupplierFindUseCase {
     private final SupplierMySqlRepository supplierMySqlRepository;
     private final ModelMapper modelMapper;
     private final ProductAPIClient productAPIClient;
+    private final EnrichmentExecutor enrichmentExecutor;
 
     @Cacheable("productsBySupplierId")
     public Page<ProductSupplierDTO> findBySupplierId(Long id, Pageable pageable) {
         // Obtener la página de ProductSupplier
         Page<ProductSupplier> productSuppliersPage = productSupplierMySqlRepository.findBySupplierId(id, pageable);
 
-        // Convertir la lista de ProductSupplier a ProductSupplierDTO
-        List<ProductSupplierDTO> productSupplierDTOs = productSuppliersPage.getContent().stream()
-                .map(productSupplier -> {
-                    // Usar Feign para obtener el nombre del producto con caché
+        // Convertir la lista de ProductSupplier a ProductSupplierDTO; los productos se consultan
+        // en paralelo, así la página tarda lo que la consulta más lenta
+        List<ProductSupplierDTO> productSupplierDTOs = enrichmentExecutor.mapAll("product-service",
+                productSuppliersPage.getContent(), productSupplier -> {
+                    // Usar Feign para obtener el nombre del producto
                     ProductDTO productDTO = productAPIClient.getProductById(productSupplier.getProductId());
 
                     // Mapear el ProductSupplier a ProductSupplierDTO
                     ProductSupplierDTO productSupplierDTO = modelMapper.map(productSupplier, ProductSupplierDTO.class);
                     productSupplierDTO.setProduct_name(productDTO.getName());
                     return productSupplierDTO;
-                })
-                .collect(Collectors.toList());
+                });
 
         // Retornar un Page de ProductSupplierDTO
         return new PageImpl<>(productSupplierDTOs, pageable, productSuppliersPage.getTotalElements());
@@ -1,9 +1,11 @@
 package ucv.app_inventory.supplier_service.application;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ucv.app_inventory.supplier_service.application.dto.SupplierDTO;
+import ucv.app_inventory.supplier_service.application.event.SupplierChangedEvent;
 import ucv.app_inventory.supplier_service.domain.model.Supplier;
 import ucv.app_inventory.supplier_service.domain.model.SupplierState;
 import ucv.app_inventory.supplier_service.infrastructure.outbound.database.SupplierMySqlRepository;
@@ -13,6 +15,7 @@ import ucv.app_inventory.supplier_service.infrastructure.outbound.database.Suppl
 public class SupplierCreateUseCase {
 
     private final SupplierMySqlRepository supplierMySqlRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Supplier createSupplier(SupplierDTO supplierDTO) {
@@ -20,7 +23,9 @@ public class SupplierCreateUseCase {
         Supplier supplier = new Supplier();
         setValues(supplierDTO, supplier);
 
-        return supplierMySqlRepository.save(supplier);
+        Supplier saved = supplierMySqlRepository.save(supplier);
+        eventPublisher.publishEvent(SupplierChangedEvent.upserted(saved));
+        return saved;
     }
 
     public static void setValues(SupplierDTO supplierDTO, Supplier supplier) {
@@ -1,8 +1,10 @@
 package ucv.app_inventory.supplier_service.application;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ucv.app_inventory.supplier_service.application.event.SupplierChangedEvent;
 import ucv.app_inventory.supplier_service.domain.model.Supplier;
 import ucv.app_inventory.supplier_service.exception.SupplierNotFoundException;
 import ucv.app_inventory.supplier_service.infrastructure.outbound.database.ProductSupplierMySqlRepository;
@@ -14,6 +16,7 @@ public class SupplierDeleteUseCase {
 
     private final SupplierMySqlRepository supplierMySqlRepository;
     private final ProductSupplierMySqlRepository productSupplierMySqlRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public void deleteSupplier(Supplier supplier) {
@@ -23,5 +26,6 @@ public class SupplierDeleteUseCase {
         }
         supplierMySqlRepository.deleteById(id);
         productSupplierMySqlRepository.deleteBySupplierId(id);
+        eventPublisher.publishEvent(SupplierChangedEvent.deleted(id));
     }
 }
@@ -9,6 +9,8 @@ import ucv.app_inventory.supplier_service.domain.model.SupplierState;
 import ucv.app_inventory.supplier_service.domain.model.Supplier;
 import ucv.app_inventory.supplier_service.infrastructure.outbound.database.SupplierMySqlRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -21,6 +23,20 @@ public class SupplierFindUseCase {
         return supplierMySqlRepository.findById(id);
     }
 
+    /**
+     * Finds every supplier whose ID is in the given collection in a single query.
+     * IDs that do not exist are simply absent from the result.
+     *
+     * @param ids the supplier IDs to look up.
+     * @return the suppliers found, in no particular order.
+     */
+    public List<Supplier> findByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return supplierMySqlRepository.findAllById(ids);
+    }
+
     public Page<Supplier> listAll(Pageable pageable) {
         return supplierMySqlRepository.findAll(pageable);
     }
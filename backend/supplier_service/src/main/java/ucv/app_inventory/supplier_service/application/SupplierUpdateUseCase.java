@@ -1,9 +1,11 @@
 package ucv.app_inventory.supplier_service.application;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ucv.app_inventory.supplier_service.application.dto.SupplierDTO;
+import ucv.app_inventory.supplier_service.application.event.SupplierChangedEvent;
 import ucv.app_inventory.supplier_service.domain.model.Supplier;
 import ucv.app_inventory.supplier_service.exception.SupplierNotFoundException;
 import ucv.app_inventory.supplier_service.infrastructure.outbound.database.SupplierMySqlRepository;
@@ -14,12 +16,14 @@ import ucv.app_inventory.supplier_service.infrastructure.outbound.database.Suppl
 public class SupplierUpdateUseCase {
 
     private final SupplierMySqlRepository supplierMySqlRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Supplier updateSupplier(Long id, SupplierDTO supplierDTO) {
         return supplierMySqlRepository.findById(id).map(supplier -> {
 
             SupplierCreateUseCase.setValues(supplierDTO, supplier);
+            eventPublisher.publishEvent(SupplierChangedEvent.upserted(supplier));
 
             return supplier;
         }).orElseThrow(() -> new SupplierNotFoundException("Supplier with ID " + id + " not found"));
@@ -0,0 +1,31 @@
+package ucv.app_inventory.supplier_service.application.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ucv.app_inventory.supplier_service.domain.model.Supplier;
+
+/**
+ * Change notification raised whenever a supplier is created, updated or deleted.
+ * It is relayed to the supplier events topic once the surrounding transaction commits,
+ * so other services can keep a local copy of the supplier names they display.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SupplierChangedEvent {
+
+    private Long id;
+    private String name;
+    private String state;
+    private boolean deleted;
+
+    public static SupplierChangedEvent upserted(Supplier supplier) {
+        return new SupplierChangedEvent(supplier.getId(), supplier.getName(),
+                supplier.getState() != null ? supplier.getState().name() : null, false);
+    }
+
+    public static SupplierChangedEvent deleted(Long id) {
+        return new SupplierChangedEvent(id, null, null, true);
+    }
+}
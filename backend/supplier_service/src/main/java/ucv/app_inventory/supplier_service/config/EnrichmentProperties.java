@@ -0,0 +1,28 @@
+package ucv.app_inventory.supplier_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "enrichment")
+public class EnrichmentProperties {
+
+    // Tiempo máximo para completar todas las consultas de una lista; al vencer se cancelan las pendientes
+    private Duration deadline = Duration.ofSeconds(3);
+
+    // Consultas simultáneas por servicio remoto, sumando todas las solicitudes en curso
+    private int defaultMaxConcurrentCalls = 16;
+
+    // Límite por servicio, por nombre de cliente Feign (p. ej. product-service)
+    private Map<String, Integer> maxConcurrentCalls = new LinkedHashMap<>();
+
+    public int maxConcurrentCallsFor(String downstream) {
+        return maxConcurrentCalls.getOrDefault(downstream, defaultMaxConcurrentCalls);
+    }
+}
@@ -1,14 +1,45 @@
 package ucv.app_inventory.supplier_service.config;
 
-import jakarta.servlet.http.HttpServletRequest;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
+/**
+ * Los clientes Feign usan un Apache HttpClient 5 con pool de conexiones (feign-hc5) en lugar de
+ * HttpURLConnection, así las llamadas a los otros servicios reutilizan conexiones abiertas. Los
+ * límites del pool y los timeouts se configuran con spring.cloud.openfeign.httpclient.*; aquí se
+ * agrega el cierre de conexiones inactivas y las métricas del pool.
+ */
 @Configuration
 public class FeignConfig {
 
     @Bean
-    public FeignInterceptor feignInterceptor(HttpServletRequest request) {
-        return new FeignInterceptor(request);
+    public FeignInterceptor feignInterceptor() {
+        return new FeignInterceptor();
+    }
+
+    // Cierra las conexiones del pool sin uso por más de feign.pool.idle-timeout
+    @Bean
+    public HttpClient5FeignConfiguration.HttpClientBuilderCustomizer idleConnectionEviction(
+            @Value("${feign.pool.idle-timeout:30s}") Duration idleTimeout) {
+        return builder -> builder.evictIdleConnections(TimeValue.ofMilliseconds(idleTimeout.toMillis()));
+    }
+
+    // Uso del pool en /actuator/metrics/httpcomponents.httpclient.pool.*, con la etiqueta httpclient=feign
+    @Bean
+    public MeterBinder feignConnectionPoolMetrics(HttpClientConnectionManager connectionManager) {
+        return registry -> {
+            if (connectionManager instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, "feign").bindTo(registry);
+            }
+        };
     }
-}
\ No newline at end of file
+}
@@ -2,25 +2,25 @@ package ucv.app_inventory.supplier_service.config;
 
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
-import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+/**
+ * Reenvía el token de quien hizo la solicitud en cada llamada Feign. El token se toma del
+ * contexto de seguridad, donde JwtAuthenticationFilter lo guarda como credenciales del usuario,
+ * y no de la solicitud HTTP, así las llamadas funcionan también en los hilos a los que se pasó
+ * el contexto (ver EnrichmentExecutor).
+ */
 @Component
 public class FeignInterceptor implements RequestInterceptor {
 
-    private final HttpServletRequest request;
-
-    public FeignInterceptor(HttpServletRequest request) {
-        this.request = request;
-    }
-
     @Override
     public void apply(RequestTemplate template) {
-        String token = request.getHeader(HttpHeaders.AUTHORIZATION);
-
-        if (token != null && token.startsWith("Bearer ")) {
-            template.header(HttpHeaders.AUTHORIZATION, token);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getCredentials() instanceof String token && !token.isBlank()) {
+            template.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
         }
     }
-}
\ No newline at end of file
+}
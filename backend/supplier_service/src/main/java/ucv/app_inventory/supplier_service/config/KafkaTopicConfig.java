@@ -0,0 +1,20 @@
+package ucv.app_inventory.supplier_service.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    /**
+     * Supplier events are keyed by supplier ID and compacted, so a consumer reading the
+     * topic from the beginning always rebuilds the full, current list of suppliers.
+     */
+    @Bean
+    public NewTopic supplierEventsTopic(@Value("${supplier.events.topic:supplier-events}") String topic) {
+        return TopicBuilder.name(topic).partitions(1).compact().build();
+    }
+}
@@ -14,6 +14,7 @@ import ucv.app_inventory.supplier_service.application.dto.SupplierDTO;
 import ucv.app_inventory.supplier_service.domain.model.Supplier;
 import ucv.app_inventory.supplier_service.domain.model.SupplierState;
 
+import java.util.List;
 import java.util.Optional;
 
 @RestController
@@ -55,6 +56,11 @@ public class SupplierController {
         return supplier.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
+    @PostMapping("/getByIds")
+    public ResponseEntity<List<Supplier>> findByIds(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(supplierFindUseCase.findByIds(ids));
+    }
+
     @PostMapping("/create")
     public ResponseEntity<Supplier> createSupplier(@Valid @RequestBody SupplierDTO orderDTO) {
         Supplier createdSupplier = supplierCreateUseCase.createSupplier(orderDTO);
@@ -0,0 +1,87 @@
+package ucv.app_inventory.supplier_service.infrastructure.outbound.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ucv.app_inventory.supplier_service.application.event.SupplierChangedEvent;
+import ucv.app_inventory.supplier_service.domain.model.Supplier;
+import ucv.app_inventory.supplier_service.infrastructure.outbound.database.SupplierMySqlRepository;
+
+/**
+ * Relays supplier changes to the (log-compacted) supplier events topic.
+ * Records are keyed by supplier ID; a deletion is published as a tombstone (null value),
+ * so after compaction the topic holds exactly the current state of every supplier.
+ */
+@Component
+@RequiredArgsConstructor
+public class SupplierEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(SupplierEventPublisher.class);
+    private static final int SNAPSHOT_PAGE_SIZE = 500;
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final SupplierMySqlRepository supplierMySqlRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${supplier.events.topic:supplier-events}")
+    private String topic;
+
+    /**
+     * Publishes a change only once the transaction that produced it has committed,
+     * so consumers never see a supplier that was rolled back.
+     *
+     * @param event the supplier change.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSupplierChanged(SupplierChangedEvent event) {
+        publish(event);
+    }
+
+    /**
+     * Republishes every supplier at startup. This seeds the topic with suppliers that existed
+     * before change notifications were introduced and repairs any notification lost while
+     * the broker was unreachable; the compaction keeps only the latest record per supplier.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void publishSnapshot() {
+        Pageable pageable = PageRequest.of(0, SNAPSHOT_PAGE_SIZE, Sort.by("id"));
+        Page<Supplier> page;
+        do {
+            page = supplierMySqlRepository.findAll(pageable);
+            page.forEach(supplier -> publish(SupplierChangedEvent.upserted(supplier)));
+            pageable = page.nextPageable();
+        } while (page.hasNext());
+        logger.info("Published snapshot of {} suppliers to topic {}", page.getTotalElements(), topic);
+    }
+
+    private void publish(SupplierChangedEvent event) {
+        String key = String.valueOf(event.getId());
+        String value = event.isDeleted() ? null : toJson(event);
+        kafkaTemplate.send(topic, key, value).whenComplete((result, ex) -> {
+            if (ex != null) {
+                logger.error("Could not publish change for supplier {}: {}", key, ex.getMessage());
+            }
+        });
+    }
+
+    private String toJson(SupplierChangedEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize supplier event " + event.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package ucv.app_inventory.supplier_service.application;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import ucv.app_inventory.supplier_service.application.dto.ProductDTO;
+import ucv.app_inventory.supplier_service.application.dto.ProductSupplierDTO;
+import ucv.app_inventory.supplier_service.config.EnrichmentExecutor;
+import ucv.app_inventory.supplier_service.config.EnrichmentProperties;
+import ucv.app_inventory.supplier_service.domain.model.ProductSupplier;
+import ucv.app_inventory.supplier_service.exception.EnrichmentTimeoutException;
+import ucv.app_inventory.supplier_service.infrastructure.outbound.database.ProductSupplierMySqlRepository;
+import ucv.app_inventory.supplier_service.infrastructure.outbound.external.ProductAPIClient;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class ProductSupplierFindUseCaseTest {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 10);
+
+    private EnrichmentProperties properties;
+    private EnrichmentExecutor enrichmentExecutor;
+    private ProductAPIClient productAPIClient;
+    private ProductSupplierMySqlRepository productSupplierMySqlRepository;
+    private ProductSupplierFindUseCase productSupplierFindUseCase;
+
+    @BeforeEach
+    void setUp() {
+        properties = new EnrichmentProperties();
+        properties.setDeadline(Duration.ofSeconds(2));
+        enrichmentExecutor = new EnrichmentExecutor(properties);
+        productAPIClient = mock(ProductAPIClient.class);
+        productSupplierMySqlRepository = mock(ProductSupplierMySqlRepository.class);
+        productSupplierFindUseCase = new ProductSupplierFindUseCase(productSupplierMySqlRepository, null,
+                new ModelMapper(), productAPIClient, enrichmentExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        enrichmentExecutor.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    // Los productos de la página se consultan a la vez: cada consulta espera a que hayan empezado todas
+    @Test
+    void shouldLookUpTheProductsInParallelAndKeepTheOrderOfThePage() {
+        givenProductsOfSupplier(3L, 1L, 2L);
+        CountDownLatch allStarted = new CountDownLatch(3);
+        when(productAPIClient.getProductById(anyLong())).thenAnswer(invocation -> {
+            allStarted.countDown();
+            await(allStarted);
+            return product(invocation.getArgument(0));
+        });
+
+        Page<ProductSupplierDTO> page = productSupplierFindUseCase.findBySupplierId(5L, FIRST_PAGE);
+
+        assertEquals(List.of("Producto 3", "Producto 1", "Producto 2"),
+                page.getContent().stream().map(ProductSupplierDTO::getProduct_name).toList());
+        assertEquals(List.of(13.0, 11.0, 12.0), page.getContent().stream().map(ProductSupplierDTO::getPrice).toList());
+        assertEquals(30, page.getTotalElements());
+    }
+
+    // Al vencer el plazo se cancelan las consultas al servicio de productos, lo que interrumpe su hilo
+    @Test
+    void shouldCancelTheProductLookupsWhenTheDeadlinePasses() throws InterruptedException {
+        properties.setDeadline(Duration.ofMillis(200));
+        givenProductsOfSupplier(1L);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(productAPIClient.getProductById(1L)).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(Duration.ofSeconds(30));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return product(1L);
+        });
+
+        assertThrows(EnrichmentTimeoutException.class, () -> productSupplierFindUseCase.findBySupplierId(5L, FIRST_PAGE));
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    // Si falla la consulta de un producto se propaga su error y se cancelan las demás
+    @Test
+    void shouldRethrowTheFailureOfAProductLookupAndCancelTheOthers() throws InterruptedException {
+        givenProductsOfSupplier(1L, 2L);
+        CountDownLatch sleeping = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(productAPIClient.getProductById(1L)).thenAnswer(invocation -> {
+            // Falla cuando la otra consulta ya está en curso
+            await(sleeping);
+            throw new IllegalArgumentException("Producto 1 no encontrado");
+        });
+        when(productAPIClient.getProductById(2L)).thenAnswer(invocation -> {
+            try {
+                sleeping.countDown();
+                Thread.sleep(Duration.ofSeconds(30));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return product(2L);
+        });
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> productSupplierFindUseCase.findBySupplierId(5L, FIRST_PAGE));
+
+        assertEquals("Producto 1 no encontrado", exception.getMessage());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    // El límite del servicio de productos se comparte entre páginas y se devuelve al terminar cada consulta
+    @Test
+    void shouldNotExceedTheConcurrentCallsToTheProductService() {
+        properties.getMaxConcurrentCalls().put("product-service", 2);
+        givenProductsOfSupplier(1L, 2L, 3L, 4L, 5L, 6L);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(productAPIClient.getProductById(anyLong())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(Duration.ofMillis(20));
+            running.decrementAndGet();
+            return product(invocation.getArgument(0));
+        });
+
+        for (int round = 0; round < 2; round++) {
+            assertEquals(6, productSupplierFindUseCase.findBySupplierId(5L, FIRST_PAGE).getNumberOfElements());
+        }
+
+        assertEquals(2, maxRunning.get());
+    }
+
+    // Una consulta que no consigue turno antes del plazo falla por plazo, sin llegar al servicio de productos
+    @Test
+    void shouldTimeOutWhenNoPermitIsFreedBeforeTheDeadline() {
+        properties.setDeadline(Duration.ofMillis(200));
+        properties.getMaxConcurrentCalls().put("product-service", 1);
+        givenProductsOfSupplier(1L, 2L);
+        when(productAPIClient.getProductById(anyLong())).thenAnswer(invocation -> {
+            sleep(Duration.ofSeconds(30));
+            return product(invocation.getArgument(0));
+        });
+
+        assertThrows(EnrichmentTimeoutException.class, () -> productSupplierFindUseCase.findBySupplierId(5L, FIRST_PAGE));
+
+        verify(productAPIClient, times(1)).getProductById(anyLong());
+    }
+
+    // Cada consulta al servicio de productos ve el contexto de seguridad de la petición, para reenviar su token
+    @Test
+    void shouldLookUpTheProductsWithTheCallersSecurityContext() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("ana@maroqui.pe", "token-de-ana", null));
+        givenProductsOfSupplier(1L, 2L);
+        when(productAPIClient.getProductById(anyLong())).thenAnswer(invocation -> {
+            ProductDTO product = product(invocation.getArgument(0));
+            product.setName((String) SecurityContextHolder.getContext().getAuthentication().getCredentials());
+            return product;
+        });
+
+        Page<ProductSupplierDTO> page = productSupplierFindUseCase.findBySupplierId(5L, FIRST_PAGE);
+
+        assertEquals(List.of("token-de-ana", "token-de-ana"),
+                page.getContent().stream().map(ProductSupplierDTO::getProduct_name).toList());
+    }
+
+    private void givenProductsOfSupplier(Long... productIds) {
+        List<ProductSupplier> relations = Arrays.stream(productIds)
+                .map(productId -> new ProductSupplier(null, productId, 5L, 10.0 + productId))
+                .toList();
+        when(productSupplierMySqlRepository.findBySupplierId(5L, FIRST_PAGE))
+                .thenReturn(new PageImpl<>(relations, FIRST_PAGE, 30));
+    }
+
+    private static ProductDTO product(Long id) {
+        ProductDTO product = new ProductDTO();
+        product.setId(id);
+        product.setName("Producto " + id);
+        return product;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}